@@ -0,0 +1,237 @@
+package org.springframework.samples.petclinic.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fingerprints and precompresses the application's own static assets at build time.
+ *
+ * <p>
+ * Every file under the given directory is copied to a name that carries a hash of its
+ * content, such as {@code css/petclinic-3f2a9c0d1e4b5a67.css}. Relative {@code url(...)}
+ * references in style sheets are rewritten to the fingerprinted names first, so a style
+ * sheet's hash changes when a font or image it uses does. Text formats also get a
+ * {@code .gz} variant, and a {@code .br} variant when the {@code brotli} command is on
+ * the {@code PATH}, each kept only when it is smaller. Without {@code brotli} a warning
+ * is printed to the build's error output, since browsers that prefer brotli then get the
+ * larger gzip files. Finally the original names are mapped to the fingerprinted ones in
+ * a properties file, which {@code StaticAssetConfiguration} uses to rewrite links at run
+ * time.
+ * </p>
+ *
+ * <p>
+ * It is a single-file program, run by the build with
+ * {@code java AssetPipeline.java <assets directory> <manifest file>} after the resources
+ * are copied, so nothing of it ends up in the application. Fingerprinted files from an
+ * earlier run are deleted first.
+ * </p>
+ */
+public final class AssetPipeline {
+
+	private static final Pattern FINGERPRINTED = Pattern.compile(".+-[0-9a-f]{16}(\\.[^./]+)?(\\.gz|\\.br)?");
+
+	private static final Pattern CSS_URL = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+
+	private static final Set<String> COMPRESSIBLE = Set.of("css", "js", "svg", "eot", "ttf", "json", "txt", "xml",
+			"map", "html");
+
+	private AssetPipeline() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			throw new IllegalArgumentException("Usage: AssetPipeline <assets directory> <manifest file>");
+		}
+		Path root = Path.of(args[0]);
+		Path manifestFile = Path.of(args[1]);
+		if (!Files.isDirectory(root)) {
+			System.out.println("No static assets in " + root);
+			return;
+		}
+		List<Path> assets = new ArrayList<>();
+		try (Stream<Path> files = Files.walk(root)) {
+			for (Path file : files.filter(Files::isRegularFile).toList()) {
+				if (FINGERPRINTED.matcher(file.getFileName().toString()).matches()) {
+					Files.delete(file);
+				}
+				else {
+					assets.add(file);
+				}
+			}
+		}
+		// Style sheets last, so the files they refer to already have their names
+		assets.sort((a, b) -> Boolean.compare(isCss(a), isCss(b)));
+
+		boolean brotli = brotliAvailable();
+		if (!brotli) {
+			System.err.println("WARNING: the brotli command is not on the PATH, so no .br variants are written."
+					+ " Install it (apt-get install brotli, brew install brotli) to serve brotli-compressed assets.");
+		}
+		Map<String, String> manifest = new TreeMap<>();
+		long original = 0;
+		long compressed = 0;
+		for (Path asset : assets) {
+			byte[] content = Files.readAllBytes(asset);
+			if (isCss(asset)) {
+				content = rewriteUrls(root, asset, new String(content, StandardCharsets.UTF_8), manifest)
+					.getBytes(StandardCharsets.UTF_8);
+			}
+			Path fingerprinted = asset.resolveSibling(fingerprint(asset.getFileName().toString(), content));
+			Files.write(fingerprinted, content);
+			manifest.put(relative(root, asset), relative(root, fingerprinted));
+			if (COMPRESSIBLE.contains(extension(asset))) {
+				original += content.length;
+				compressed += gzip(fingerprinted, content);
+				if (brotli) {
+					brotli(fingerprinted, content.length);
+				}
+			}
+		}
+
+		Files.createDirectories(manifestFile.toAbsolutePath().getParent());
+		try (Writer writer = Files.newBufferedWriter(manifestFile, StandardCharsets.ISO_8859_1)) {
+			writer.write("# Generated by AssetPipeline: asset path -> fingerprinted path\n");
+			for (Map.Entry<String, String> entry : manifest.entrySet()) {
+				writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+			}
+		}
+		System.out.printf(Locale.ROOT, "Fingerprinted %d assets; text assets gzip from %d to %d bytes%s%n",
+				manifest.size(), original, compressed, brotli ? ", with brotli variants" : ", brotli not found");
+	}
+
+	/**
+	 * Points relative {@code url(...)} references at the fingerprinted files, keeping any
+	 * query or fragment, such as the {@code ?#iefix} of an EOT font.
+	 */
+	private static String rewriteUrls(Path root, Path css, String content, Map<String, String> manifest) {
+		Matcher matcher = CSS_URL.matcher(content);
+		StringBuilder rewritten = new StringBuilder();
+		while (matcher.find()) {
+			String url = matcher.group(2).trim();
+			String replacement = matcher.group();
+			int suffixAt = indexOfAny(url, '?', '#');
+			String path = url.substring(0, suffixAt);
+			if (!path.isEmpty() && !path.contains(":") && !path.startsWith("/") && !path.startsWith("//")) {
+				Path target = css.getParent().resolve(path).normalize();
+				String mapped = target.startsWith(root) ? manifest.get(relative(root, target)) : null;
+				if (mapped != null) {
+					String fileName = mapped.substring(mapped.lastIndexOf('/') + 1);
+					String newPath = path.substring(0, path.lastIndexOf('/') + 1) + fileName;
+					replacement = "url(" + matcher.group(1) + newPath + url.substring(suffixAt) + matcher.group(1)
+							+ ")";
+				}
+			}
+			matcher.appendReplacement(rewritten, Matcher.quoteReplacement(replacement));
+		}
+		matcher.appendTail(rewritten);
+		return rewritten.toString();
+	}
+
+	private static String fingerprint(String fileName, byte[] content) {
+		try {
+			String hash = HexFormat.of()
+				.formatHex(MessageDigest.getInstance("SHA-256").digest(content))
+				.substring(0, 16);
+			int dot = fileName.lastIndexOf('.');
+			return (dot > 0) ? fileName.substring(0, dot) + "-" + hash + fileName.substring(dot)
+					: fileName + "-" + hash;
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static long gzip(Path file, byte[] content) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length);
+		try (OutputStream out = new GZIPOutputStream(bytes) {
+			{
+				this.def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			out.write(content);
+		}
+		if (bytes.size() >= content.length) {
+			return content.length;
+		}
+		Files.write(file.resolveSibling(file.getFileName() + ".gz"), bytes.toByteArray());
+		return bytes.size();
+	}
+
+	private static void brotli(Path file, long length) throws IOException {
+		Path target = file.resolveSibling(file.getFileName() + ".br");
+		run("brotli", "--best", "--force", "--output=" + target, file.toString());
+		if (Files.size(target) >= length) {
+			Files.delete(target);
+		}
+	}
+
+	private static boolean brotliAvailable() {
+		try {
+			run("brotli", "--version");
+			return true;
+		}
+		catch (IOException | UncheckedIOException ex) {
+			return false;
+		}
+	}
+
+	private static void run(String... command) throws IOException {
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+			.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+			.start();
+		try {
+			if (process.waitFor() != 0) {
+				throw new IOException(String.join(" ", command) + " failed");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException(ex);
+		}
+	}
+
+	private static boolean isCss(Path file) {
+		return extension(file).equals("css");
+	}
+
+	private static String extension(Path file) {
+		String name = file.getFileName().toString();
+		return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+	}
+
+	private static String relative(Path root, Path file) {
+		return root.relativize(file).toString().replace('\\', '/');
+	}
+
+	private static int indexOfAny(String value, char... characters) {
+		int index = value.length();
+		for (char character : characters) {
+			int at = value.indexOf(character);
+			if (at >= 0 && at < index) {
+				index = at;
+			}
+		}
+		return index;
+	}
+
+}
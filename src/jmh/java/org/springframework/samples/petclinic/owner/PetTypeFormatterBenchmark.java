@@ -0,0 +1,79 @@
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for {@link PetTypeFormatter#parse}, which binds the pet type of every pet
+ * form submission. The repository is an in-memory stand-in returning the six seeded
+ * types, so this measures the lookup itself rather than the query behind it; the
+ * {@code first} and {@code last} cases pick the type found first and last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetTypeFormatterBenchmark {
+
+	private static final List<String> NAMES = List.of("bird", "cat", "dog", "hamster", "lizard", "snake");
+
+	@Param({ "first", "last" })
+	public String position;
+
+	private PetTypeFormatter formatter;
+
+	private String text;
+
+	@Setup
+	public void setUp() {
+		List<PetType> types = new ArrayList<>();
+		for (int i = 0; i < NAMES.size(); i++) {
+			PetType type = new PetType();
+			type.setId(i + 1);
+			type.setName(NAMES.get(i));
+			types.add(type);
+		}
+		PetTypeRepository repository = (PetTypeRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { PetTypeRepository.class }, (proxy, method, args) -> {
+					if (method.getName().equals("findPetTypes")) {
+						return types;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		this.formatter = new PetTypeFormatter(repository);
+		this.text = "first".equals(this.position) ? NAMES.get(0) : NAMES.get(NAMES.size() - 1);
+	}
+
+	@Benchmark
+	public PetType parse() throws ParseException {
+		return this.formatter.parse(this.text, Locale.ENGLISH);
+	}
+
+	public static void main(String[] args) throws IOException {
+		String[] options = new String[args.length + 1];
+		options[0] = PetTypeFormatterBenchmark.class.getSimpleName();
+		System.arraycopy(args, 0, options, 1, args.length);
+		Main.main(options);
+	}
+
+}
@@ -0,0 +1,119 @@
+package org.springframework.samples.petclinic.patriot;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for the Patriot Thanks domain methods that run for every business or
+ * incentive on a page: slug generation, the incentive's discount text and validity, the
+ * {@link IncentiveDTO} built from it, the address line and the Gravatar URL. The
+ * {@code amount} case formats a fixed discount and the {@code percentage} case a
+ * percentage one, with a matching business name and address.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatriotDomainBenchmark {
+
+	@Param({ "percentage", "amount" })
+	public String discount;
+
+	private String name;
+
+	private String email;
+
+	private Incentive incentive;
+
+	private Address address;
+
+	@Setup
+	public void setUp() {
+		boolean percentage = "percentage".equals(this.discount);
+		this.name = percentage ? "Hy-Vee Fast & Fresh" : "Perkins American Food Co.";
+		this.email = " Veteran.Smith@Example.com ";
+
+		IncentiveType type = new IncentiveType();
+		type.setId(1);
+		type.setName("Veterans");
+		this.incentive = new Incentive();
+		this.incentive.setId(1);
+		this.incentive.setTitle("Veterans Day discount");
+		this.incentive.setDescription("Off any meal with a valid military ID");
+		if (percentage) {
+			this.incentive.setDiscountPercentage(new BigDecimal("10.00"));
+		}
+		else {
+			this.incentive.setDiscountAmount(new BigDecimal("5"));
+		}
+		this.incentive.setStartDate(LocalDate.now().minusDays(30));
+		this.incentive.setEndDate(LocalDate.now().plusDays(30));
+		this.incentive.setIncentiveTypes(List.of(type));
+
+		UsState iowa = new UsState();
+		iowa.setCode("IA");
+		iowa.setName("Iowa");
+		this.address = new Address();
+		this.address.setStreetAddress("1 Main St.");
+		this.address.setAddressLine2(percentage ? "Suite 100" : null);
+		this.address.setCity("Cedar Rapids");
+		this.address.setState(iowa);
+		this.address.setZipCode("52402");
+	}
+
+	@Benchmark
+	public String toSlug() {
+		return Business.toSlug(this.name);
+	}
+
+	@Benchmark
+	public String formattedDiscount() {
+		return this.incentive.getFormattedDiscount();
+	}
+
+	@Benchmark
+	public boolean currentlyValid() {
+		return this.incentive.isCurrentlyValid();
+	}
+
+	@Benchmark
+	public IncentiveDTO incentiveDto() {
+		return new IncentiveDTO(this.incentive);
+	}
+
+	@Benchmark
+	public String fullAddress() {
+		return this.address.getFullAddress();
+	}
+
+	@Benchmark
+	public String gravatarUrl() {
+		return Gravatar.url(this.email);
+	}
+
+	public static void main(String[] args) throws IOException {
+		String[] options = new String[args.length + 1];
+		options[0] = PatriotDomainBenchmark.class.getSimpleName();
+		System.arraycopy(args, 0, options, 1, args.length);
+		Main.main(options);
+	}
+
+}
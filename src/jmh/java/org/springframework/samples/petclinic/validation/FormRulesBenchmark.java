@@ -0,0 +1,80 @@
+package org.springframework.samples.petclinic.validation;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.Main;
+
+/**
+ * JMH benchmark comparing {@link FormRules} with the {@code String.matches} and
+ * {@code replaceAll} calls the profile controllers used to make, on the fields of one
+ * profile update. Run it with the other benchmarks through the {@code jmh} Maven profile
+ * or Gradle task, or alone by starting {@link #main} from the IDE, passing JMH options
+ * such as {@code -prof gc} to see the allocation rate as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormRulesBenchmark {
+
+	@Param({ "valid", "invalid" })
+	public String input;
+
+	private String email;
+
+	private String password;
+
+	private String zip;
+
+	private String phone;
+
+	@Setup
+	public void setUp() {
+		boolean valid = "valid".equals(this.input);
+		this.email = valid ? "veteran.smith+thanks@example.com" : "veteran smith@example.com";
+		this.password = valid ? "Semper-Fi-1775" : "semperfidelis";
+		this.zip = valid ? "52402-1234" : "5240A";
+		this.phone = valid ? "+1 (319) 555-0100" : "319-555-01OO";
+	}
+
+	@Benchmark
+	public void regex(Blackhole blackhole) {
+		blackhole.consume(this.email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$"));
+		blackhole.consume(this.password.matches("^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$"));
+		blackhole.consume(this.zip.matches("^\\d{5}(-\\d{4})?$"));
+		blackhole.consume(this.phone.matches("^(?:\\+\\d{1,3}\\s?)?\\(?\\d{3}\\)?[\\s.-]?\\d{3}[\\s.-]?\\d{4}$"));
+		blackhole.consume(this.phone.replaceAll("\\D", ""));
+	}
+
+	@Benchmark
+	public void formRules(Blackhole blackhole) {
+		blackhole.consume(FormRules.isEmail(this.email));
+		blackhole.consume(FormRules.isStrongPassword(this.password));
+		blackhole.consume(FormRules.isZipCode(this.zip));
+		blackhole.consume(FormRules.isNorthAmericanPhone(this.phone));
+		blackhole.consume(FormRules.digitsOnly(this.phone));
+	}
+
+	public static void main(String[] args) throws IOException {
+		String[] options = new String[args.length + 1];
+		options[0] = FormRulesBenchmark.class.getSimpleName();
+		System.arraycopy(args, 0, options, 1, args.length);
+		Main.main(options);
+	}
+
+}
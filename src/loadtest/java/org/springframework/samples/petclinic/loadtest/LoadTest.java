@@ -0,0 +1,99 @@
+package org.springframework.samples.petclinic.loadtest;
+
+import java.io.File;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.samples.petclinic.PetClinicApplication;
+import org.springframework.samples.petclinic.loadtest.OpenLoopDriver.RouteStats;
+
+/**
+ * Load-tests the whole request path: boots the application on a random port against an
+ * in-memory H2 database, generates a dataset with {@link LoadTestData}, drives the
+ * {@link Scenario scenarios} with an {@link OpenLoopDriver} and writes a
+ * {@link LoadTestReport} named after the commit.
+ *
+ * <p>
+ * Run it with {@code ./mvnw -Pload-test -DskipTests verify} or
+ * {@code ./gradlew loadTest}. Options, as {@code --name=value} arguments:
+ * </p>
+ * <ul>
+ * <li>{@code warmup} and {@code duration}: how long to run before and while recording
+ * (default {@code 20s} and {@code 60s})</li>
+ * <li>{@code rate-scale}: multiplies every scenario's arrival rate (default 1)</li>
+ * <li>{@code data-scale}: dataset size, in units of 100 businesses, 10 schools and 100
+ * users (default 10)</li>
+ * <li>{@code seed}: seeds the dataset, arrivals and request parameters (default 42)</li>
+ * <li>{@code max-in-flight}: outstanding requests above which arrivals are dropped
+ * (default 300: Tomcat's 200 request threads and its accept queue of 100, as each
+ * outstanding request holds a platform thread on Java 17)</li>
+ * <li>{@code out}: the directory the report is written to (default
+ * {@code target/load-test})</li>
+ * <li>{@code baseline}: a report from another run to compare with</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = options(args);
+		Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "20s"));
+		Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+		double rateScale = Double.parseDouble(options.getOrDefault("rate-scale", "1"));
+		int dataScale = Integer.parseInt(options.getOrDefault("data-scale", "10"));
+		long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+		int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "300"));
+		File out = new File(options.getOrDefault("out", "target/load-test"));
+		File baseline = options.containsKey("baseline") ? new File(options.get("baseline")) : null;
+
+		Map<String, Object> settings = new LinkedHashMap<>();
+		settings.put("warmupSeconds", warmup.toSeconds());
+		settings.put("durationSeconds", duration.toSeconds());
+		settings.put("rateScale", rateScale);
+		settings.put("dataScale", dataScale);
+		settings.put("seed", seed);
+		settings.put("maxInFlight", maxInFlight);
+
+		// DevTools restarts main() with the application's arguments unless disabled here
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PetClinicApplication.class)
+			.run("--server.port=0", "--spring.main.banner-mode=off", "--spring.docker.compose.enabled=false",
+					// The driver has its own warm-up phase
+					"--petclinic.warmup.enabled=false", "--logging.level.root=WARN",
+					"--logging.level.org.springframework=WARN", "--logging.level.org.hibernate.tool.schema=ERROR",
+					"--logging.level.org.springframework.samples.petclinic.system.SqlStatementFilter=ERROR")) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			LoadTestData data = LoadTestData.generate(context, dataScale, seed);
+			List<Scenario> scenarios = Scenario.all(data, rateScale);
+			Map<String, RouteStats> stats = new OpenLoopDriver(URI.create("http://localhost:" + port), maxInFlight)
+				.run(scenarios, warmup, duration, seed);
+
+			LoadTestReport report = new LoadTestReport(settings, stats);
+			File file = new File(out, report.commit() + ".json");
+			report.write(file);
+			report.print(System.out, baseline);
+			System.out.println("Report written to " + file.getAbsolutePath());
+		}
+	}
+
+	private static Map<String, String> options(String[] args) {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value but got " + arg);
+			}
+			options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+		}
+		return options;
+	}
+
+}
@@ -0,0 +1,65 @@
+package org.springframework.samples.petclinic.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.samples.petclinic.school.SchoolDomainIndex;
+import org.springframework.samples.petclinic.system.SyntheticDataset;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * The dataset a load test runs against, generated by {@link SyntheticDataset} into the
+ * running application's database from a fixed seed, so every run and every commit sees
+ * the same rows. Keeps the slugs, IDs and logins the scenarios pick from.
+ */
+final class LoadTestData {
+
+	static final String PASSWORD = "Load-Test-2024";
+
+	final List<String> businessSlugs = new ArrayList<>();
+
+	final List<Integer> businessIds = new ArrayList<>();
+
+	final List<Integer> schoolIds = new ArrayList<>();
+
+	final List<String> schoolSlugs = new ArrayList<>();
+
+	final List<String> userEmails = new ArrayList<>();
+
+	private LoadTestData() {
+	}
+
+	/**
+	 * Generates the dataset.
+	 * @param context the running application
+	 * @param scale how many rows to create: {@code 100} businesses, {@code 10} schools
+	 * and {@code 100} users per unit
+	 * @param seed the seed the dataset is generated from
+	 * @return the generated keys
+	 */
+	static LoadTestData generate(ApplicationContext context, int scale, long seed) {
+		NamedParameterJdbcTemplate jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+		new SyntheticDataset(jdbcTemplate, context.getBean(PlatformTransactionManager.class), 1000).generate(
+				new SyntheticDataset.Size(scale * 100, scale * 10, scale * 100), seed,
+				context.getBean(PasswordEncoder.class).encode(PASSWORD));
+		context.getBean(SchoolDomainIndex.class).invalidate();
+
+		LoadTestData data = new LoadTestData();
+		jdbcTemplate.query("SELECT id, slug FROM businesses WHERE deleted_at IS NULL ORDER BY id", Map.of(), rs -> {
+			data.businessIds.add(rs.getInt("id"));
+			data.businessSlugs.add(rs.getString("slug"));
+		});
+		jdbcTemplate.query("SELECT id, domain FROM schools ORDER BY id", Map.of(), rs -> {
+			String domain = rs.getString("domain");
+			data.schoolIds.add(rs.getInt("id"));
+			data.schoolSlugs.add(domain.substring(0, domain.length() - ".edu".length()));
+		});
+		data.userEmails.addAll(jdbcTemplate.queryForList("SELECT email FROM users ORDER BY id", Map.of(), String.class));
+		return data;
+	}
+
+}
@@ -0,0 +1,145 @@
+package org.springframework.samples.petclinic.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.samples.petclinic.loadtest.OpenLoopDriver.RouteStats;
+
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The result of a load test as a JSON document: the commit and machine it ran on, its
+ * settings, and per route the request counts, throughput and latency percentiles in
+ * milliseconds. Each route's histograms are included in HdrHistogram's compressed,
+ * Base64-encoded form, so two reports can be merged or plotted with the HdrHistogram
+ * tools. Given a baseline report from another run, the console summary shows how each
+ * route's percentiles moved.
+ */
+final class LoadTestReport {
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private static final String[] PERCENTILE_KEYS = { "p50", "p90", "p99", "p999" };
+
+	private static final JsonMapper json = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+
+	private final Map<String, Object> document = new LinkedHashMap<>();
+
+	LoadTestReport(Map<String, Object> settings, Map<String, RouteStats> stats) {
+		Properties git = git();
+		this.document.put("commit", git.getProperty("git.commit.id.abbrev", "unknown"));
+		this.document.put("dirty", Boolean.parseBoolean(git.getProperty("git.dirty", "false")));
+		this.document.put("timestamp", Instant.now().toString());
+		this.document.put("java", System.getProperty("java.version"));
+		this.document.put("cpus", Runtime.getRuntime().availableProcessors());
+		this.document.put("settings", settings);
+		Map<String, Object> routes = new LinkedHashMap<>();
+		stats.forEach((route, routeStats) -> routes.put(route, route(routeStats)));
+		this.document.put("routes", routes);
+	}
+
+	String commit() {
+		return (String) this.document.get("commit");
+	}
+
+	void write(File file) throws IOException {
+		file.getParentFile().mkdirs();
+		json.writeValue(file, this.document);
+	}
+
+	/**
+	 * Prints a table of each route's throughput and response-time percentiles, with the
+	 * change from the baseline in brackets when one is given.
+	 * @param out where to print
+	 * @param baseline an earlier report to compare with, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	void print(PrintStream out, File baseline) throws IOException {
+		Map<String, Object> baseRoutes = (baseline != null)
+				? (Map<String, Object>) json.readValue(baseline, Map.class).get("routes") : Map.of();
+		out.printf(Locale.ROOT, "%-42s %8s %7s %7s %16s %16s %16s%n", "route", "req/s", "errors", "dropped",
+				"p50 ms", "p99 ms", "max ms");
+		((Map<String, Object>) this.document.get("routes")).forEach((route, value) -> {
+			Map<String, Object> current = (Map<String, Object>) value;
+			Map<String, Object> base = (Map<String, Object>) baseRoutes.get(route);
+			out.printf(Locale.ROOT, "%-42s %8.1f %7d %7d %16s %16s %16s%n", route, current.get("throughput"),
+					current.get("errors"), current.get("dropped"), compare(current, base, "p50"),
+					compare(current, base, "p99"), compare(current, base, "max"));
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String compare(Map<String, Object> current, Map<String, Object> base, String key) {
+		if (((Number) current.get("requests")).longValue() == 0) {
+			return "-";
+		}
+		double value = ((Number) ((Map<String, Object>) current.get("responseTime")).get(key)).doubleValue();
+		if (base == null) {
+			return String.format(Locale.ROOT, "%.1f", value);
+		}
+		double before = ((Number) ((Map<String, Object>) base.get("responseTime")).get(key)).doubleValue();
+		if (before == 0) {
+			return String.format(Locale.ROOT, "%.1f", value);
+		}
+		return String.format(Locale.ROOT, "%.1f (%+.0f%%)", value, (value - before) * 100 / before);
+	}
+
+	private static Map<String, Object> route(RouteStats stats) {
+		Map<String, Object> route = new LinkedHashMap<>();
+		long requests = stats.responseTime.getTotalCount();
+		route.put("requests", requests);
+		route.put("errors", stats.errors.sum());
+		route.put("dropped", stats.dropped.sum());
+		route.put("throughput", round(requests / stats.seconds));
+		route.put("responseTime", latencies(stats.responseTime));
+		route.put("serviceTime", latencies(stats.serviceTime));
+		return route;
+	}
+
+	private static Map<String, Object> latencies(Histogram histogram) {
+		Map<String, Object> latencies = new LinkedHashMap<>();
+		latencies.put("mean", millis(histogram.getMean()));
+		for (int i = 0; i < PERCENTILES.length; i++) {
+			latencies.put(PERCENTILE_KEYS[i], millis(histogram.getValueAtPercentile(PERCENTILES[i])));
+		}
+		latencies.put("max", millis(histogram.getMaxValue()));
+		ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+		int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+		latencies.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+		return latencies;
+	}
+
+	private static double millis(double micros) {
+		return round(micros / 1000);
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+
+	private static Properties git() {
+		Properties properties = new Properties();
+		try (InputStream in = LoadTestReport.class.getResourceAsStream("/git.properties")) {
+			if (in != null) {
+				properties.load(in);
+			}
+		}
+		catch (IOException ex) {
+			// Reported as an unknown commit
+		}
+		return properties;
+	}
+
+}
@@ -0,0 +1,184 @@
+package org.springframework.samples.petclinic.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Sends the scenarios' requests at their arrival rates, whether or not earlier requests
+ * have completed, and records each route's latencies.
+ *
+ * <p>
+ * Arrivals are a Poisson process per scenario, scheduled from a fixed seed. Each request
+ * starts a new thread, so a slow server does not slow the arrivals down. On this
+ * project's Java 17 that is a platform thread per request; only a Java 21 or later JVM
+ * runs them on virtual threads. Response time is measured from when a request was due
+ * to start, which counts the queueing a closed-loop client would hide; service time is
+ * measured from when it actually started. Requests due while more than
+ * {@code maxInFlight} are outstanding are not sent and are counted as dropped.
+ * </p>
+ */
+final class OpenLoopDriver {
+
+	private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+	private final HttpClient client;
+
+	private final SimpleAsyncTaskExecutor executor;
+
+	private final URI base;
+
+	private final int maxInFlight;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	OpenLoopDriver(URI base, int maxInFlight) {
+		this.base = base;
+		this.maxInFlight = maxInFlight;
+		this.executor = new SimpleAsyncTaskExecutor("load-");
+		this.executor.setVirtualThreads(JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE));
+		this.client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+	}
+
+	/**
+	 * Runs the scenarios for a warm-up period, whose requests are not recorded, and then
+	 * for the measured period.
+	 * @param scenarios the scenarios to run together
+	 * @param warmup how long to run before recording
+	 * @param duration how long to record for
+	 * @param seed the seed for arrival times and request parameters
+	 * @return the statistics per route, in scenario order
+	 */
+	Map<String, RouteStats> run(List<Scenario> scenarios, Duration warmup, Duration duration, long seed) {
+		Map<String, RouteStats> stats = new LinkedHashMap<>();
+		scenarios.forEach(scenario -> stats.put(scenario.route(), new RouteStats()));
+		Random random = new Random(seed);
+		long start = System.nanoTime();
+		long measureFrom = start + warmup.toNanos();
+		long end = measureFrom + duration.toNanos();
+
+		PriorityQueue<Arrival> arrivals = new PriorityQueue<>();
+		for (Scenario scenario : scenarios) {
+			if (scenario.ratePerSecond() > 0) {
+				arrivals.add(new Arrival(start + interval(scenario, random), scenario));
+			}
+		}
+		while (!arrivals.isEmpty()) {
+			Arrival next = arrivals.poll();
+			if (next.due() >= end) {
+				continue;
+			}
+			long wait = next.due() - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			RouteStats route = stats.get(next.scenario().route());
+			boolean recorded = next.due() >= measureFrom;
+			if (this.inFlight.get() >= this.maxInFlight) {
+				if (recorded) {
+					route.dropped.increment();
+				}
+			}
+			else {
+				send(next, route, recorded, new Random(random.nextLong()));
+			}
+			arrivals.add(new Arrival(next.due() + interval(next.scenario(), random), next.scenario()));
+		}
+		awaitInFlight();
+		stats.values().forEach(route -> route.seconds = duration.toNanos() / 1e9);
+		return stats;
+	}
+
+	private void send(Arrival arrival, RouteStats route, boolean recorded, Random random) {
+		this.inFlight.incrementAndGet();
+		this.executor.execute(() -> {
+			long started = System.nanoTime();
+			boolean success;
+			try {
+				HttpResponse<Void> response = this.client
+					.send(arrival.scenario().request().apply(this.base, random), HttpResponse.BodyHandlers.discarding());
+				success = arrival.scenario().success().test(response);
+			}
+			catch (Exception ex) {
+				success = false;
+			}
+			finally {
+				this.inFlight.decrementAndGet();
+			}
+			long finished = System.nanoTime();
+			if (recorded) {
+				route.responseTime.recordValue(Math.min(micros(finished - arrival.due()), HIGHEST_MICROS));
+				route.serviceTime.recordValue(Math.min(micros(finished - started), HIGHEST_MICROS));
+				if (!success) {
+					route.errors.increment();
+				}
+			}
+		});
+	}
+
+	private void awaitInFlight() {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+		while (this.inFlight.get() > 0 && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+		}
+	}
+
+	private static long interval(Scenario scenario, Random random) {
+		// Exponential inter-arrival times make a Poisson process
+		double seconds = -Math.log(1.0 - random.nextDouble()) / scenario.ratePerSecond();
+		return (long) (seconds * 1e9);
+	}
+
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	/**
+	 * A request due at a point in time, in {@link System#nanoTime()} terms.
+	 */
+	private record Arrival(long due, Scenario scenario) implements Comparable<Arrival> {
+
+		@Override
+		public int compareTo(Arrival other) {
+			return Long.compare(this.due, other.due);
+		}
+
+	}
+
+	/**
+	 * The latencies, in microseconds, and outcome counts of one route.
+	 */
+	static final class RouteStats {
+
+		final Histogram responseTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+
+		final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+
+		final LongAdder errors = new LongAdder();
+
+		final LongAdder dropped = new LongAdder();
+
+		double seconds;
+
+	}
+
+}
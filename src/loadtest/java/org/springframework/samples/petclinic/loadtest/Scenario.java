@@ -0,0 +1,100 @@
+package org.springframework.samples.petclinic.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * One kind of request a load test sends, at its own arrival rate.
+ *
+ * @param route the route the latencies are reported under, such as
+ * {@code GET /businesses/{slug}}
+ * @param ratePerSecond the mean number of requests started per second
+ * @param request builds the next request from the base URI and a random source
+ * @param success tells whether a response counts as a success
+ */
+record Scenario(String route, double ratePerSecond, BiFunction<URI, Random, HttpRequest> request,
+		Predicate<HttpResponse<?>> success) {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	/**
+	 * The scripted scenarios: anonymous business browsing and detail views, the
+	 * incentive AJAX call, a login storm, student registration and the school pages.
+	 * @param data the dataset to pick keys from
+	 * @param rateScale multiplies every scenario's default rate
+	 * @return the scenarios
+	 */
+	static List<Scenario> all(LoadTestData data, double rateScale) {
+		AtomicLong registrations = new AtomicLong();
+		return List.of(
+				new Scenario("GET /businesses", 20 * rateScale,
+						(base, random) -> get(base, "/businesses?page=" + (1 + random.nextInt(10))), ok()),
+				new Scenario("GET /businesses/{slug}", 20 * rateScale,
+						(base, random) -> get(base, "/businesses/" + pick(data.businessSlugs, random)), ok()),
+				new Scenario("GET /businesses/{businessId}/incentives", 20 * rateScale,
+						(base, random) -> HttpRequest
+							.newBuilder(base.resolve("/businesses/" + pick(data.businessIds, random) + "/incentives"))
+							.header("Accept", "application/json")
+							.timeout(TIMEOUT)
+							.build(),
+						ok()),
+				new Scenario("POST /login", 5 * rateScale,
+						(base, random) -> post(base, "/login",
+								Map.of("email", pick(data.userEmails, random), "password", LoadTestData.PASSWORD)),
+						redirectNotTo("error")),
+				new Scenario("POST /register-student", 2 * rateScale, (base, random) -> {
+					long n = registrations.incrementAndGet();
+					return post(base, "/register-student",
+							Map.of("firstName", "New", "lastName", "Student " + n, "email",
+									"new.student." + n + "." + random.nextInt(1_000_000) + "@"
+											+ pick(data.schoolSlugs, random) + ".edu",
+									"password", LoadTestData.PASSWORD));
+				}, redirectNotTo("register")),
+				new Scenario("GET /schools", 10 * rateScale, (base, random) -> get(base, "/schools"), ok()),
+				new Scenario("GET /schools/{schoolId}", 10 * rateScale,
+						(base, random) -> get(base, "/schools/" + pick(data.schoolIds, random)), ok()),
+				new Scenario("GET /schools/{slug}", 10 * rateScale,
+						(base, random) -> get(base, "/schools/" + pick(data.schoolSlugs, random)), ok()));
+	}
+
+	private static HttpRequest get(URI base, String path) {
+		return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).build();
+	}
+
+	private static HttpRequest post(URI base, String path, Map<String, String> form) {
+		String body = form.entrySet()
+			.stream()
+			.map(field -> field.getKey() + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+			.collect(Collectors.joining("&"));
+		return HttpRequest.newBuilder(base.resolve(path))
+			.header("Content-Type", "application/x-www-form-urlencoded")
+			.timeout(TIMEOUT)
+			.POST(HttpRequest.BodyPublishers.ofString(body))
+			.build();
+	}
+
+	private static <T> T pick(List<T> values, Random random) {
+		return values.get(random.nextInt(values.size()));
+	}
+
+	private static Predicate<HttpResponse<?>> ok() {
+		return response -> response.statusCode() == 200;
+	}
+
+	private static Predicate<HttpResponse<?>> redirectNotTo(String marker) {
+		return response -> response.statusCode() == 302
+				&& !response.headers().firstValue("Location").orElse(marker).contains(marker);
+	}
+
+}
@@ -0,0 +1,200 @@
+package org.springframework.samples.petclinic.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Measures how quickly the packaged application starts in three modes: plain, with the
+ * AOT-generated initialization code ({@code -Dspring.aot.enabled=true}), and with that
+ * code plus a class-data-sharing archive recorded by a {@code TrainingRun}.
+ *
+ * <p>
+ * The jar is extracted first, since the JVM only shares classes loaded from plain jar
+ * files. Each mode is started {@code runs} times on a free port against the in-memory H2
+ * database. Time to ready is measured from the launch until the readiness probe answers
+ * {@code 200}, with the warm-up turned off so that it measures start-up alone, and time
+ * to first request until the welcome page has been served after that. The medians and
+ * every run are printed and written as JSON.
+ * </p>
+ *
+ * <p>
+ * Run it with {@code ./mvnw -Paot,startup-benchmark -DskipTests verify} or
+ * {@code ./gradlew startupBenchmark}. Options, as {@code --name=value} arguments:
+ * {@code jar}, the Spring Boot jar built with AOT processing (required); {@code runs}
+ * (default 5); and {@code out} (default {@code target/startup-benchmark}).
+ * </p>
+ */
+public final class StartupBenchmark {
+
+	private static final String TRAINING_ROUTES = "/,/pricing,/vets.html,/owners?lastName=,/owners/1,/businesses,"
+			+ "/businesses/1,/businesses/1/incentives,/schools,/schools/1,/login,/register-student,/patriot/login";
+
+	private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+	private static final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	private StartupBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value but got " + arg);
+			}
+			options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+		}
+		if (!options.containsKey("jar")) {
+			throw new IllegalArgumentException("--jar=<Spring Boot jar> is required");
+		}
+		File jar = new File(options.get("jar"));
+		int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+		File out = new File(options.getOrDefault("out", "target/startup-benchmark"));
+
+		File application = new File(out, "application");
+		run(List.of(java(), "-Djarmode=tools", "-jar", jar.getAbsolutePath(), "extract", "--force", "--destination",
+				application.getAbsolutePath()), new File(out, "extract.log"));
+		File extracted = new File(application, jar.getName());
+		File archive = new File(out, "application.jsa");
+		List<String> training = new ArrayList<>(List.of(java(), "-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath(),
+				"-Dspring.aot.enabled=true", "-jar", extracted.getAbsolutePath()));
+		training.addAll(applicationArguments(0));
+		training.addAll(List.of("--petclinic.training.routes=" + TRAINING_ROUTES, "--petclinic.dataset.businesses=100",
+				"--petclinic.dataset.schools=3", "--petclinic.dataset.users=10"));
+		run(training, new File(out, "training.log"));
+
+		Map<String, List<String>> modes = new LinkedHashMap<>();
+		modes.put("plain", List.of());
+		modes.put("aot", List.of("-Dspring.aot.enabled=true"));
+		modes.put("aot+cds",
+				List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive.getAbsolutePath()));
+
+		Map<String, Object> results = new LinkedHashMap<>();
+		System.out.printf(Locale.ROOT, "%-10s %18s %26s%n", "mode", "ready ms (median)", "first request ms (median)");
+		for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+			long[] ready = new long[runs];
+			long[] firstRequest = new long[runs];
+			for (int i = 0; i < runs; i++) {
+				long[] times = start(extracted, mode.getValue(), new File(out, mode.getKey() + "-" + i + ".log"));
+				ready[i] = times[0];
+				firstRequest[i] = times[1];
+			}
+			Map<String, Object> result = new LinkedHashMap<>();
+			result.put("readyMillis", median(ready));
+			result.put("firstRequestMillis", median(firstRequest));
+			result.put("readyRuns", ready);
+			result.put("firstRequestRuns", firstRequest);
+			results.put(mode.getKey(), result);
+			System.out.printf(Locale.ROOT, "%-10s %18d %26d%n", mode.getKey(), median(ready), median(firstRequest));
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("java", System.getProperty("java.version"));
+		report.put("cpus", Runtime.getRuntime().availableProcessors());
+		report.put("jar", jar.getName());
+		report.put("runs", runs);
+		report.put("modes", results);
+		File file = new File(out, "startup-benchmark.json");
+		JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file, report);
+		System.out.println("Report written to " + file.getAbsolutePath());
+	}
+
+	/**
+	 * Starts the application and returns the milliseconds until it was ready and until
+	 * its first page was served.
+	 */
+	private static long[] start(File jar, List<String> jvmOptions, File log) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(java());
+		command.addAll(jvmOptions);
+		command.addAll(List.of("-jar", jar.getAbsolutePath()));
+		command.addAll(applicationArguments(port));
+		URI base = URI.create("http://localhost:" + port);
+		long launched = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+			.redirectOutput(log)
+			.directory(jar.getParentFile())
+			.start();
+		try {
+			long deadline = launched + TIMEOUT.toNanos();
+			while (status(base.resolve("/actuator/health/readiness")) != 200) {
+				if (!process.isAlive() || System.nanoTime() > deadline) {
+					throw new IllegalStateException("The application did not become ready; see " + log);
+				}
+				Thread.sleep(10);
+			}
+			long ready = System.nanoTime();
+			if (status(base.resolve("/")) != 200) {
+				throw new IllegalStateException("The welcome page failed; see " + log);
+			}
+			long served = System.nanoTime();
+			return new long[] { TimeUnit.NANOSECONDS.toMillis(ready - launched),
+					TimeUnit.NANOSECONDS.toMillis(served - launched) };
+		}
+		finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	private static List<String> applicationArguments(int port) {
+		return List.of("--server.port=" + port, "--spring.main.banner-mode=off",
+				"--management.endpoint.health.probes.enabled=true", "--petclinic.warmup.enabled=false",
+				"--logging.level.root=WARN");
+	}
+
+	private static int status(URI uri) throws InterruptedException {
+		try {
+			return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+				.statusCode();
+		}
+		catch (IOException ex) {
+			return -1;
+		}
+	}
+
+	private static void run(List<String> command, File log) throws IOException, InterruptedException {
+		log.getParentFile().mkdirs();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+		if (!process.waitFor(TIMEOUT.toSeconds(), TimeUnit.SECONDS) || process.exitValue() != 0) {
+			process.destroyForcibly();
+			throw new IllegalStateException(String.join(" ", command) + " failed; see " + log);
+		}
+	}
+
+	private static String java() {
+		return ProcessHandle.current().info().command().orElse("java");
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static long median(long[] values) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+}
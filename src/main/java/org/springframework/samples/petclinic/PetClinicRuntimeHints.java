@@ -16,22 +16,85 @@
 
 package org.springframework.samples.petclinic;
 
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
 import org.springframework.aot.hint.RuntimeHints;
 import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
 import org.springframework.samples.petclinic.model.BaseEntity;
 import org.springframework.samples.petclinic.model.Person;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
+import org.springframework.samples.petclinic.patriot.Address;
+import org.springframework.samples.petclinic.patriot.Business;
+import org.springframework.samples.petclinic.patriot.BusinessLocation;
+import org.springframework.samples.petclinic.patriot.BusinessType;
+import org.springframework.samples.petclinic.patriot.Incentive;
+import org.springframework.samples.petclinic.patriot.IncentiveDTO;
+import org.springframework.samples.petclinic.patriot.IncentiveType;
+import org.springframework.samples.petclinic.patriot.PatriotRole;
+import org.springframework.samples.petclinic.patriot.PatriotUser;
+import org.springframework.samples.petclinic.patriot.UsState;
+import org.springframework.samples.petclinic.school.Location;
+import org.springframework.samples.petclinic.school.LocationSummary;
+import org.springframework.samples.petclinic.school.RosterImportReport;
+import org.springframework.samples.petclinic.school.School;
+import org.springframework.samples.petclinic.school.SchoolDomain;
+import org.springframework.samples.petclinic.school.SchoolSummary;
+import org.springframework.samples.petclinic.school.Subscription;
+import org.springframework.samples.petclinic.system.CompactPrincipal;
+import org.springframework.samples.petclinic.user.LoginRequest;
+import org.springframework.samples.petclinic.user.PlayerCard;
+import org.springframework.samples.petclinic.user.Role;
+import org.springframework.samples.petclinic.user.User;
 import org.springframework.samples.petclinic.vet.Vet;
 
 public class PetClinicRuntimeHints implements RuntimeHintsRegistrar {
 
+	/**
+	 * The Patriot Thanks, school and user entities. Hibernate reads their fields and soft
+	 * delete annotations reflectively, and the templates call their Lombok-generated
+	 * getters through SpEL.
+	 */
+	private static final Class<?>[] ENTITIES = { Address.class, Business.class, Business.BusinessStatus.class,
+			BusinessLocation.class, BusinessLocation.LocationStatus.class, BusinessType.class, Incentive.class,
+			IncentiveType.class, PatriotRole.class, PatriotUser.class, UsState.class, Location.class,
+			Location.LocationStatus.class, School.class, School.SchoolStatus.class, Subscription.class, Role.class,
+			User.class };
+
+	/**
+	 * Types bound from forms, written as JSON or created by {@code SELECT new} queries
+	 * and read by the templates.
+	 */
+	private static final Class<?>[] BOUND_TYPES = { IncentiveDTO.class, LoginRequest.class, PlayerCard.class,
+			LocationSummary.class, SchoolSummary.class, SchoolDomain.class, RosterImportReport.class,
+			OwnerSummary.class };
+
 	@Override
 	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
 		hints.resources().registerPattern("db/*"); // https://github.com/spring-projects/spring-boot/issues/32654
+		hints.resources().registerPattern("db/*/*");
 		hints.resources().registerPattern("messages/*");
+		hints.resources().registerPattern("templates/**");
+		hints.resources().registerPattern("META-INF/asset-manifest.properties");
 		hints.resources().registerPattern("mysql-default-conf");
 		hints.serialization().registerType(BaseEntity.class);
 		hints.serialization().registerType(Person.class);
 		hints.serialization().registerType(Vet.class);
+		hints.serialization().registerType(CompactPrincipal.class);
+		hints.serialization().registerType(TypeReference.of(CompactPrincipal.class.getName() + "$SerializedForm"));
+		for (Class<?> entity : ENTITIES) {
+			hints.reflection()
+				.registerType(entity, MemberCategory.ACCESS_DECLARED_FIELDS,
+						MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+		}
+		hints.reflection().registerType(SQLDelete.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+		hints.reflection().registerType(SQLRestriction.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+		new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BOUND_TYPES);
+		for (Class<?> type : BOUND_TYPES) {
+			hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+		}
 	}
 
 }
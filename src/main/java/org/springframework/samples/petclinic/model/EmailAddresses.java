@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.model;
+
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Helpers for the normalized email identity shared by the AthLeagues and Patriot Thanks
+ * user tables.
+ *
+ * <p>
+ * Each user row stores its email as typed plus an {@code email_normalized} copy with a
+ * unique index. Lookups go through the normalized column, so they are case-insensitive
+ * without a {@code LOWER(email)} scan. Duplicates are caught by the index at insert or
+ * update time instead of being checked with a separate query first.
+ * </p>
+ */
+public final class EmailAddresses {
+
+	/** Suffix shared by the unique indexes on the normalized email columns. */
+	private static final String NORMALIZED_COLUMN = "email_normalized";
+
+	private EmailAddresses() {
+	}
+
+	/**
+	 * Normalizes an email address for storage in, and lookups against, the
+	 * {@code email_normalized} column.
+	 * @param email the email address as entered, may be {@code null}
+	 * @return the trimmed, lower-cased address, or {@code null} if {@code email} is
+	 * {@code null}
+	 */
+	public static String normalize(String email) {
+		return (email != null) ? email.trim().toLowerCase(Locale.ROOT) : null;
+	}
+
+	/**
+	 * Tells whether a failed insert or update was rejected because the email address is
+	 * already taken.
+	 * @param ex the exception thrown by the repository
+	 * @return {@code true} if the unique index on the normalized email was violated
+	 */
+	public static boolean isDuplicate(DataIntegrityViolationException ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException violation) {
+				String name = violation.getConstraintName();
+				if (name != null) {
+					return name.toLowerCase(Locale.ROOT).contains(NORMALIZED_COLUMN);
+				}
+				return violation.getKind() == ConstraintKind.UNIQUE;
+			}
+		}
+		return false;
+	}
+
+}
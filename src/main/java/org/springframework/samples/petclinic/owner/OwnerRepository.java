@@ -15,11 +15,14 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.Locale;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 
 /**
  * Repository class for <code>Owner</code> domain objects. All method names are compliant
@@ -44,6 +47,38 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 */
 	Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable);
 
+	/**
+	 * Retrieve one page of search results for owners whose last name <i>starts</i> with
+	 * the given name, ignoring case. Unlike {@link #findByLastNameStartingWith}, this
+	 * loads no {@link Pet}s or {@link Visit}s: each page is one query plus a count,
+	 * however long the owners' visit history.
+	 * @param lastName Value to search for
+	 * @param pageable the page to load
+	 * @return the page of matching owners, by last name
+	 */
+	default Page<OwnerSummary> findSummariesByLastNameStartingWith(String lastName, Pageable pageable) {
+		return findSummaries(EscapeCharacter.DEFAULT.escape(lastName.toLowerCase(Locale.ROOT)) + "%", pageable);
+	}
+
+	/**
+	 * Retrieve owner search results whose lower-cased last name matches a {@code LIKE}
+	 * pattern, escaped with a backslash. Used by
+	 * {@link #findSummariesByLastNameStartingWith}; the indexed {@code last_name_lower}
+	 * column makes a prefix pattern a range scan.
+	 * @param pattern the lower-case pattern
+	 * @param pageable the page to load
+	 * @return the page of matching owners, by last name
+	 */
+	@Query(value = """
+			SELECT new org.springframework.samples.petclinic.owner.OwnerSummary(o.id, o.firstName, o.lastName,
+			o.address, o.city, o.telephone, LISTAGG(p.name, ', ') WITHIN GROUP (ORDER BY p.name))
+			FROM Owner o LEFT JOIN o.pets p
+			WHERE o.lastNameLower LIKE :pattern ESCAPE '\\'
+			GROUP BY o.id, o.firstName, o.lastName, o.address, o.city, o.telephone, o.lastNameLower
+			ORDER BY o.lastNameLower, o.id""",
+			countQuery = "SELECT COUNT(o) FROM Owner o WHERE o.lastNameLower LIKE :pattern ESCAPE '\\'")
+	Page<OwnerSummary> findSummaries(String pattern, Pageable pageable);
+
 	/**
 	 * Retrieve an {@link Owner} from the data store by id.
 	 * <p>
@@ -0,0 +1,19 @@
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * One row of the owner search results: the owner's own fields and the names of their
+ * pets, without the pets' visit history.
+ *
+ * @param id the owner ID
+ * @param firstName the first name
+ * @param lastName the last name
+ * @param address the street address
+ * @param city the city
+ * @param telephone the telephone number
+ * @param petNames the pet names by name, comma separated, or {@code null} if the owner
+ * has no pets
+ */
+public record OwnerSummary(Integer id, String firstName, String lastName, String address, String city, String telephone,
+		String petNames) {
+
+}
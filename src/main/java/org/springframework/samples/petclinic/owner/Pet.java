@@ -26,7 +26,6 @@ import org.springframework.samples.petclinic.model.NamedEntity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -53,11 +52,21 @@ public class Pet extends NamedEntity {
 	@JoinColumn(name = "type_id")
 	private PetType type;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-	@JoinColumn(name = "pet_id")
+	@OneToMany(mappedBy = "pet", cascade = CascadeType.ALL)
 	@OrderBy("date ASC")
 	private final Set<Visit> visits = new LinkedHashSet<>();
 
+	/**
+	 * Number of visits, kept by {@link VisitRepository#book} in the database. Saving a
+	 * pet never writes it, so editing a pet cannot overwrite a count raised in the
+	 * meantime.
+	 */
+	@Column(name = "visit_count", updatable = false)
+	private int visitCount;
+
+	@Column(name = "last_visit_date", updatable = false)
+	private LocalDate lastVisitDate;
+
 	public void setBirthDate(LocalDate birthDate) {
 		this.birthDate = birthDate;
 	}
@@ -74,12 +83,39 @@ public class Pet extends NamedEntity {
 		this.type = type;
 	}
 
+	/**
+	 * Returns every visit, oldest first. The visits are loaded on first access; use
+	 * {@link VisitRepository} to read a page of them instead.
+	 * @return the visits of this pet
+	 */
 	public Collection<Visit> getVisits() {
 		return this.visits;
 	}
 
+	/**
+	 * Adds a visit to the loaded visits without changing the visit count or last visit
+	 * date; book new visits with {@link VisitRepository#book} instead.
+	 * @param visit the visit to add
+	 */
 	public void addVisit(Visit visit) {
+		visit.setPet(this);
 		getVisits().add(visit);
 	}
 
+	/**
+	 * Returns how many visits this pet has had, without loading them.
+	 * @return the number of visits
+	 */
+	public int getVisitCount() {
+		return this.visitCount;
+	}
+
+	/**
+	 * Returns the date of the most recent visit, without loading the visits.
+	 * @return the last visit date, or {@code null} if the pet has had no visits
+	 */
+	public LocalDate getLastVisitDate() {
+		return this.lastVisitDate;
+	}
+
 }
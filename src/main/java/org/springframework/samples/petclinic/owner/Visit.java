@@ -22,6 +22,9 @@ import org.springframework.samples.petclinic.model.BaseEntity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 
@@ -42,6 +45,10 @@ public class Visit extends BaseEntity {
 	@NotBlank
 	private String description;
 
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "pet_id")
+	private Pet pet;
+
 	/**
 	 * Creates a new instance of Visit for the current date
 	 */
@@ -65,4 +72,12 @@ public class Visit extends BaseEntity {
 		this.description = description;
 	}
 
+	Pet getPet() {
+		return this.pet;
+	}
+
+	void setPet(Pet pet) {
+		this.pet = pet;
+	}
+
 }
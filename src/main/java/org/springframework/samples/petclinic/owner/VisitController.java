@@ -15,9 +15,12 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
@@ -26,6 +29,7 @@ import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import jakarta.validation.Valid;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -41,10 +45,15 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @Controller
 class VisitController {
 
+	static final int VISITS_PER_PAGE = 20;
+
 	private final OwnerRepository owners;
 
-	public VisitController(OwnerRepository owners) {
+	private final VisitRepository visits;
+
+	public VisitController(OwnerRepository owners, VisitRepository visits) {
 		this.owners = owners;
+		this.visits = visits;
 	}
 
 	@InitBinder
@@ -73,32 +82,52 @@ class VisitController {
 		}
 		model.put("pet", pet);
 		model.put("owner", owner);
-
-		Visit visit = new Visit();
-		pet.addVisit(visit);
-		return visit;
+		return new Visit();
 	}
 
 	// Spring MVC calls method loadPetWithVisit(...) before initNewVisitForm is
 	// called
 	@GetMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String initNewVisitForm() {
+	public String initNewVisitForm(Map<String, Object> model) {
+		addRecentVisits(model);
 		return "pets/createOrUpdateVisitForm";
 	}
 
+	/**
+	 * Shows a pet's visits a page at a time, most recent first.
+	 * @param page the page number, starting at 1
+	 * @param model the model, holding the pet loaded by {@link #loadPetWithVisit}
+	 * @return the timeline view
+	 */
+	@GetMapping("/owners/{ownerId}/pets/{petId}/visits")
+	public String showVisitTimeline(@RequestParam(defaultValue = "1") int page, Map<String, Object> model) {
+		Pet pet = (Pet) model.get("pet");
+		Page<Visit> timeline = this.visits.findTimeline(pet, PageRequest.of(Math.max(page, 1) - 1, VISITS_PER_PAGE));
+		model.put("currentPage", timeline.getNumber() + 1);
+		model.put("totalPages", timeline.getTotalPages());
+		model.put("timeline", timeline.getContent());
+		return "pets/visitTimeline";
+	}
+
 	// Spring MVC calls method loadPetWithVisit(...) before processNewVisitForm is
 	// called
 	@PostMapping("/owners/{ownerId}/pets/{petId}/visits/new")
 	public String processNewVisitForm(@ModelAttribute Owner owner, @PathVariable int petId, @Valid Visit visit,
-			BindingResult result, RedirectAttributes redirectAttributes) {
+			BindingResult result, RedirectAttributes redirectAttributes, Map<String, Object> model) {
 		if (result.hasErrors()) {
+			addRecentVisits(model);
 			return "pets/createOrUpdateVisitForm";
 		}
 
-		owner.addVisit(petId, visit);
-		this.owners.save(owner);
+		this.visits.book(owner.getPet(petId), visit);
 		redirectAttributes.addFlashAttribute("message", "Your visit has been booked");
 		return "redirect:/owners/{ownerId}";
 	}
 
+	private void addRecentVisits(Map<String, Object> model) {
+		Pet pet = (Pet) model.get("pet");
+		model.put("recentVisits",
+				(pet.getVisitCount() > 0) ? this.visits.findTop3ByPetIdOrderByDateDescIdDesc(pet.getId()) : List.of());
+	}
+
 }
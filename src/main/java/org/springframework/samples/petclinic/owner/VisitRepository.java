@@ -0,0 +1,120 @@
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for {@link Visit}s, read a page at a time rather than through
+ * {@link Pet#getVisits()}, which loads a pet's whole history.
+ */
+public interface VisitRepository extends Repository<Visit, Integer> {
+
+	Visit save(Visit visit);
+
+	/**
+	 * Books a visit for a pet and updates the pet's {@link Pet#getVisitCount() visit
+	 * count} and {@link Pet#getLastVisitDate() last visit date} in the same transaction,
+	 * without loading the pet's other visits.
+	 * @param pet the pet being seen
+	 * @param visit the new visit
+	 * @return the saved visit
+	 */
+	@Transactional
+	default Visit book(Pet pet, Visit visit) {
+		visit.setPet(pet);
+		Visit saved = save(visit);
+		countVisit(pet.getId(), visit.getDate());
+		return saved;
+	}
+
+	/**
+	 * Loads one page of a pet's visits, most recent first. The total comes from the pet's
+	 * visit count, so no count query is run.
+	 * @param pet the pet
+	 * @param pageable the page to load; its sort is ignored
+	 * @return the page of visits
+	 */
+	@Transactional(readOnly = true)
+	default Page<Visit> findTimeline(Pet pet, Pageable pageable) {
+		return new PageImpl<>(findByPetIdOrderByDateDescIdDesc(pet.getId(), pageable), pageable, pet.getVisitCount());
+	}
+
+	@Transactional(readOnly = true)
+	List<Visit> findByPetIdOrderByDateDescIdDesc(Integer petId, Pageable pageable);
+
+	/**
+	 * Loads the three most recent visits of a pet.
+	 * @param petId the pet ID
+	 * @return up to three visits, most recent first
+	 */
+	@Transactional(readOnly = true)
+	List<Visit> findTop3ByPetIdOrderByDateDescIdDesc(Integer petId);
+
+	/**
+	 * Loads the three most recent visits of each of several pets with a single query.
+	 * Pets without visits are not queried.
+	 * @param pets the pets, such as an owner's
+	 * @return up to three visits per pet ID, most recent first, with an entry for every
+	 * pet
+	 */
+	@Transactional(readOnly = true)
+	default Map<Integer, List<Visit>> findRecentByPet(Collection<Pet> pets) {
+		Map<Integer, List<Visit>> recent = new HashMap<>();
+		List<Integer> visited = new ArrayList<>();
+		for (Pet pet : pets) {
+			recent.put(pet.getId(), new ArrayList<>());
+			if (pet.getVisitCount() > 0) {
+				visited.add(pet.getId());
+			}
+		}
+		if (!visited.isEmpty()) {
+			findTop3ByPetIdIn(visited).forEach((visit) -> recent.get(visit.getPet().getId()).add(visit));
+		}
+		return recent;
+	}
+
+	/**
+	 * Loads the three most recent visits of each pet, numbering each pet's visits with a
+	 * window function so the database returns no more rows than are shown.
+	 * @param petIds the pet IDs
+	 * @return the visits, grouped by pet and most recent first within each pet
+	 */
+	@Transactional(readOnly = true)
+	@Query(nativeQuery = true, value = """
+			SELECT id, pet_id, visit_date, description FROM (
+			SELECT v.id, v.pet_id, v.visit_date, v.description,
+			ROW_NUMBER() OVER (PARTITION BY v.pet_id ORDER BY v.visit_date DESC, v.id DESC) AS visit_rank
+			FROM visits v WHERE v.pet_id IN (:petIds)) recent
+			WHERE visit_rank <= 3
+			ORDER BY pet_id, visit_date DESC, id DESC""")
+	List<Visit> findTop3ByPetIdIn(Collection<Integer> petIds);
+
+	/**
+	 * Adds one visit to a pet's visit count and moves its last visit date forward if
+	 * {@code date} is later. Used by {@link #book}; a single update, so concurrent
+	 * bookings are all counted.
+	 * @param petId the pet ID
+	 * @param date the date of the new visit
+	 * @return the number of pets updated
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("""
+			UPDATE Pet p SET p.visitCount = p.visitCount + 1,
+			p.lastVisitDate = CASE WHEN p.lastVisitDate IS NULL OR p.lastVisitDate < :date THEN :date
+			ELSE p.lastVisitDate END
+			WHERE p.id = :petId""")
+	int countVisit(Integer petId, LocalDate date);
+
+}
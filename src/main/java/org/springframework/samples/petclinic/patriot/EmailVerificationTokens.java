@@ -0,0 +1,86 @@
+package org.springframework.samples.petclinic.patriot;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+import org.springframework.samples.petclinic.system.SignedCookieCodec;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues and checks the tokens in the email verification links sent to new Patriot Thanks
+ * users.
+ *
+ * <p>
+ * Tokens are signed with {@link SignedCookieCodec}, so nothing has to be stored: the
+ * token itself carries the user ID, the email address it was issued for and its expiry. A
+ * token only verifies the address it was issued for, so it stops working if the user
+ * changes their email in the meantime.
+ * </p>
+ */
+@Component
+public class EmailVerificationTokens {
+
+	/** Distinguishes verification tokens from other values signed with the same keys. */
+	private static final String PURPOSE = "verify-email";
+
+	private final SignedCookieCodec codec;
+
+	private final Duration timeToLive;
+
+	/**
+	 * Constructs a new {@code EmailVerificationTokens}.
+	 * @param codec the codec used to sign and verify tokens
+	 * @param timeToLive how long a verification link stays valid
+	 */
+	public EmailVerificationTokens(SignedCookieCodec codec,
+			@Value("${patriot.email-verification.ttl:48h}") Duration timeToLive) {
+		this.codec = codec;
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Issues a token for the given user and email address.
+	 * @param userId the user's ID
+	 * @param email the email address to verify
+	 * @return a URL-safe token
+	 */
+	public String issue(Integer userId, String email) {
+		return this.codec.encode(PURPOSE + "|" + userId + "|" + EmailAddresses.normalize(email), this.timeToLive);
+	}
+
+	/**
+	 * Checks a token from a verification link.
+	 * @param token the token, may be {@code null}
+	 * @return the user ID and email address the token was issued for, or
+	 * {@link Optional#empty()} if the token is invalid or expired
+	 */
+	public Optional<Verification> verify(String token) {
+		Optional<String> value = this.codec.decode(token);
+		if (value.isEmpty()) {
+			return Optional.empty();
+		}
+		String[] parts = value.get().split("\\|", 3);
+		if (parts.length != 3 || !parts[0].equals(PURPOSE)) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(new Verification(Integer.valueOf(parts[1]), parts[2]));
+		}
+		catch (NumberFormatException ex) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * The claims carried by a valid verification token.
+	 *
+	 * @param userId the user's ID
+	 * @param email the normalized email address being verified
+	 */
+	public record Verification(Integer userId, String email) {
+
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.springframework.samples.petclinic.patriot;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Builds Gravatar avatar URLs for Patriot Thanks users.
+ *
+ * <p>
+ * The URL is constructed by MD5-hashing the trimmed, lower-cased email and appending it
+ * to the Gravatar base URL. The {@code d=identicon} parameter causes Gravatar to generate
+ * a unique geometric placeholder image for users who have not registered a Gravatar
+ * account, ensuring the avatar is never blank.
+ * </p>
+ *
+ * @see PatriotRegistrationPipeline
+ * @see PatriotProfileController
+ */
+public final class Gravatar {
+
+	private Gravatar() {
+	}
+
+	/**
+	 * Computes a Gravatar avatar URL for the given email address.
+	 * @param email the user's email address
+	 * @return a fully-formed Gravatar URL string, or {@code null} if hashing fails
+	 */
+	public static String url(String email) {
+		try {
+			String normalized = email.trim().toLowerCase(Locale.ROOT);
+			MessageDigest md = MessageDigest.getInstance("MD5");
+			byte[] hashBytes = md.digest(normalized.getBytes(StandardCharsets.UTF_8));
+			return "https://www.gravatar.com/avatar/" + HexFormat.of().formatHex(hashBytes) + "?d=identicon&s=200";
+		}
+		catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+}
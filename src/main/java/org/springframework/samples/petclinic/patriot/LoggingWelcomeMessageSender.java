@@ -0,0 +1,25 @@
+package org.springframework.samples.petclinic.patriot;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for a real {@link WelcomeMessageSender} that writes the welcome message,
+ * including the email verification link, to the application log. Active unless
+ * {@code patriot.welcome.sender} is set to something other than {@code log}.
+ */
+@Component
+@ConditionalOnProperty(name = "patriot.welcome.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingWelcomeMessageSender implements WelcomeMessageSender {
+
+	private static final Log logger = LogFactory.getLog(LoggingWelcomeMessageSender.class);
+
+	@Override
+	public void sendWelcome(String email, String firstName, String verificationUrl) {
+		logger.info("Welcome to Patriot Thanks, " + firstName + " <" + email + ">. Verify your email address: "
+				+ verificationUrl);
+	}
+
+}
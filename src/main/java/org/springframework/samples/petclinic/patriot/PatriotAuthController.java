@@ -2,17 +2,14 @@ package org.springframework.samples.petclinic.patriot;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+import org.springframework.samples.petclinic.system.SignedFlashCookies;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
-import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -34,15 +31,17 @@ import java.util.Map;
  * including registration, login, login redirection, and account deletion.
  *
  * <p>
- * All routes are prefixed with {@code /patriot} and use the Patriot Thanks-specific
- * {@link AuthenticationManager} backed by the {@code patriot_users} table. This
+ * All routes are prefixed with {@code /patriot} and authenticate against the
+ * {@code patriot_users} table through {@link PatriotUserDetailsServiceImpl}. This
  * controller is completely independent from the AthLeagues {@code AuthController}.
  * </p>
  *
  * <p>
- * After successful registration, the controller captures the raw password before hashing,
- * saves the user via {@link PatriotUserService}, auto-logs the user in, and redirects to
- * the business listings page with a welcome message.
+ * After successful registration, the controller saves the user via
+ * {@link PatriotUserService}, auto-logs the user in without a second password check, and
+ * redirects to the business listings page with a welcome message. Avatar seeding and the
+ * welcome email run afterwards in {@link PatriotRegistrationPipeline}; the link in that
+ * email is handled by {@link #verifyEmail}.
  * </p>
  *
  * <p>
@@ -63,9 +62,11 @@ public class PatriotAuthController {
 
 	private final PatriotUserRepository patriotUserRepository;
 
-	private final AuthenticationManager patriotAuthenticationManager;
+	private final EmailVerificationTokens verificationTokens;
 
-	private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+	private final SecurityContextRepository securityContextRepository;
+
+	private final SignedFlashCookies flashCookies;
 
 	@Value("${turnstile.site-key:1x00000000000000000000AA}")
 	private String turnstileSiteKey;
@@ -77,13 +78,19 @@ public class PatriotAuthController {
 	 * Constructs a new {@code PatriotAuthController} with the required dependencies.
 	 * @param patriotUserService the service for Patriot Thanks user registration
 	 * @param patriotUserRepository the repository for Patriot Thanks user lookups
-	 * @param patriotAuthenticationManager the Patriot Thanks authentication manager
+	 * @param verificationTokens the checker for email verification links
+	 * @param securityContextRepository the repository that persists the auto-login (HTTP
+	 * session or signed cookie)
+	 * @param flashCookies the helper for reading the last failed login email
 	 */
 	public PatriotAuthController(PatriotUserService patriotUserService, PatriotUserRepository patriotUserRepository,
-			@Qualifier("patriotAuthenticationManager") AuthenticationManager patriotAuthenticationManager) {
+			EmailVerificationTokens verificationTokens, SecurityContextRepository securityContextRepository,
+			SignedFlashCookies flashCookies) {
 		this.patriotUserService = patriotUserService;
 		this.patriotUserRepository = patriotUserRepository;
-		this.patriotAuthenticationManager = patriotAuthenticationManager;
+		this.verificationTokens = verificationTokens;
+		this.securityContextRepository = securityContextRepository;
+		this.flashCookies = flashCookies;
 	}
 
 	/**
@@ -150,8 +157,8 @@ public class PatriotAuthController {
 	 * @param turnstileToken the Cloudflare Turnstile response token from the form
 	 * @param model the {@link Model} for re-rendering the form on errors
 	 * @param redirectAttributes the {@link RedirectAttributes} for flash messages
-	 * @param request the {@link HttpServletRequest} for session persistence
-	 * @param response the {@link HttpServletResponse} for session persistence
+	 * @param request the {@link HttpServletRequest} for security context persistence
+	 * @param response the {@link HttpServletResponse} for security context persistence
 	 * @return a redirect to the business listings or the registration form on errors
 	 */
 	@PostMapping("/register")
@@ -179,24 +186,25 @@ public class PatriotAuthController {
 			return "patriot/auth/patriotRegisterForm";
 		}
 
-		// 3. Capture the raw password before hashing
-		String rawPassword = patriotUser.getPassword();
-
-		// 4. Save the user
+		// 3. Save the user
+		PatriotUser savedUser;
 		try {
-			patriotUserService.registerNewUser(patriotUser);
+			savedUser = patriotUserService.registerNewUser(patriotUser);
 		}
-		catch (RuntimeException ex) {
+		catch (DataIntegrityViolationException ex) {
+			// The unique index on the normalized email rejects duplicates
+			if (!EmailAddresses.isDuplicate(ex)) {
+				throw ex;
+			}
 			result.rejectValue("email", "duplicateEmail", "This email is already registered.");
 			model.addAttribute("turnstileSiteKey", turnstileSiteKey);
 			return "patriot/auth/patriotRegisterForm";
 		}
 
-		// 5. Auto-login after registration
+		// 4. Auto-login after registration; the password was just hashed, so there is
+		// nothing to check
 		try {
-			UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-					patriotUser.getEmail(), rawPassword);
-			Authentication authentication = patriotAuthenticationManager.authenticate(authToken);
+			Authentication authentication = PatriotUserDetailsServiceImpl.authenticated(savedUser);
 
 			SecurityContext context = SecurityContextHolder.createEmptyContext();
 			context.setAuthentication(authentication);
@@ -209,7 +217,7 @@ public class PatriotAuthController {
 			return "redirect:/patriot/login";
 		}
 
-		// 6. Redirect to business listings with welcome message
+		// 5. Redirect to business listings with welcome message
 		redirectAttributes.addFlashAttribute("messageSuccess", "Welcome to Patriot Thanks, "
 				+ patriotUser.getFirstName() + "! Your account has been created successfully.");
 		return "redirect:/businesses";
@@ -221,21 +229,18 @@ public class PatriotAuthController {
 
 	/**
 	 * Displays the Patriot Thanks login form. If a previous login attempt failed, the
-	 * email address is pre-populated from the session.
+	 * email address is pre-populated from the signed {@code PATRIOT_LAST_EMAIL} cookie.
 	 * @param model the {@link Model} to populate with the login form data
-	 * @param session the {@link HttpSession} for retrieving the last failed email
+	 * @param request the {@link HttpServletRequest} carrying the cookie
+	 * @param response the {@link HttpServletResponse} used to clear the cookie
 	 * @return the view name for the Patriot Thanks login template
 	 */
 	@GetMapping("/login")
-	public String showLoginForm(Model model, HttpSession session) {
+	public String showLoginForm(Model model, HttpServletRequest request, HttpServletResponse response) {
 		PatriotUser user = new PatriotUser();
 
 		// Pre-populate the email if a previous attempt failed
-		String lastEmail = (String) session.getAttribute("PATRIOT_LAST_EMAIL");
-		if (lastEmail != null) {
-			user.setEmail(lastEmail);
-			session.removeAttribute("PATRIOT_LAST_EMAIL");
-		}
+		flashCookies.consume(request, response, "PATRIOT_LAST_EMAIL").ifPresent(user::setEmail);
 
 		model.addAttribute("patriotUser", user);
 		model.addAttribute("turnstileSiteKey", turnstileSiteKey);
@@ -255,6 +260,33 @@ public class PatriotAuthController {
 		return "redirect:/businesses";
 	}
 
+	// ========================================================================
+	// EMAIL VERIFICATION
+	// ========================================================================
+
+	/**
+	 * Handles the verification link from the welcome email. A valid, unexpired token
+	 * marks the user's email address as verified, as long as the user has not changed
+	 * their address since the link was sent.
+	 * @param token the signed token from the link
+	 * @param redirectAttributes the {@link RedirectAttributes} for flash messages
+	 * @return a redirect to the business listings page
+	 */
+	@GetMapping("/verify-email")
+	public String verifyEmail(@RequestParam(name = "token", required = false) String token,
+			RedirectAttributes redirectAttributes) {
+		boolean verified = verificationTokens.verify(token)
+			.map(claim -> patriotUserRepository.markEmailVerified(claim.userId(), claim.email()) > 0)
+			.orElse(false);
+		if (verified) {
+			redirectAttributes.addFlashAttribute("messageSuccess", "Thank you! Your email address has been verified.");
+		}
+		else {
+			redirectAttributes.addFlashAttribute("messageDanger", "This verification link is invalid or has expired.");
+		}
+		return "redirect:/businesses";
+	}
+
 	// ========================================================================
 	// TURNSTILE VERIFICATION
 	// ========================================================================
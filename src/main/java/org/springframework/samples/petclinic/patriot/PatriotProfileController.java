@@ -3,6 +3,9 @@ package org.springframework.samples.petclinic.patriot;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+import org.springframework.samples.petclinic.validation.FormRules;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,15 +13,13 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.Principal;
 import java.time.LocalDateTime;
 
@@ -52,9 +53,10 @@ import java.time.LocalDateTime;
  *
  * <p>
  * Note: {@code @Valid} is intentionally NOT used on the POST method because the
- * {@link PatriotUser} entity has {@code @NotEmpty} and {@code @Pattern} constraints on
- * the password field, which would incorrectly reject blank passwords on the profile form.
- * Password validation is performed manually only when a new password is provided.
+ * {@link PatriotUser} entity has {@code @NotEmpty} and {@code @StrongPassword}
+ * constraints on the password field, which would incorrectly reject blank passwords on
+ * the profile form. Password validation is performed manually, with the same
+ * {@link FormRules}, only when a new password is provided.
  * </p>
  *
  * @author Edward McKeown
@@ -71,50 +73,24 @@ public class PatriotProfileController {
 
 	private final UserDetailsService patriotUserDetailsService;
 
+	private final SecurityContextRepository securityContextRepository;
+
 	/**
 	 * Constructs a new {@code PatriotProfileController} with the required dependencies.
 	 * @param patriotUserRepository the repository for Patriot Thanks user persistence
 	 * @param passwordEncoder the encoder for hashing new passwords
 	 * @param patriotUserDetailsService the Patriot Thanks user details service for
 	 * reloading user details after email changes
+	 * @param securityContextRepository the repository that persists the refreshed
+	 * security context after an email change
 	 */
 	public PatriotProfileController(PatriotUserRepository patriotUserRepository, PasswordEncoder passwordEncoder,
-			@Qualifier("patriotUserDetailsService") UserDetailsService patriotUserDetailsService) {
+			@Qualifier("patriotUserDetailsService") UserDetailsService patriotUserDetailsService,
+			SecurityContextRepository securityContextRepository) {
 		this.patriotUserRepository = patriotUserRepository;
 		this.passwordEncoder = passwordEncoder;
 		this.patriotUserDetailsService = patriotUserDetailsService;
-	}
-
-	// ========================================================================
-	// GRAVATAR UTILITY
-	// ========================================================================
-
-	/**
-	 * Computes a Gravatar avatar URL for the given email address.
-	 *
-	 * <p>
-	 * The URL is constructed by MD5-hashing the trimmed, lower-cased email and appending
-	 * it to the Gravatar base URL. The {@code d=identicon} parameter causes Gravatar to
-	 * generate a unique geometric placeholder image for users who have not registered a
-	 * Gravatar account, ensuring the avatar is never blank.
-	 * </p>
-	 * @param email the user's email address
-	 * @return a fully-formed Gravatar URL string, or {@code null} if hashing fails
-	 */
-	private String buildGravatarUrl(String email) {
-		try {
-			String normalized = email.trim().toLowerCase();
-			MessageDigest md = MessageDigest.getInstance("MD5");
-			byte[] hashBytes = md.digest(normalized.getBytes(StandardCharsets.UTF_8));
-			StringBuilder hex = new StringBuilder();
-			for (byte b : hashBytes) {
-				hex.append(String.format("%02x", b));
-			}
-			return "https://www.gravatar.com/avatar/" + hex + "?d=identicon&s=200";
-		}
-		catch (NoSuchAlgorithmException e) {
-			return null;
-		}
+		this.securityContextRepository = securityContextRepository;
 	}
 
 	// ========================================================================
@@ -142,9 +118,10 @@ public class PatriotProfileController {
 		PatriotUser user = patriotUserRepository.findByEmail(email)
 			.orElseThrow(() -> new RuntimeException("User not found"));
 
-		// Seed Gravatar URL if it has never been set
+		// Seed Gravatar URL if it has never been set (new users are normally seeded by
+		// PatriotRegistrationPipeline already)
 		if (user.getAvatarUrl() == null || user.getAvatarUrl().isBlank()) {
-			user.setAvatarUrl(buildGravatarUrl(user.getEmail()));
+			user.setAvatarUrl(Gravatar.url(user.getEmail()));
 			patriotUserRepository.save(user);
 		}
 
@@ -152,11 +129,7 @@ public class PatriotProfileController {
 		user.setPassword("");
 
 		// Format the 10-digit database phone number for display
-		String phone = user.getPhone();
-		if (phone != null && phone.length() == 10) {
-			String formattedPhone = phone.replaceFirst("(\\d{3})(\\d{3})(\\d{4})", "($1) $2-$3");
-			user.setPhone(formattedPhone);
-		}
+		user.setPhone(FormRules.formatPhone(user.getPhone()));
 
 		model.addAttribute("patriotUser", user);
 		return "patriot/patriotProfile";
@@ -183,7 +156,8 @@ public class PatriotProfileController {
 	 * <ul>
 	 * <li>Validates that first name and last name are not blank</li>
 	 * <li>Validates that email is not blank and is a valid format</li>
-	 * <li>Checks for duplicate emails only if the user is changing their email</li>
+	 * <li>Rejects an email address that is already taken when the unique index on the
+	 * normalized email refuses the update</li>
 	 * <li>Validates password strength manually only if a new password was entered</li>
 	 * <li>Validates zip code format if one is provided (5-digit or ZIP+4)</li>
 	 * <li>Normalizes the phone number by stripping all non-digit characters</li>
@@ -194,11 +168,16 @@ public class PatriotProfileController {
 	 * @param result the {@link BindingResult} containing validation errors
 	 * @param principal the {@link Principal} representing the logged-in user
 	 * @param redirectAttributes the {@link RedirectAttributes} for flash messages
+	 * @param request the {@link HttpServletRequest} used to persist a refreshed security
+	 * context
+	 * @param response the {@link HttpServletResponse} used to persist a refreshed
+	 * security context
 	 * @return a redirect to the profile page on success, or the form view on errors
 	 */
 	@PostMapping("/profile")
 	public String processProfileUpdate(@ModelAttribute("patriotUser") PatriotUser updatedUser, BindingResult result,
-			Principal principal, RedirectAttributes redirectAttributes) {
+			Principal principal, RedirectAttributes redirectAttributes, HttpServletRequest request,
+			HttpServletResponse response) {
 
 		String currentEmail = principal.getName();
 		PatriotUser currentUser = patriotUserRepository.findByEmail(currentEmail)
@@ -215,62 +194,55 @@ public class PatriotProfileController {
 		if (updatedUser.getEmail() == null || updatedUser.getEmail().trim().isEmpty()) {
 			result.rejectValue("email", "NotEmpty", "Email is required");
 		}
-		else if (!updatedUser.getEmail().matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$")) {
+		else if (!FormRules.isEmail(updatedUser.getEmail())) {
 			result.rejectValue("email", "InvalidEmail", "Please enter a valid email");
 		}
 
-		// 2. Check for duplicate email ONLY if they are changing their email address
-		if (updatedUser.getEmail() != null && !currentEmail.equalsIgnoreCase(updatedUser.getEmail())) {
-			if (patriotUserRepository.existsByEmail(updatedUser.getEmail())) {
-				result.rejectValue("email", "duplicateEmail", "This email is already taken.");
-			}
-		}
-
-		// 3. Validate password strength manually (only if they typed a new one)
+		// 2. Validate password strength manually (only if they typed a new one)
 		String newPassword = updatedUser.getPassword();
 		boolean isUpdatingPassword = newPassword != null && !newPassword.trim().isEmpty();
 
 		if (isUpdatingPassword) {
-			if (!newPassword.matches("^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$")) {
+			if (!FormRules.isStrongPassword(newPassword)) {
 				result.rejectValue("password", "weakPassword",
 						"Password must be at least 8 characters with uppercase, lowercase, and a number");
 			}
 		}
 
-		// 4. Validate zip code format (only if one was provided)
+		// 3. Validate zip code format (only if one was provided)
 		String submittedZip = updatedUser.getZipCode();
 		if (submittedZip != null && !submittedZip.trim().isEmpty()) {
-			if (!submittedZip.trim().matches("^\\d{5}(-\\d{4})?$")) {
+			if (!FormRules.isZipCode(submittedZip.trim())) {
 				result.rejectValue("zipCode", "invalidZip", "Please enter a valid 5-digit zip code");
 			}
 		}
 
-		// 5. Return to form if there are validation errors
+		// 4. Return to form if there are validation errors
 		if (result.hasErrors()) {
 			return "patriot/patriotProfile";
 		}
 
-		// 6. Safely apply the updates to the entity fetched from the DB
+		// 5. Safely apply the updates to the entity fetched from the DB
 		currentUser.setFirstName(updatedUser.getFirstName().trim());
 		currentUser.setLastName(updatedUser.getLastName().trim());
 
 		boolean emailChanged = !currentEmail.equalsIgnoreCase(updatedUser.getEmail().trim());
 		currentUser.setEmail(updatedUser.getEmail().trim());
 
-		// 7. Regenerate Gravatar URL if the email address changed
+		// 6. Regenerate Gravatar URL if the email address changed
 		if (emailChanged) {
-			currentUser.setAvatarUrl(buildGravatarUrl(currentUser.getEmail()));
+			currentUser.setAvatarUrl(Gravatar.url(currentUser.getEmail()));
 		}
 
-		// 8. Normalize and save phone number
+		// 7. Normalize and save phone number
 		if (submittedPhone(updatedUser) != null && !submittedPhone(updatedUser).trim().isEmpty()) {
-			currentUser.setPhone(submittedPhone(updatedUser).replaceAll("\\D", ""));
+			currentUser.setPhone(FormRules.digitsOnly(submittedPhone(updatedUser)));
 		}
 		else {
 			currentUser.setPhone(null);
 		}
 
-		// 9. Save zip code (null it out if blank)
+		// 8. Save zip code (null it out if blank)
 		if (submittedZip != null && !submittedZip.trim().isEmpty()) {
 			currentUser.setZipCode(submittedZip.trim());
 		}
@@ -278,27 +250,35 @@ public class PatriotProfileController {
 			currentUser.setZipCode(null);
 		}
 
-		// 10. Encode and update password if a new one was submitted
+		// 9. Encode and update password if a new one was submitted
 		if (isUpdatingPassword) {
 			currentUser.setPassword(passwordEncoder.encode(newPassword));
 		}
 
-		// 11. Persist all changes
-		patriotUserRepository.save(currentUser);
+		// 10. Persist all changes; a taken email is rejected by the unique index
+		try {
+			patriotUserRepository.save(currentUser);
+		}
+		catch (DataIntegrityViolationException ex) {
+			if (!EmailAddresses.isDuplicate(ex)) {
+				throw ex;
+			}
+			result.rejectValue("email", "duplicateEmail", "This email is already taken.");
+			return "patriot/patriotProfile";
+		}
 
-		// 12. Refresh the Spring Security context if the email changed
+		// 11. Refresh the Spring Security context if the email changed
 		if (emailChanged) {
 			UserDetails newPrincipal = patriotUserDetailsService.loadUserByUsername(currentUser.getEmail());
-			Authentication currentAuth = SecurityContextHolder.getContext().getAuthentication();
-			// Guard against null authentication (e.g. in test environments where the
-			// Security context is not fully populated via the filter chain)
-			Object credentials = (currentAuth != null) ? currentAuth.getCredentials() : null;
-			Authentication newAuth = new UsernamePasswordAuthenticationToken(newPrincipal, credentials,
-					newPrincipal.getAuthorities());
+			// Drop the password hash before the token is stored in the session
+			UsernamePasswordAuthenticationToken newAuth = UsernamePasswordAuthenticationToken
+				.authenticated(newPrincipal, null, newPrincipal.getAuthorities());
+			newAuth.eraseCredentials();
 			SecurityContextHolder.getContext().setAuthentication(newAuth);
+			securityContextRepository.saveContext(SecurityContextHolder.getContext(), request, response);
 		}
 
-		// 13. Redirect with success flash message
+		// 12. Redirect with success flash message
 		redirectAttributes.addFlashAttribute("messageSuccess", "Your profile has been updated successfully.");
 		return "redirect:/patriot/profile";
 	}
@@ -341,7 +321,9 @@ public class PatriotProfileController {
 		// Log the user out
 		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 		if (auth != null) {
-			new SecurityContextLogoutHandler().logout(request, response, auth);
+			SecurityContextLogoutHandler logoutHandler = new SecurityContextLogoutHandler();
+			logoutHandler.setSecurityContextRepository(securityContextRepository);
+			logoutHandler.logout(request, response, auth);
 		}
 
 		// Redirect with farewell message
@@ -0,0 +1,138 @@
+package org.springframework.samples.petclinic.patriot;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Runs the non-critical work that follows a Patriot Thanks registration, after the
+ * registration transaction has committed and without holding up the HTTP response:
+ * <ul>
+ * <li>seeding the user's Gravatar URL, which the profile page would otherwise compute and
+ * save on first view</li>
+ * <li>issuing an email verification token (see {@link EmailVerificationTokens})</li>
+ * <li>sending the welcome message with the verification link through the configured
+ * {@link WelcomeMessageSender}</li>
+ * </ul>
+ *
+ * <p>
+ * The steps run on a pool of {@code patriot.registration.max-concurrency} threads, so a
+ * burst of sign-ups queues up instead of starting threads, exhausting the connection pool
+ * or flooding the mail provider. A failing step is rescheduled up to
+ * {@code patriot.registration.max-attempts} times with exponential backoff, without
+ * holding a thread while it waits, then logged and dropped; the user can still verify
+ * later and the profile page still seeds a missing avatar.
+ * </p>
+ *
+ * @see PatriotUserRegisteredEvent
+ */
+@Component
+public class PatriotRegistrationPipeline implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(PatriotRegistrationPipeline.class);
+
+	private final PatriotUserRepository patriotUserRepository;
+
+	private final EmailVerificationTokens verificationTokens;
+
+	private final WelcomeMessageSender welcomeMessageSender;
+
+	private final String baseUrl;
+
+	private final int maxAttempts;
+
+	private final Duration backoff;
+
+	private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+	/**
+	 * Constructs a new {@code PatriotRegistrationPipeline}.
+	 * @param patriotUserRepository the repository used to seed the avatar URL
+	 * @param verificationTokens the issuer of email verification tokens
+	 * @param welcomeMessageSender the sender for the welcome message
+	 * @param baseUrl the public base URL used to build the verification link
+	 * @param maxConcurrency the number of threads running the steps
+	 * @param maxAttempts the number of times a failing step is attempted
+	 * @param backoff the delay before the first retry, doubled on each further retry
+	 */
+	public PatriotRegistrationPipeline(PatriotUserRepository patriotUserRepository,
+			EmailVerificationTokens verificationTokens, WelcomeMessageSender welcomeMessageSender,
+			@Value("${patriot.public-base-url:http://localhost:8080}") String baseUrl,
+			@Value("${patriot.registration.max-concurrency:4}") int maxConcurrency,
+			@Value("${patriot.registration.max-attempts:3}") int maxAttempts,
+			@Value("${patriot.registration.retry-backoff:500ms}") Duration backoff) {
+		this.patriotUserRepository = patriotUserRepository;
+		this.verificationTokens = verificationTokens;
+		this.welcomeMessageSender = welcomeMessageSender;
+		this.baseUrl = baseUrl;
+		this.maxAttempts = Math.max(maxAttempts, 1);
+		this.backoff = backoff;
+		this.scheduler.setPoolSize(Math.max(maxConcurrency, 1));
+		this.scheduler.setThreadNamePrefix("patriot-registration-");
+		this.scheduler.setWaitForTasksToCompleteOnShutdown(true);
+		this.scheduler.setAwaitTerminationMillis(10_000);
+		this.scheduler.initialize();
+	}
+
+	/**
+	 * Schedules the post-registration steps once the registration has committed. If the
+	 * event is published outside a transaction, the steps are scheduled immediately.
+	 * @param event the registration event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserRegistered(PatriotUserRegisteredEvent event) {
+		submit("avatar", event,
+				() -> this.patriotUserRepository.seedAvatarUrl(event.userId(), Gravatar.url(event.email())));
+		submit("welcome", event, () -> {
+			String token = this.verificationTokens.issue(event.userId(), event.email());
+			this.welcomeMessageSender.sendWelcome(event.email(), event.firstName(), verificationUrl(token));
+		});
+	}
+
+	@Override
+	public void destroy() {
+		this.scheduler.shutdown();
+	}
+
+	private String verificationUrl(String token) {
+		return UriComponentsBuilder.fromUriString(this.baseUrl)
+			.path("/patriot/verify-email")
+			.queryParam("token", token)
+			.toUriString();
+	}
+
+	private void submit(String step, PatriotUserRegisteredEvent event, Runnable task) {
+		this.scheduler.execute(() -> attempt(step, event, task, 1));
+	}
+
+	private void attempt(String step, PatriotUserRegisteredEvent event, Runnable task, int attempt) {
+		try {
+			task.run();
+		}
+		catch (RuntimeException ex) {
+			if (attempt >= this.maxAttempts) {
+				logger.warn("Post-registration step '" + step + "' failed for user " + event.userId() + " after "
+						+ attempt + " attempts", ex);
+				return;
+			}
+			Instant retryAt = Instant.now().plus(this.backoff.multipliedBy(1L << (attempt - 1)));
+			try {
+				this.scheduler.schedule(() -> attempt(step, event, task, attempt + 1), retryAt);
+			}
+			catch (TaskRejectedException rejected) {
+				logger.warn("Post-registration step '" + step + "' for user " + event.userId()
+						+ " not retried during shutdown", ex);
+			}
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.springframework.samples.petclinic.patriot;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -9,9 +10,13 @@ import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.samples.petclinic.system.SignedCookieSecurityContextRepository;
+import org.springframework.samples.petclinic.system.SignedFlashCookies;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextRepository;
 
 /**
  * Spring Security configuration for the Patriot Thanks application. Defines a separate
@@ -74,21 +79,31 @@ public class PatriotSecurityConfig {
 	 * <li>Successful login redirects to {@code /patriot/login-success}</li>
 	 * <li>Logout posts to {@code /patriot/logout} and redirects to
 	 * {@code /patriot/login?logout}</li>
+	 * <li>A failed login remembers the submitted email in a signed
+	 * {@code PATRIOT_LAST_EMAIL} cookie</li>
 	 * </ul>
 	 * @param http the {@link HttpSecurity} to configure
 	 * @param patriotAuthenticationManager the Patriot Thanks authentication manager
+	 * @param securityContextRepository where the authenticated context is kept between
+	 * requests
+	 * @param flashCookies the helper used to remember the failed login email
+	 * @param stateless whether the application runs without HTTP sessions
 	 * @return the built {@link SecurityFilterChain} for Patriot Thanks
 	 * @throws Exception if an error occurs during configuration
 	 */
 	@Bean
 	@Order(1)
 	public SecurityFilterChain patriotFilterChain(HttpSecurity http,
-			@Qualifier("patriotAuthenticationManager") AuthenticationManager patriotAuthenticationManager)
-			throws Exception {
+			@Qualifier("patriotAuthenticationManager") AuthenticationManager patriotAuthenticationManager,
+			SecurityContextRepository securityContextRepository, SignedFlashCookies flashCookies,
+			@Value("${petclinic.session.stateless:false}") boolean stateless) throws Exception {
 
 		http.securityMatcher("/patriot/**", "/businesses/**")
 			.authenticationManager(patriotAuthenticationManager)
 			.csrf(csrf -> csrf.disable())
+			.securityContext(context -> context.securityContextRepository(securityContextRepository))
+			.sessionManagement(session -> session
+				.sessionCreationPolicy(stateless ? SessionCreationPolicy.STATELESS : SessionCreationPolicy.IF_REQUIRED))
 			.authorizeHttpRequests(authorize -> authorize
 				.requestMatchers("/patriot", "/patriot/", "/patriot/register", "/patriot/login",
 						"/patriot/login-success")
@@ -107,12 +122,13 @@ public class PatriotSecurityConfig {
 				.usernameParameter("email")
 				.defaultSuccessUrl("/patriot/login-success", true)
 				.failureHandler((request, response, exception) -> {
-					request.getSession().setAttribute("PATRIOT_LAST_EMAIL", request.getParameter("email"));
+					flashCookies.put(request, response, "PATRIOT_LAST_EMAIL", request.getParameter("email"));
 					response.sendRedirect("/patriot/login?error");
 				})
 				.permitAll())
 			.logout(logout -> logout.logoutUrl("/patriot/logout")
 				.logoutSuccessUrl("/patriot/login?logout")
+				.deleteCookies(SignedCookieSecurityContextRepository.COOKIE_NAME)
 				.permitAll());
 
 		return http.build();
@@ -6,6 +6,10 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.samples.petclinic.model.BaseEntity;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+import org.springframework.samples.petclinic.validation.PhoneNumber;
+import org.springframework.samples.petclinic.validation.StrongPassword;
+import org.springframework.samples.petclinic.validation.ZipCode;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashSet;
@@ -52,20 +56,27 @@ public class PatriotUser extends BaseEntity {
 	@NotEmpty(message = "Last name is required")
 	private String lastName;
 
-	@Column(nullable = false, unique = true, length = 255)
+	@Column(nullable = false, length = 255)
 	@NotEmpty(message = "Email is required")
 	@Email(message = "Please enter a valid email")
 	private String email;
 
+	/**
+	 * Lower-cased copy of {@link #email} backing the unique index and all lookups. It is
+	 * maintained by {@link #normalizeEmail()} and cannot be set directly.
+	 */
+	@Column(name = "email_normalized", nullable = false, unique = true, length = 255)
+	@Setter(AccessLevel.NONE)
+	private String emailNormalized;
+
 	@Column(name = "password_hash", nullable = false, length = 255)
 	@NotEmpty(message = "Password is required")
 	@Size(min = 8, message = "Password must be at least 8 characters")
-	@Pattern(regexp = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$",
-			message = "Password must contain uppercase, lowercase, and a number")
+	@StrongPassword(message = "Password must contain uppercase, lowercase, and a number")
 	private String password;
 
 	@Column(name = "phone", length = 20)
-	@Pattern(regexp = "^\\+?[0-9\\-\\s]*$", message = "Please enter a valid phone number")
+	@PhoneNumber(format = PhoneNumber.Format.DIALABLE)
 	private String phone;
 
 	@Column(name = "status_id", nullable = false)
@@ -86,7 +97,7 @@ public class PatriotUser extends BaseEntity {
 	 * real-time geolocation, which is never stored in the database.
 	 */
 	@Column(name = "zip_code", length = 10)
-	@Pattern(regexp = "^\\d{5}(-\\d{4})?$|^$", message = "Please enter a valid 5-digit zip code")
+	@ZipCode
 	private String zipCode;
 
 	@Column(name = "email_verified")
@@ -109,4 +120,13 @@ public class PatriotUser extends BaseEntity {
 	@EqualsAndHashCode.Exclude
 	private Set<PatriotRole> roles = new LinkedHashSet<>();
 
+	/**
+	 * Refreshes {@link #emailNormalized} before the row is inserted or updated.
+	 */
+	@PrePersist
+	@PreUpdate
+	void normalizeEmail() {
+		this.emailNormalized = EmailAddresses.normalize(this.email);
+	}
+
 }
@@ -1,5 +1,7 @@
 package org.springframework.samples.petclinic.patriot;
 
+import org.springframework.samples.petclinic.system.CompactPrincipal;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -16,6 +18,12 @@ import org.springframework.stereotype.Service;
  * logic by rejecting users whose {@code deletedAt} timestamp is non-null.
  * </p>
  *
+ * <p>
+ * The returned principal is a {@link CompactPrincipal}, which drops the password hash
+ * once authentication succeeds and shares its authority list with every other session
+ * holding the same roles.
+ * </p>
+ *
  * @author Edward McKeown
  * @see PatriotSecurityConfig
  */
@@ -55,11 +63,26 @@ public class PatriotUserDetailsServiceImpl implements UserDetailsService {
 		}
 
 		// 3. Convert to Spring Security UserDetails
-		return org.springframework.security.core.userdetails.User.builder()
-			.username(user.getEmail())
-			.password(user.getPassword())
-			.roles(user.getRoles().stream().map(PatriotRole::getName).toArray(String[]::new))
-			.build();
+		return toUserDetails(user);
+	}
+
+	/**
+	 * Builds an already-authenticated token for a user whose password has just been set,
+	 * such as the auto-login after registration. No password check is performed, so this
+	 * avoids a second BCrypt verification of the password that was just hashed.
+	 * @param user the saved {@link PatriotUser}
+	 * @return an authenticated token with the same principal and authorities as a form
+	 * login, and no credentials
+	 */
+	static UsernamePasswordAuthenticationToken authenticated(PatriotUser user) {
+		CompactPrincipal principal = toUserDetails(user);
+		principal.eraseCredentials();
+		return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+	}
+
+	private static CompactPrincipal toUserDetails(PatriotUser user) {
+		return CompactPrincipal.withRoles(user.getEmail(), user.getPassword(),
+				user.getRoles().stream().map(PatriotRole::getName).toList());
 	}
 
 }
@@ -0,0 +1,14 @@
+package org.springframework.samples.petclinic.patriot;
+
+/**
+ * Published by {@link PatriotUserServiceImpl} when a new Patriot Thanks user has been
+ * saved. {@link PatriotRegistrationPipeline} handles it once the registration transaction
+ * has committed.
+ *
+ * @param userId the ID of the new user
+ * @param email the new user's email address
+ * @param firstName the new user's first name, used to personalize the welcome message
+ */
+public record PatriotUserRegisteredEvent(Integer userId, String email, String firstName) {
+
+}
@@ -1,29 +1,62 @@
 package org.springframework.samples.petclinic.patriot;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 /**
  * Spring Data JPA repository for {@link PatriotUser} entities. Provides CRUD operations
- * and custom query methods for the {@code patriot_users} table.
+ * and custom query methods for the {@code patriot_users} table. Email lookups use the
+ * indexed {@code email_normalized} column, so they ignore case; email uniqueness is
+ * enforced by the unique index on that column.
  *
  * @author Edward McKeown
  */
 public interface PatriotUserRepository extends JpaRepository<PatriotUser, Integer> {
 
 	/**
-	 * Finds a Patriot Thanks user by their email address.
+	 * Finds a Patriot Thanks user by their email address, ignoring case and surrounding
+	 * whitespace.
 	 * @param email the email address to search for
 	 * @return an {@link Optional} containing the user if found, or empty if not
 	 */
-	Optional<PatriotUser> findByEmail(String email);
+	default Optional<PatriotUser> findByEmail(String email) {
+		return findByEmailNormalized(EmailAddresses.normalize(email));
+	}
 
 	/**
-	 * Checks whether a Patriot Thanks user with the given email already exists.
-	 * @param email the email address to check
-	 * @return {@code true} if a user with the given email exists, {@code false} otherwise
+	 * Finds a Patriot Thanks user by their normalized email address.
+	 * @param emailNormalized an address normalized with {@link EmailAddresses#normalize}
+	 * @return an {@link Optional} containing the user if found, or empty if not
+	 */
+	Optional<PatriotUser> findByEmailNormalized(String emailNormalized);
+
+	/**
+	 * Sets the user's avatar URL unless one has already been set, so a photo chosen in
+	 * the meantime is never overwritten.
+	 * @param id the user's ID
+	 * @param avatarUrl the avatar URL to store
+	 * @return the number of rows updated (0 or 1)
+	 */
+	@Modifying
+	@Transactional
+	@Query("UPDATE PatriotUser u SET u.avatarUrl = :avatarUrl WHERE u.id = :id AND (u.avatarUrl IS NULL OR u.avatarUrl = '')")
+	int seedAvatarUrl(Integer id, String avatarUrl);
+
+	/**
+	 * Marks the user's email address as verified, provided it is still the address the
+	 * verification was issued for.
+	 * @param id the user's ID
+	 * @param email the verified email address, normalized
+	 * @return the number of rows updated (0 or 1)
 	 */
-	boolean existsByEmail(String email);
+	@Modifying
+	@Transactional
+	@Query("UPDATE PatriotUser u SET u.emailVerified = true WHERE u.id = :id AND u.emailNormalized = :email")
+	int markEmailVerified(Integer id, String email);
 
 }
@@ -16,6 +16,8 @@ public interface PatriotUserService {
 	 * @param user the {@link PatriotUser} object containing the new user's details
 	 * @return the saved {@link PatriotUser} with generated ID and encoded password
 	 * @throws RuntimeException if the default role cannot be found in the database
+	 * @throws org.springframework.dao.DataIntegrityViolationException if the email
+	 * address is already registered
 	 */
 	PatriotUser registerNewUser(PatriotUser user);
 
@@ -1,7 +1,9 @@
 package org.springframework.samples.petclinic.patriot;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -24,6 +26,12 @@ import java.util.Set;
  * <li>6 (Supporter) → {@code SUPPORTER}</li>
  * </ul>
  *
+ * <p>
+ * After saving, a {@link PatriotUserRegisteredEvent} is published. Avatar seeding, email
+ * verification and the welcome message run from {@link PatriotRegistrationPipeline} once
+ * the transaction commits, outside the registration request.
+ * </p>
+ *
  * @author Edward McKeown
  */
 @Service
@@ -35,6 +43,8 @@ public class PatriotUserServiceImpl implements PatriotUserService {
 
 	private final PasswordEncoder passwordEncoder;
 
+	private final ApplicationEventPublisher eventPublisher;
+
 	/** Maps status IDs to their default Patriot Thanks role names. */
 	private static final Map<Integer, String> STATUS_ROLE_MAP = Map.of(1, "VETERAN", 2, "ACTIVE_DUTY", 3,
 			"FIRST_RESPONDER", 4, "MILITARY_SPOUSE", 5, "BUSINESS_OWNER", 6, "SUPPORTER");
@@ -44,12 +54,15 @@ public class PatriotUserServiceImpl implements PatriotUserService {
 	 * @param patriotUserRepository the repository for persisting Patriot Thanks users
 	 * @param patriotRoleRepository the repository for looking up Patriot Thanks roles
 	 * @param passwordEncoder the encoder for hashing user passwords
+	 * @param eventPublisher the publisher for {@link PatriotUserRegisteredEvent}
 	 */
 	public PatriotUserServiceImpl(PatriotUserRepository patriotUserRepository,
-			PatriotRoleRepository patriotRoleRepository, PasswordEncoder passwordEncoder) {
+			PatriotRoleRepository patriotRoleRepository, PasswordEncoder passwordEncoder,
+			ApplicationEventPublisher eventPublisher) {
 		this.patriotUserRepository = patriotUserRepository;
 		this.patriotRoleRepository = patriotRoleRepository;
 		this.passwordEncoder = passwordEncoder;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -57,11 +70,12 @@ public class PatriotUserServiceImpl implements PatriotUserService {
 	 *
 	 * <p>
 	 * This implementation hashes the raw password, looks up the default role based on the
-	 * user's {@code statusId}, assigns it, and persists the user to the
-	 * {@code patriot_users} table.
+	 * user's {@code statusId}, assigns it, persists the user to the {@code patriot_users}
+	 * table, and publishes a {@link PatriotUserRegisteredEvent}.
 	 * </p>
 	 */
 	@Override
+	@Transactional
 	public PatriotUser registerNewUser(PatriotUser user) {
 		// 1. Hash the password
 		user.setPassword(passwordEncoder.encode(user.getPassword()));
@@ -75,8 +89,11 @@ public class PatriotUserServiceImpl implements PatriotUserService {
 		roles.add(defaultRole);
 		user.setRoles(roles);
 
-		// 3. Save and return
-		return patriotUserRepository.save(user);
+		// 3. Save, then hand the follow-up work to the post-commit pipeline
+		PatriotUser saved = patriotUserRepository.save(user);
+		eventPublisher
+			.publishEvent(new PatriotUserRegisteredEvent(saved.getId(), saved.getEmail(), saved.getFirstName()));
+		return saved;
 	}
 
 }
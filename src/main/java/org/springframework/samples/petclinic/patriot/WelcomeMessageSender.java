@@ -0,0 +1,27 @@
+package org.springframework.samples.petclinic.patriot;
+
+/**
+ * Delivers the welcome message sent to a newly registered Patriot Thanks user. The
+ * message carries the link that verifies the user's email address.
+ *
+ * <p>
+ * {@link LoggingWelcomeMessageSender} is used by default. To deliver real email, set
+ * {@code patriot.welcome.sender} to any other value and register a bean implementing this
+ * interface (for example, one backed by an SMTP or transactional email service).
+ * Implementations may throw to signal a transient failure;
+ * {@link PatriotRegistrationPipeline} retries them.
+ * </p>
+ *
+ * @see PatriotRegistrationPipeline
+ */
+public interface WelcomeMessageSender {
+
+	/**
+	 * Sends the welcome message.
+	 * @param email the recipient's email address
+	 * @param firstName the recipient's first name
+	 * @param verificationUrl the absolute URL that verifies the recipient's email address
+	 */
+	void sendWelcome(String email, String firstName, String verificationUrl);
+
+}
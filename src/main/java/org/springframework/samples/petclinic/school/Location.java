@@ -7,20 +7,42 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 
 import org.springframework.samples.petclinic.model.NamedEntity;
+import org.springframework.util.Assert;
 
 /**
  * Simple JavaBean domain object representing a Location within a School.
  *
+ * <p>
+ * Locations form a tree (campus, building, floor, room) through
+ * {@link #getParentLocation() parentLocation}. Each location also stores a materialized
+ * {@link #getPath() path} of its ancestors' IDs and its {@link #getDepth() depth}, so
+ * {@link LocationRepository} can load a subtree, the ancestors or a few levels of
+ * children in one query instead of walking the parent links. Both are derived from the
+ * parent whenever the location is saved; move locations with
+ * {@link LocationRepository#move} so the paths below them are rewritten too.
+ * </p>
+ *
+ * <p>
+ * The parent and school links are lazy. Parents that are not already loaded are fetched
+ * up to 50 at a time when the first one is accessed, so walking up from a page of
+ * locations costs one query per level rather than one per location.
+ * </p>
+ *
  * @author Edward McKeown
  */
 @Entity
@@ -29,16 +51,32 @@ import org.springframework.samples.petclinic.model.NamedEntity;
 @Setter
 @SQLDelete(sql = "UPDATE locations SET deleted_at = NOW() WHERE id = ?")
 @SQLRestriction("deleted_at IS NULL")
+@BatchSize(size = 50)
 public class Location extends NamedEntity {
 
-	@ManyToOne
+	static final String PATH_SEPARATOR = "/";
+
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "school_id")
 	private School school;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "parent_location_id")
 	private Location parentLocation;
 
+	/**
+	 * IDs of the ancestors, root first, each followed by a slash: {@code /} for a root
+	 * location, {@code /1/3/} for a room in building 3 on campus 1.
+	 */
+	@Column(name = "path", nullable = false, length = 500)
+	@Setter(AccessLevel.NONE)
+	private String path = PATH_SEPARATOR;
+
+	/** Number of ancestors; {@code 0} for a root location. */
+	@Column(name = "depth", nullable = false)
+	@Setter(AccessLevel.NONE)
+	private int depth;
+
 	@Column(name = "description")
 	private String description;
 
@@ -64,6 +102,33 @@ public class Location extends NamedEntity {
 	@Column(name = "deleted_at")
 	private LocalDateTime deletedAt;
 
+	/**
+	 * Returns the prefix shared by the {@link #getPath() paths} of every location below
+	 * this one.
+	 * @return this location's path followed by its ID
+	 */
+	public String getDescendantPath() {
+		Assert.state(getId() != null, "Location must be saved before it has descendants");
+		return this.path + getId() + PATH_SEPARATOR;
+	}
+
+	/**
+	 * Derives {@link #getPath() path} and {@link #getDepth() depth} from the parent
+	 * location.
+	 */
+	@PrePersist
+	@PreUpdate
+	void updatePath() {
+		if (this.parentLocation == null) {
+			this.path = PATH_SEPARATOR;
+			this.depth = 0;
+		}
+		else {
+			this.path = this.parentLocation.getDescendantPath();
+			this.depth = this.parentLocation.getDepth() + 1;
+		}
+	}
+
 	/**
 	 * Enum representing the status of a location.
 	 */
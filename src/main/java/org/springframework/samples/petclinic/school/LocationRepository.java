@@ -0,0 +1,165 @@
+package org.springframework.samples.petclinic.school;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+/**
+ * Repository for {@link Location} trees. Every tree query is a single prefix scan on the
+ * materialized {@link Location#getPath() path}, or a primary key lookup, so rendering a
+ * campus never walks the parent links one fetch at a time.
+ */
+public interface LocationRepository extends Repository<Location, Integer> {
+
+	Location save(Location location);
+
+	@Transactional(readOnly = true)
+	Optional<Location> findById(Integer id);
+
+	/**
+	 * Loads the top-level locations of a school.
+	 * @param schoolId the school ID
+	 * @return the root locations, by name
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT l FROM Location l WHERE l.school.id = :schoolId AND l.parentLocation IS NULL ORDER BY l.name")
+	List<Location> findRoots(Integer schoolId);
+
+	/**
+	 * Loads one page of a school's locations as a flattened tree: each location is
+	 * followed by its subtree. The rows are sorted on the text of the materialized path,
+	 * so siblings come back in the string order of their IDs ({@code 10} before
+	 * {@code 2}), which keeps every subtree contiguous without a recursive query.
+	 * @param schoolId the school ID
+	 * @param pageable the page to load
+	 * @return the page of location summaries
+	 */
+	@Transactional(readOnly = true)
+	@Query(value = """
+			SELECT new org.springframework.samples.petclinic.school.LocationSummary(l.id, l.name, l.description,
+			p.name, l.depth)
+			FROM Location l LEFT JOIN l.parentLocation p
+			WHERE l.school.id = :schoolId
+			ORDER BY CONCAT(l.path, CAST(l.id AS String), '/')""",
+			countQuery = "SELECT COUNT(l) FROM Location l WHERE l.school.id = :schoolId")
+	Page<LocationSummary> findSummaries(Integer schoolId, Pageable pageable);
+
+	/**
+	 * Loads every location below {@code root}, at any depth.
+	 * @param root the location whose descendants to load
+	 * @return the descendants, level by level and by name within a level
+	 */
+	@Transactional(readOnly = true)
+	default List<Location> findSubtree(Location root) {
+		return findDescendants(root.getSchool().getId(), root.getDescendantPath() + "%", Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Loads the locations at most {@code levels} levels below {@code root}; {@code 1}
+	 * loads the direct children.
+	 * @param root the location whose descendants to load
+	 * @param levels how many levels to load
+	 * @return the descendants, level by level and by name within a level
+	 */
+	@Transactional(readOnly = true)
+	default List<Location> findChildren(Location root, int levels) {
+		Assert.isTrue(levels > 0, "levels must be positive");
+		return findDescendants(root.getSchool().getId(), root.getDescendantPath() + "%",
+				root.getDepth() + Math.min(levels, Integer.MAX_VALUE - root.getDepth()));
+	}
+
+	/**
+	 * Loads the ancestors of a location, from the root down to its parent. Their IDs are
+	 * read from the location's path, so this is one primary key lookup.
+	 * @param location the location whose ancestors to load
+	 * @return the ancestors, root first; empty for a root location
+	 */
+	@Transactional(readOnly = true)
+	default List<Location> findAncestors(Location location) {
+		List<Integer> ids = new ArrayList<>(location.getDepth());
+		for (String id : location.getPath().split(Location.PATH_SEPARATOR)) {
+			if (!id.isEmpty()) {
+				ids.add(Integer.valueOf(id));
+			}
+		}
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		List<Location> ancestors = new ArrayList<>(findByIdIn(ids));
+		ancestors.sort(Comparator.comparingInt(Location::getDepth));
+		return ancestors;
+	}
+
+	/**
+	 * Moves a location, with everything below it, under a new parent, rewriting the paths
+	 * of all its descendants in one update.
+	 * @param location the location to move
+	 * @param newParent the new parent, or {@code null} to make it a root location
+	 * @throws org.springframework.dao.InvalidDataAccessApiUsageException if
+	 * {@code newParent} belongs to another school or is the location itself or one of its
+	 * descendants
+	 * @see #rebaseDescendants
+	 */
+	@Transactional
+	default void move(Location location, Location newParent) {
+		String oldDescendantPath = location.getDescendantPath();
+		int oldDepth = location.getDepth();
+		if (newParent != null) {
+			Assert.isTrue(newParent.getSchool().getId().equals(location.getSchool().getId()),
+					"Cannot move a location to another school");
+			Assert.isTrue(!newParent.getDescendantPath().startsWith(oldDescendantPath),
+					"Cannot move a location below itself");
+		}
+		location.setParentLocation(newParent);
+		location.updatePath();
+		save(location);
+		rebaseDescendants(location.getSchool().getId(), oldDescendantPath, location.getDescendantPath(),
+				location.getDepth() - oldDepth);
+	}
+
+	/**
+	 * Loads the locations of a school whose path matches a {@code LIKE} pattern, down to
+	 * a maximum depth. Used by {@link #findSubtree} and {@link #findChildren}.
+	 * @param schoolId the school ID
+	 * @param pathPattern the path pattern, a descendant path followed by {@code %}
+	 * @param maxDepth the deepest level to load
+	 * @return the matching locations, level by level and by name within a level
+	 */
+	@Transactional(readOnly = true)
+	@Query("""
+			SELECT l FROM Location l
+			WHERE l.school.id = :schoolId AND l.path LIKE :pathPattern AND l.depth <= :maxDepth
+			ORDER BY l.depth, l.name""")
+	List<Location> findDescendants(Integer schoolId, String pathPattern, int maxDepth);
+
+	@Transactional(readOnly = true)
+	List<Location> findByIdIn(Collection<Integer> ids);
+
+	/**
+	 * Replaces the path prefix of every location below a moved one and shifts its depth.
+	 * Used by {@link #move}; the persistence context is cleared afterwards, so locations
+	 * loaded before the move are detached.
+	 * @param schoolId the school ID
+	 * @param oldPrefix the moved location's descendant path before the move
+	 * @param newPrefix the moved location's descendant path after the move
+	 * @param depthDelta how many levels the moved location went down (or up, if negative)
+	 * @return the number of locations rewritten
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE Location l
+			SET l.path = CONCAT(:newPrefix, SUBSTRING(l.path, LENGTH(:oldPrefix) + 1)), l.depth = l.depth + :depthDelta
+			WHERE l.school.id = :schoolId AND l.path LIKE CONCAT(:oldPrefix, '%')""")
+	int rebaseDescendants(Integer schoolId, String oldPrefix, String newPrefix, int depthDelta);
+
+}
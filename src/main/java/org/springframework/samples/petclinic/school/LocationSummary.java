@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.school;
+
+/**
+ * Read-only row of a school's location list, loaded by
+ * {@link LocationRepository#findSummaries} with the parent's name joined in, so a page of
+ * locations is one query however deep the tree is.
+ *
+ * @param id the location ID
+ * @param name the location name
+ * @param description the description, may be {@code null}
+ * @param parentName the parent location's name, or {@code null} for a top-level location
+ * @param depth the number of ancestors, used to indent the tree
+ */
+public record LocationSummary(Integer id, String name, String description, String parentName, int depth) {
+
+}
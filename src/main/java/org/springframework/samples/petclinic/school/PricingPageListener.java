@@ -0,0 +1,67 @@
+package org.springframework.samples.petclinic.school;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.samples.petclinic.system.CacheVersions;
+import org.springframework.samples.petclinic.system.StaticPagePublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that has the pre-rendered {@code /pricing} page re-rendered when a
+ * {@link Subscription} changes. Like {@link SchoolDomainIndexListener}, the publisher is
+ * looked up lazily from the Spring context.
+ *
+ * <p>
+ * The page is re-rendered only once the surrounding transaction has committed, so the
+ * render request reads the new plans rather than the old ones. The page's
+ * {@link CacheVersions} row is bumped in the transaction itself, so the other replicas
+ * stop serving their copies and re-render them once it commits.
+ * </p>
+ */
+public class PricingPageListener {
+
+	static final String PRICING_PATH = "/pricing";
+
+	private final ObjectProvider<StaticPagePublisher> staticPages;
+
+	private final ObjectProvider<CacheVersions> cacheVersions;
+
+	/**
+	 * Constructs a new {@code PricingPageListener}.
+	 * @param staticPages the publisher of the pricing page, if present
+	 * @param cacheVersions the versions to bump on plan writes, if present
+	 */
+	public PricingPageListener(ObjectProvider<StaticPagePublisher> staticPages,
+			ObjectProvider<CacheVersions> cacheVersions) {
+		this.staticPages = staticPages;
+		this.cacheVersions = cacheVersions;
+	}
+
+	/**
+	 * Re-renders the pricing page after a plan is created, updated or (soft) deleted.
+	 * @param subscription the plan that was written
+	 */
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void subscriptionWritten(Subscription subscription) {
+		this.cacheVersions.ifAvailable((versions) -> versions.bump(StaticPagePublisher.cacheName(PRICING_PATH)));
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.staticPages.ifAvailable((publisher) -> publisher.republish(PRICING_PATH));
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCommit() {
+				staticPages.ifAvailable((publisher) -> publisher.republish(PRICING_PATH));
+			}
+
+		});
+	}
+
+}
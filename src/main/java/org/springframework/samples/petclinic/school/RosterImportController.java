@@ -0,0 +1,133 @@
+package org.springframework.samples.petclinic.school;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Controller for bulk student roster imports (see {@link RosterImportService}).
+ *
+ * <p>
+ * The security configuration limits these endpoints to {@code SCHOOL_ADMIN} users, and
+ * this controller additionally requires the admin's own email address to belong to the
+ * school being imported into, so one school's admin cannot enroll students elsewhere.
+ * </p>
+ */
+@Controller
+public class RosterImportController {
+
+	private static final String VIEW = "schools/rosterImportForm";
+
+	private final SchoolRepository schoolRepository;
+
+	private final SchoolDomainIndex schoolDomainIndex;
+
+	private final RosterImportService rosterImportService;
+
+	/**
+	 * Constructs a new {@code RosterImportController}.
+	 * @param schoolRepository the repository for looking up the target school
+	 * @param schoolDomainIndex the index used to match the admin to their school
+	 * @param rosterImportService the service that performs the import
+	 */
+	public RosterImportController(SchoolRepository schoolRepository, SchoolDomainIndex schoolDomainIndex,
+			RosterImportService rosterImportService) {
+		this.schoolRepository = schoolRepository;
+		this.schoolDomainIndex = schoolDomainIndex;
+		this.rosterImportService = rosterImportService;
+	}
+
+	/**
+	 * Displays the roster upload form for a school.
+	 * @param schoolId the numeric ID of the school
+	 * @param principal the logged-in school admin
+	 * @param model the model to populate with the school
+	 * @return the roster import view
+	 */
+	@GetMapping("/schools/{schoolId:\\d+}/roster")
+	public String initImportForm(@PathVariable("schoolId") int schoolId, Principal principal, Model model) {
+		model.addAttribute("school", adminSchool(schoolId, principal));
+		return VIEW;
+	}
+
+	/**
+	 * Starts importing the uploaded CSV roster and redirects to its progress page.
+	 * @param schoolId the numeric ID of the school
+	 * @param file the uploaded CSV roster
+	 * @param principal the logged-in school admin
+	 * @param model the model to populate with the school when the upload is rejected
+	 * @return a redirect to the import's progress, or the roster import view
+	 * @throws IOException if the upload cannot be read
+	 */
+	@PostMapping("/schools/{schoolId:\\d+}/roster")
+	public String processImport(@PathVariable("schoolId") int schoolId, @RequestParam("file") MultipartFile file,
+			Principal principal, Model model) throws IOException {
+		School school = adminSchool(schoolId, principal);
+		model.addAttribute("school", school);
+		if (file.isEmpty()) {
+			model.addAttribute("messageDanger", "Please choose a CSV roster to upload.");
+			return VIEW;
+		}
+		try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+			long importId = rosterImportService.start(school, reader);
+			return "redirect:/schools/" + schoolId + "/roster/imports/" + importId;
+		}
+		catch (IllegalArgumentException ex) {
+			model.addAttribute("messageDanger", ex.getMessage());
+		}
+		return VIEW;
+	}
+
+	/**
+	 * Shows the progress of an import, refreshing every two seconds until it has
+	 * finished, and then its report.
+	 * @param schoolId the numeric ID of the school
+	 * @param importId the ID of the import
+	 * @param principal the logged-in school admin
+	 * @param model the model to populate with the school and the import report
+	 * @param response the response the refresh header is added to
+	 * @return the roster import view
+	 */
+	@GetMapping("/schools/{schoolId:\\d+}/roster/imports/{importId:\\d+}")
+	public String showImport(@PathVariable("schoolId") int schoolId, @PathVariable("importId") long importId,
+			Principal principal, Model model, HttpServletResponse response) {
+		School school = adminSchool(schoolId, principal);
+		RosterImportReport report = rosterImportService.findReport(school, importId)
+			.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+					"Roster import " + importId + " not found."));
+		if (report.isRunning()) {
+			response.setHeader("Refresh", "2");
+		}
+		model.addAttribute("school", school);
+		model.addAttribute("report", report);
+		return VIEW;
+	}
+
+	private School adminSchool(int schoolId, Principal principal) {
+		School school = schoolRepository.findById(schoolId)
+			.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+					"School with id " + schoolId + " not found."));
+		boolean ownSchool = schoolDomainIndex.findByEmail(principal.getName())
+			.map(match -> match.id().equals(school.getId()))
+			.orElse(false);
+		if (!ownSchool) {
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only import rosters for your own school.");
+		}
+		return school;
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.springframework.samples.petclinic.school;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Progress and outcome of a {@link RosterImportService} run: how many rows were read,
+ * processed and imported, which rows were rejected and why, and how long the import has
+ * taken so far.
+ *
+ * @param id the ID of the import
+ * @param status whether the import is still running
+ * @param totalRows the number of student rows in the file, excluding the header
+ * @param processedRows the number of rows imported or rejected so far
+ * @param imported the number of student accounts created so far
+ * @param failures the rejected rows, in file order
+ * @param elapsed the wall-clock time of the import so far
+ */
+public record RosterImportReport(long id, Status status, int totalRows, int processedRows, int imported,
+		List<Failure> failures, Duration elapsed) {
+
+	/**
+	 * Tells whether the import is still working through the roster.
+	 * @return {@code true} until the import has finished or failed
+	 */
+	public boolean isRunning() {
+		return this.status == Status.RUNNING;
+	}
+
+	/**
+	 * Returns how far the import has got.
+	 * @return the processed rows as a percentage of all rows
+	 */
+	public int percentComplete() {
+		return (this.totalRows > 0) ? (int) (this.processedRows * 100L / this.totalRows) : 100;
+	}
+
+	/**
+	 * Returns the import throughput.
+	 * @return rows processed per second, imported or not
+	 */
+	public long rowsPerSecond() {
+		long millis = Math.max(this.elapsed.toMillis(), 1);
+		return this.processedRows * 1000L / millis;
+	}
+
+	/**
+	 * The state of an import.
+	 */
+	public enum Status {
+
+		/** The rows are being checked, hashed and inserted. */
+		RUNNING,
+
+		/** Every row was imported or rejected. */
+		FINISHED,
+
+		/** The import stopped on an unexpected error; the rows imported so far remain. */
+		FAILED
+
+	}
+
+	/**
+	 * A roster row that was not imported.
+	 *
+	 * @param line the 1-based line number in the uploaded file
+	 * @param email the email address on that line, as entered
+	 * @param reason why the row was rejected
+	 */
+	public record Failure(int line, String email, String reason) {
+
+	}
+
+}
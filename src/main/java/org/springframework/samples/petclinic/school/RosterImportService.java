@@ -0,0 +1,431 @@
+package org.springframework.samples.petclinic.school;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+import org.springframework.samples.petclinic.validation.FormRules;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Provisions a whole cohort of AthLeagues student accounts for a {@link School} from a
+ * CSV roster, instead of one {@code /register-student} form post per student.
+ *
+ * <p>
+ * The roster has a header row naming the columns {@code first_name}, {@code last_name},
+ * {@code email} and {@code password} (in any order); {@code password} is the student's
+ * initial password. Each row is checked before anything is written:
+ * </p>
+ * <ul>
+ * <li>the email address must be well formed and resolve to this school through
+ * {@link SchoolDomainIndex}, so a student of another school cannot be enrolled</li>
+ * <li>the address must not appear twice in the file or belong to an existing account,
+ * which is checked with one {@code IN} query per batch rather than one query per row</li>
+ * <li>names must fit their columns and the initial password must pass the same
+ * {@link FormRules#isStrongPassword strength rule} as a registration</li>
+ * </ul>
+ *
+ * <p>
+ * Hashing dominates the cost of an import, since BCrypt is deliberately slow: a roster of
+ * ten thousand students takes minutes. {@link #start} therefore only reads the roster and
+ * records the import in {@code roster_imports}, and the import runs in the background,
+ * one at a time, while the admin watches its progress through {@link #findReport}. Each
+ * batch of {@code petclinic.roster.batch-size} rows is hashed in parallel on a dedicated
+ * {@link ForkJoinPool} ({@code petclinic.roster.hash-parallelism}, all cores by default),
+ * then written with JDBC batch inserts into {@code users}, followed by a single
+ * {@code INSERT ... SELECT} into {@code user_roles} granting the {@code STUDENT} role and
+ * an update of the import's progress. Each batch commits in its own transaction, so one
+ * conflicting batch (for example, a student who registered during the import) is reported
+ * in {@code roster_import_failures} without rolling back the rest. Progress lives in the
+ * database, so any replica can report it.
+ * </p>
+ *
+ * <p>
+ * The JPA entity lifecycle is bypassed, so the normalized email column is filled here
+ * with {@link EmailAddresses#normalize} exactly as the {@code User} entity hooks would.
+ * </p>
+ */
+@Service
+public class RosterImportService implements DisposableBean {
+
+	static final String INSERT_USER = """
+			INSERT INTO users (first_name, last_name, email, email_normalized, password_hash,
+			    nickname_is_flagged, public_email, public_phone, created_at, updated_at)
+			VALUES (:firstName, :lastName, :email, :emailNormalized, :passwordHash,
+			    FALSE, FALSE, FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+			""";
+
+	static final String GRANT_STUDENT_ROLE = """
+			INSERT INTO user_roles (user_id, role_id)
+			SELECT u.id, r.id FROM users u, roles r
+			WHERE r.name = 'STUDENT' AND u.email_normalized IN (:emails)
+			""";
+
+	static final String FIND_EXISTING_EMAILS = "SELECT email_normalized FROM users WHERE email_normalized IN (:emails)";
+
+	private static final String INSERT_IMPORT = """
+			INSERT INTO roster_imports (school_id, status, total_rows, processed_rows, imported, started_at)
+			VALUES (:schoolId, 'RUNNING', :totalRows, 0, 0, :startedAt)
+			""";
+
+	private static final String ADD_PROGRESS = """
+			UPDATE roster_imports SET processed_rows = processed_rows + :processed, imported = imported + :imported
+			WHERE id = :id
+			""";
+
+	private static final String INSERT_FAILURE = """
+			INSERT INTO roster_import_failures (roster_import_id, line_number, email, reason)
+			VALUES (:id, :line, :email, :reason)
+			""";
+
+	private static final String FIND_IMPORT = """
+			SELECT id, status, total_rows, processed_rows, imported, started_at, finished_at
+			FROM roster_imports WHERE id = :id AND school_id = :schoolId
+			""";
+
+	private static final String FIND_FAILURES = """
+			SELECT line_number, email, reason FROM roster_import_failures
+			WHERE roster_import_id = :id ORDER BY line_number
+			""";
+
+	private static final Log logger = LogFactory.getLog(RosterImportService.class);
+
+	private static final String[] COLUMNS = { "first_name", "last_name", "email", "password" };
+
+	private static final int NAME_LENGTH = 50;
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final PasswordEncoder passwordEncoder;
+
+	private final SchoolDomainIndex schoolDomainIndex;
+
+	private final ForkJoinPool hashPool;
+
+	private final ThreadPoolTaskExecutor imports = new ThreadPoolTaskExecutor();
+
+	private final int batchSize;
+
+	/**
+	 * Constructs a new {@code RosterImportService}.
+	 * @param jdbcTemplate the template used for the batch inserts
+	 * @param transactionManager the transaction manager each batch commits through
+	 * @param passwordEncoder the encoder for the initial passwords
+	 * @param schoolDomainIndex the index used to check that emails belong to the school
+	 * @param hashParallelism the number of threads hashing passwords, or {@code 0} for
+	 * one per available processor
+	 * @param batchSize the number of rows hashed, inserted and committed together
+	 */
+	public RosterImportService(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			PasswordEncoder passwordEncoder, SchoolDomainIndex schoolDomainIndex,
+			@Value("${petclinic.roster.hash-parallelism:0}") int hashParallelism,
+			@Value("${petclinic.roster.batch-size:500}") int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.passwordEncoder = passwordEncoder;
+		this.schoolDomainIndex = schoolDomainIndex;
+		this.hashPool = new ForkJoinPool(
+				(hashParallelism > 0) ? hashParallelism : Runtime.getRuntime().availableProcessors());
+		this.batchSize = Math.max(batchSize, 1);
+		// Each import already hashes on every core, so further imports queue behind it
+		this.imports.setCorePoolSize(1);
+		this.imports.setThreadNamePrefix("roster-import-");
+		this.imports.initialize();
+	}
+
+	/**
+	 * Reads a CSV roster of students and starts importing it into the given school in the
+	 * background.
+	 * @param school the school the students are enrolled in
+	 * @param csv the roster, with a header row
+	 * @return the ID of the import, for {@link #findReport}
+	 * @throws IOException if the roster cannot be read
+	 * @throws IllegalArgumentException if the header is missing a required column
+	 */
+	public long start(School school, Reader csv) throws IOException {
+		List<RosterRow> rows = parse(csv);
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		this.jdbcTemplate.update(INSERT_IMPORT, new MapSqlParameterSource(Map.of("schoolId", school.getId(),
+				"totalRows", rows.size(), "startedAt", Timestamp.from(Instant.now()))), keyHolder,
+				new String[] { "id" });
+		long id = keyHolder.getKey().longValue();
+		this.imports.execute(() -> run(id, school, rows));
+		return id;
+	}
+
+	/**
+	 * Reports the progress of an import, or its outcome once it has finished.
+	 * @param school the school the import belongs to
+	 * @param id the ID returned by {@link #start}
+	 * @return the report, or {@link Optional#empty()} if the school has no such import
+	 */
+	public Optional<RosterImportReport> findReport(School school, long id) {
+		Map<String, Object> params = Map.of("id", id, "schoolId", school.getId());
+		return this.jdbcTemplate.query(FIND_IMPORT, params, (rs, rowNum) -> {
+			Instant startedAt = rs.getTimestamp("started_at").toInstant();
+			Timestamp finishedAt = rs.getTimestamp("finished_at");
+			Duration elapsed = Duration.between(startedAt,
+					(finishedAt != null) ? finishedAt.toInstant() : Instant.now());
+			return new RosterImportReport(rs.getLong("id"), RosterImportReport.Status.valueOf(rs.getString("status")),
+					rs.getInt("total_rows"), rs.getInt("processed_rows"), rs.getInt("imported"),
+					this.jdbcTemplate.query(FIND_FAILURES, params,
+							(failure, failureNum) -> new RosterImportReport.Failure(failure.getInt("line_number"),
+									failure.getString("email"), failure.getString("reason"))),
+					elapsed);
+		}).stream().findFirst();
+	}
+
+	@Override
+	public void destroy() {
+		this.imports.shutdown();
+		this.hashPool.shutdown();
+	}
+
+	private void run(long id, School school, List<RosterRow> rows) {
+		RosterImportReport.Status status = RosterImportReport.Status.FAILED;
+		try {
+			importRows(id, school, rows);
+			status = RosterImportReport.Status.FINISHED;
+		}
+		catch (RuntimeException ex) {
+			logger.error("Roster import " + id + " for " + school.getName() + " failed", ex);
+		}
+		finally {
+			this.jdbcTemplate.update(
+					"UPDATE roster_imports SET status = :status, finished_at = :finishedAt WHERE id = :id",
+					Map.of("status", status.name(), "finishedAt", Timestamp.from(Instant.now()), "id", id));
+		}
+	}
+
+	private void importRows(long id, School school, List<RosterRow> rows) {
+		// 1. Check every row before anything is hashed or written
+		List<RosterImportReport.Failure> failures = new ArrayList<>();
+		List<RosterRow> accepted = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+		for (RosterRow row : rows) {
+			String problem = validate(school, row);
+			if (problem == null && !seen.add(row.emailNormalized())) {
+				problem = "Email appears more than once in the roster";
+			}
+			if (problem != null) {
+				failures.add(row.failure(problem));
+			}
+			else {
+				accepted.add(row);
+			}
+		}
+		List<RosterRow> toInsert = withoutExistingAccounts(accepted, failures);
+		this.transactionTemplate.executeWithoutResult(status -> recordFailures(id, failures));
+
+		// 2. Hash each batch on all cores, then insert it in its own transaction
+		for (int from = 0; from < toInsert.size(); from += this.batchSize) {
+			List<RosterRow> rowBatch = toInsert.subList(from, Math.min(from + this.batchSize, toInsert.size()));
+			List<Map<String, Object>> batch = this.hashPool
+				.submit(() -> rowBatch.parallelStream()
+					.map(row -> Map.<String, Object>of("firstName", row.firstName(), "lastName", row.lastName(),
+							"email", row.email(), "emailNormalized", row.emailNormalized(), "passwordHash",
+							this.passwordEncoder.encode(row.password())))
+					.toList())
+				.join();
+			try {
+				this.transactionTemplate.executeWithoutResult(status -> {
+					insert(batch);
+					addProgress(id, batch.size(), batch.size());
+				});
+			}
+			catch (DataAccessException ex) {
+				String reason = "Batch rejected by the database: " + ex.getMostSpecificCause().getMessage();
+				List<RosterImportReport.Failure> rejected = rowBatch.stream().map(row -> row.failure(reason)).toList();
+				this.transactionTemplate.executeWithoutResult(status -> recordFailures(id, rejected));
+			}
+		}
+	}
+
+	private void recordFailures(long id, List<RosterImportReport.Failure> failures) {
+		if (failures.isEmpty()) {
+			return;
+		}
+		this.jdbcTemplate.batchUpdate(INSERT_FAILURE,
+				failures.stream()
+					.map(failure -> new MapSqlParameterSource(
+							Map.of("id", id, "line", failure.line(), "reason", failure.reason()))
+						.addValue("email", failure.email()))
+					.toArray(MapSqlParameterSource[]::new));
+		addProgress(id, failures.size(), 0);
+	}
+
+	private void addProgress(long id, int processed, int imported) {
+		this.jdbcTemplate.update(ADD_PROGRESS, Map.of("processed", processed, "imported", imported, "id", id));
+	}
+
+	private void insert(List<Map<String, Object>> batch) {
+		this.jdbcTemplate.batchUpdate(INSERT_USER, SqlParameterSourceUtils.createBatch(batch));
+		List<Object> emails = batch.stream().map(row -> row.get("emailNormalized")).toList();
+		this.jdbcTemplate.update(GRANT_STUDENT_ROLE, Map.of("emails", emails));
+	}
+
+	private List<RosterRow> withoutExistingAccounts(List<RosterRow> rows, List<RosterImportReport.Failure> failures) {
+		Set<String> existing = new HashSet<>();
+		for (int from = 0; from < rows.size(); from += this.batchSize) {
+			List<String> emails = rows.subList(from, Math.min(from + this.batchSize, rows.size()))
+				.stream()
+				.map(RosterRow::emailNormalized)
+				.toList();
+			existing
+				.addAll(this.jdbcTemplate.queryForList(FIND_EXISTING_EMAILS, Map.of("emails", emails), String.class));
+		}
+		if (existing.isEmpty()) {
+			return rows;
+		}
+		List<RosterRow> remaining = new ArrayList<>(rows.size());
+		for (RosterRow row : rows) {
+			if (existing.contains(row.emailNormalized())) {
+				failures.add(row.failure("An account with this email already exists"));
+			}
+			else {
+				remaining.add(row);
+			}
+		}
+		return remaining;
+	}
+
+	private String validate(School school, RosterRow row) {
+		if (row.email().isEmpty() || !FormRules.isEmail(row.email())) {
+			return "Invalid email address";
+		}
+		boolean inSchool = this.schoolDomainIndex.findByEmail(row.email())
+			.map(match -> match.id().equals(school.getId()))
+			.orElse(false);
+		if (!inSchool) {
+			return "Email domain does not belong to " + school.getName();
+		}
+		if (row.firstName().isEmpty() || row.lastName().isEmpty()) {
+			return "First and last name are required";
+		}
+		if (row.firstName().length() > NAME_LENGTH || row.lastName().length() > NAME_LENGTH) {
+			return "Names are limited to " + NAME_LENGTH + " characters";
+		}
+		if (!FormRules.isStrongPassword(row.password())) {
+			return "Initial password must be at least " + FormRules.MIN_PASSWORD_LENGTH
+					+ " characters and contain uppercase, lowercase, and number";
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the roster, mapping columns by their header names. Blank lines are skipped.
+	 */
+	static List<RosterRow> parse(Reader csv) throws IOException {
+		BufferedReader reader = new BufferedReader(csv);
+		String header = reader.readLine();
+		if (header == null) {
+			return List.of();
+		}
+		List<String> names = splitLine(header.replace("\uFEFF", "")).stream()
+			.map(name -> name.trim().toLowerCase(Locale.ROOT))
+			.toList();
+		int[] index = new int[COLUMNS.length];
+		for (int i = 0; i < COLUMNS.length; i++) {
+			index[i] = names.indexOf(COLUMNS[i]);
+			if (index[i] < 0) {
+				throw new IllegalArgumentException("Roster header is missing the '" + COLUMNS[i] + "' column");
+			}
+		}
+		List<RosterRow> rows = new ArrayList<>();
+		int lineNumber = 1;
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			lineNumber++;
+			if (line.isBlank()) {
+				continue;
+			}
+			List<String> fields = splitLine(line);
+			rows.add(new RosterRow(lineNumber, field(fields, index[0]), field(fields, index[1]),
+					field(fields, index[2]), field(fields, index[3])));
+		}
+		return rows;
+	}
+
+	private static String field(List<String> fields, int index) {
+		return (index < fields.size()) ? fields.get(index).trim() : "";
+	}
+
+	/**
+	 * Splits one CSV line, honouring double-quoted fields and {@code ""} escapes.
+	 */
+	static List<String> splitLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					current.append('"');
+					i++;
+				}
+				else if (c == '"') {
+					quoted = false;
+				}
+				else {
+					current.append(c);
+				}
+			}
+			else if (c == '"') {
+				quoted = true;
+			}
+			else if (c == ',') {
+				fields.add(current.toString());
+				current.setLength(0);
+			}
+			else {
+				current.append(c);
+			}
+		}
+		fields.add(current.toString());
+		return fields;
+	}
+
+	/**
+	 * One student line of the roster.
+	 */
+	record RosterRow(int line, String firstName, String lastName, String email, String password) {
+
+		String emailNormalized() {
+			return EmailAddresses.normalize(this.email);
+		}
+
+		RosterImportReport.Failure failure(String reason) {
+			return new RosterImportReport.Failure(this.line, this.email, reason);
+		}
+
+	}
+
+}
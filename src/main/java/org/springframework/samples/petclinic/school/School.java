@@ -7,9 +7,9 @@ import java.util.List;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotEmpty;
@@ -30,6 +30,7 @@ import org.springframework.samples.petclinic.validation.UniqueDomain;
 @Entity
 @Table(name = "schools")
 @UniqueDomain // <--- validate unique domain
+@EntityListeners(SchoolDomainIndexListener.class)
 @Getter
 @Setter
 // Intercept the delete command and turn it into an update
@@ -55,7 +56,11 @@ public class School extends NamedEntity {
 	@Column(name = "deleted_at")
 	private LocalDateTime deletedAt;
 
-	@OneToMany(cascade = CascadeType.ALL, mappedBy = "school", fetch = FetchType.EAGER)
+	/**
+	 * All locations of the school, loaded on first access. Pages list them through
+	 * {@link LocationRepository} instead.
+	 */
+	@OneToMany(cascade = CascadeType.ALL, mappedBy = "school")
 	private List<Location> locations = new ArrayList<>();
 
 	/**
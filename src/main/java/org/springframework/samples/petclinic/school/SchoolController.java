@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.samples.petclinic.user.PlayerCard;
 import org.springframework.samples.petclinic.user.UserRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -30,28 +31,45 @@ import java.util.Map;
  * a "Player Card" sidebar.
  * </p>
  *
+ * <p>
+ * None of the pages load a school's locations with the school. The list shows a
+ * {@link SchoolSummary} with a location count, and the locations themselves are paged
+ * separately at {@code /schools/{id}/locations}.
+ * </p>
+ *
  * @author Edward
  */
 @Controller
 public class SchoolController {
 
+	private static final int LOCATIONS_PER_PAGE = 20;
+
 	private final SchoolRepository schoolRepository;
 
+	private final LocationRepository locationRepository;
+
 	private final UserRepository userRepository;
 
+	private final SchoolDomainIndex schoolDomainIndex;
+
 	/**
 	 * Constructs a new {@code SchoolController} with the required dependencies.
 	 * @param schoolRepository the repository for school persistence operations
+	 * @param locationRepository the repository for paging a school's locations
 	 * @param userRepository the repository for looking up the authenticated user's
 	 * profile
+	 * @param schoolDomainIndex the in-memory index used to resolve school slugs
 	 */
-	public SchoolController(SchoolRepository schoolRepository, UserRepository userRepository) {
+	public SchoolController(SchoolRepository schoolRepository, LocationRepository locationRepository,
+			UserRepository userRepository, SchoolDomainIndex schoolDomainIndex) {
 		this.schoolRepository = schoolRepository;
+		this.locationRepository = locationRepository;
 		this.userRepository = userRepository;
+		this.schoolDomainIndex = schoolDomainIndex;
 	}
 
 	/**
-	 * Displays a paginated list of all schools.
+	 * Displays a paginated list of all schools, with the number of locations of each.
 	 * @param page the page number to display (1-indexed, defaults to 1)
 	 * @param model the {@link Model} to populate with pagination data and school list
 	 * @return the view name for the school list template
@@ -60,7 +78,7 @@ public class SchoolController {
 	public String showSchoolList(@RequestParam(defaultValue = "1") int page, Model model) {
 		// Pagination setup (5 items per page)
 		Pageable pageable = PageRequest.of(page - 1, 5);
-		Page<School> schoolPage = schoolRepository.findAll(pageable);
+		Page<SchoolSummary> schoolPage = schoolRepository.findSummaries(pageable);
 
 		model.addAttribute("currentPage", page);
 		model.addAttribute("totalPages", schoolPage.getTotalPages());
@@ -128,15 +146,43 @@ public class SchoolController {
 		return mav;
 	}
 
+	/**
+	 * Displays one page of a school's locations, each followed by the locations below it.
+	 * @param schoolId the numeric ID of the school
+	 * @param page the page number to display (1-indexed, defaults to 1)
+	 * @param model the {@link Model} to populate with the school and the page of
+	 * locations
+	 * @return the view name for the location list template
+	 * @throws ResponseStatusException with {@link HttpStatus#NOT_FOUND} if no school
+	 * matches the given ID
+	 */
+	@GetMapping("/schools/{schoolId:\\d+}/locations")
+	public String showLocationList(@PathVariable("schoolId") int schoolId, @RequestParam(defaultValue = "1") int page,
+			Model model) {
+		School school = schoolRepository.findById(schoolId)
+			.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+					"School with id " + schoolId + " not found."));
+		Page<LocationSummary> locationPage = locationRepository.findSummaries(schoolId,
+				PageRequest.of(Math.max(page, 1) - 1, LOCATIONS_PER_PAGE));
+
+		model.addAttribute(school);
+		model.addAttribute("currentPage", page);
+		model.addAttribute("totalPages", locationPage.getTotalPages());
+		model.addAttribute("totalItems", locationPage.getTotalElements());
+		model.addAttribute("listLocations", locationPage.getContent());
+		return "schools/locationList";
+	}
+
 	/**
 	 * Displays the school detail page for a school looked up by its domain slug.
 	 *
 	 * <p>
 	 * The slug is converted to a full domain by appending {@code ".edu"} (e.g.,
-	 * {@code "kirkwood"} becomes {@code "kirkwood.edu"}). If the user is authenticated,
-	 * their profile data is loaded and added to the model as {@code currentUser} so it
-	 * can be displayed in the "Player Card" sidebar. The user's phone number is formatted
-	 * from a raw 10-digit string to {@code (XXX) XXX-XXXX} for display.
+	 * {@code "kirkwood"} becomes {@code "kirkwood.edu"}) and resolved through the
+	 * in-memory {@link SchoolDomainIndex}, so a guest's view runs no query at all. If the
+	 * user is authenticated, their {@link PlayerCard} is loaded in one query and added to
+	 * the model as {@code currentUser} so it can be displayed in the "Player Card"
+	 * sidebar.
 	 * </p>
 	 * @param slug the domain slug portion of the school (e.g., {@code "kirkwood"})
 	 * @param principal the {@link Principal} representing the currently logged-in user,
@@ -152,23 +198,14 @@ public class SchoolController {
 		String fullDomain = slug + ".edu";
 
 		ModelAndView mav = new ModelAndView("schools/schoolDetails");
-		School school = schoolRepository.findByDomain(fullDomain)
+		SchoolDomain school = schoolDomainIndex.findByDomain(fullDomain)
 			.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
 					"School with domain '" + fullDomain + "' not found."));
-		mav.addObject(school);
+		mav.addObject("school", school);
 
 		// Fetch and add the logged-in user if they are authenticated
 		if (principal != null) {
-			userRepository.findByEmail(principal.getName()).ifPresent(user -> {
-
-				// Format the 10-digit database phone number for display
-				String phone = user.getPhone();
-				if (phone != null && phone.length() == 10) {
-					user.setPhone(phone.replaceFirst("(\\d{3})(\\d{3})(\\d{4})", "($1) $2-$3"));
-				}
-
-				mav.addObject("currentUser", user);
-			});
+			userRepository.findPlayerCard(principal.getName()).ifPresent(card -> mav.addObject("currentUser", card));
 		}
 
 		return mav;
@@ -0,0 +1,14 @@
+package org.springframework.samples.petclinic.school;
+
+/**
+ * Lightweight, immutable view of a {@link School} holding only what domain lookups need.
+ * Loaded by {@link SchoolRepository#findAllDomains()} so that building the
+ * {@link SchoolDomainIndex} does not pull every school's locations into memory.
+ *
+ * @param id the school ID
+ * @param name the school name
+ * @param domain the school's email domain (e.g., {@code "kirkwood.edu"})
+ */
+public record SchoolDomain(Integer id, String name, String domain) {
+
+}
@@ -0,0 +1,173 @@
+package org.springframework.samples.petclinic.school;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.system.CacheVersions;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of every {@link School} email domain, used to resolve the school for an
+ * email address and to check domain uniqueness without a database round trip.
+ *
+ * <p>
+ * Domains are stored in a trie keyed by their labels in reverse order, so
+ * {@code "kirkwood.edu"} is stored under {@code edu -> kirkwood}. Resolving
+ * {@code "alex@student.kirkwood.edu"} walks {@code edu -> kirkwood -> student} once and
+ * returns the deepest school found, which is the same longest-suffix match the
+ * controllers used to perform with one {@code findByDomain} query per subdomain.
+ * </p>
+ *
+ * <p>
+ * The trie is built lazily from {@link SchoolRepository#findAllDomains()} and is never
+ * modified; a rebuilt trie replaces it atomically. {@link SchoolDomainIndexListener}
+ * calls {@link #invalidate()} after any school write commits, and the next lookup
+ * rebuilds it.
+ * </p>
+ *
+ * <p>
+ * Writes made by other replicas are noticed through the {@value #CACHE_NAME} row of
+ * {@link CacheVersions}, which the listener bumps with every write. Lookups read it at
+ * most once per {@code petclinic.school.domain-index.check-interval} and rebuild the trie
+ * when it has moved, so a school added on one replica resolves on all of them within that
+ * interval.
+ * </p>
+ *
+ * @see SchoolDomainIndexListener
+ */
+@Component
+public class SchoolDomainIndex {
+
+	/**
+	 * The name of the schools' row in {@link CacheVersions}.
+	 */
+	public static final String CACHE_NAME = "schools";
+
+	private final SchoolRepository schoolRepository;
+
+	private final CacheVersions.Watch remoteWrites;
+
+	/** Bumped on every invalidation, so a rebuild racing a write is not published. */
+	private final AtomicLong version = new AtomicLong();
+
+	private volatile Node root;
+
+	/**
+	 * Constructs a new {@code SchoolDomainIndex}.
+	 * @param schoolRepository the repository the index is loaded from
+	 * @param cacheVersions the versions that signal writes made by other replicas
+	 * @param checkInterval how often lookups check for such writes
+	 */
+	public SchoolDomainIndex(SchoolRepository schoolRepository, CacheVersions cacheVersions,
+			@Value("${petclinic.school.domain-index.check-interval:5s}") Duration checkInterval) {
+		this.schoolRepository = schoolRepository;
+		this.remoteWrites = new CacheVersions.Watch(cacheVersions, CACHE_NAME, checkInterval);
+	}
+
+	/**
+	 * Finds the school whose domain is the longest suffix of the email's domain. For
+	 * example, {@code "alex@student.kirkwood.edu"} matches a school registered with
+	 * {@code "kirkwood.edu"} unless one is registered with
+	 * {@code "student.kirkwood.edu"}. Bare top-level domains such as {@code "edu"} never
+	 * match.
+	 * @param email the email address to resolve
+	 * @return the matching school, or {@link Optional#empty()} if none matches
+	 */
+	public Optional<SchoolDomain> findByEmail(String email) {
+		if (email == null) {
+			return Optional.empty();
+		}
+		String[] labels = labels(email.substring(email.indexOf('@') + 1));
+		Node node = current();
+		SchoolDomain match = null;
+		for (int i = labels.length - 1; i >= 0 && node != null; i--) {
+			node = node.children.get(labels[i]);
+			if (node != null && node.school != null && labels.length - i >= 2) {
+				match = node.school;
+			}
+		}
+		return Optional.ofNullable(match);
+	}
+
+	/**
+	 * Finds the school registered with exactly the given domain, ignoring case.
+	 * @param domain the domain to look up (e.g., {@code "kirkwood.edu"})
+	 * @return the school owning the domain, or {@link Optional#empty()}
+	 */
+	public Optional<SchoolDomain> findByDomain(String domain) {
+		if (domain == null) {
+			return Optional.empty();
+		}
+		String[] labels = labels(domain);
+		Node node = current();
+		for (int i = labels.length - 1; i >= 0 && node != null; i--) {
+			node = node.children.get(labels[i]);
+		}
+		return Optional.ofNullable(node).map(found -> found.school);
+	}
+
+	/**
+	 * Discards the current trie. The next lookup reloads it from the database.
+	 */
+	public void invalidate() {
+		this.version.incrementAndGet();
+		this.root = null;
+	}
+
+	private Node current() {
+		if (this.remoteWrites.changed()) {
+			invalidate();
+		}
+		Node snapshot = this.root;
+		if (snapshot != null) {
+			return snapshot;
+		}
+		long expected = this.version.get();
+		snapshot = build(this.schoolRepository.findAllDomains());
+		synchronized (this) {
+			// Only publish if no school was written while we were loading
+			if (this.version.get() == expected) {
+				this.root = snapshot;
+			}
+		}
+		return snapshot;
+	}
+
+	static Node build(Collection<SchoolDomain> schools) {
+		Node root = new Node();
+		for (SchoolDomain school : schools) {
+			if (school.domain() == null || school.domain().isBlank()) {
+				continue;
+			}
+			String[] labels = labels(school.domain());
+			Node node = root;
+			for (int i = labels.length - 1; i >= 0; i--) {
+				node = node.children.computeIfAbsent(labels[i], label -> new Node());
+			}
+			node.school = school;
+		}
+		return root;
+	}
+
+	private static String[] labels(String domain) {
+		return domain.trim().toLowerCase(Locale.ROOT).split("\\.");
+	}
+
+	/**
+	 * One domain label in the trie. Only mutated while the trie is being built.
+	 */
+	static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+
+		private SchoolDomain school;
+
+	}
+
+}
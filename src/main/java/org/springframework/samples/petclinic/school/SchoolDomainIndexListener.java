@@ -0,0 +1,65 @@
+package org.springframework.samples.petclinic.school;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.samples.petclinic.system.CacheVersions;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps the {@link SchoolDomainIndex} in step with the
+ * {@code schools} table. Hibernate obtains it from the Spring context, so the index is
+ * injected. It is looked up lazily because the index itself depends on the
+ * {@link jakarta.persistence.EntityManagerFactory} that creates this listener.
+ *
+ * <p>
+ * The index is invalidated once the surrounding transaction has finished, rather than
+ * immediately, so that a concurrent lookup cannot reload the old rows and keep them. The
+ * schools' {@link CacheVersions} row is bumped in the transaction itself, so the indexes
+ * of the other replicas reload once it commits.
+ * </p>
+ */
+public class SchoolDomainIndexListener {
+
+	private final ObjectProvider<SchoolDomainIndex> schoolDomainIndex;
+
+	private final ObjectProvider<CacheVersions> cacheVersions;
+
+	/**
+	 * Constructs a new {@code SchoolDomainIndexListener}.
+	 * @param schoolDomainIndex the index to invalidate on school writes, if present
+	 * @param cacheVersions the versions to bump on school writes, if present
+	 */
+	public SchoolDomainIndexListener(ObjectProvider<SchoolDomainIndex> schoolDomainIndex,
+			ObjectProvider<CacheVersions> cacheVersions) {
+		this.schoolDomainIndex = schoolDomainIndex;
+		this.cacheVersions = cacheVersions;
+	}
+
+	/**
+	 * Invalidates the index after a school is created, updated or (soft) deleted.
+	 * @param school the school that was written
+	 */
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void schoolWritten(School school) {
+		this.cacheVersions.ifAvailable((versions) -> versions.bump(SchoolDomainIndex.CACHE_NAME));
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.schoolDomainIndex.ifAvailable(SchoolDomainIndex::invalidate);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCompletion(int status) {
+				schoolDomainIndex.ifAvailable(SchoolDomainIndex::invalidate);
+			}
+
+		});
+	}
+
+}
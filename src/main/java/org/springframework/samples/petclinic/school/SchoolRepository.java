@@ -4,9 +4,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
 import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SchoolRepository extends Repository<School, Integer> {
@@ -17,6 +21,19 @@ public interface SchoolRepository extends Repository<School, Integer> {
 	@Transactional(readOnly = true)
 	Page<School> findAll(Pageable pageable);
 
+	/**
+	 * Loads one page of the school list with each school's location count, in one query
+	 * (plus a count query when there is more than one page).
+	 * @param pageable the page to load
+	 * @return the page of school summaries, by name
+	 */
+	@Transactional(readOnly = true)
+	@Query(value = """
+			SELECT new org.springframework.samples.petclinic.school.SchoolSummary(s.id, s.name, s.domain, s.status,
+			(SELECT COUNT(l) FROM Location l WHERE l.school = s))
+			FROM School s ORDER BY s.name""", countQuery = "SELECT COUNT(s) FROM School s")
+	Page<SchoolSummary> findSummaries(Pageable pageable);
+
 	void save(School school);
 
 	@Transactional(readOnly = true)
@@ -26,4 +43,15 @@ public interface SchoolRepository extends Repository<School, Integer> {
 	@Query("SELECT s from School s Where s.domain = :domain")
 	Optional<School> findByDomain(String domain);
 
+	/**
+	 * Loads the ID, name and domain of every school for the {@link SchoolDomainIndex}.
+	 * The query never flushes, because it may run while Hibernate validates a school that
+	 * is being saved.
+	 * @return one {@link SchoolDomain} per school
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT new org.springframework.samples.petclinic.school.SchoolDomain(s.id, s.name, s.domain) FROM School s")
+	@QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+	List<SchoolDomain> findAllDomains();
+
 }
@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.school;
+
+/**
+ * Read-only row of the school list, loaded by {@link SchoolRepository#findSummaries} with
+ * its location count computed in the same query, so listing a school never loads its
+ * locations.
+ *
+ * @param id the school ID
+ * @param name the school name
+ * @param domain the school's email domain (e.g., {@code "kirkwood.edu"})
+ * @param status the school status
+ * @param locationCount the number of (not deleted) locations of the school
+ */
+public record SchoolSummary(Integer id, String name, String domain, School.SchoolStatus status, long locationCount) {
+
+}
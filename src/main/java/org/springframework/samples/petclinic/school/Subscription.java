@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
 @Setter
 @SQLDelete(sql = "UPDATE subscriptions SET deleted_at = NOW() WHERE id = ?")
 @SQLRestriction("deleted_at IS NULL")
+@EntityListeners(PricingPageListener.class)
 public class Subscription extends NamedEntity {
 
 	@Column(name = "description")
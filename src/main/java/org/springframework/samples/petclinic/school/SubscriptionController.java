@@ -1,12 +1,16 @@
 package org.springframework.samples.petclinic.school;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.samples.petclinic.system.StaticPagePublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
 
@@ -15,12 +19,23 @@ public class SubscriptionController {
 
 	private final SubscriptionRepository subscriptionRepository;
 
-	public SubscriptionController(SubscriptionRepository subscriptionRepository) {
+	private final StaticPagePublisher staticPages;
+
+	public SubscriptionController(SubscriptionRepository subscriptionRepository, StaticPagePublisher staticPages) {
 		this.subscriptionRepository = subscriptionRepository;
+		this.staticPages = staticPages;
 	}
 
+	/**
+	 * Shows the pricing table, from the pre-rendered copy when the visitor would see
+	 * exactly that page.
+	 */
 	@GetMapping("/pricing")
-	public String showPricingTable(Model model) {
+	public String showPricingTable(Model model, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		if (staticPages.serve("/pricing", request, response)) {
+			return null;
+		}
 		Collection<Subscription> subscriptions = subscriptionRepository.findAllBy();
 		model.addAttribute("subscriptions", subscriptions.stream().toList());
 		return "pricing/pricing";
@@ -0,0 +1,69 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts an {@link AdmissionGate} in front of the connection pool. Each request queues for
+ * one of {@code petclinic.admission.permits} permits, by default the pool's maximum size,
+ * with the priority {@link AdmissionFilter} gives its path, and is answered with a
+ * {@code 503} after waiting {@code petclinic.admission.queue-timeout}. Without the gate,
+ * threads wait inside the pool itself, which has no order, no priorities and no metrics.
+ *
+ * <p>
+ * Turn it off with {@code petclinic.admission.enabled=false}. The beans are defined
+ * either way and read the property when they are created, because AOT processing would
+ * fix a condition on it when the jar is built; switched off, the data source is left
+ * unwrapped and the filter is not registered.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+class AdmissionConfiguration {
+
+	@Bean
+	AdmissionGate admissionGate(
+			@Value("${petclinic.admission.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+			@Value("${petclinic.admission.queue-timeout:5s}") Duration queueTimeout,
+			@Value("${petclinic.admission.default-priority:5}") int defaultPriority) {
+		return new AdmissionGate(permits, queueTimeout, defaultPriority);
+	}
+
+	@Bean
+	static BeanPostProcessor admissionControlDataSourcePostProcessor(
+			@Value("${petclinic.admission.enabled:true}") boolean enabled, ObjectProvider<AdmissionGate> gate) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (enabled && bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlDataSource)) {
+					return new AdmissionControlDataSource(dataSource, gate.getObject());
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	@Bean
+	FilterRegistrationBean<AdmissionFilter> admissionFilter(
+			@Value("${petclinic.admission.enabled:true}") boolean enabled, AdmissionGate gate,
+			@Value("${petclinic.admission.priorities:}") String priorities,
+			@Value("${petclinic.admission.default-priority:5}") int defaultPriority,
+			@Value("${petclinic.admission.retry-after:1s}") Duration retryAfter) {
+		FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(
+				new AdmissionFilter(gate, priorities, defaultPriority, retryAfter.toSeconds()));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+		registration.setEnabled(enabled);
+		return registration;
+	}
+
+}
@@ -0,0 +1,108 @@
+package org.springframework.samples.petclinic.system;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Takes a permit from an {@link AdmissionGate} before borrowing a connection from the
+ * pool, and returns it when the connection is closed, so that threads reach the pool in
+ * the gate's order and never queue inside it.
+ */
+public class AdmissionControlDataSource extends DelegatingDataSource {
+
+	private final AdmissionGate gate;
+
+	/**
+	 * Constructs a new {@code AdmissionControlDataSource}.
+	 * @param targetDataSource the connection pool
+	 * @param gate the gate with one permit per pooled connection
+	 */
+	public AdmissionControlDataSource(DataSource targetDataSource, AdmissionGate gate) {
+		super(targetDataSource);
+		this.gate = gate;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		admit();
+		try {
+			return admitted(obtainTargetDataSource().getConnection());
+		}
+		catch (SQLException | RuntimeException ex) {
+			this.gate.release();
+			throw ex;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		admit();
+		try {
+			return admitted(obtainTargetDataSource().getConnection(username, password));
+		}
+		catch (SQLException | RuntimeException ex) {
+			this.gate.release();
+			throw ex;
+		}
+	}
+
+	private void admit() throws SQLException {
+		try {
+			this.gate.acquire();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", ex);
+		}
+	}
+
+	/**
+	 * Wraps a connection so that closing it, the first time only, returns its permit.
+	 */
+	private Connection admitted(Connection connection) {
+		boolean[] closed = new boolean[1];
+		return (Connection) Proxy.newProxyInstance(AdmissionControlDataSource.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+						case "close" -> {
+							if (closed[0]) {
+								return null;
+							}
+							closed[0] = true;
+							try {
+								connection.close();
+							}
+							finally {
+								this.gate.release();
+							}
+							return null;
+						}
+						case "equals" -> {
+							return proxy == args[0];
+						}
+						case "hashCode" -> {
+							return System.identityHashCode(proxy);
+						}
+						case "toString" -> {
+							return "Admitted " + connection;
+						}
+						default -> {
+							try {
+								return method.invoke(connection, args);
+							}
+							catch (InvocationTargetException ex) {
+								throw ex.getTargetException();
+							}
+						}
+					}
+				});
+	}
+
+}
@@ -0,0 +1,135 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Sets the priority each request queues for a database connection with, from the first of
+ * {@code petclinic.admission.priorities} whose path pattern matches it, and answers
+ * {@code 503 Service Unavailable} with a {@code Retry-After} header when the
+ * {@link AdmissionGate} turns it away.
+ *
+ * <p>
+ * Runs ahead of Spring Security, so that the user lookup behind a login queues with the
+ * login's priority too.
+ * </p>
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+	private final AdmissionGate gate;
+
+	private final Map<PathPattern, Integer> priorities = new LinkedHashMap<>();
+
+	private final int defaultPriority;
+
+	private final String retryAfter;
+
+	/**
+	 * Constructs a new {@code AdmissionFilter}.
+	 * @param gate the gate whose queue the requests join
+	 * @param priorities comma-separated {@code <path pattern>=<priority>} pairs, first
+	 * match wins
+	 * @param defaultPriority the priority of requests that match none of them
+	 * @param retryAfterSeconds the {@code Retry-After} sent with a rejection
+	 */
+	public AdmissionFilter(AdmissionGate gate, String priorities, int defaultPriority, long retryAfterSeconds) {
+		this.gate = gate;
+		for (String entry : StringUtils.commaDelimitedListToStringArray(priorities)) {
+			int separator = entry.lastIndexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException("Expected <path pattern>=<priority> but got '" + entry + "'");
+			}
+			this.priorities.put(PathPatternParser.defaultInstance.parse(entry.substring(0, separator).trim()),
+					Integer.parseInt(entry.substring(separator + 1).trim()));
+		}
+		this.defaultPriority = defaultPriority;
+		this.retryAfter = Long.toString(retryAfterSeconds);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		this.gate.setPriority(priority(request));
+		try {
+			chain.doFilter(request, new RetryAfterResponse(response, this.retryAfter));
+		}
+		catch (ServletException | RuntimeException ex) {
+			if (!rejected(ex) || response.isCommitted()) {
+				throw ex;
+			}
+			response.setHeader(HttpHeaders.RETRY_AFTER, this.retryAfter);
+			response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+		}
+		finally {
+			this.gate.clearPriority();
+		}
+	}
+
+	int priority(HttpServletRequest request) {
+		PathContainer path = PathContainer
+			.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+		for (Map.Entry<PathPattern, Integer> entry : this.priorities.entrySet()) {
+			if (entry.getKey().matches(path)) {
+				return entry.getValue();
+			}
+		}
+		return this.defaultPriority;
+	}
+
+	private static boolean rejected(Throwable ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof AdmissionRejectedException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds {@code Retry-After} to a {@code 503} sent by the error handling of Spring MVC.
+	 */
+	private static final class RetryAfterResponse extends HttpServletResponseWrapper {
+
+		private final String retryAfter;
+
+		RetryAfterResponse(HttpServletResponse response, String retryAfter) {
+			super(response);
+			this.retryAfter = retryAfter;
+		}
+
+		@Override
+		public void sendError(int status) throws IOException {
+			addRetryAfter(status);
+			super.sendError(status);
+		}
+
+		@Override
+		public void sendError(int status, String message) throws IOException {
+			addRetryAfter(status);
+			super.sendError(status, message);
+		}
+
+		private void addRetryAfter(int status) {
+			if (status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+				setHeader(HttpHeaders.RETRY_AFTER, this.retryAfter);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,227 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Hands out a fixed number of permits, one per database connection, to waiting threads in
+ * priority order and first come, first served within a priority.
+ *
+ * <p>
+ * A thread that finds no permit free queues for at most the queue timeout and is then
+ * refused with an {@link AdmissionRejectedException}. A released permit goes straight to
+ * the head of the queue, so a newly arrived thread never takes it ahead of one already
+ * waiting. Lower numbers are higher priorities; the priority a thread queues with is set
+ * for the duration of a request by {@link AdmissionFilter}.
+ * </p>
+ *
+ * <p>
+ * The time each thread waits is published as the {@code petclinic.db.admission.wait}
+ * timer, tagged with the priority and whether it was admitted or rejected, and the queue
+ * length and free permits as the {@code petclinic.db.admission.queued} and
+ * {@code petclinic.db.admission.available} gauges.
+ * </p>
+ */
+public class AdmissionGate implements MeterBinder {
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+
+	private final ThreadLocal<Integer> priority = new ThreadLocal<>();
+
+	private final int permits;
+
+	private final long timeoutNanos;
+
+	private final int defaultPriority;
+
+	private int available;
+
+	private long arrivals;
+
+	private volatile MeterRegistry registry;
+
+	/**
+	 * Constructs a new {@code AdmissionGate}.
+	 * @param permits the number of permits, normally the connection pool's maximum size
+	 * @param queueTimeout how long a thread waits for a permit before it is rejected
+	 * @param defaultPriority the priority of threads that have not set one
+	 */
+	public AdmissionGate(int permits, Duration queueTimeout, int defaultPriority) {
+		if (permits < 1) {
+			throw new IllegalArgumentException("An admission gate needs at least one permit");
+		}
+		this.permits = permits;
+		this.available = permits;
+		this.timeoutNanos = queueTimeout.toNanos();
+		this.defaultPriority = defaultPriority;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+		Gauge.builder("petclinic.db.admission.queued", this, AdmissionGate::getQueued)
+			.description("Threads waiting for a database connection permit")
+			.register(registry);
+		Gauge.builder("petclinic.db.admission.available", this, AdmissionGate::getAvailable)
+			.description("Database connection permits not in use")
+			.register(registry);
+	}
+
+	/**
+	 * Sets the priority the current thread queues with until {@link #clearPriority()}.
+	 * @param priority the priority, lower numbers first
+	 */
+	public void setPriority(int priority) {
+		this.priority.set(priority);
+	}
+
+	public void clearPriority() {
+		this.priority.remove();
+	}
+
+	/**
+	 * Takes a permit, waiting behind every thread with the same or a higher priority.
+	 * @throws AdmissionRejectedException if no permit was free within the queue timeout
+	 * @throws InterruptedException if the thread was interrupted while waiting
+	 */
+	public void acquire() throws AdmissionRejectedException, InterruptedException {
+		Integer threadPriority = this.priority.get();
+		int priority = (threadPriority != null) ? threadPriority : this.defaultPriority;
+		long started = System.nanoTime();
+		this.lock.lock();
+		try {
+			if (this.available > 0 && this.waiters.isEmpty()) {
+				this.available--;
+				record(priority, "admitted", 0);
+				return;
+			}
+			Waiter waiter = new Waiter(priority, this.arrivals++, this.lock.newCondition());
+			this.waiters.add(waiter);
+			long remaining = this.timeoutNanos;
+			try {
+				while (!waiter.admitted && remaining > 0) {
+					remaining = waiter.signal.awaitNanos(remaining);
+				}
+			}
+			catch (InterruptedException ex) {
+				if (waiter.admitted) {
+					releaseLocked();
+				}
+				else {
+					this.waiters.remove(waiter);
+				}
+				throw ex;
+			}
+			long waited = System.nanoTime() - started;
+			if (!waiter.admitted) {
+				this.waiters.remove(waiter);
+				record(priority, "rejected", waited);
+				throw new AdmissionRejectedException(
+						"No database connection was free within " + TimeUnit.NANOSECONDS.toMillis(this.timeoutNanos)
+								+ " ms; " + this.waiters.size() + " requests are still waiting");
+			}
+			record(priority, "admitted", waited);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a permit, handing it to the first thread in the queue if there is one.
+	 */
+	public void release() {
+		this.lock.lock();
+		try {
+			releaseLocked();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	public int getPermits() {
+		return this.permits;
+	}
+
+	public int getAvailable() {
+		this.lock.lock();
+		try {
+			return this.available;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	public int getQueued() {
+		this.lock.lock();
+		try {
+			return this.waiters.size();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void releaseLocked() {
+		Waiter next = this.waiters.poll();
+		if (next != null) {
+			next.admitted = true;
+			next.signal.signal();
+		}
+		else {
+			this.available++;
+		}
+	}
+
+	private void record(int priority, String outcome, long nanos) {
+		MeterRegistry registry = this.registry;
+		if (registry != null) {
+			Timer.builder("petclinic.db.admission.wait")
+				.description("Time spent waiting for a database connection permit")
+				.tag("priority", Integer.toString(priority))
+				.tag("outcome", outcome)
+				.register(registry)
+				.record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * A queued thread, ordered by priority and then by arrival.
+	 */
+	private static final class Waiter implements Comparable<Waiter> {
+
+		private final int priority;
+
+		private final long arrival;
+
+		private final Condition signal;
+
+		private boolean admitted;
+
+		Waiter(int priority, long arrival, Condition signal) {
+			this.priority = priority;
+			this.arrival = arrival;
+			this.signal = signal;
+		}
+
+		@Override
+		public int compareTo(Waiter other) {
+			int byPriority = Integer.compare(this.priority, other.priority);
+			return (byPriority != 0) ? byPriority : Long.compare(this.arrival, other.arrival);
+		}
+
+	}
+
+}
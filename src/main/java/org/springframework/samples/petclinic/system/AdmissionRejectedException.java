@@ -0,0 +1,21 @@
+package org.springframework.samples.petclinic.system;
+
+import java.sql.SQLTransientConnectionException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown by {@link AdmissionGate} when no database connection became free within the
+ * queue timeout. Spring MVC finds it among the causes of the data access exception it
+ * surfaces as and answers {@code 503 Service Unavailable}.
+ */
+@SuppressWarnings("serial")
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AdmissionRejectedException extends SQLTransientConnectionException {
+
+	public AdmissionRejectedException(String message) {
+		super(message);
+	}
+
+}
@@ -16,38 +16,36 @@
 
 package org.springframework.samples.petclinic.system;
 
-import org.springframework.boot.cache.autoconfigure.JCacheManagerCustomizer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
-import javax.cache.configuration.MutableConfiguration;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 
 /**
- * Cache configuration intended for caches providing the JCache API. This configuration
- * creates the used cache for the application and enables statistics that become
- * accessible via JMX.
+ * Enables caching. The caches themselves are Caffeine caches built by the
+ * {@link CacheRegistry} from {@code petclinic.cache.*} in {@code application.properties}:
+ * every cache is named up front, bounded and records statistics. Actuator publishes them
+ * as the {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and
+ * {@code cache.size} metrics, and {@link CacheRegistryEndpoint} reports and resizes each
+ * cache.
  */
 @Configuration(proxyBeanMethods = false)
 @EnableCaching
 class CacheConfiguration {
 
 	@Bean
-	public JCacheManagerCustomizer petclinicCacheConfigurationCustomizer() {
-		return cm -> cm.createCache("vets", cacheConfiguration());
-	}
-
-	/**
-	 * Create a simple configuration that enable statistics via the JCache programmatic
-	 * configuration API.
-	 * <p>
-	 * Within the configuration object that is provided by the JCache API standard, there
-	 * is only a very limited set of configuration options. The really relevant
-	 * configuration options (like the size limit) must be set via a configuration
-	 * mechanism that is provided by the selected JCache implementation.
-	 */
-	private javax.cache.configuration.Configuration<Object, Object> cacheConfiguration() {
-		return new MutableConfiguration<>().setStatisticsEnabled(true);
+	@SuppressWarnings("unchecked")
+	CacheRegistry cacheManager(Environment environment, ListableBeanFactory beanFactory) {
+		Map<String, CacheLoader<Object, Object>> loaders = new LinkedHashMap<>();
+		beanFactory.getBeansOfType(CacheLoader.class)
+			.forEach((name, loader) -> loaders.put(name, (CacheLoader<Object, Object>) loader));
+		return new CacheRegistry(environment, loaders);
 	}
 
 }
@@ -0,0 +1,211 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * The application's {@link CacheManager}: a fixed set of Caffeine caches, each built from
+ * {@code petclinic.cache.<name>.*} properties and resizable while the application runs.
+ *
+ * <p>
+ * The cache names are listed in {@code petclinic.cache.names}. Each cache reads
+ * {@code maximum-size} or {@code maximum-weight}, {@code expire-after-write},
+ * {@code expire-after-access} and {@code refresh-after-write}, falling back to
+ * {@code petclinic.cache.defaults.*} for any it does not set. Every cache is bounded and
+ * records statistics. A weight-bounded cache weighs collections and pages by their number
+ * of elements and anything else as one. A cache that refreshes needs a
+ * {@link CacheLoader} bean named {@code <name>CacheLoader}.
+ * </p>
+ *
+ * <p>
+ * Caffeine cannot add a policy to a built cache, so {@link #resize} can only change the
+ * bound and expiry times a cache was configured with.
+ * </p>
+ */
+public class CacheRegistry implements CacheManager {
+
+	static final String PREFIX = "petclinic.cache.";
+
+	private final Map<String, CaffeineCache> caches = new LinkedHashMap<>();
+
+	/**
+	 * Builds the caches listed in {@code petclinic.cache.names}.
+	 * @param properties where the cache properties are read from
+	 * @param loaders the {@link CacheLoader} beans by bean name, for caches that refresh
+	 * @throws IllegalStateException if a cache is misconfigured
+	 */
+	public CacheRegistry(PropertyResolver properties, Map<String, CacheLoader<Object, Object>> loaders) {
+		for (String name : properties.getProperty(PREFIX + "names", String[].class, new String[0])) {
+			String trimmed = name.trim();
+			if (!trimmed.isEmpty()) {
+				this.caches.put(trimmed, build(trimmed, properties, loaders.get(trimmed + "CacheLoader")));
+			}
+		}
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		return this.caches.get(name);
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return List.copyOf(this.caches.keySet());
+	}
+
+	/**
+	 * Describes a cache: its current size, bound, expiry settings and statistics. Times
+	 * are in milliseconds.
+	 * @param name the cache name
+	 * @return the description, or {@code null} if there is no such cache
+	 */
+	public Map<String, Object> describe(String name) {
+		CaffeineCache cache = this.caches.get(name);
+		if (cache == null) {
+			return null;
+		}
+		com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+		Policy<Object, Object> policy = nativeCache.policy();
+		CacheStats stats = nativeCache.stats();
+		Map<String, Object> description = new LinkedHashMap<>();
+		description.put("size", nativeCache.estimatedSize());
+		policy.eviction().ifPresent(eviction -> {
+			if (eviction.isWeighted()) {
+				description.put("maximumWeight", eviction.getMaximum());
+				eviction.weightedSize().ifPresent(weight -> description.put("weight", weight));
+			}
+			else {
+				description.put("maximumSize", eviction.getMaximum());
+			}
+		});
+		policy.expireAfterWrite()
+			.ifPresent(expiry -> description.put("expireAfterWrite", expiry.getExpiresAfter(TimeUnit.MILLISECONDS)));
+		policy.expireAfterAccess()
+			.ifPresent(expiry -> description.put("expireAfterAccess", expiry.getExpiresAfter(TimeUnit.MILLISECONDS)));
+		policy.refreshAfterWrite()
+			.ifPresent(
+					refresh -> description.put("refreshAfterWrite", refresh.getRefreshesAfter(TimeUnit.MILLISECONDS)));
+		description.put("hitCount", stats.hitCount());
+		description.put("missCount", stats.missCount());
+		description.put("hitRatio", stats.hitRate());
+		description.put("loadCount", stats.loadCount());
+		description.put("averageLoadTime", TimeUnit.NANOSECONDS.toMillis((long) stats.averageLoadPenalty()));
+		description.put("totalLoadTime", TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()));
+		description.put("evictionCount", stats.evictionCount());
+		description.put("evictionWeight", stats.evictionWeight());
+		return description;
+	}
+
+	/**
+	 * Changes a cache's bound or expiry times. Entries over a lowered bound are evicted
+	 * right away.
+	 * @param name the cache name
+	 * @param maximum the new maximum size, or weight for a weight-bounded cache;
+	 * {@code null} to leave it
+	 * @param expireAfterWrite the new expire-after-write time; {@code null} to leave it
+	 * @param expireAfterAccess the new expire-after-access time; {@code null} to leave it
+	 * @return {@code false} if there is no such cache
+	 * @throws IllegalArgumentException if a value is negative or the cache was not built
+	 * with that policy
+	 */
+	public boolean resize(String name, Long maximum, Duration expireAfterWrite, Duration expireAfterAccess) {
+		CaffeineCache cache = this.caches.get(name);
+		if (cache == null) {
+			return false;
+		}
+		Policy<Object, Object> policy = cache.getNativeCache().policy();
+		if (maximum != null) {
+			Assert.isTrue(maximum >= 0, "maximum must not be negative");
+			policy.eviction()
+				.orElseThrow(() -> new IllegalArgumentException(name + " is not bounded"))
+				.setMaximum(maximum);
+		}
+		if (expireAfterWrite != null) {
+			Assert.isTrue(!expireAfterWrite.isNegative(), "expireAfterWrite must not be negative");
+			policy.expireAfterWrite()
+				.orElseThrow(() -> new IllegalArgumentException(name + " does not expire after write"))
+				.setExpiresAfter(expireAfterWrite);
+		}
+		if (expireAfterAccess != null) {
+			Assert.isTrue(!expireAfterAccess.isNegative(), "expireAfterAccess must not be negative");
+			policy.expireAfterAccess()
+				.orElseThrow(() -> new IllegalArgumentException(name + " does not expire after access"))
+				.setExpiresAfter(expireAfterAccess);
+		}
+		return true;
+	}
+
+	private static CaffeineCache build(String name, PropertyResolver properties, CacheLoader<Object, Object> loader) {
+		Long maximumSize = properties.getProperty(PREFIX + name + ".maximum-size", Long.class);
+		Long maximumWeight = properties.getProperty(PREFIX + name + ".maximum-weight", Long.class);
+		if (maximumSize == null && maximumWeight == null) {
+			// Only fall back to the default bound when the cache sets neither
+			maximumSize = properties.getProperty(PREFIX + "defaults.maximum-size", Long.class);
+			maximumWeight = properties.getProperty(PREFIX + "defaults.maximum-weight", Long.class);
+		}
+		Assert.state(maximumSize != null || maximumWeight != null,
+				() -> "Cache '" + name + "' needs a maximum-size or maximum-weight");
+		Assert.state(maximumSize == null || maximumWeight == null,
+				() -> "Cache '" + name + "' cannot have both a maximum-size and a maximum-weight");
+
+		Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+		if (maximumWeight != null) {
+			builder.maximumWeight(maximumWeight).weigher(CacheRegistry::weigh);
+		}
+		else {
+			builder.maximumSize(maximumSize);
+		}
+		Duration expireAfterWrite = duration(properties, name, "expire-after-write");
+		if (expireAfterWrite != null) {
+			builder.expireAfterWrite(expireAfterWrite);
+		}
+		Duration expireAfterAccess = duration(properties, name, "expire-after-access");
+		if (expireAfterAccess != null) {
+			builder.expireAfterAccess(expireAfterAccess);
+		}
+		Duration refreshAfterWrite = duration(properties, name, "refresh-after-write");
+		if (refreshAfterWrite == null) {
+			return new CaffeineCache(name, builder.build(), true);
+		}
+		Assert.state(loader != null, () -> "Cache '" + name
+				+ "' refreshes after write, so it needs a CacheLoader bean named '" + name + "CacheLoader'");
+		return new CaffeineCache(name, builder.refreshAfterWrite(refreshAfterWrite).build(loader), true);
+	}
+
+	private static Duration duration(PropertyResolver properties, String name, String property) {
+		String value = properties.getProperty(PREFIX + name + "." + property,
+				properties.getProperty(PREFIX + "defaults." + property, ""));
+		return value.isBlank() ? null : DurationStyle.detectAndParse(value.trim());
+	}
+
+	private static int weigh(Object key, Object value) {
+		if (value instanceof Collection<?> collection) {
+			return Math.max(collection.size(), 1);
+		}
+		if (value instanceof Map<?, ?> map) {
+			return Math.max(map.size(), 1);
+		}
+		if (value instanceof Slice<?> slice) {
+			return Math.max(slice.getNumberOfElements(), 1);
+		}
+		return 1;
+	}
+
+}
@@ -0,0 +1,91 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/cacheregistry}) reporting each cache of the
+ * {@link CacheRegistry}: its size, bound, expiry times, hit ratio, load time and
+ * evictions. Times are in milliseconds.
+ *
+ * <p>
+ * A POST to {@code /actuator/cacheregistry/{name}} with {@code maximum},
+ * {@code expireAfterWrite} or {@code expireAfterAccess} (such as {@code "5m"}) resizes
+ * that cache without a restart. Only admins may post to actuator endpoints.
+ * </p>
+ */
+@Component
+@Endpoint(id = "cacheregistry")
+public class CacheRegistryEndpoint {
+
+	private final CacheRegistry cacheRegistry;
+
+	/**
+	 * Constructs a new {@code CacheRegistryEndpoint}.
+	 * @param cacheRegistry the caches to report on
+	 */
+	public CacheRegistryEndpoint(CacheRegistry cacheRegistry) {
+		this.cacheRegistry = cacheRegistry;
+	}
+
+	/**
+	 * Reports every cache.
+	 * @return the reports by cache name, rendered as JSON
+	 */
+	@ReadOperation
+	public Map<String, Object> caches() {
+		Map<String, Object> caches = new LinkedHashMap<>();
+		for (String name : this.cacheRegistry.getCacheNames()) {
+			caches.put(name, this.cacheRegistry.describe(name));
+		}
+		return caches;
+	}
+
+	/**
+	 * Reports one cache.
+	 * @param name the cache name
+	 * @return the report, or {@code null} (404) if there is no such cache
+	 */
+	@ReadOperation
+	public Map<String, Object> cache(@Selector String name) {
+		return this.cacheRegistry.describe(name);
+	}
+
+	/**
+	 * Resizes one cache. Settings left out are kept.
+	 * @param name the cache name
+	 * @param maximum the new maximum size, or weight for a weight-bounded cache
+	 * @param expireAfterWrite the new expire-after-write time, such as {@code 10m}
+	 * @param expireAfterAccess the new expire-after-access time
+	 * @return the cache's report after the change, or {@code null} (404) if there is no
+	 * such cache
+	 */
+	@WriteOperation
+	public Map<String, Object> resize(@Selector String name, @Nullable Long maximum, @Nullable String expireAfterWrite,
+			@Nullable String expireAfterAccess) {
+		try {
+			if (!this.cacheRegistry.resize(name, maximum, duration(expireAfterWrite), duration(expireAfterAccess))) {
+				return null;
+			}
+		}
+		catch (IllegalArgumentException ex) {
+			throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage());
+		}
+		return this.cacheRegistry.describe(name);
+	}
+
+	private static Duration duration(String value) {
+		return (value != null) ? DurationStyle.detectAndParse(value) : null;
+	}
+
+}
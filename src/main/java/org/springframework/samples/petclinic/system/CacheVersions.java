@@ -0,0 +1,105 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version counters, one row per name in the {@code cache_versions} table, that tell every
+ * replica when data it keeps in memory has been changed by another one.
+ *
+ * <p>
+ * A writer calls {@link #bump(String)} in the transaction that changes the data, so the
+ * new version commits or rolls back with it. A reader keeps a {@link Watch}, which reads
+ * the version at most once per check interval and reports a change, so each replica
+ * notices a write made elsewhere within that interval at the cost of one primary key
+ * lookup.
+ * </p>
+ */
+@Component
+public class CacheVersions {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Constructs a new {@code CacheVersions}.
+	 * @param jdbcTemplate the template the versions are read and written with
+	 */
+	public CacheVersions(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Returns the current version of the named data.
+	 * @param name the name of the data, such as {@code "schools"}
+	 * @return the version, or {@code 0} if it was never bumped
+	 */
+	public long current(String name) {
+		List<Long> versions = this.jdbcTemplate.queryForList("SELECT version FROM cache_versions WHERE name = ?",
+				Long.class, name);
+		return versions.isEmpty() ? 0 : versions.get(0);
+	}
+
+	/**
+	 * Increments the version of the named data, in the current transaction if there is
+	 * one.
+	 * @param name the name of the data, such as {@code "schools"}
+	 */
+	public void bump(String name) {
+		if (this.jdbcTemplate.update("UPDATE cache_versions SET version = version + 1 WHERE name = ?", name) == 0) {
+			// The data scripts insert a row for each name; this covers one added since
+			this.jdbcTemplate.update("INSERT INTO cache_versions (name, version) VALUES (?, 1)", name);
+		}
+	}
+
+	/**
+	 * Reports changes to the version of one piece of data, reading it at most once per
+	 * check interval. The first check only records the version.
+	 */
+	public static final class Watch {
+
+		private final CacheVersions cacheVersions;
+
+		private final String name;
+
+		private final long intervalNanos;
+
+		private volatile long checkedAt;
+
+		private volatile Long seen;
+
+		/**
+		 * Constructs a new {@code Watch}.
+		 * @param cacheVersions the versions to read
+		 * @param name the name of the watched data
+		 * @param interval how long a checked version is trusted
+		 */
+		public Watch(CacheVersions cacheVersions, String name, Duration interval) {
+			this.cacheVersions = cacheVersions;
+			this.name = name;
+			this.intervalNanos = interval.toNanos();
+		}
+
+		/**
+		 * Whether the version has changed since the previous check. Returns {@code false}
+		 * without reading the version when the previous check was less than the interval
+		 * ago.
+		 * @return {@code true} if the data was changed since it was last checked
+		 */
+		public boolean changed() {
+			long now = System.nanoTime();
+			Long previous = this.seen;
+			if (previous != null && now - this.checkedAt < this.intervalNanos) {
+				return false;
+			}
+			this.checkedAt = now;
+			long current = this.cacheVersions.current(this.name);
+			this.seen = current;
+			return previous != null && previous != current;
+		}
+
+	}
+
+}
@@ -0,0 +1,341 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.jdbc.autoconfigure.ApplicationDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.autoconfigure.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs {@code spring.sql.init} scripts only when they have changed, and then the
+ * versioned migrations that have not been applied yet.
+ *
+ * <p>
+ * The SHA-256 checksum of every script that was run is recorded in the
+ * {@code sql_init_history} table. The schema and data scripts are run again whenever
+ * their checksum differs from the recorded one, so they must stay idempotent, as they
+ * always have. Migrations, named like {@code V3__add_business_hours.sql} and found at
+ * {@code petclinic.sql.init.migration-locations}, are run once each in version order, and
+ * changing one after it was applied fails the start. An unchanged database therefore
+ * costs one query at start-up instead of re-running every statement.
+ * </p>
+ *
+ * <p>
+ * A replica claims a script by writing its history row as {@code PENDING} before running
+ * it, and marks the row {@code SUCCESS} once the script has finished. Replicas starting
+ * together therefore do not apply the same migration twice: the others wait for the row
+ * to reach {@code SUCCESS}. A row still {@code PENDING} after
+ * {@code petclinic.sql.init.pending-timeout} was left by a start that stopped halfway
+ * through the script, which is then run again. To run the scripts again, delete their
+ * rows.
+ * </p>
+ */
+public class ChecksumScriptDatabaseInitializer extends ApplicationDataSourceScriptDatabaseInitializer {
+
+	private static final Log logger = LogFactory.getLog(ChecksumScriptDatabaseInitializer.class);
+
+	private static final String CREATE_HISTORY = """
+			CREATE TABLE IF NOT EXISTS sql_init_history (
+			  script     VARCHAR(255) NOT NULL PRIMARY KEY,
+			  checksum   VARCHAR(64)  NOT NULL,
+			  status     VARCHAR(10)  NOT NULL,
+			  applied_at TIMESTAMP    NOT NULL
+			)""";
+
+	private static final String PENDING = "PENDING";
+
+	private static final String SUCCESS = "SUCCESS";
+
+	private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+	private static final Pattern MIGRATION = Pattern.compile("V(\\d+(?:[._]\\d+)*)__.+\\.sql");
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final SqlInitializationProperties properties;
+
+	private final List<String> migrationLocations;
+
+	private final Duration pendingTimeout;
+
+	private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+
+	private boolean historyCreated;
+
+	private boolean scriptsRun;
+
+	/**
+	 * Constructs a new {@code ChecksumScriptDatabaseInitializer}.
+	 * @param dataSource the database to initialize
+	 * @param properties the {@code spring.sql.init} settings
+	 * @param migrationLocations where to find versioned migrations
+	 * @param pendingTimeout how long a script may stay {@code PENDING} before it is taken
+	 * to have been interrupted and is run again
+	 */
+	public ChecksumScriptDatabaseInitializer(DataSource dataSource, SqlInitializationProperties properties,
+			List<String> migrationLocations, Duration pendingTimeout) {
+		super(dataSource, properties);
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.properties = properties;
+		this.migrationLocations = migrationLocations;
+		this.pendingTimeout = pendingTimeout;
+	}
+
+	@Override
+	public boolean initializeDatabase() {
+		boolean initialized = super.initializeDatabase() && this.scriptsRun;
+		return applyMigrations() || initialized;
+	}
+
+	@Override
+	protected void runScripts(Scripts scripts) {
+		List<Resource> resources = new ArrayList<>();
+		scripts.forEach(resources::add);
+		String name = String.join(",", resources.stream().map(ChecksumScriptDatabaseInitializer::name).toList());
+		String checksum = checksum(resources);
+		if (!claim(name, checksum, this.scriptsRun, false)) {
+			logger.info("Skipping " + name + ": unchanged since it was last run");
+			return;
+		}
+		try {
+			super.runScripts(scripts);
+		}
+		catch (RuntimeException ex) {
+			release(name, checksum);
+			throw ex;
+		}
+		complete(name, checksum);
+		// A schema that was run again may have dropped the data, so reload it too
+		this.scriptsRun = true;
+	}
+
+	private boolean applyMigrations() {
+		if (!isEnabled()) {
+			return false;
+		}
+		boolean applied = false;
+		for (Resource migration : migrations()) {
+			String name = name(migration);
+			String checksum = checksum(List.of(migration));
+			if (!claim(name, checksum, false, true)) {
+				continue;
+			}
+			logger.info("Applying migration " + name);
+			try {
+				super.runScripts(new Scripts(List.of(migration)).continueOnError(false)
+					.separator(this.properties.getSeparator())
+					.encoding(this.properties.getEncoding()));
+			}
+			catch (RuntimeException ex) {
+				release(name, checksum);
+				throw ex;
+			}
+			complete(name, checksum);
+			applied = true;
+		}
+		return applied;
+	}
+
+	private List<Resource> migrations() {
+		List<Resource> migrations = new ArrayList<>();
+		for (String location : this.migrationLocations) {
+			try {
+				for (Resource resource : this.resourceResolver.getResources(location)) {
+					if (resource.getFilename() != null && MIGRATION.matcher(resource.getFilename()).matches()) {
+						migrations.add(resource);
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Could not list migrations at " + location, ex);
+			}
+		}
+		migrations.sort(Comparator.comparing(ChecksumScriptDatabaseInitializer::version, Arrays::compare));
+		return migrations;
+	}
+
+	private boolean isEnabled() {
+		DatabaseInitializationMode mode = this.properties.getMode();
+		return mode == DatabaseInitializationMode.ALWAYS
+				|| (mode == DatabaseInitializationMode.EMBEDDED && isEmbeddedDatabase());
+	}
+
+	private History recorded(String name) {
+		createHistory();
+		List<History> rows = this.jdbcTemplate.query(
+				"SELECT checksum, status, applied_at FROM sql_init_history WHERE script = ?",
+				(rs, rowNum) -> new History(rs.getString(1), rs.getString(2), rs.getTimestamp(3)), name);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	/**
+	 * Records the script as {@code PENDING} with its new checksum, unless it was already
+	 * run with that checksum. Waits while another instance is running it, and takes it
+	 * over once it has been {@code PENDING} for longer than the timeout.
+	 * @param again whether to run the script even if its checksum has not changed
+	 * @param migration whether the script must not change once it was applied
+	 * @return whether this instance should now run the script
+	 */
+	private boolean claim(String name, String checksum, boolean again, boolean migration) {
+		History waitingFor = null;
+		long waitingSince = 0;
+		while (true) {
+			History recorded = recorded(name);
+			if (recorded == null) {
+				if (insert(name, checksum)) {
+					return true;
+				}
+			}
+			else if (PENDING.equals(recorded.status())) {
+				if (!recorded.equals(waitingFor)) {
+					logger.info("Waiting for another instance to finish " + name);
+					waitingFor = recorded;
+					waitingSince = System.nanoTime();
+				}
+				else if (System.nanoTime() - waitingSince >= this.pendingTimeout.toNanos()) {
+					logger.warn("Running " + name + " again: it has been pending for longer than " + this.pendingTimeout
+							+ ", so the start that ran it must have been interrupted");
+					if (takeOver(name, recorded, checksum)) {
+						return true;
+					}
+					continue;
+				}
+				pause();
+			}
+			else if (recorded.checksum().equals(checksum) && !again) {
+				return false;
+			}
+			else if (migration && !recorded.checksum().equals(checksum)) {
+				throw new IllegalStateException(
+						"Migration " + name + " was changed after it was applied; add a new migration instead");
+			}
+			else if (takeOver(name, recorded, checksum)) {
+				return true;
+			}
+		}
+	}
+
+	private boolean insert(String name, String checksum) {
+		try {
+			this.jdbcTemplate.update(
+					"INSERT INTO sql_init_history (script, checksum, status, applied_at) VALUES (?, ?, ?, ?)", name,
+					checksum, PENDING, Timestamp.from(Instant.now()));
+			return true;
+		}
+		catch (DuplicateKeyException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Replaces the recorded row with a {@code PENDING} one, unless another instance has
+	 * changed it since it was read.
+	 */
+	private boolean takeOver(String name, History recorded, String checksum) {
+		return this.jdbcTemplate.update(
+				"UPDATE sql_init_history SET checksum = ?, status = ?, applied_at = ? "
+						+ "WHERE script = ? AND checksum = ? AND status = ? AND applied_at = ?",
+				checksum, PENDING, Timestamp.from(Instant.now()), name, recorded.checksum(), recorded.status(),
+				recorded.appliedAt()) == 1;
+	}
+
+	private void complete(String name, String checksum) {
+		this.jdbcTemplate.update(
+				"UPDATE sql_init_history SET status = ?, applied_at = ? WHERE script = ? AND checksum = ?", SUCCESS,
+				Timestamp.from(Instant.now()), name, checksum);
+	}
+
+	/**
+	 * Forgets a script that failed, so the next start runs it again.
+	 */
+	private void release(String name, String checksum) {
+		this.jdbcTemplate.update("DELETE FROM sql_init_history WHERE script = ? AND checksum = ? AND status = ?", name,
+				checksum, PENDING);
+	}
+
+	private void pause() {
+		try {
+			Thread.sleep(POLL_INTERVAL.toMillis());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for another instance to run its scripts", ex);
+		}
+	}
+
+	private void createHistory() {
+		if (!this.historyCreated) {
+			this.jdbcTemplate.execute(CREATE_HISTORY);
+			this.historyCreated = true;
+		}
+	}
+
+	/**
+	 * Names a script by its directory and file name, such as {@code mysql/schema.sql}.
+	 */
+	static String name(Resource resource) {
+		String description;
+		try {
+			description = resource.getURL().getPath();
+		}
+		catch (IOException ex) {
+			description = String.valueOf(resource.getFilename());
+		}
+		String[] segments = description.split("/");
+		int from = Math.max(0, segments.length - 2);
+		return String.join("/", Arrays.copyOfRange(segments, from, segments.length));
+	}
+
+	static int[] version(Resource migration) {
+		Matcher matcher = MIGRATION.matcher(migration.getFilename());
+		if (!matcher.matches()) {
+			throw new IllegalArgumentException("Not a migration: " + migration);
+		}
+		return Arrays.stream(matcher.group(1).split("[._]")).mapToInt(Integer::parseInt).toArray();
+	}
+
+	private record History(String checksum, String status, Timestamp appliedAt) {
+	}
+
+	private static String checksum(List<Resource> resources) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (Resource resource : resources) {
+				try (InputStream in = resource.getInputStream()) {
+					digest.update(in.readAllBytes());
+				}
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.Assert;
+
+/**
+ * Minimal {@link UserDetails} kept in the security context of AthLeagues and Patriot
+ * Thanks logins, in place of Spring Security's {@code User}.
+ *
+ * <p>
+ * A logged-in session holds one principal for as long as it lives, so the principal is
+ * kept as small as possible:
+ * </p>
+ * <ul>
+ * <li>the password hash is only held between loading the user and checking the password,
+ * and {@link #eraseCredentials()} drops it once authentication succeeds</li>
+ * <li>authorities are interned: every principal with the same roles shares one immutable
+ * authority list, so a few hundred thousand sessions hold a handful of lists rather than
+ * one {@code TreeSet} of authorities each</li>
+ * <li>the serialized form is just the username and authority names, and a deserialized
+ * principal shares the interned authority list again</li>
+ * </ul>
+ *
+ * <p>
+ * Accounts are never locked, expired or disabled here; soft-deleted users are rejected
+ * before a principal is built.
+ * </p>
+ */
+public final class CompactPrincipal implements UserDetails, CredentialsContainer {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	private static final String ROLE_PREFIX = "ROLE_";
+
+	/** One shared, immutable authority list per distinct set of authority names. */
+	private static final ConcurrentMap<List<String>, List<GrantedAuthority>> AUTHORITIES = new ConcurrentHashMap<>();
+
+	private final String username;
+
+	private transient String password;
+
+	private final transient List<GrantedAuthority> authorities;
+
+	private CompactPrincipal(String username, String password, List<String> authorityNames) {
+		Assert.hasText(username, "Username must not be empty");
+		this.username = username;
+		this.password = password;
+		this.authorities = intern(authorityNames);
+	}
+
+	/**
+	 * Creates a principal for a user loaded from the database, before the password has
+	 * been checked.
+	 * @param username the username (email address)
+	 * @param password the password hash to check against, or {@code null}
+	 * @param roles the role names without the {@code ROLE_} prefix
+	 * @return the principal
+	 */
+	public static CompactPrincipal withRoles(String username, String password, Collection<String> roles) {
+		List<String> names = new ArrayList<>(roles.size());
+		for (String role : roles) {
+			Assert.isTrue(!role.startsWith(ROLE_PREFIX), () -> role + " cannot start with " + ROLE_PREFIX);
+			names.add(ROLE_PREFIX + role);
+		}
+		return new CompactPrincipal(username, password, names);
+	}
+
+	/**
+	 * Creates an authenticated principal without credentials from existing authorities.
+	 * @param username the username (email address)
+	 * @param authorities the granted authorities
+	 * @return the principal
+	 */
+	public static CompactPrincipal of(String username, Collection<? extends GrantedAuthority> authorities) {
+		return new CompactPrincipal(username, null, authorities.stream().map(GrantedAuthority::getAuthority).toList());
+	}
+
+	private static List<GrantedAuthority> intern(List<String> names) {
+		List<String> key = names.stream().distinct().sorted().toList();
+		return AUTHORITIES.computeIfAbsent(key,
+				k -> k.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList());
+	}
+
+	@Override
+	public String getUsername() {
+		return this.username;
+	}
+
+	@Override
+	public String getPassword() {
+		return this.password;
+	}
+
+	@Override
+	public List<GrantedAuthority> getAuthorities() {
+		return this.authorities;
+	}
+
+	@Override
+	public void eraseCredentials() {
+		this.password = null;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return (obj instanceof CompactPrincipal other) && this.username.equals(other.username);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.username.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [Username=" + this.username + ", Granted Authorities=" + this.authorities
+				+ "]";
+	}
+
+	@Serial
+	private Object writeReplace() {
+		return new SerializedForm(this.username,
+				this.authorities.stream().map(GrantedAuthority::getAuthority).toArray(String[]::new));
+	}
+
+	/**
+	 * Serialized representation of a {@link CompactPrincipal}: the username and the
+	 * authority names, never the password.
+	 */
+	private record SerializedForm(String username, String[] authorities) implements Serializable {
+
+		@Serial
+		private Object readResolve() {
+			return new CompactPrincipal(this.username, null, List.of(this.authorities));
+		}
+
+	}
+
+}
@@ -0,0 +1,699 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Compresses HTML, JSON and other text responses with gzip for clients that accept it.
+ *
+ * <p>
+ * A response is compressed when its content type is one of
+ * {@code petclinic.compression.mime-types}, it carries no {@code Content-Encoding} of its
+ * own (as the precompressed static assets and published pages do) and its body reaches
+ * {@code petclinic.compression.min-response-size}; smaller bodies are sent as they are,
+ * since the gzip framing would cost more than it saves. Up to that size the body is held
+ * back in a pooled buffer until the decision can be made, and compression itself runs
+ * through a {@link DeflaterPool}, so a busy server does not allocate a native zlib stream
+ * and its buffers for every response.
+ * </p>
+ *
+ * <p>
+ * Responses are compressed at {@code petclinic.compression.level}, or at the cheaper
+ * {@code petclinic.compression.fast-level} while the machine's CPU load, sampled at most
+ * once a second, is at or above {@code petclinic.compression.cpu-threshold}. The bytes
+ * saved and the CPU time spent are published per method, URI pattern and level as the
+ * {@code petclinic.http.compression.saved} summary and the
+ * {@code petclinic.http.compression.cpu} timer, so the two can be traded against each
+ * other route by route.
+ * </p>
+ *
+ * <p>
+ * Asynchronous responses, whose body is written after the request thread has left the
+ * filter, are sent uncompressed, and so are responses that switch to non-blocking I/O.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class CompressionFilter extends OncePerRequestFilter implements MeterBinder {
+
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	private static final long CPU_SAMPLE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final boolean enabled;
+
+	private final List<MimeType> mimeTypes;
+
+	private final int minResponseSize;
+
+	private final int level;
+
+	private final int fastLevel;
+
+	private final double cpuThreshold;
+
+	private final DoubleSupplier cpuLoad;
+
+	private final DeflaterPool pool;
+
+	private volatile long cpuSampledAt;
+
+	private volatile double sampledCpuLoad;
+
+	private volatile MeterRegistry registry;
+
+	/**
+	 * Constructs a new {@code CompressionFilter}.
+	 * @param enabled whether to compress responses at all
+	 * @param mimeTypes the content types to compress
+	 * @param minResponseSize the smallest body to compress
+	 * @param level the deflate level to compress at
+	 * @param fastLevel the deflate level to compress at while the CPU is saturated
+	 * @param cpuThreshold the CPU load, between 0 and 1, from which on the fast level is
+	 * used
+	 */
+	@Autowired
+	public CompressionFilter(@Value("${petclinic.compression.enabled:true}") boolean enabled,
+			@Value("${petclinic.compression.mime-types:text/html,application/json}") List<String> mimeTypes,
+			@Value("${petclinic.compression.min-response-size:2KB}") DataSize minResponseSize,
+			@Value("${petclinic.compression.level:6}") int level,
+			@Value("${petclinic.compression.fast-level:1}") int fastLevel,
+			@Value("${petclinic.compression.cpu-threshold:0.8}") double cpuThreshold) {
+		this(enabled, mimeTypes, minResponseSize, level, fastLevel, cpuThreshold, systemCpuLoad());
+	}
+
+	CompressionFilter(boolean enabled, List<String> mimeTypes, DataSize minResponseSize, int level, int fastLevel,
+			double cpuThreshold, DoubleSupplier cpuLoad) {
+		checkLevel("level", level);
+		checkLevel("fast-level", fastLevel);
+		this.enabled = enabled;
+		this.mimeTypes = new ArrayList<>();
+		for (String mimeType : mimeTypes) {
+			if (StringUtils.hasText(mimeType)) {
+				this.mimeTypes.add(MimeTypeUtils.parseMimeType(mimeType.trim()));
+			}
+		}
+		this.minResponseSize = (int) Math.max(minResponseSize.toBytes(), 1);
+		this.level = level;
+		this.fastLevel = fastLevel;
+		this.cpuThreshold = cpuThreshold;
+		this.cpuLoad = cpuLoad;
+		this.pool = new DeflaterPool(Runtime.getRuntime().availableProcessors() * 4,
+				Math.max(this.minResponseSize, 8192));
+	}
+
+	private static void checkLevel(String name, int level) {
+		if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException("petclinic.compression." + name + " must be between 1 and 9");
+		}
+	}
+
+	private static DoubleSupplier systemCpuLoad() {
+		if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+			return os::getCpuLoad;
+		}
+		return () -> 0;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !this.enabled || "HEAD".equals(request.getMethod())
+				|| !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		CompressingResponse compressingResponse = new CompressingResponse(request, response);
+		try {
+			chain.doFilter(request, compressingResponse);
+			if (request.isAsyncStarted()) {
+				// The rest of the body is written later, on another thread, with no
+				// chance to write a gzip trailer
+				compressingResponse.stream.sendUncompressed();
+			}
+			else {
+				compressingResponse.finish();
+			}
+		}
+		finally {
+			compressingResponse.release();
+		}
+		if (compressingResponse.stream.state == State.COMPRESSING) {
+			record(request, compressingResponse.stream);
+		}
+	}
+
+	/**
+	 * Whether an {@code Accept-Encoding} header admits gzip, by name or through
+	 * {@code *}, with a quality above zero.
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (!StringUtils.hasText(acceptEncoding)) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim();
+			if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+				for (int i = 1; i < parts.length; i++) {
+					String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+					if (parameter.startsWith("q=")) {
+						try {
+							return Double.parseDouble(parameter.substring(2)) > 0;
+						}
+						catch (NumberFormatException ex) {
+							return false;
+						}
+					}
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int currentLevel() {
+		long now = System.nanoTime();
+		if (this.cpuSampledAt == 0 || now - this.cpuSampledAt > CPU_SAMPLE_INTERVAL) {
+			this.cpuSampledAt = now;
+			this.sampledCpuLoad = this.cpuLoad.getAsDouble();
+		}
+		return (this.sampledCpuLoad >= this.cpuThreshold) ? this.fastLevel : this.level;
+	}
+
+	private boolean isCompressible(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		try {
+			MimeType mimeType = MimeTypeUtils.parseMimeType(contentType);
+			for (MimeType candidate : this.mimeTypes) {
+				if (candidate.includes(mimeType)) {
+					return true;
+				}
+			}
+		}
+		catch (InvalidMimeTypeException ex) {
+			// Not ours to fix; send it as it is
+		}
+		return false;
+	}
+
+	private void record(HttpServletRequest request, CompressingStream stream) {
+		MeterRegistry registry = this.registry;
+		if (registry == null) {
+			return;
+		}
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = (pattern != null) ? pattern.toString() : "UNMAPPED";
+		String level = String.valueOf(stream.level);
+		DistributionSummary.builder("petclinic.http.compression.saved")
+			.description("Bytes saved by compressing an HTTP response")
+			.baseUnit("bytes")
+			.tag("method", request.getMethod())
+			.tag("uri", uri)
+			.tag("level", level)
+			.register(registry)
+			.record(stream.bytesIn - stream.bytesOut);
+		Timer.builder("petclinic.http.compression.cpu")
+			.description("CPU time spent compressing an HTTP response")
+			.tag("method", request.getMethod())
+			.tag("uri", uri)
+			.tag("level", level)
+			.register(registry)
+			.record(stream.cpuNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * The CPU time of the current thread, or the wall-clock time where that is not
+	 * available, as on virtual threads.
+	 */
+	private static long cpuTime() {
+		long cpuTime = threads.getCurrentThreadCpuTime();
+		return (cpuTime >= 0) ? cpuTime : System.nanoTime();
+	}
+
+	/**
+	 * Holds back {@code Content-Length} until its stream has decided whether to compress,
+	 * as the compressed length is not known up front.
+	 */
+	private final class CompressingResponse extends HttpServletResponseWrapper {
+
+		private final HttpServletRequest request;
+
+		private final CompressingStream stream = new CompressingStream(this);
+
+		private PrintWriter writer;
+
+		private long contentLength = -1;
+
+		CompressingResponse(HttpServletRequest request, HttpServletResponse response) {
+			super(response);
+			this.request = request;
+		}
+
+		HttpServletResponse response() {
+			return (HttpServletResponse) getResponse();
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return this.stream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (this.writer == null) {
+				String encoding = getCharacterEncoding();
+				// Like the container's own writer, make the charset part of the
+				// Content-Type
+				setCharacterEncoding(encoding);
+				this.writer = new PrintWriter(new OutputStreamWriter(this.stream, encoding));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (this.stream.state == State.PASSING_THROUGH) {
+				super.setContentLengthLong(len);
+			}
+			else if (this.stream.state == State.UNDECIDED) {
+				this.contentLength = len;
+			}
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLengthLong((value != null) ? Long.parseLong(value) : -1);
+			}
+			else {
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLengthLong(Long.parseLong(value));
+			}
+			else {
+				super.addHeader(name, value);
+			}
+		}
+
+		@Override
+		public void setIntHeader(String name, int value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLengthLong(value);
+			}
+			else {
+				super.setIntHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addIntHeader(String name, int value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				setContentLengthLong(value);
+			}
+			else {
+				super.addIntHeader(name, value);
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			this.stream.flush();
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			this.stream.discardPending();
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			this.stream.discardPending();
+			this.contentLength = -1;
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			this.stream.passThrough();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			this.stream.passThrough();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			this.stream.passThrough();
+			super.sendRedirect(location);
+		}
+
+		void finish() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			this.stream.finish();
+		}
+
+		void release() {
+			this.stream.release();
+		}
+
+	}
+
+	private enum State {
+
+		UNDECIDED, PASSING_THROUGH, COMPRESSING
+
+	}
+
+	/**
+	 * Buffers the body until it reaches the minimum size or ends, then either writes it
+	 * through unchanged or frames it as gzip around raw deflate output.
+	 */
+	private final class CompressingStream extends ServletOutputStream {
+
+		private final CompressingResponse response;
+
+		private final CRC32 crc = new CRC32();
+
+		private State state = State.UNDECIDED;
+
+		private byte[] pending;
+
+		private int pendingCount;
+
+		private ServletOutputStream out;
+
+		private Deflater deflater;
+
+		private int level;
+
+		private byte[] buffer;
+
+		private long bytesIn;
+
+		private long bytesOut;
+
+		private long cpuNanos;
+
+		CompressingStream(CompressingResponse response) {
+			this.response = response;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return;
+			}
+			if (this.state == State.UNDECIDED) {
+				if (this.pendingCount + len < CompressionFilter.this.minResponseSize) {
+					if (this.pending == null) {
+						this.pending = CompressionFilter.this.pool.borrowBuffer();
+					}
+					System.arraycopy(b, off, this.pending, this.pendingCount, len);
+					this.pendingCount += len;
+					return;
+				}
+				decide(true);
+			}
+			if (this.state == State.COMPRESSING) {
+				deflate(b, off, len);
+			}
+			else {
+				out().write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			// Until the body is large enough to decide, a flush would commit it
+			// uncompressed
+			if (this.state == State.PASSING_THROUGH) {
+				out().flush();
+			}
+			else if (this.state == State.COMPRESSING) {
+				long started = cpuTime();
+				syncFlush();
+				this.cpuNanos += cpuTime() - started;
+				out().flush();
+			}
+		}
+
+		void finish() throws IOException {
+			if (this.state == State.UNDECIDED) {
+				decide(false);
+			}
+			if (this.state == State.COMPRESSING) {
+				long started = cpuTime();
+				writeTrailer();
+				this.cpuNanos += cpuTime() - started;
+			}
+		}
+
+		void passThrough() {
+			if (this.state == State.UNDECIDED) {
+				discardPending();
+				this.state = State.PASSING_THROUGH;
+			}
+		}
+
+		/**
+		 * Decides against compression if nothing is decided yet, writing out the body
+		 * held back so far.
+		 */
+		void sendUncompressed() throws IOException {
+			if (this.response.writer != null) {
+				this.response.writer.flush();
+			}
+			if (this.state == State.UNDECIDED) {
+				writeUncompressed();
+			}
+		}
+
+		void discardPending() {
+			this.pendingCount = 0;
+		}
+
+		void release() {
+			DeflaterPool pool = CompressionFilter.this.pool;
+			if (this.pending != null) {
+				pool.returnBuffer(this.pending);
+				this.pending = null;
+			}
+			if (this.buffer != null) {
+				pool.returnBuffer(this.buffer);
+				this.buffer = null;
+			}
+			if (this.deflater != null) {
+				pool.returnDeflater(this.deflater, this.level);
+				this.deflater = null;
+			}
+		}
+
+		private void decide(boolean largeEnough) throws IOException {
+			HttpServletResponse target = this.response.response();
+			boolean compressible = isCompressible(target.getContentType())
+					&& target.getHeader(HttpHeaders.CONTENT_ENCODING) == null;
+			if (compressible) {
+				addVary(target);
+			}
+			int status = target.getStatus();
+			if (compressible && largeEnough && !this.response.request.isAsyncStarted() && status >= 200
+					&& status != HttpServletResponse.SC_NO_CONTENT && status != HttpServletResponse.SC_PARTIAL_CONTENT
+					&& status != HttpServletResponse.SC_NOT_MODIFIED) {
+				this.state = State.COMPRESSING;
+				this.level = currentLevel();
+				this.deflater = CompressionFilter.this.pool.borrowDeflater(this.level);
+				this.buffer = CompressionFilter.this.pool.borrowBuffer();
+				target.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+				String etag = target.getHeader(HttpHeaders.ETAG);
+				if (etag != null && etag.startsWith("\"")) {
+					// The compressed bytes differ, so they are no longer the same strong
+					// entity
+					target.setHeader(HttpHeaders.ETAG, "W/" + etag);
+				}
+				out().write(GZIP_HEADER);
+				this.bytesOut += GZIP_HEADER.length;
+				if (this.pendingCount > 0) {
+					deflate(this.pending, 0, this.pendingCount);
+				}
+			}
+			else {
+				writeUncompressed();
+			}
+			this.pendingCount = 0;
+		}
+
+		private void writeUncompressed() throws IOException {
+			this.state = State.PASSING_THROUGH;
+			if (this.response.contentLength >= 0) {
+				this.response.response().setContentLengthLong(this.response.contentLength);
+			}
+			if (this.pendingCount > 0) {
+				out().write(this.pending, 0, this.pendingCount);
+				this.pendingCount = 0;
+			}
+		}
+
+		private void addVary(HttpServletResponse target) {
+			for (String vary : target.getHeaders(HttpHeaders.VARY)) {
+				String values = vary.toLowerCase(Locale.ROOT);
+				if (values.contains("accept-encoding") || values.trim().equals("*")) {
+					return;
+				}
+			}
+			target.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+
+		private void deflate(byte[] b, int off, int len) throws IOException {
+			long started = cpuTime();
+			this.crc.update(b, off, len);
+			this.deflater.setInput(b, off, len);
+			while (!this.deflater.needsInput()) {
+				emit(this.deflater.deflate(this.buffer, 0, this.buffer.length, Deflater.NO_FLUSH));
+			}
+			this.bytesIn += len;
+			this.cpuNanos += cpuTime() - started;
+		}
+
+		/**
+		 * Writes out everything the deflater holds, so the client can decode the body so
+		 * far; the deflater fills the buffer completely as long as there is more.
+		 */
+		private void syncFlush() throws IOException {
+			int count;
+			do {
+				count = this.deflater.deflate(this.buffer, 0, this.buffer.length, Deflater.SYNC_FLUSH);
+				emit(count);
+			}
+			while (count == this.buffer.length);
+		}
+
+		private void writeTrailer() throws IOException {
+			this.deflater.finish();
+			while (!this.deflater.finished()) {
+				emit(this.deflater.deflate(this.buffer, 0, this.buffer.length, Deflater.NO_FLUSH));
+			}
+			long crc = this.crc.getValue();
+			long size = this.bytesIn;
+			byte[] trailer = { (byte) crc, (byte) (crc >> 8), (byte) (crc >> 16), (byte) (crc >> 24), (byte) size,
+					(byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24) };
+			out().write(trailer);
+			this.bytesOut += trailer.length;
+		}
+
+		private void emit(int count) throws IOException {
+			if (count > 0) {
+				out().write(this.buffer, 0, count);
+				this.bytesOut += count;
+			}
+		}
+
+		private ServletOutputStream out() throws IOException {
+			if (this.out == null) {
+				this.out = this.response.response().getOutputStream();
+			}
+			return this.out;
+		}
+
+		@Override
+		public boolean isReady() {
+			if (this.state != State.PASSING_THROUGH) {
+				// Blocking writes into the held-back body or the deflater
+				return true;
+			}
+			try {
+				return out().isReady();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			if (this.state == State.COMPRESSING) {
+				throw new IllegalStateException("Compression has started, so the rest is written blocking");
+			}
+			try {
+				sendUncompressed();
+				out().setWriteListener(writeListener);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+	}
+
+}
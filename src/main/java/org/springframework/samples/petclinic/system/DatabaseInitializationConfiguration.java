@@ -0,0 +1,34 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.sql.autoconfigure.init.ConditionalOnSqlInitialization;
+import org.springframework.boot.sql.autoconfigure.init.SqlInitializationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces Spring Boot's {@code spring.sql.init} initializer with a
+ * {@link ChecksumScriptDatabaseInitializer}, which skips scripts that have not changed
+ * since they were last run and applies versioned migrations from
+ * {@code petclinic.sql.init.migration-locations}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnSqlInitialization
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+class DatabaseInitializationConfiguration {
+
+	@Bean
+	ChecksumScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(DataSource dataSource,
+			SqlInitializationProperties properties,
+			@Value("${petclinic.sql.init.migration-locations:classpath*:db/${database:h2}/migrations/*.sql}") List<String> migrationLocations,
+			@Value("${petclinic.sql.init.pending-timeout:2m}") Duration pendingTimeout) {
+		return new ChecksumScriptDatabaseInitializer(dataSource, properties, migrationLocations, pendingTimeout);
+	}
+
+}
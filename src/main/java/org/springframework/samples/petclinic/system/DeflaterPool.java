@@ -0,0 +1,74 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Keeps idle {@link Deflater Deflaters}, one queue per compression level, and the byte
+ * buffers they compress through, so that compressing a response allocates neither zlib's
+ * native state nor Java buffers once the pool is warm.
+ *
+ * <p>
+ * The deflaters produce raw deflate data, without the zlib wrapper, for
+ * {@link CompressionFilter} to frame as gzip. A returned deflater is reset before it is
+ * reused, and one returned to a full queue is ended straight away.
+ * </p>
+ */
+class DeflaterPool {
+
+	private final BlockingQueue<Deflater>[] deflaters;
+
+	private final BlockingQueue<byte[]> buffers;
+
+	private final int bufferSize;
+
+	/**
+	 * Constructs a new {@code DeflaterPool}.
+	 * @param capacity the most idle deflaters kept per level, and twice as many buffers
+	 * @param bufferSize the size of each buffer
+	 */
+	@SuppressWarnings("unchecked")
+	DeflaterPool(int capacity, int bufferSize) {
+		this.deflaters = new BlockingQueue[Deflater.BEST_COMPRESSION + 1];
+		for (int level = 0; level < this.deflaters.length; level++) {
+			this.deflaters[level] = new ArrayBlockingQueue<>(capacity);
+		}
+		this.buffers = new ArrayBlockingQueue<>(capacity * 2);
+		this.bufferSize = bufferSize;
+	}
+
+	Deflater borrowDeflater(int level) {
+		Deflater deflater = this.deflaters[level].poll();
+		return (deflater != null) ? deflater : new Deflater(level, true);
+	}
+
+	void returnDeflater(Deflater deflater, int level) {
+		deflater.reset();
+		if (!this.deflaters[level].offer(deflater)) {
+			deflater.end();
+		}
+	}
+
+	byte[] borrowBuffer() {
+		byte[] buffer = this.buffers.poll();
+		return (buffer != null) ? buffer : new byte[this.bufferSize];
+	}
+
+	void returnBuffer(byte[] buffer) {
+		this.buffers.offer(buffer);
+	}
+
+	int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	int getIdleDeflaters() {
+		int idle = 0;
+		for (BlockingQueue<Deflater> queue : this.deflaters) {
+			idle += queue.size();
+		}
+		return idle;
+	}
+
+}
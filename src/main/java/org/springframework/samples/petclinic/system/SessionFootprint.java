@@ -0,0 +1,240 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpSessionAttributeListener;
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a running account of how much memory HTTP sessions hold, measured as the Java
+ * serialized size of their attributes.
+ *
+ * <p>
+ * Only the attribute that changed is serialized, when it is added, replaced or removed,
+ * so the cost is paid on writes such as a login or a flash redirect, never on reads. The
+ * totals are published as the {@code petclinic.sessions.active} and
+ * {@code petclinic.sessions.bytes} gauges and, per attribute name, through the
+ * {@link SessionFootprintEndpoint}. Serialized size is a proxy for heap use: it is what a
+ * session costs to persist or replicate, and it tracks the object graph that stays
+ * reachable while the session is idle.
+ * </p>
+ *
+ * <p>
+ * Attributes that mutate without being set again are measured as of their last
+ * {@code setAttribute}. Attributes that cannot be serialized are counted separately.
+ * </p>
+ */
+@Component
+public class SessionFootprint implements HttpSessionListener, HttpSessionAttributeListener, MeterBinder {
+
+	/**
+	 * Attribute sizes per session ID; a size of {@code -1} marks a non-serializable
+	 * value.
+	 */
+	private final ConcurrentMap<String, ConcurrentMap<String, Integer>> sessions = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, AttributeTotals> attributes = new ConcurrentHashMap<>();
+
+	private final AtomicLong totalBytes = new AtomicLong();
+
+	@Override
+	public void sessionCreated(HttpSessionEvent event) {
+		this.sessions.putIfAbsent(event.getSession().getId(), new ConcurrentHashMap<>());
+	}
+
+	@Override
+	public void sessionDestroyed(HttpSessionEvent event) {
+		Map<String, Integer> sizes = this.sessions.remove(event.getSession().getId());
+		if (sizes != null) {
+			sizes.forEach((name, size) -> release(name, size));
+		}
+	}
+
+	@Override
+	public void attributeAdded(HttpSessionBindingEvent event) {
+		record(event.getSession().getId(), event.getName(), event.getValue());
+	}
+
+	@Override
+	public void attributeReplaced(HttpSessionBindingEvent event) {
+		// The event carries the old value; measure what the session holds now
+		record(event.getSession().getId(), event.getName(), event.getSession().getAttribute(event.getName()));
+	}
+
+	@Override
+	public void attributeRemoved(HttpSessionBindingEvent event) {
+		Map<String, Integer> sizes = this.sessions.get(event.getSession().getId());
+		Integer size = (sizes != null) ? sizes.remove(event.getName()) : null;
+		if (size != null) {
+			release(event.getName(), size);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("petclinic.sessions.active", this.sessions, Map::size)
+			.description("Number of live HTTP sessions")
+			.register(registry);
+		Gauge.builder("petclinic.sessions.bytes", this.totalBytes, AtomicLong::get)
+			.description("Serialized size of all session attributes")
+			.baseUnit("bytes")
+			.register(registry);
+	}
+
+	/**
+	 * Returns the number of live sessions.
+	 * @return the session count
+	 */
+	public int getActiveSessions() {
+		return this.sessions.size();
+	}
+
+	/**
+	 * Returns the serialized size of all session attributes.
+	 * @return the total in bytes
+	 */
+	public long getTotalBytes() {
+		return this.totalBytes.get();
+	}
+
+	/**
+	 * Returns the serialized size of each live session's attributes.
+	 * @return the sizes in bytes, in no particular order
+	 */
+	public long[] sessionSizes() {
+		return this.sessions.values()
+			.stream()
+			.mapToLong(sizes -> sizes.values().stream().mapToLong(size -> Math.max(size, 0)).sum())
+			.toArray();
+	}
+
+	/**
+	 * Returns the running totals per attribute name.
+	 * @return the totals, sorted by attribute name
+	 */
+	public Map<String, AttributeTotals> attributeTotals() {
+		return new TreeMap<>(this.attributes);
+	}
+
+	private void record(String sessionId, String name, Object value) {
+		int size = serializedSize(value);
+		Integer previous = this.sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(name, size);
+		if (previous != null) {
+			release(name, previous);
+		}
+		AttributeTotals totals = this.attributes.computeIfAbsent(name, key -> new AttributeTotals());
+		totals.count.increment();
+		if (size < 0) {
+			totals.unserializable.increment();
+		}
+		else {
+			totals.bytes.add(size);
+			this.totalBytes.addAndGet(size);
+		}
+	}
+
+	private void release(String name, int size) {
+		AttributeTotals totals = this.attributes.get(name);
+		if (totals != null) {
+			totals.count.decrement();
+			if (size < 0) {
+				totals.unserializable.decrement();
+			}
+			else {
+				totals.bytes.add(-size);
+			}
+		}
+		if (size > 0) {
+			this.totalBytes.addAndGet(-size);
+		}
+	}
+
+	/**
+	 * Returns the Java serialized size of a value.
+	 * @param value the value to measure
+	 * @return the size in bytes, or {@code -1} if the value cannot be serialized
+	 */
+	static int serializedSize(Object value) {
+		CountingOutputStream counter = new CountingOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+			out.writeObject(value);
+		}
+		catch (IOException ex) {
+			return -1;
+		}
+		return counter.count;
+	}
+
+	/**
+	 * Live totals for one session attribute name across all sessions.
+	 */
+	public static final class AttributeTotals {
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder bytes = new LongAdder();
+
+		private final LongAdder unserializable = new LongAdder();
+
+		/**
+		 * Returns how many sessions hold this attribute.
+		 * @return the session count
+		 */
+		public long getCount() {
+			return this.count.sum();
+		}
+
+		/**
+		 * Returns the serialized size of this attribute summed over all sessions.
+		 * @return the total in bytes
+		 */
+		public long getBytes() {
+			return this.bytes.sum();
+		}
+
+		/**
+		 * Returns how many sessions hold a value of this attribute that cannot be
+		 * serialized.
+		 * @return the session count
+		 */
+		public long getUnserializable() {
+			return this.unserializable.sum();
+		}
+
+	}
+
+	/**
+	 * Discards the serialized bytes and only counts them, so measuring an attribute never
+	 * buffers a copy of it.
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+
+		private int count;
+
+		@Override
+		public void write(int b) {
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			this.count += len;
+		}
+
+	}
+
+}
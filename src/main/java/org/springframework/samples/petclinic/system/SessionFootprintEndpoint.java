@@ -0,0 +1,65 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/sessionfootprint}) reporting how much memory HTTP
+ * sessions hold, as tracked by {@link SessionFootprint}: the number of sessions, their
+ * total and per-session serialized size, and the share taken by each attribute name.
+ *
+ * <p>
+ * Session IDs are never included, so the report is safe to expose with the other
+ * read-only actuator endpoints.
+ * </p>
+ */
+@Component
+@Endpoint(id = "sessionfootprint")
+public class SessionFootprintEndpoint {
+
+	private final SessionFootprint sessionFootprint;
+
+	/**
+	 * Constructs a new {@code SessionFootprintEndpoint}.
+	 * @param sessionFootprint the tracker to report on
+	 */
+	public SessionFootprintEndpoint(SessionFootprint sessionFootprint) {
+		this.sessionFootprint = sessionFootprint;
+	}
+
+	/**
+	 * Reports the current session footprint.
+	 * @return the report, rendered as JSON
+	 */
+	@ReadOperation
+	public Map<String, Object> footprint() {
+		long[] sizes = this.sessionFootprint.sessionSizes();
+		Arrays.sort(sizes);
+		Map<String, Object> perSession = new LinkedHashMap<>();
+		perSession.put("average", (sizes.length > 0) ? Arrays.stream(sizes).sum() / sizes.length : 0);
+		perSession.put("p50", percentile(sizes, 0.50));
+		perSession.put("p95", percentile(sizes, 0.95));
+		perSession.put("max", (sizes.length > 0) ? sizes[sizes.length - 1] : 0);
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("activeSessions", this.sessionFootprint.getActiveSessions());
+		report.put("totalBytes", this.sessionFootprint.getTotalBytes());
+		report.put("sessionBytes", perSession);
+		report.put("attributes", this.sessionFootprint.attributeTotals());
+		return report;
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.max(index, 0)];
+	}
+
+}
@@ -0,0 +1,155 @@
+package org.springframework.samples.petclinic.system;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signs and verifies the small, expiring values that the application keeps in cookies
+ * instead of in the HTTP session (the authenticated principal, the last failed login
+ * email, and flash messages).
+ *
+ * <p>
+ * A token has the form {@code <kid>.<payload>.<mac>}, where {@code payload} is the
+ * base64url-encoded string {@code <expiresAtEpochSecond>|<value>} and {@code mac} is the
+ * base64url-encoded HMAC-SHA256 of {@code <kid>.<payload>}.
+ * </p>
+ *
+ * <p>
+ * <strong>Key rotation:</strong> keys are configured through
+ * {@code petclinic.session.signing-keys} as a comma-separated list of
+ * {@code <kid>:<secret>} pairs. The first key signs new tokens; every listed key is
+ * accepted when verifying. To rotate, prepend a new key, deploy, and remove the old key
+ * once the longest cookie lifetime has passed. When no key is configured, a random
+ * per-process key is generated, which is only suitable for a single replica.
+ * </p>
+ */
+@Component
+public class SignedCookieCodec {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	/** Signing keys by key ID, in configuration order; the first one signs. */
+	private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+
+	private final String activeKeyId;
+
+	private final Clock clock;
+
+	/**
+	 * Constructs a new {@code SignedCookieCodec} from the configured key ring.
+	 * @param signingKeys the configured {@code <kid>:<secret>} pairs, newest first
+	 */
+	@Autowired
+	public SignedCookieCodec(@Value("${petclinic.session.signing-keys:}") List<String> signingKeys) {
+		this(signingKeys, Clock.systemUTC());
+	}
+
+	SignedCookieCodec(List<String> signingKeys, Clock clock) {
+		this.clock = clock;
+		for (String entry : signingKeys) {
+			String trimmed = entry.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			int separator = trimmed.indexOf(':');
+			if (separator <= 0 || separator == trimmed.length() - 1) {
+				throw new IllegalArgumentException("Signing keys must use the form <kid>:<secret>");
+			}
+			String kid = trimmed.substring(0, separator);
+			byte[] secret = trimmed.substring(separator + 1).getBytes(StandardCharsets.UTF_8);
+			if (secret.length < 32) {
+				throw new IllegalArgumentException("Signing key '" + kid + "' must be at least 32 bytes long");
+			}
+			this.keys.put(kid, new SecretKeySpec(secret, ALGORITHM));
+		}
+		if (this.keys.isEmpty()) {
+			byte[] secret = new byte[32];
+			new SecureRandom().nextBytes(secret);
+			this.keys.put("local", new SecretKeySpec(secret, ALGORITHM));
+		}
+		this.activeKeyId = this.keys.keySet().iterator().next();
+	}
+
+	/**
+	 * Signs the given value with the active key.
+	 * @param value the value to protect
+	 * @param timeToLive how long the token stays valid
+	 * @return a URL- and cookie-safe token
+	 */
+	public String encode(String value, Duration timeToLive) {
+		long expiresAt = this.clock.instant().plus(timeToLive).getEpochSecond();
+		String payload = ENCODER.encodeToString((expiresAt + "|" + value).getBytes(StandardCharsets.UTF_8));
+		String signed = this.activeKeyId + "." + payload;
+		return signed + "." + ENCODER.encodeToString(mac(this.keys.get(this.activeKeyId), signed));
+	}
+
+	/**
+	 * Verifies a token produced by {@link #encode(String, Duration)}.
+	 * @param token the token read from a cookie, may be {@code null}
+	 * @return the original value, or {@link Optional#empty()} if the token is missing,
+	 * malformed, signed with an unknown key, tampered with, or expired
+	 */
+	public Optional<String> decode(String token) {
+		if (token == null) {
+			return Optional.empty();
+		}
+		int first = token.indexOf('.');
+		int last = token.lastIndexOf('.');
+		if (first <= 0 || last == first) {
+			return Optional.empty();
+		}
+		SecretKeySpec key = this.keys.get(token.substring(0, first));
+		if (key == null) {
+			return Optional.empty();
+		}
+		try {
+			byte[] expected = mac(key, token.substring(0, last));
+			if (!MessageDigest.isEqual(expected, DECODER.decode(token.substring(last + 1)))) {
+				return Optional.empty();
+			}
+			String payload = new String(DECODER.decode(token.substring(first + 1, last)), StandardCharsets.UTF_8);
+			int separator = payload.indexOf('|');
+			if (separator < 0
+					|| Long.parseLong(payload.substring(0, separator)) < this.clock.instant().getEpochSecond()) {
+				return Optional.empty();
+			}
+			return Optional.of(payload.substring(separator + 1));
+		}
+		catch (IllegalArgumentException ex) {
+			// Bad base64 or a non-numeric expiry: treat like any other forged cookie
+			return Optional.empty();
+		}
+	}
+
+	private static byte[] mac(SecretKeySpec key, String data) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("HmacSHA256 is not available", ex);
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+package org.springframework.samples.petclinic.system;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.AbstractFlashMapManager;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * A {@link org.springframework.web.servlet.FlashMapManager} that carries
+ * {@code RedirectAttributes} flash attributes across a redirect in a signed cookie
+ * instead of the HTTP session.
+ *
+ * <p>
+ * Flash attributes in this application are short user-facing messages, so values are
+ * stored as strings. Each flash map is encoded as a query-string-like line holding its
+ * target path, expiry, target parameters ({@code p.} prefix) and attributes ({@code a.}
+ * prefix).
+ * </p>
+ *
+ * @see StatelessSessionConfiguration
+ */
+public class SignedCookieFlashMapManager extends AbstractFlashMapManager {
+
+	/** Name of the cookie holding pending flash maps. */
+	public static final String COOKIE_NAME = "PT_FLASH";
+
+	private final SignedCookieCodec codec;
+
+	/**
+	 * Constructs a new {@code SignedCookieFlashMapManager}.
+	 * @param codec the codec used to sign and verify the cookie
+	 */
+	public SignedCookieFlashMapManager(SignedCookieCodec codec) {
+		this.codec = codec;
+	}
+
+	@Override
+	protected List<FlashMap> retrieveFlashMaps(HttpServletRequest request) {
+		Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+		if (cookie == null) {
+			return null;
+		}
+		return this.codec.decode(cookie.getValue()).map(SignedCookieFlashMapManager::decodeFlashMaps).orElse(null);
+	}
+
+	@Override
+	protected void updateFlashMaps(List<FlashMap> flashMaps, HttpServletRequest request, HttpServletResponse response) {
+		if (flashMaps.isEmpty()) {
+			if (WebUtils.getCookie(request, COOKIE_NAME) != null) {
+				SignedFlashCookies.write(request, response, COOKIE_NAME, "", Duration.ZERO);
+			}
+			return;
+		}
+		Duration timeToLive = Duration.ofSeconds(Math.max(getFlashMapTimeout(), 1));
+		SignedFlashCookies.write(request, response, COOKIE_NAME,
+				this.codec.encode(encodeFlashMaps(flashMaps), timeToLive), timeToLive);
+	}
+
+	/**
+	 * No lock is needed: the flash maps live in the request's own cookie rather than in
+	 * state shared between concurrent requests.
+	 */
+	@Override
+	protected Object getFlashMapsMutex(HttpServletRequest request) {
+		return null;
+	}
+
+	static String encodeFlashMaps(List<FlashMap> flashMaps) {
+		StringBuilder out = new StringBuilder();
+		for (FlashMap flashMap : flashMaps) {
+			if (out.length() > 0) {
+				out.append('\n');
+			}
+			out.append("exp=").append(flashMap.getExpirationTime());
+			if (flashMap.getTargetRequestPath() != null) {
+				out.append("&path=").append(encode(flashMap.getTargetRequestPath()));
+			}
+			flashMap.getTargetRequestParams()
+				.forEach((name, values) -> values
+					.forEach(value -> out.append("&p.").append(encode(name)).append('=').append(encode(value))));
+			for (Map.Entry<String, Object> attribute : flashMap.entrySet()) {
+				out.append("&a.")
+					.append(encode(attribute.getKey()))
+					.append('=')
+					.append(encode(String.valueOf(attribute.getValue())));
+			}
+		}
+		return out.toString();
+	}
+
+	static List<FlashMap> decodeFlashMaps(String encoded) {
+		List<FlashMap> flashMaps = new ArrayList<>();
+		for (String line : encoded.split("\n")) {
+			FlashMap flashMap = new FlashMap();
+			for (String pair : line.split("&")) {
+				int separator = pair.indexOf('=');
+				if (separator < 0) {
+					continue;
+				}
+				String key = pair.substring(0, separator);
+				String value = decode(pair.substring(separator + 1));
+				if (key.equals("exp")) {
+					flashMap.setExpirationTime(Long.parseLong(value));
+				}
+				else if (key.equals("path")) {
+					flashMap.setTargetRequestPath(value);
+				}
+				else if (key.startsWith("p.")) {
+					flashMap.addTargetRequestParam(decode(key.substring(2)), value);
+				}
+				else if (key.startsWith("a.")) {
+					flashMap.put(decode(key.substring(2)), value);
+				}
+			}
+			flashMaps.add(flashMap);
+		}
+		return flashMaps;
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	private static String decode(String value) {
+		return URLDecoder.decode(value, StandardCharsets.UTF_8);
+	}
+
+}
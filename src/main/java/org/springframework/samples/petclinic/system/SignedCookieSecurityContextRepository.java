@@ -0,0 +1,154 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * A {@link SecurityContextRepository} that keeps the authenticated principal in a signed,
+ * expiring cookie instead of the HTTP session, so that the application can run several
+ * replicas without sticky sessions or a shared session store.
+ *
+ * <p>
+ * The cookie only holds the principal's email address and granted authorities, signed by
+ * {@link SignedCookieCodec}. Credentials are never written. On each request the cookie is
+ * verified and turned back into an authenticated
+ * {@link UsernamePasswordAuthenticationToken} whose principal is a
+ * {@link CompactPrincipal} named by the email address, so {@code Principal.getName()}
+ * keeps returning the email as it does with session-based authentication.
+ * </p>
+ *
+ * <p>
+ * The lifetime is absolute: a login is valid for {@code petclinic.session.cookie-ttl} (8
+ * hours by default) and is not extended by activity.
+ * </p>
+ *
+ * @see StatelessSessionConfiguration
+ */
+public class SignedCookieSecurityContextRepository implements SecurityContextRepository {
+
+	/** Name of the cookie holding the signed principal. */
+	public static final String COOKIE_NAME = "PT_AUTH";
+
+	private final SignedCookieCodec codec;
+
+	private final Duration timeToLive;
+
+	private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
+		.getContextHolderStrategy();
+
+	/**
+	 * Constructs a new {@code SignedCookieSecurityContextRepository}.
+	 * @param codec the codec used to sign and verify the cookie
+	 * @param timeToLive how long a login stays valid
+	 */
+	public SignedCookieSecurityContextRepository(SignedCookieCodec codec, Duration timeToLive) {
+		this.codec = codec;
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Kept for the deprecated contract; delegates to {@link #readContext}.
+	 * @param requestResponseHolder the current request and response
+	 * @return the security context stored in the cookie, or an empty context
+	 */
+	@Override
+	@Deprecated
+	public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+		return readContext(requestResponseHolder.getRequest());
+	}
+
+	@Override
+	public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+		Supplier<SecurityContext> supplier = () -> readContext(request);
+		return new DeferredSecurityContext() {
+
+			private SecurityContext context;
+
+			@Override
+			public SecurityContext get() {
+				if (this.context == null) {
+					this.context = supplier.get();
+				}
+				return this.context;
+			}
+
+			@Override
+			public boolean isGenerated() {
+				return get().getAuthentication() == null;
+			}
+
+		};
+	}
+
+	@Override
+	public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+		Authentication authentication = context.getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| authentication instanceof AnonymousAuthenticationToken) {
+			if (containsContext(request)) {
+				SignedFlashCookies.write(request, response, COOKIE_NAME, "", Duration.ZERO);
+			}
+			return;
+		}
+		StringBuilder value = new StringBuilder();
+		for (GrantedAuthority authority : authentication.getAuthorities()) {
+			if (value.length() > 0) {
+				value.append(',');
+			}
+			value.append(authority.getAuthority());
+		}
+		// The email goes last so that it may safely contain the separator
+		value.append('|').append(authentication.getName());
+		SignedFlashCookies.write(request, response, COOKIE_NAME, this.codec.encode(value.toString(), this.timeToLive),
+				this.timeToLive);
+	}
+
+	@Override
+	public boolean containsContext(HttpServletRequest request) {
+		return WebUtils.getCookie(request, COOKIE_NAME) != null;
+	}
+
+	private SecurityContext readContext(HttpServletRequest request) {
+		SecurityContext context = this.securityContextHolderStrategy.createEmptyContext();
+		Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+		Optional<String> value = (cookie != null) ? this.codec.decode(cookie.getValue()) : Optional.empty();
+		if (value.isEmpty()) {
+			return context;
+		}
+		String principal = value.get();
+		int separator = principal.indexOf('|');
+		if (separator < 0) {
+			return context;
+		}
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		for (String authority : principal.substring(0, separator).split(",")) {
+			if (!authority.isEmpty()) {
+				authorities.add(new SimpleGrantedAuthority(authority));
+			}
+		}
+		CompactPrincipal user = CompactPrincipal.of(principal.substring(separator + 1), authorities);
+		context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+		return context;
+	}
+
+}
@@ -0,0 +1,91 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Reads and writes short-lived, signed cookies that carry a value from one request to the
+ * next, replacing one-shot HTTP session attributes such as {@code LAST_EMAIL} and
+ * {@code PATRIOT_LAST_EMAIL}. Because the value travels with the browser, any replica can
+ * serve the follow-up request.
+ *
+ * @see SignedCookieCodec
+ */
+@Component
+public class SignedFlashCookies {
+
+	/** How long a flash value survives if it is never read. */
+	static final Duration FLASH_TTL = Duration.ofMinutes(5);
+
+	private final SignedCookieCodec codec;
+
+	/**
+	 * Constructs a new {@code SignedFlashCookies} helper.
+	 * @param codec the codec used to sign and verify cookie values
+	 */
+	public SignedFlashCookies(SignedCookieCodec codec) {
+		this.codec = codec;
+	}
+
+	/**
+	 * Stores a value for the next request. Blank values are ignored.
+	 * @param request the current request, used to decide the {@code Secure} flag
+	 * @param response the response to add the cookie to
+	 * @param name the cookie name
+	 * @param value the value to carry over
+	 */
+	public void put(HttpServletRequest request, HttpServletResponse response, String name, String value) {
+		if (value == null || value.isBlank()) {
+			return;
+		}
+		write(request, response, name, this.codec.encode(value, FLASH_TTL), FLASH_TTL);
+	}
+
+	/**
+	 * Reads a value stored by {@link #put} and removes the cookie, so the value is only
+	 * seen once.
+	 * @param request the current request
+	 * @param response the response used to expire the cookie
+	 * @param name the cookie name
+	 * @return the verified value, or {@link Optional#empty()} if absent or invalid
+	 */
+	public Optional<String> consume(HttpServletRequest request, HttpServletResponse response, String name) {
+		Cookie cookie = WebUtils.getCookie(request, name);
+		if (cookie == null) {
+			return Optional.empty();
+		}
+		write(request, response, name, "", Duration.ZERO);
+		return this.codec.decode(cookie.getValue());
+	}
+
+	/**
+	 * Writes an HTTP-only, {@code SameSite=Lax} cookie scoped to the whole application.
+	 * @param request the current request
+	 * @param response the response to add the cookie to
+	 * @param name the cookie name
+	 * @param value the (already signed) cookie value
+	 * @param maxAge the cookie lifetime; {@link Duration#ZERO} deletes the cookie
+	 */
+	static void write(HttpServletRequest request, HttpServletResponse response, String name, String value,
+			Duration maxAge) {
+		String path = request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+		ResponseCookie cookie = ResponseCookie.from(name, value)
+			.path(path)
+			.httpOnly(true)
+			.secure(request.isSecure())
+			.sameSite("Lax")
+			.maxAge(maxAge)
+			.build();
+		response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+	}
+
+}
@@ -0,0 +1,22 @@
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers {@link SqlStatementTally.HibernateListener} with Hibernate, so that every
+ * statement run while a {@link SqlStatementTally} is open is counted and timed.
+ */
+@Configuration(proxyBeanMethods = false)
+class SqlStatementConfiguration {
+
+	@Bean
+	HibernatePropertiesCustomizer sqlStatementTallyCustomizer() {
+		return properties -> {
+			properties.put("hibernate.session_factory.statement_inspector", new SqlStatementTally.HibernateListener());
+			properties.put("hibernate.session.events.auto", SqlStatementTally.HibernateListener.class.getName());
+		};
+	}
+
+}
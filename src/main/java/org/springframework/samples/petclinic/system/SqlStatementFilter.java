@@ -0,0 +1,171 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements each HTTP request runs, and the time they take, with a
+ * {@link SqlStatementTally}.
+ *
+ * <p>
+ * The totals are published per method and URI pattern as the
+ * {@code petclinic.sql.statements} summary and the {@code petclinic.sql.time} timer. A
+ * request that runs the same statement {@code petclinic.sql.repeated-threshold} times or
+ * more is logged as a possible N+1 and counted in {@code petclinic.sql.repeated}.
+ * </p>
+ *
+ * <p>
+ * With {@code petclinic.sql.server-timing=true}, as in the {@code dev} profile, the
+ * response also carries a {@code Server-Timing: db;dur=...;desc="N statements"} header,
+ * which browser developer tools show next to the request. The header is written as soon
+ * as the response body is started or the response is committed, so a statement run after
+ * that is left out of it but not out of the metrics.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementFilter extends OncePerRequestFilter implements MeterBinder {
+
+	private static final Log logger = LogFactory.getLog(SqlStatementFilter.class);
+
+	private final boolean serverTiming;
+
+	private final int repeatedThreshold;
+
+	private volatile MeterRegistry registry;
+
+	/**
+	 * Constructs a new {@code SqlStatementFilter}.
+	 * @param serverTiming whether to add a {@code Server-Timing} header to responses
+	 * @param repeatedThreshold how many runs of the same statement in one request are
+	 * reported as a possible N+1
+	 */
+	public SqlStatementFilter(@Value("${petclinic.sql.server-timing:false}") boolean serverTiming,
+			@Value("${petclinic.sql.repeated-threshold:10}") int repeatedThreshold) {
+		this.serverTiming = serverTiming;
+		this.repeatedThreshold = repeatedThreshold;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		SqlStatementTally tally = SqlStatementTally.start();
+		ServerTimingResponse timedResponse = this.serverTiming ? new ServerTimingResponse(response, tally) : null;
+		try {
+			chain.doFilter(request, (timedResponse != null) ? timedResponse : response);
+		}
+		finally {
+			tally.stop();
+			if (timedResponse != null && !response.isCommitted()) {
+				timedResponse.addServerTiming();
+			}
+			record(request, tally);
+		}
+	}
+
+	private void record(HttpServletRequest request, SqlStatementTally tally) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = (pattern != null) ? pattern.toString() : "UNMAPPED";
+		Map<String, Integer> repeated = tally.getRepeatedStatements(this.repeatedThreshold);
+		if (!repeated.isEmpty() && logger.isWarnEnabled()) {
+			repeated.forEach((sql, times) -> logger
+				.warn(request.getMethod() + " " + uri + " ran the same statement " + times + " times: " + sql));
+		}
+		MeterRegistry registry = this.registry;
+		if (registry == null) {
+			return;
+		}
+		DistributionSummary.builder("petclinic.sql.statements")
+			.description("SQL statements run per HTTP request")
+			.tag("method", request.getMethod())
+			.tag("uri", uri)
+			.register(registry)
+			.record(tally.getStatementCount());
+		Timer.builder("petclinic.sql.time")
+			.description("Time spent executing SQL per HTTP request")
+			.tag("method", request.getMethod())
+			.tag("uri", uri)
+			.register(registry)
+			.record(tally.getJdbcTime());
+		if (!repeated.isEmpty()) {
+			Counter.builder("petclinic.sql.repeated")
+				.description("HTTP requests that ran the same SQL statement repeatedly, a sign of an N+1")
+				.tag("method", request.getMethod())
+				.tag("uri", uri)
+				.register(registry)
+				.increment();
+		}
+	}
+
+	/**
+	 * Adds the {@code Server-Timing} header before the first byte of the body is written,
+	 * since the container may commit the response once its buffer fills.
+	 */
+	private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+		private final SqlStatementTally tally;
+
+		private boolean added;
+
+		ServerTimingResponse(HttpServletResponse response, SqlStatementTally tally) {
+			super(response);
+			this.tally = tally;
+		}
+
+		@Override
+		protected void onResponseCommitted() {
+			addServerTiming();
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			addServerTiming();
+			return super.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			addServerTiming();
+			return super.getWriter();
+		}
+
+		void addServerTiming() {
+			if (!this.added) {
+				this.added = true;
+				double millis = this.tally.getJdbcTime().toNanos() / 1_000_000.0;
+				addHeader("Server-Timing", String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statements\"", millis,
+						this.tally.getStatementCount()));
+			}
+		}
+
+	}
+
+}
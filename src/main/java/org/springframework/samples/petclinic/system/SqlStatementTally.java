@@ -0,0 +1,160 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate runs on the current thread, and the time spent
+ * executing them, between {@link #start()} and {@link #stop()}. The
+ * {@link SqlStatementFilter} keeps one per HTTP request; tests keep one per test method.
+ *
+ * <p>
+ * Statements are also counted by their SQL text, which Hibernate prepares with {@code ?}
+ * placeholders. The same text run many times in one tally is the signature of an N+1: a
+ * lazy association or an eager one fetched by a separate select for each row of a list.
+ * </p>
+ *
+ * <p>
+ * Tallies nest: statements counted by an inner tally are added to the outer one when it
+ * stops. Statements run on other threads, such as by an {@code @Async} method, are not
+ * counted.
+ * </p>
+ */
+public final class SqlStatementTally {
+
+	private static final ThreadLocal<SqlStatementTally> current = new ThreadLocal<>();
+
+	private final SqlStatementTally outer;
+
+	private final Map<String, Integer> statements = new HashMap<>();
+
+	private int count;
+
+	private long jdbcNanos;
+
+	private SqlStatementTally(SqlStatementTally outer) {
+		this.outer = outer;
+	}
+
+	/**
+	 * Starts a tally on the current thread.
+	 * @return the new tally
+	 */
+	public static SqlStatementTally start() {
+		SqlStatementTally tally = new SqlStatementTally(current.get());
+		current.set(tally);
+		return tally;
+	}
+
+	/**
+	 * Returns the tally running on the current thread.
+	 * @return the innermost tally, or {@code null} if none is running
+	 */
+	public static SqlStatementTally current() {
+		return current.get();
+	}
+
+	/**
+	 * Stops this tally, adding its counts to the tally it was started inside of.
+	 */
+	public void stop() {
+		if (current.get() != this) {
+			throw new IllegalStateException("Tally is not the innermost one on this thread");
+		}
+		if (this.outer != null) {
+			this.statements.forEach((sql, times) -> this.outer.statements.merge(sql, times, Integer::sum));
+			this.outer.count += this.count;
+			this.outer.jdbcNanos += this.jdbcNanos;
+			current.set(this.outer);
+		}
+		else {
+			current.remove();
+		}
+	}
+
+	/**
+	 * Returns the number of statements run.
+	 * @return the statement count
+	 */
+	public int getStatementCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the time spent executing statements, measured around each JDBC execute
+	 * call.
+	 * @return the JDBC time
+	 */
+	public Duration getJdbcTime() {
+		return Duration.ofNanos(this.jdbcNanos);
+	}
+
+	/**
+	 * Returns the statements run at least {@code times} times, most repeated first.
+	 * @param times the smallest repeat count to include
+	 * @return the repeat count by SQL text
+	 */
+	public Map<String, Integer> getRepeatedStatements(int times) {
+		Map<String, Integer> repeated = new LinkedHashMap<>();
+		this.statements.entrySet()
+			.stream()
+			.filter(entry -> entry.getValue() >= times)
+			.sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+			.forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+		return repeated;
+	}
+
+	/**
+	 * Hooks the tally into Hibernate: as the {@link StatementInspector} it counts each
+	 * statement prepared, and as an automatic {@link SessionEventListener} it times each
+	 * execution. Does nothing while no tally is running.
+	 */
+	public static class HibernateListener implements StatementInspector, SessionEventListener {
+
+		private long executeStart;
+
+		@Override
+		public String inspect(String sql) {
+			SqlStatementTally tally = current.get();
+			if (tally != null) {
+				tally.count++;
+				tally.statements.merge(sql, 1, Integer::sum);
+			}
+			return sql;
+		}
+
+		@Override
+		public void jdbcExecuteStatementStart() {
+			this.executeStart = System.nanoTime();
+		}
+
+		@Override
+		public void jdbcExecuteStatementEnd() {
+			addExecuteTime();
+		}
+
+		@Override
+		public void jdbcExecuteBatchStart() {
+			this.executeStart = System.nanoTime();
+		}
+
+		@Override
+		public void jdbcExecuteBatchEnd() {
+			addExecuteTime();
+		}
+
+		private void addExecuteTime() {
+			SqlStatementTally tally = current.get();
+			if (tally != null) {
+				tally.jdbcNanos += System.nanoTime() - this.executeStart;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.context.DelegatingSecurityContextRepository;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMapManager;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+
+/**
+ * Chooses where authentication and flash attributes are kept between requests.
+ *
+ * <p>
+ * By default ({@code petclinic.session.stateless=false}) the security context lives in
+ * the HTTP session, exactly as Spring Security does out of the box. With
+ * {@code petclinic.session.stateless=true}, the security context and the
+ * {@code RedirectAttributes} flash maps are kept in signed cookies instead, so no replica
+ * holds any per-user memory and the deployment can scale out without sticky sessions. All
+ * replicas must then share the same {@code petclinic.session.signing-keys}.
+ * </p>
+ *
+ * <p>
+ * Both security filter chains and the login/registration controllers use the
+ * {@link SecurityContextRepository} bean defined here, so the two modes behave the same
+ * from the application's point of view.
+ * </p>
+ *
+ * <p>
+ * Both beans are always defined and read the property when they are created, rather than
+ * being conditional on it, because AOT processing fixes bean conditions when the jar is
+ * built. The mode can therefore still be chosen when the application starts.
+ * </p>
+ *
+ * @see SignedCookieSecurityContextRepository
+ * @see SignedCookieFlashMapManager
+ */
+@Configuration(proxyBeanMethods = false)
+public class StatelessSessionConfiguration {
+
+	/**
+	 * Creates the {@link SecurityContextRepository} shared by both filter chains.
+	 * @param stateless whether to keep the security context in a signed cookie
+	 * @param timeToLive how long a cookie-based login stays valid
+	 * @param codec the codec used to sign the cookie
+	 * @return the cookie-backed repository in stateless mode, otherwise Spring Security's
+	 * default request-attribute plus HTTP session repository
+	 */
+	@Bean
+	public SecurityContextRepository securityContextRepository(
+			@Value("${petclinic.session.stateless:false}") boolean stateless,
+			@Value("${petclinic.session.cookie-ttl:8h}") Duration timeToLive, SignedCookieCodec codec) {
+		if (stateless) {
+			return new DelegatingSecurityContextRepository(new RequestAttributeSecurityContextRepository(),
+					new SignedCookieSecurityContextRepository(codec, timeToLive));
+		}
+		return new DelegatingSecurityContextRepository(new RequestAttributeSecurityContextRepository(),
+				new HttpSessionSecurityContextRepository());
+	}
+
+	/**
+	 * Creates the flash map manager. The bean name is the one {@link DispatcherServlet}
+	 * looks up.
+	 * @param stateless whether to keep flash attributes in a signed cookie
+	 * @param codec the codec used to sign the cookie
+	 * @return a cookie-backed {@link FlashMapManager} in stateless mode, otherwise the
+	 * session-based one {@link DispatcherServlet} uses by default
+	 */
+	@Bean(DispatcherServlet.FLASH_MAP_MANAGER_BEAN_NAME)
+	public FlashMapManager flashMapManager(@Value("${petclinic.session.stateless:false}") boolean stateless,
+			SignedCookieCodec codec) {
+		if (stateless) {
+			return new SignedCookieFlashMapManager(codec);
+		}
+		return new SessionFlashMapManager();
+	}
+
+}
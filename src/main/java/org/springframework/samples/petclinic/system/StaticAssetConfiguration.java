@@ -0,0 +1,169 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+
+/**
+ * Serves the application's static assets, caching those under fingerprinted names for a
+ * year as immutable.
+ *
+ * <p>
+ * At build time {@code AssetPipeline} copies every file under {@code static/resources} to
+ * a name that carries a hash of its content, writes gzip (and, where available, brotli)
+ * variants next to it, and records the names in
+ * {@code META-INF/asset-manifest.properties}. Links that templates write with
+ * {@code @{/resources/...}} are rewritten to the fingerprinted names by the
+ * {@link ResourceUrlEncodingFilter}, and those to {@code /webjars/...} to the webjar's
+ * versioned path, so a deploy that changes an asset changes its URL. Requests for them
+ * are answered with the precompressed variant the client accepts. Only those
+ * fingerprinted and versioned URLs are cached as immutable; the original names and
+ * versionless webjar paths, whose content changes with a deploy, keep the
+ * {@code spring.web.resources.cache.cachecontrol.max-age} policy.
+ * </p>
+ *
+ * <p>
+ * Without a manifest, as when the application is started from an IDE that skipped the
+ * build step, {@code /resources/**} is left to Spring Boot's static resource handling and
+ * its {@code spring.web.resources.cache} settings. The static paths are also kept out of
+ * the application's security filter chains (see {@code SecurityConfig}) and of the locale
+ * change interceptor (see {@link WebConfiguration}).
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StaticAssetConfiguration implements WebMvcConfigurer {
+
+	/**
+	 * The URL patterns of the static assets.
+	 */
+	public static final String[] PATHS = { "/resources/**", "/webjars/**" };
+
+	static final String MANIFEST = "META-INF/asset-manifest.properties";
+
+	/**
+	 * The names {@code AssetPipeline} gives fingerprinted copies: the original name with
+	 * a 16 digit content hash before the extension.
+	 */
+	private static final String FINGERPRINTED = "/resources/{directory}/{file:.+-[0-9a-f]{16}\\..+}";
+
+	/**
+	 * Webjar paths that name the webjar's version, as the links are rewritten to.
+	 */
+	private static final String VERSIONED_WEBJARS = "/webjars/{webjar}/{version:\\d.*}/**";
+
+	private static final Log logger = LogFactory.getLog(StaticAssetConfiguration.class);
+
+	private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+	private final Properties manifest = loadManifest();
+
+	private final CacheControl mutable;
+
+	StaticAssetConfiguration(@Value("${spring.web.resources.cache.cachecontrol.max-age:12h}") Duration maxAge) {
+		this.mutable = CacheControl.maxAge(maxAge);
+	}
+
+	@Override
+	public void addResourceHandlers(ResourceHandlerRegistry registry) {
+		// Registered ahead of Spring Boot's handlers, which then leave these paths alone.
+		// The more specific fingerprinted and versioned patterns win over the /** ones.
+		if (!this.manifest.isEmpty()) {
+			registry.addResourceHandler(FINGERPRINTED)
+				.addResourceLocations("classpath:/static/resources/")
+				.setCacheControl(IMMUTABLE)
+				.resourceChain(true)
+				.addResolver(new EncodedResourceResolver());
+			registry.addResourceHandler("/resources/**")
+				.addResourceLocations("classpath:/static/resources/")
+				.setCacheControl(this.mutable)
+				.resourceChain(true)
+				.addResolver(new ManifestResourceResolver(this.manifest))
+				.addResolver(new EncodedResourceResolver());
+		}
+		registry.addResourceHandler(VERSIONED_WEBJARS)
+			.addResourceLocations("classpath:/META-INF/resources/webjars/")
+			.setCacheControl(IMMUTABLE)
+			.resourceChain(true);
+		registry.addResourceHandler("/webjars/**")
+			.addResourceLocations("classpath:/META-INF/resources/webjars/")
+			.setCacheControl(this.mutable)
+			.resourceChain(true);
+	}
+
+	@Bean
+	FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+		FilterRegistrationBean<ResourceUrlEncodingFilter> registration = new FilterRegistrationBean<>(
+				new ResourceUrlEncodingFilter());
+		registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ERROR);
+		return registration;
+	}
+
+	private static Properties loadManifest() {
+		Properties manifest = new Properties();
+		ClassPathResource resource = new ClassPathResource(MANIFEST);
+		if (!resource.exists()) {
+			logger.info("No " + MANIFEST + "; static resources are served without fingerprints");
+			return manifest;
+		}
+		try (InputStream in = resource.getInputStream()) {
+			manifest.load(in);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Could not read " + MANIFEST, ex);
+		}
+		return manifest;
+	}
+
+	/**
+	 * Links assets by the fingerprinted names in the manifest. Requests for those names
+	 * are resolved by the rest of the chain, as they are files of their own.
+	 */
+	static class ManifestResourceResolver implements ResourceResolver {
+
+		private final Properties manifest;
+
+		ManifestResourceResolver(Properties manifest) {
+			this.manifest = manifest;
+		}
+
+		@Override
+		public Resource resolveResource(HttpServletRequest request, String requestPath,
+				List<? extends Resource> locations, ResourceResolverChain chain) {
+			return chain.resolveResource(request, requestPath, locations);
+		}
+
+		@Override
+		public String resolveUrlPath(String resourcePath, List<? extends Resource> locations,
+				ResourceResolverChain chain) {
+			String fingerprinted = this.manifest.getProperty(resourcePath);
+			return chain.resolveUrlPath((fingerprinted != null) ? fingerprinted : resourcePath, locations);
+		}
+
+	}
+
+}
@@ -0,0 +1,388 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps pre-rendered copies of pages that are the same for every anonymous visitor, such
+ * as the welcome and pricing pages, as plain and gzip files on local disk.
+ *
+ * <p>
+ * Once the web server is up, each configured path is fetched from the server itself as an
+ * anonymous visitor would see it, and the response is written to disk with a strong
+ * {@code ETag}. Controllers then call {@link #serve} first and only render the page
+ * themselves when it declines, so a traffic spike on these pages touches neither JPA nor
+ * the template engine. Files are handed to Tomcat's sendfile support when the connector
+ * offers it, and copied with {@link FileChannel#transferTo} otherwise.
+ * </p>
+ *
+ * <p>
+ * A copy is only served to an anonymous visitor whose request has no query string and no
+ * flash attributes, and whose locale is the one the copy was rendered in; everyone else
+ * gets a freshly rendered page. Pages that depend on data call {@link #republish} after
+ * that data changes.
+ * </p>
+ *
+ * <p>
+ * Every replica keeps its own copies, so a writer also bumps the page's
+ * {@link CacheVersions} row, named by {@link #cacheName}, in its transaction. Each
+ * replica checks that row at most once per check interval while serving the page; once it
+ * has moved, the page is rendered per request until a new copy has been published.
+ * </p>
+ */
+@Component
+public class StaticPagePublisher implements ApplicationListener<WebServerInitializedEvent>, DisposableBean {
+
+	/**
+	 * Request header marking the publisher's own render requests, which must not be
+	 * served a copy.
+	 */
+	static final String RENDER_HEADER = "X-Static-Page-Render";
+
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	private static final Log logger = LogFactory.getLog(StaticPagePublisher.class);
+
+	private final boolean enabled;
+
+	private final List<String> paths;
+
+	private final String configuredDirectory;
+
+	private final String contextPath;
+
+	private final LocaleResolver localeResolver;
+
+	private final String renderToken = UUID.randomUUID().toString();
+
+	private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * The snapshot each current one replaced, kept until the next publish for in-flight
+	 * sendfiles.
+	 */
+	private final ConcurrentMap<String, Snapshot> retired = new ConcurrentHashMap<>();
+
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Paths whose data another replica has changed since their copy was rendered.
+	 */
+	private final Set<String> outdated = ConcurrentHashMap.newKeySet();
+
+	private final Map<String, CacheVersions.Watch> remoteWrites;
+
+	private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("static-pages-");
+
+	private volatile Path directory;
+
+	private volatile RestClient client;
+
+	/**
+	 * Constructs a new {@code StaticPagePublisher}.
+	 * @param enabled whether pages are pre-rendered at all
+	 * @param paths the request paths to pre-render
+	 * @param directory where to write the files; a temporary directory if empty
+	 * @param contextPath the servlet context path, prepended to render requests
+	 * @param localeResolver the resolver used to tell whether a visitor would see the
+	 * pre-rendered locale
+	 * @param cacheVersions the versions other replicas bump when a page's data changes
+	 * @param checkInterval how often each page's version is checked while it is served
+	 */
+	public StaticPagePublisher(@Value("${petclinic.static-pages.enabled:true}") boolean enabled,
+			@Value("${petclinic.static-pages.paths:/,/pricing}") List<String> paths,
+			@Value("${petclinic.static-pages.directory:}") String directory,
+			@Value("${server.servlet.context-path:}") String contextPath, LocaleResolver localeResolver,
+			CacheVersions cacheVersions, @Value("${petclinic.static-pages.check-interval:5s}") Duration checkInterval) {
+		this.enabled = enabled;
+		this.paths = List.copyOf(paths);
+		this.configuredDirectory = directory;
+		this.contextPath = contextPath;
+		this.localeResolver = localeResolver;
+		this.remoteWrites = new ConcurrentHashMap<>();
+		this.paths.forEach((path) -> this.remoteWrites.put(path,
+				new CacheVersions.Watch(cacheVersions, cacheName(path), checkInterval)));
+		this.executor.setVirtualThreads(JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE));
+		this.executor.setTaskTerminationTimeout(10_000);
+	}
+
+	/**
+	 * Publishes every configured page once the application's own web server is listening.
+	 * @param event the event published when a web server has started
+	 */
+	@Override
+	public void onApplicationEvent(WebServerInitializedEvent event) {
+		if (!this.enabled || event.getApplicationContext().getServerNamespace() != null) {
+			return;
+		}
+		this.client = RestClient.builder()
+			.baseUrl("http://localhost:" + event.getWebServer().getPort() + this.contextPath)
+			.build();
+		// Record each page's version before its first render, so a later write is noticed
+		this.remoteWrites.values().forEach(CacheVersions.Watch::changed);
+		this.paths.forEach(this::republish);
+	}
+
+	/**
+	 * Returns the name of the {@link CacheVersions} row that a writer bumps when the data
+	 * behind a page changes.
+	 * @param path the request path of the page, such as {@code /pricing}
+	 * @return the version name, such as {@code page:/pricing}
+	 */
+	public static String cacheName(String path) {
+		return "page:" + path;
+	}
+
+	/**
+	 * Re-renders a page in the background. Requests for a page that is already queued are
+	 * coalesced. Does nothing until the web server has started or for paths that are not
+	 * configured.
+	 * @param path the request path of the page, such as {@code /pricing}
+	 */
+	public void republish(String path) {
+		if (this.client == null || !this.paths.contains(path) || !this.pending.add(path)) {
+			return;
+		}
+		this.executor.execute(() -> {
+			this.pending.remove(path);
+			try {
+				render(path);
+			}
+			catch (RuntimeException ex) {
+				logger.warn("Could not pre-render " + path + "; it is rendered per request", ex);
+			}
+		});
+	}
+
+	/**
+	 * Writes the pre-rendered copy of a page to the response, if there is one and the
+	 * visitor would see exactly that page.
+	 * @param path the request path of the page
+	 * @param request the current request
+	 * @param response the current response
+	 * @return {@code true} if the response was written (possibly as a
+	 * {@code 304 Not Modified}), {@code false} if the caller must render the page
+	 * @throws IOException if writing the response fails
+	 */
+	public boolean serve(String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		Snapshot snapshot = this.snapshots.get(path);
+		if (snapshot == null || !isServable(snapshot, request) || isOutdated(path)) {
+			return false;
+		}
+		boolean gzip = CompressionFilter.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+		if (new ServletWebRequest(request, response).checkNotModified(etag, snapshot.published().toEpochMilli())) {
+			return true;
+		}
+		response.setContentType(MediaType.TEXT_HTML_VALUE + ";charset=UTF-8");
+		response.setLocale(snapshot.locale());
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		transfer(gzip ? snapshot.gzipFile() : snapshot.plainFile(), request, response);
+		return true;
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.close();
+	}
+
+	private boolean isOutdated(String path) {
+		CacheVersions.Watch watch = this.remoteWrites.get(path);
+		if (watch != null && watch.changed()) {
+			this.outdated.add(path);
+			republish(path);
+		}
+		return this.outdated.contains(path);
+	}
+
+	private boolean isServable(Snapshot snapshot, HttpServletRequest request) {
+		if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+			return false;
+		}
+		if (this.renderToken.equals(request.getHeader(RENDER_HEADER)) || request.getQueryString() != null) {
+			return false;
+		}
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && !(authentication instanceof AnonymousAuthenticationToken)) {
+			return false;
+		}
+		var flash = RequestContextUtils.getInputFlashMap(request);
+		if (flash != null && !flash.isEmpty()) {
+			return false;
+		}
+		return snapshot.locale().equals(this.localeResolver.resolveLocale(request));
+	}
+
+	private static void transfer(Path file, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		long length = Files.size(file);
+		response.setContentLengthLong(length);
+		if ("HEAD".equals(request.getMethod())) {
+			return;
+		}
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			// Tomcat sends the file itself once the request returns
+			request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START, 0L);
+			request.setAttribute(SENDFILE_END, length);
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(file)) {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			for (long position = 0; position < length;) {
+				position += channel.transferTo(position, length - position, out);
+			}
+		}
+	}
+
+	private void render(String path) {
+		this.client.get()
+			.uri(path)
+			.header(RENDER_HEADER, this.renderToken)
+			.accept(MediaType.TEXT_HTML)
+			.exchange((request, response) -> {
+				if (!response.getStatusCode().is2xxSuccessful()) {
+					logger.warn("Not pre-rendering " + path + ": it returned " + response.getStatusCode());
+					return null;
+				}
+				if (response.getHeaders().containsHeader(HttpHeaders.SET_COOKIE)) {
+					logger.warn("Not pre-rendering " + path + ": it sets cookies, so it is not the same for everyone");
+					return null;
+				}
+				Locale locale = response.getHeaders().getContentLanguage();
+				try (InputStream body = response.getBody()) {
+					store(path, body.readAllBytes(), (locale != null) ? locale : Locale.getDefault());
+				}
+				return null;
+			});
+	}
+
+	/**
+	 * Writes a rendered page to disk and makes it the copy served for {@code path}.
+	 * @param path the request path of the page
+	 * @param html the rendered page, UTF-8 encoded
+	 * @param locale the locale the page was rendered in
+	 * @throws IOException if the files cannot be written
+	 */
+	void store(String path, byte[] html, Locale locale) throws IOException {
+		String hash = HexFormat.of().formatHex(sha256(html), 0, 16);
+		String name = ("/".equals(path) ? "index" : path.substring(1).replace('/', '_')) + "-" + hash;
+		byte[] gzipped = gzip(html);
+		Snapshot snapshot = new Snapshot(write(name + ".html", html), "\"" + hash + "\"",
+				write(name + ".html.gz", gzipped), "\"" + hash + "-gzip\"", locale, Instant.now());
+		Snapshot previous = this.snapshots.put(path, snapshot);
+		this.outdated.remove(path);
+		Snapshot stale = (previous != null) ? this.retired.put(path, previous) : null;
+		if (stale != null && !stale.etag().equals(snapshot.etag()) && !stale.etag().equals(previous.etag())) {
+			Files.deleteIfExists(stale.plainFile());
+			Files.deleteIfExists(stale.gzipFile());
+		}
+		logger.info("Pre-rendered " + path + " (" + html.length + " bytes, " + gzipped.length + " gzipped)");
+	}
+
+	private Path write(String name, byte[] content) throws IOException {
+		Path target = directory().resolve(name);
+		Path temp = Files.createTempFile(target.getParent(), name, ".tmp");
+		Files.write(temp, content);
+		return Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private Path directory() throws IOException {
+		Path dir = this.directory;
+		if (dir == null) {
+			synchronized (this) {
+				dir = this.directory;
+				if (dir == null) {
+					dir = StringUtils.hasText(this.configuredDirectory)
+							? Files.createDirectories(Path.of(this.configuredDirectory))
+							: Files.createTempDirectory("petclinic-pages");
+					this.directory = dir;
+				}
+			}
+		}
+		return dir;
+	}
+
+	private static byte[] gzip(byte[] content) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4 + 64);
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(content);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] sha256(byte[] content) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(content);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * One published version of a page.
+	 */
+	private record Snapshot(Path plainFile, String etag, Path gzipFile, String gzipEtag, Locale locale,
+			Instant published) {
+
+	}
+
+}
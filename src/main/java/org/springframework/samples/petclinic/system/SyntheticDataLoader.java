@@ -0,0 +1,105 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.samples.petclinic.school.SchoolDomainIndex;
+import org.springframework.samples.petclinic.system.SyntheticDataset.Size;
+import org.springframework.samples.petclinic.system.SyntheticDataset.Summary;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * Loads a {@link SyntheticDataset} into the application's database at startup when
+ * {@code petclinic.dataset.businesses}, {@code petclinic.dataset.schools} or
+ * {@code petclinic.dataset.users} is above zero, as in
+ * {@code --petclinic.dataset.businesses=10000 --petclinic.dataset.schools=100 --petclinic.dataset.users=10000}.
+ *
+ * <p>
+ * Generated users sign in with {@code petclinic.dataset.password}; when it is blank they
+ * get a random password nobody knows. A persistent database where any of the tables the
+ * dataset writes already holds generated rows is left alone, so restarting against MySQL
+ * or PostgreSQL does not load it twice, or on top of a load that stopped part way.
+ * </p>
+ */
+@Component
+public class SyntheticDataLoader implements ApplicationRunner {
+
+	private static final Log logger = LogFactory.getLog(SyntheticDataLoader.class);
+
+	private final SyntheticDataset dataset;
+
+	private final PasswordEncoder passwordEncoder;
+
+	private final SchoolDomainIndex schoolDomainIndex;
+
+	private final CacheVersions cacheVersions;
+
+	private final Size size;
+
+	private final long seed;
+
+	private final String password;
+
+	/**
+	 * Constructs a new {@code SyntheticDataLoader}.
+	 * @param jdbcTemplate the template the rows are inserted with
+	 * @param transactionManager the transaction manager each batch commits through
+	 * @param passwordEncoder encodes the generated users' password
+	 * @param schoolDomainIndex the index reloaded once the schools are inserted
+	 * @param cacheVersions the versions bumped so other replicas reload their index too
+	 * @param businesses the number of businesses to generate
+	 * @param schools the number of schools to generate
+	 * @param users the number of student users to generate
+	 * @param seed the seed the dataset is generated from
+	 * @param batchSize the number of rows inserted and committed together
+	 * @param password the generated users' password, or blank for a random one
+	 */
+	public SyntheticDataLoader(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			PasswordEncoder passwordEncoder, SchoolDomainIndex schoolDomainIndex, CacheVersions cacheVersions,
+			@Value("${petclinic.dataset.businesses:0}") int businesses,
+			@Value("${petclinic.dataset.schools:0}") int schools, @Value("${petclinic.dataset.users:0}") int users,
+			@Value("${petclinic.dataset.seed:42}") long seed,
+			@Value("${petclinic.dataset.batch-size:1000}") int batchSize,
+			@Value("${petclinic.dataset.password:}") String password) {
+		this.dataset = new SyntheticDataset(jdbcTemplate, transactionManager, batchSize);
+		this.passwordEncoder = passwordEncoder;
+		this.schoolDomainIndex = schoolDomainIndex;
+		this.cacheVersions = cacheVersions;
+		this.size = new Size(businesses, schools, users);
+		this.seed = seed;
+		this.password = password;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (this.size.businesses() == 0 && this.size.schools() == 0 && this.size.users() == 0) {
+			return;
+		}
+		List<String> generatedTables = this.dataset.generatedTables();
+		if (!generatedTables.isEmpty()) {
+			logger.info("Synthetic dataset for seed " + this.seed + " is already loaded (generated rows in "
+					+ String.join(", ", generatedTables) + ")");
+			return;
+		}
+		String passwordHash = this.passwordEncoder
+			.encode(StringUtils.hasText(this.password) ? this.password : UUID.randomUUID().toString());
+		Summary summary = this.dataset.generate(this.size, this.seed, passwordHash);
+		this.cacheVersions.bump(SchoolDomainIndex.CACHE_NAME);
+		this.schoolDomainIndex.invalidate();
+		logger.info(String.format(
+				"Loaded synthetic dataset in %d ms: %d businesses, %d business locations, %d incentives, "
+						+ "%d schools, %d campus locations, %d users",
+				summary.took().toMillis(), summary.businesses(), summary.businessLocations(), summary.incentives(),
+				summary.schools(), summary.schoolLocations(), summary.users()));
+	}
+
+}
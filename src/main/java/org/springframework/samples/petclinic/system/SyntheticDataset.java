@@ -0,0 +1,633 @@
+package org.springframework.samples.petclinic.system;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+import org.springframework.samples.petclinic.patriot.Business;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Generates a large, realistic Patriot Thanks and AthLeagues dataset from a seed, so
+ * benchmarks, load tests and query plans can be checked at production volumes.
+ *
+ * <p>
+ * The same seed always produces the same rows. Businesses follow skewed distributions
+ * rather than uniform ones:
+ * </p>
+ * <ul>
+ * <li>business types are weighted towards restaurants, retail and services</li>
+ * <li>most businesses have one location, but a few chains have dozens</li>
+ * <li>addresses are spread over the states by population, around each state's centre</li>
+ * <li>most businesses have one or two incentives, some none and some up to five, with a
+ * mix of percentage and fixed discounts, expired offers and inactive rows</li>
+ * <li>a few percent of businesses are soft-deleted</li>
+ * </ul>
+ * <p>
+ * Schools get a main campus with buildings and rooms below it, and users are students at
+ * those schools with the {@code STUDENT} role.
+ * </p>
+ *
+ * <p>
+ * Rows are written with JDBC batch inserts, each batch in its own transaction, and the
+ * generated keys are read back for the rows that reference them. The SQL is plain enough
+ * to run on H2, MySQL and PostgreSQL. The lookup tables ({@code roles},
+ * {@code us_states}, {@code business_types} and {@code incentive_types}) must already be
+ * populated, as they are by each database's {@code data.sql}.
+ * </p>
+ *
+ * @see SyntheticDataLoader
+ */
+public class SyntheticDataset {
+
+	/**
+	 * The description every generated business has, which marks the dataset as loaded.
+	 */
+	static final String BUSINESS_DESCRIPTION = "Thanks veterans, service members and first responders with every visit.";
+
+	private static final String INSERT_BUSINESS = """
+			INSERT INTO businesses (name, slug, description, website, business_type_id, is_verified, is_active, deleted_at)
+			VALUES (:name, :slug, :description, :website, :typeId, :verified, TRUE, :deletedAt)""";
+
+	private static final String INSERT_ADDRESS = """
+			INSERT INTO addresses (street_address, city, state_id, zip_code, latitude, longitude)
+			VALUES (:street, :city, :stateId, :zipCode, :latitude, :longitude)""";
+
+	private static final String INSERT_BUSINESS_LOCATION = """
+			INSERT INTO business_locations (business_id, address_id, location_name, phone, hours_of_operation, is_primary, is_active)
+			VALUES (:businessId, :addressId, :name, :phone, :hours, :primary, TRUE)""";
+
+	private static final String INSERT_INCENTIVE = """
+			INSERT INTO incentives (title, description, discount_amount, discount_percentage, verification_required,
+				start_date, end_date, is_active, business_id)
+			VALUES (:title, :description, :amount, :percentage, :verification, :startDate, :endDate, :active, :businessId)""";
+
+	private static final String INSERT_INCENTIVE_TYPE = """
+			INSERT INTO business_incentive_types (incentive_id, incentive_type_id) VALUES (:incentiveId, :typeId)""";
+
+	private static final String INSERT_SCHOOL = "INSERT INTO schools (name, domain) VALUES (:name, :domain)";
+
+	private static final String INSERT_LOCATION = """
+			INSERT INTO locations (school_id, parent_location_id, path, depth, name, description)
+			VALUES (:schoolId, :parentId, :path, :depth, :name, :description)""";
+
+	private static final String INSERT_USER = """
+			INSERT INTO users (first_name, last_name, email, email_normalized, password_hash)
+			VALUES (:firstName, :lastName, :email, :emailNormalized, :passwordHash)""";
+
+	private static final String GRANT_STUDENT_ROLE = """
+			INSERT INTO user_roles (user_id, role_id) SELECT :userId, r.id FROM roles r WHERE r.name = 'STUDENT'""";
+
+	/**
+	 * For each table the dataset writes, a query counting the generated rows in it, found
+	 * through the business description, the first school's domain or the first user's
+	 * email address.
+	 */
+	private static final List<Map.Entry<String, String>> GENERATED_ROWS = List.of(
+			Map.entry("businesses", "SELECT COUNT(*) FROM businesses b WHERE b.description = :description"),
+			Map.entry("business_locations", """
+					SELECT COUNT(*) FROM business_locations bl JOIN businesses b ON b.id = bl.business_id
+					WHERE b.description = :description"""), Map.entry("addresses", """
+					SELECT COUNT(*) FROM addresses a JOIN business_locations bl ON bl.address_id = a.id
+					JOIN businesses b ON b.id = bl.business_id WHERE b.description = :description"""),
+			Map.entry("incentives", """
+					SELECT COUNT(*) FROM incentives i JOIN businesses b ON b.id = i.business_id
+					WHERE b.description = :description"""), Map.entry("business_incentive_types", """
+					SELECT COUNT(*) FROM business_incentive_types bi JOIN incentives i ON i.id = bi.incentive_id
+					JOIN businesses b ON b.id = i.business_id WHERE b.description = :description"""),
+			Map.entry("schools", "SELECT COUNT(*) FROM schools s WHERE s.domain = :domain"), Map.entry("locations", """
+					SELECT COUNT(*) FROM locations l JOIN schools s ON s.id = l.school_id
+					WHERE s.domain = :domain"""),
+			Map.entry("users", "SELECT COUNT(*) FROM users u WHERE u.email_normalized LIKE :email"),
+			Map.entry("user_roles", """
+					SELECT COUNT(*) FROM user_roles ur JOIN users u ON u.id = ur.user_id
+					WHERE u.email_normalized LIKE :email"""));
+
+	/** Relative frequency of each business type; types not listed weigh 1. */
+	private static final Map<String, Integer> BUSINESS_TYPE_WEIGHTS = Map.ofEntries(Map.entry("Restaurant", 20),
+			Map.entry("Retail", 12), Map.entry("Service", 9), Map.entry("Automotive", 8), Map.entry("Health", 6),
+			Map.entry("Grocery", 5), Map.entry("Clothing", 5), Map.entry("Fuel Station", 4),
+			Map.entry("Hotel/Motel", 4), Map.entry("Hardware", 3), Map.entry("Beauty", 3),
+			Map.entry("Entertainment", 3), Map.entry("Pharmacy", 3), Map.entry("Sporting Goods", 2),
+			Map.entry("Electronics", 2), Map.entry("Technology", 2), Map.entry("Convenience Store", 2));
+
+	/** Relative frequency of each incentive type. */
+	private static final Map<String, Integer> INCENTIVE_TYPE_WEIGHTS = Map.of("Veteran", 40, "Active Duty", 25,
+			"First Responder", 15, "Spouse", 10, "Other", 10);
+
+	/**
+	 * Population in hundreds of thousands, and the latitude and longitude addresses
+	 * cluster around.
+	 */
+	private static final Object[][] STATES = { { "AL", 51, 32.8, -86.8 }, { "AK", 7, 61.2, -149.9 },
+			{ "AZ", 74, 33.4, -111.9 }, { "AR", 30, 34.8, -92.3 }, { "CA", 390, 36.8, -119.4 },
+			{ "CO", 58, 39.7, -105.0 }, { "CT", 36, 41.6, -72.7 }, { "DE", 10, 39.2, -75.5 },
+			{ "FL", 226, 28.1, -81.6 }, { "GA", 110, 33.7, -84.4 }, { "HI", 14, 21.3, -157.9 },
+			{ "ID", 20, 43.6, -116.2 }, { "IL", 125, 41.9, -87.6 }, { "IN", 69, 39.8, -86.2 },
+			{ "IA", 32, 41.9, -93.1 }, { "KS", 29, 38.5, -97.6 }, { "KY", 45, 38.2, -85.3 }, { "LA", 46, 30.5, -91.1 },
+			{ "ME", 14, 44.3, -69.8 }, { "MD", 62, 39.0, -76.6 }, { "MA", 70, 42.4, -71.1 }, { "MI", 100, 42.7, -84.6 },
+			{ "MN", 57, 45.0, -93.3 }, { "MS", 29, 32.3, -90.2 }, { "MO", 62, 38.6, -92.2 }, { "MT", 11, 46.9, -110.4 },
+			{ "NE", 20, 41.3, -96.0 }, { "NV", 32, 36.2, -115.1 }, { "NH", 14, 43.2, -71.5 }, { "NJ", 93, 40.2, -74.5 },
+			{ "NM", 21, 35.1, -106.6 }, { "NY", 196, 40.8, -74.0 }, { "NC", 108, 35.8, -78.6 },
+			{ "ND", 8, 46.9, -100.8 }, { "OH", 118, 40.0, -83.0 }, { "OK", 41, 35.5, -97.5 },
+			{ "OR", 43, 45.5, -122.7 }, { "PA", 130, 40.3, -76.9 }, { "RI", 11, 41.8, -71.4 },
+			{ "SC", 54, 34.0, -81.0 }, { "SD", 9, 44.4, -100.3 }, { "TN", 71, 36.2, -86.8 }, { "TX", 305, 31.0, -97.5 },
+			{ "UT", 34, 40.8, -111.9 }, { "VT", 6, 44.3, -72.6 }, { "VA", 87, 37.5, -77.4 }, { "WA", 78, 47.6, -122.3 },
+			{ "WV", 18, 38.3, -81.6 }, { "WI", 59, 43.1, -89.4 }, { "WY", 6, 41.1, -104.8 }, { "DC", 7, 38.9, -77.0 } };
+
+	private static final String[] CITIES = { "Springfield", "Franklin", "Greenville", "Bristol", "Clinton", "Fairview",
+			"Salem", "Madison", "Georgetown", "Arlington", "Ashland", "Burlington", "Manchester", "Milton", "Oxford",
+			"Riverside", "Centerville", "Dover", "Jackson", "Marion", "Newport", "Cedar Rapids", "Lakewood", "Hudson",
+			"Kingston", "Auburn", "Dayton", "Lexington", "Mount Vernon", "Winchester" };
+
+	private static final String[] STREETS = { "Main St", "Oak Ave", "Maple Dr", "Washington Blvd", "Park Rd", "Elm St",
+			"Lincoln Ave", "Cedar Ln", "Highland Ave", "Lake Rd", "Hill St", "Veterans Pkwy", "Liberty Way", "Pine St",
+			"Church St", "Market St" };
+
+	private static final String[] NAME_WORDS = { "Liberty", "Eagle", "Patriot", "Freedom", "Heritage", "Summit",
+			"Harbor", "Pioneer", "Frontier", "Union", "Prairie", "Cedar", "River", "Granite", "Beacon", "Valley",
+			"Maple", "Golden", "Red Oak", "Blue Ridge", "Iron", "Lakeside", "Northside", "Hometown" };
+
+	private static final String[] NAME_NOUNS = { "Grill", "Outfitters", "Supply", "Co.", "Market", "Works", "Garage",
+			"Kitchen", "Depot", "Studio", "Goods", "Traders", "House", "Shop", "Center", "Express" };
+
+	private static final String[] FIRST_NAMES = { "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+			"Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+			"Sarah", "Carlos", "Maria", "Wei", "Aisha", "Noah", "Olivia", "Liam", "Emma", "Mateo", "Ava" };
+
+	private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+			"Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+			"Taylor", "Moore", "Jackson", "Martin", "Lee", "Nguyen", "Thompson", "White", "Harris" };
+
+	private static final String[] SCHOOL_KINDS = { "Community College", "University", "College", "State University",
+			"Technical College" };
+
+	private static final String[] BUILDINGS = { "Recreation Center", "Field House", "Aquatic Center", "Gymnasium",
+			"Student Union", "Athletic Complex", "Wellness Center", "Stadium", "Arena", "Tennis Center", "Ice Rink",
+			"Sports Park" };
+
+	private static final String[] ROOMS = { "Court", "Field", "Studio", "Pool Lane", "Weight Room", "Climbing Wall",
+			"Track" };
+
+	private static final int[] PERCENTAGES = { 5, 10, 10, 10, 15, 15, 20, 20, 25, 50 };
+
+	private static final int[] AMOUNTS = { 5, 10, 10, 15, 20, 25, 50 };
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int batchSize;
+
+	/**
+	 * Constructs a new {@code SyntheticDataset}.
+	 * @param jdbcTemplate the template the rows are inserted with
+	 * @param transactionManager the transaction manager each batch commits through
+	 * @param batchSize the number of rows inserted and committed together
+	 */
+	public SyntheticDataset(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = Math.max(batchSize, 1);
+	}
+
+	/**
+	 * Generates and inserts the dataset.
+	 * @param size how many businesses, schools and users to create
+	 * @param seed the seed every name, distribution and date is drawn from
+	 * @param passwordHash the encoded password every generated user gets
+	 * @return how many rows were inserted, and how long it took
+	 */
+	public Summary generate(Size size, long seed, String passwordHash) {
+		long started = System.nanoTime();
+		Random random = new Random(seed);
+		Counts counts = new Counts();
+		generateBusinesses(size.businesses(), random, counts);
+		List<String> domains = generateSchools(size.schools(), random, counts);
+		generateUsers(size.users(), domains, passwordHash, random, counts);
+		return new Summary(counts.businesses, counts.businessLocations, counts.incentives, counts.schools,
+				counts.schoolLocations, counts.users, Duration.ofNanos(System.nanoTime() - started));
+	}
+
+	/**
+	 * Returns the tables that already hold rows of a generated dataset, from any seed.
+	 * @return the table names, empty if no dataset has been loaded
+	 */
+	public List<String> generatedTables() {
+		Map<String, String> markers = Map.of("description", BUSINESS_DESCRIPTION, "domain", schoolDomain(0), "email",
+				"%.0@" + schoolDomain(0));
+		List<String> tables = new ArrayList<>();
+		for (Map.Entry<String, String> rows : GENERATED_ROWS) {
+			if (this.jdbcTemplate.queryForObject(rows.getValue(), markers, Integer.class) > 0) {
+				tables.add(rows.getKey());
+			}
+		}
+		return tables;
+	}
+
+	private void generateBusinesses(int count, Random random, Counts counts) {
+		if (count == 0) {
+			return;
+		}
+		Map<String, Integer> businessTypes = lookup("SELECT name, id FROM business_types");
+		Map<String, Integer> incentiveTypes = lookup("SELECT name, id FROM incentive_types");
+		Map<String, Integer> states = lookup("SELECT code, id FROM us_states");
+		Assert.state(!businessTypes.isEmpty() && !incentiveTypes.isEmpty() && !states.isEmpty(),
+				"The business_types, incentive_types and us_states tables must be populated first");
+		Weighted<Integer> typePicker = new Weighted<>();
+		businessTypes.forEach((name, id) -> typePicker.add(id, BUSINESS_TYPE_WEIGHTS.getOrDefault(name, 1)));
+		Weighted<Integer> incentiveTypePicker = new Weighted<>();
+		incentiveTypes.forEach((name, id) -> incentiveTypePicker.add(id, INCENTIVE_TYPE_WEIGHTS.getOrDefault(name, 5)));
+		Weighted<Object[]> statePicker = new Weighted<>();
+		for (Object[] state : STATES) {
+			if (states.containsKey(state[0])) {
+				statePicker.add(state, (Integer) state[1]);
+			}
+		}
+
+		List<SqlParameterSource> businesses = new ArrayList<>(count);
+		List<Integer> locationCounts = new ArrayList<>(count);
+		List<String> names = new ArrayList<>(count);
+		Set<String> slugs = new HashSet<>();
+		for (int i = 0; i < count; i++) {
+			String name = NAME_WORDS[random.nextInt(NAME_WORDS.length)] + " "
+					+ NAME_NOUNS[random.nextInt(NAME_NOUNS.length)];
+			if (!slugs.add(Business.toSlug(name))) {
+				name = name + " " + (i + 1);
+				slugs.add(Business.toSlug(name));
+			}
+			names.add(name);
+			boolean deleted = random.nextInt(100) < 3;
+			businesses.add(new MapSqlParameterSource().addValue("name", name)
+				.addValue("slug", Business.toSlug(name))
+				.addValue("description", BUSINESS_DESCRIPTION)
+				.addValue("website",
+						random.nextBoolean() ? "https://www." + Business.toSlug(name) + ".example.com" : null,
+						Types.VARCHAR)
+				.addValue("typeId", typePicker.pick(random))
+				.addValue("verified", random.nextInt(100) < 60)
+				.addValue("deletedAt", deleted ? LocalDate.of(2024, 6, 1).atStartOfDay() : null, Types.TIMESTAMP));
+			locationCounts.add(locationCount(random));
+		}
+		List<Integer> businessIds = insert(INSERT_BUSINESS, businesses);
+		counts.businesses = businessIds.size();
+
+		List<SqlParameterSource> addresses = new ArrayList<>();
+		List<Object[]> locationRows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			for (int l = 0; l < locationCounts.get(i); l++) {
+				Object[] state = statePicker.pick(random);
+				addresses.add(new MapSqlParameterSource()
+					.addValue("street", (100 + random.nextInt(9900)) + " " + STREETS[random.nextInt(STREETS.length)])
+					.addValue("city", CITIES[random.nextInt(CITIES.length)])
+					.addValue("stateId", states.get(state[0]))
+					.addValue("zipCode", String.format(Locale.ROOT, "%05d", 1000 + random.nextInt(98000)))
+					.addValue("latitude", coordinate((Double) state[2], random))
+					.addValue("longitude", coordinate((Double) state[3], random)));
+				locationRows.add(new Object[] { businessIds.get(i), (l == 0) ? "Main" : "Location " + (l + 1) });
+			}
+		}
+		List<Integer> addressIds = insert(INSERT_ADDRESS, addresses);
+		List<SqlParameterSource> locations = new ArrayList<>(locationRows.size());
+		for (int i = 0; i < locationRows.size(); i++) {
+			String name = (String) locationRows.get(i)[1];
+			locations.add(new MapSqlParameterSource().addValue("businessId", locationRows.get(i)[0])
+				.addValue("addressId", addressIds.get(i))
+				.addValue("name", name)
+				.addValue("phone",
+						String.format(Locale.ROOT, "%03d-555-%04d", 200 + random.nextInt(800), random.nextInt(10000)))
+				.addValue("hours", random.nextBoolean() ? "Mon-Sat 9am-9pm" : "Daily 7am-10pm")
+				.addValue("primary", "Main".equals(name)));
+		}
+		counts.businessLocations = insert(INSERT_BUSINESS_LOCATION, locations).size();
+
+		List<SqlParameterSource> incentives = new ArrayList<>();
+		List<List<Integer>> incentiveTypeIds = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			int incentiveCount = incentiveCount(random);
+			for (int n = 0; n < incentiveCount; n++) {
+				incentives.add(incentive(businessIds.get(i), names.get(i), n, random));
+				List<Integer> types = new ArrayList<>(List.of(incentiveTypePicker.pick(random)));
+				if (random.nextInt(100) < 40) {
+					Integer second = incentiveTypePicker.pick(random);
+					if (!types.contains(second)) {
+						types.add(second);
+					}
+				}
+				incentiveTypeIds.add(types);
+			}
+		}
+		List<Integer> incentiveIds = insert(INSERT_INCENTIVE, incentives);
+		counts.incentives = incentiveIds.size();
+		List<SqlParameterSource> links = new ArrayList<>();
+		for (int i = 0; i < incentiveIds.size(); i++) {
+			for (Integer typeId : incentiveTypeIds.get(i)) {
+				links.add(new MapSqlParameterSource().addValue("incentiveId", incentiveIds.get(i))
+					.addValue("typeId", typeId));
+			}
+		}
+		insert(INSERT_INCENTIVE_TYPE, links, false);
+	}
+
+	private SqlParameterSource incentive(Integer businessId, String businessName, int n, Random random) {
+		boolean percentage = random.nextInt(100) < 65;
+		LocalDate start = LocalDate.of(2023, 1, 1).plusDays(random.nextInt(3 * 365));
+		// A quarter of the offers are limited-time, and some of those have already ended
+		LocalDate end = (random.nextInt(4) == 0) ? start.plusDays(30 + random.nextInt(365)) : null;
+		return new MapSqlParameterSource().addValue("title", (n == 0) ? "Military discount" : "Offer " + (n + 1))
+			.addValue("description", businessName + " thanks those who serve.")
+			.addValue("amount", percentage ? null : BigDecimal.valueOf(AMOUNTS[random.nextInt(AMOUNTS.length)]),
+					Types.DECIMAL)
+			.addValue("percentage",
+					percentage ? BigDecimal.valueOf(PERCENTAGES[random.nextInt(PERCENTAGES.length)]) : null,
+					Types.DECIMAL)
+			.addValue("verification", random.nextBoolean() ? "Military ID" : "ID.me verification")
+			.addValue("startDate", start)
+			.addValue("endDate", end, Types.DATE)
+			.addValue("active", random.nextInt(100) >= 5)
+			.addValue("businessId", businessId);
+	}
+
+	private List<String> generateSchools(int count, Random random, Counts counts) {
+		List<SqlParameterSource> schools = new ArrayList<>(count);
+		List<String> domains = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String domain = schoolDomain(i);
+			domains.add(domain);
+			schools.add(new MapSqlParameterSource()
+				.addValue("name",
+						NAME_WORDS[i % NAME_WORDS.length] + " " + SCHOOL_KINDS[random.nextInt(SCHOOL_KINDS.length)]
+								+ " " + letters(i).toUpperCase(Locale.ROOT))
+				.addValue("domain", domain));
+		}
+		List<Integer> schoolIds = insert(INSERT_SCHOOL, schools);
+		counts.schools = schoolIds.size();
+		if (count == 0) {
+			return domains;
+		}
+
+		List<SqlParameterSource> campuses = new ArrayList<>(count);
+		for (Integer schoolId : schoolIds) {
+			campuses.add(location(schoolId, null, "/", 0, "Main Campus"));
+		}
+		List<Integer> campusIds = insert(INSERT_LOCATION, campuses);
+
+		List<SqlParameterSource> buildings = new ArrayList<>();
+		List<Integer> buildingSchools = new ArrayList<>();
+		List<String> buildingPaths = new ArrayList<>();
+		for (int s = 0; s < count; s++) {
+			int buildingCount = 3 + random.nextInt(10);
+			String path = "/" + campusIds.get(s) + "/";
+			for (int b = 0; b < buildingCount; b++) {
+				buildings.add(location(schoolIds.get(s), campusIds.get(s), path, 1,
+						BUILDINGS[b % BUILDINGS.length] + ((b < BUILDINGS.length) ? "" : " " + (b + 1))));
+				buildingSchools.add(schoolIds.get(s));
+				buildingPaths.add(path);
+			}
+		}
+		List<Integer> buildingIds = insert(INSERT_LOCATION, buildings);
+
+		List<SqlParameterSource> rooms = new ArrayList<>();
+		for (int b = 0; b < buildingIds.size(); b++) {
+			int roomCount = random.nextInt(5);
+			String path = buildingPaths.get(b) + buildingIds.get(b) + "/";
+			for (int r = 0; r < roomCount; r++) {
+				rooms.add(location(buildingSchools.get(b), buildingIds.get(b), path, 2,
+						ROOMS[random.nextInt(ROOMS.length)] + " " + buildingIds.get(b) + "-" + (r + 1)));
+			}
+		}
+		counts.schoolLocations = campusIds.size() + buildingIds.size() + insert(INSERT_LOCATION, rooms).size();
+		return domains;
+	}
+
+	private static SqlParameterSource location(Integer schoolId, Integer parentId, String path, int depth,
+			String name) {
+		return new MapSqlParameterSource().addValue("schoolId", schoolId)
+			.addValue("parentId", parentId, Types.INTEGER)
+			.addValue("path", path)
+			.addValue("depth", depth)
+			.addValue("name", name)
+			.addValue("description", name + " facilities");
+	}
+
+	private void generateUsers(int count, List<String> domains, String passwordHash, Random random, Counts counts) {
+		if (count == 0) {
+			return;
+		}
+		Assert.state(!domains.isEmpty(), "Users are generated as students, so at least one school is needed");
+		List<SqlParameterSource> users = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+			String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+			int school = random.nextInt(domains.size());
+			// The first user always studies at the first school, so a loaded
+			// dataset can be recognised by that user's address
+			String email = (first + "." + last + "." + i).toLowerCase(Locale.ROOT) + "@"
+					+ domains.get((i == 0) ? 0 : school);
+			users.add(new MapSqlParameterSource().addValue("firstName", first)
+				.addValue("lastName", last)
+				.addValue("email", email)
+				.addValue("emailNormalized", EmailAddresses.normalize(email))
+				.addValue("passwordHash", passwordHash));
+		}
+		List<Integer> userIds = insert(INSERT_USER, users);
+		counts.users = userIds.size();
+		insert(GRANT_STUDENT_ROLE,
+				userIds.stream().<SqlParameterSource>map(id -> new MapSqlParameterSource("userId", id)).toList(),
+				false);
+	}
+
+	private List<Integer> insert(String sql, List<SqlParameterSource> rows) {
+		return insert(sql, rows, true);
+	}
+
+	/**
+	 * Inserts the rows batch by batch, each batch in its own transaction.
+	 * @return the generated IDs in row order, if {@code generatedIds} is set
+	 */
+	private List<Integer> insert(String sql, List<SqlParameterSource> rows, boolean generatedIds) {
+		List<Integer> ids = new ArrayList<>(rows.size());
+		for (int from = 0; from < rows.size(); from += this.batchSize) {
+			SqlParameterSource[] batch = rows.subList(from, Math.min(from + this.batchSize, rows.size()))
+				.toArray(new SqlParameterSource[0]);
+			if (!generatedIds) {
+				this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.batchUpdate(sql, batch));
+				continue;
+			}
+			KeyHolder keys = new GeneratedKeyHolder();
+			this.transactionTemplate
+				.executeWithoutResult(status -> this.jdbcTemplate.batchUpdate(sql, batch, keys, new String[] { "id" }));
+			// Drivers name the key column differently (ID, id, GENERATED_KEY),
+			// but each row has only one
+			keys.getKeyList().forEach(key -> ids.add(((Number) key.values().iterator().next()).intValue()));
+		}
+		return ids;
+	}
+
+	private Map<String, Integer> lookup(String sql) {
+		// Sorted, so the weighted pickers, and therefore the rows, do not depend on the
+		// order the database returns them in
+		Map<String, Integer> values = new TreeMap<>();
+		this.jdbcTemplate.query(sql, rs -> {
+			values.put(rs.getString(1).trim(), rs.getInt(2));
+		});
+		return values;
+	}
+
+	private static int locationCount(Random random) {
+		int roll = random.nextInt(100);
+		if (roll < 75) {
+			return 1;
+		}
+		if (roll < 94) {
+			return 2 + random.nextInt(3);
+		}
+		if (roll < 99) {
+			return 5 + random.nextInt(16);
+		}
+		// National chains
+		return 21 + random.nextInt(80);
+	}
+
+	private static int incentiveCount(Random random) {
+		int roll = random.nextInt(100);
+		if (roll < 15) {
+			return 0;
+		}
+		if (roll < 60) {
+			return 1;
+		}
+		if (roll < 85) {
+			return 2;
+		}
+		return 3 + random.nextInt(3);
+	}
+
+	private static BigDecimal coordinate(double centre, Random random) {
+		double offset = Math.max(-1.5, Math.min(1.5, random.nextGaussian() * 0.5));
+		return BigDecimal.valueOf(centre + offset).setScale(7, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * Returns the domain of the {@code index}th generated school. Domains are letters
+	 * only, so their first label works as a {@code /schools/{slug}} URL.
+	 * @param index the school's position in the dataset, from zero
+	 * @return the domain, such as {@code libertya.edu}
+	 */
+	static String schoolDomain(int index) {
+		String word = NAME_WORDS[index % NAME_WORDS.length].replace(" ", "");
+		return (word + letters(index)).toLowerCase(Locale.ROOT) + ".edu";
+	}
+
+	/**
+	 * Spells out a number in letters ({@code a}, {@code b}, ..., {@code z}, {@code aa}),
+	 * since school slugs cannot contain digits.
+	 */
+	static String letters(int number) {
+		StringBuilder letters = new StringBuilder();
+		int remaining = number;
+		do {
+			letters.insert(0, (char) ('a' + remaining % 26));
+			remaining = remaining / 26 - 1;
+		}
+		while (remaining >= 0);
+		return letters.toString();
+	}
+
+	/**
+	 * How many rows of each kind to generate.
+	 *
+	 * @param businesses the number of businesses, each with one or more locations and
+	 * usually some incentives
+	 * @param schools the number of schools, each with a campus of buildings and rooms
+	 * @param users the number of student users, spread over the schools
+	 */
+	public record Size(int businesses, int schools, int users) {
+
+		public Size {
+			Assert.isTrue(businesses >= 0 && schools >= 0 && users >= 0, "Sizes must not be negative");
+		}
+
+	}
+
+	/**
+	 * The number of rows a {@link #generate} call inserted, and how long it took.
+	 *
+	 * @param businesses the businesses inserted
+	 * @param businessLocations the business locations, one address each
+	 * @param incentives the incentives
+	 * @param schools the schools
+	 * @param schoolLocations the campus locations at every depth
+	 * @param users the student users
+	 * @param took the time taken
+	 */
+	public record Summary(int businesses, int businessLocations, int incentives, int schools, int schoolLocations,
+			int users, Duration took) {
+
+	}
+
+	private static final class Counts {
+
+		int businesses;
+
+		int businessLocations;
+
+		int incentives;
+
+		int schools;
+
+		int schoolLocations;
+
+		int users;
+
+	}
+
+	/**
+	 * Picks values at random in proportion to their weights.
+	 */
+	private static final class Weighted<T> {
+
+		private final List<T> values = new ArrayList<>();
+
+		private final List<Integer> cumulative = new ArrayList<>();
+
+		private int total;
+
+		void add(T value, int weight) {
+			this.total += weight;
+			this.values.add(value);
+			this.cumulative.add(this.total);
+		}
+
+		T pick(Random random) {
+			int roll = random.nextInt(this.total);
+			for (int i = 0; i < this.values.size(); i++) {
+				if (roll < this.cumulative.get(i)) {
+					return this.values.get(i);
+				}
+			}
+			throw new IllegalStateException("Unreachable");
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns a start of the application into a training run when
+ * {@code petclinic.training.routes} is set: once the application is ready it requests
+ * each route {@code petclinic.training.iterations} times and then exits. Started with
+ * {@code -XX:ArchiveClassesAtExit}, the JVM writes a class-data-sharing archive of every
+ * class those requests loaded, which later starts read instead of loading and verifying
+ * the classes again.
+ *
+ * <p>
+ * This is a plain component rather than a conditional one, because AOT processing fixes
+ * which conditional beans exist at build time and the training run is decided at run
+ * time.
+ * </p>
+ */
+@Component
+public class TrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+	private static final Log logger = LogFactory.getLog(TrainingRun.class);
+
+	private final String[] routes;
+
+	private final int iterations;
+
+	/**
+	 * Constructs a new {@code TrainingRun}.
+	 * @param routes the paths to request, or none for a normal start
+	 * @param iterations how many times to request each path
+	 */
+	public TrainingRun(@Value("${petclinic.training.routes:}") String[] routes,
+			@Value("${petclinic.training.iterations:5}") int iterations) {
+		this.routes = routes;
+		this.iterations = iterations;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		ConfigurableApplicationContext context = event.getApplicationContext();
+		if (this.routes.length == 0 || !(context instanceof WebServerApplicationContext webContext)) {
+			return;
+		}
+		URI base = URI.create("http://localhost:" + webContext.getWebServer().getPort());
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		int requests = 0;
+		for (int i = 0; i < this.iterations; i++) {
+			for (String route : this.routes) {
+				try {
+					client.send(HttpRequest.newBuilder(base.resolve(route.trim())).build(),
+							HttpResponse.BodyHandlers.discarding());
+					requests++;
+				}
+				catch (IOException ex) {
+					logger.warn("Training request to " + route + " failed: " + ex.getMessage());
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+		logger.info("Training run sent " + requests + " requests; exiting");
+		System.exit(SpringApplication.exit(context));
+	}
+
+}
@@ -0,0 +1,248 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.samples.petclinic.owner.PetTypeRepository;
+import org.springframework.samples.petclinic.patriot.Business;
+import org.springframework.samples.petclinic.patriot.BusinessRepository;
+import org.springframework.samples.petclinic.patriot.BusinessTypeRepository;
+import org.springframework.samples.petclinic.school.SchoolDomainIndex;
+import org.springframework.samples.petclinic.vet.VetRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Warms the application up before Kubernetes sends it traffic. Once the application is
+ * ready it loads the reference data (vets, pet types, business types and the school
+ * domain index), then requests each of {@code petclinic.warmup.routes} and the detail
+ * pages of the first {@code petclinic.warmup.hot-businesses} businesses
+ * {@code petclinic.warmup.iterations} times through its own web server. That fills the
+ * caches, prepares Hibernate's query plans, compiles the templates and gives the JIT
+ * compiler the hot paths before the first real user arrives.
+ *
+ * <p>
+ * As a health indicator it is {@code OUT_OF_SERVICE} while the warm-up runs, and the
+ * {@code readiness} group that {@code /readyz} serves includes it, so the pod only turns
+ * ready once the warm-up has finished or {@code petclinic.warmup.deadline} has passed. No
+ * request is started after the deadline. How long the warm-up took is logged, shown in
+ * the health details and published as the {@code petclinic.warmup.duration} gauge. A
+ * request counts as failed when it cannot be sent or is answered with a {@code 4xx} or
+ * {@code 5xx} status, since either means the route was not warmed up.
+ * </p>
+ *
+ * <p>
+ * Nothing is warmed up without a web server, as in most tests, or when
+ * {@code petclinic.warmup.enabled=false}.
+ * </p>
+ */
+@Component
+public class WarmUpCoordinator implements ApplicationListener<ApplicationReadyEvent>, HealthIndicator, MeterBinder {
+
+	private static final Log logger = LogFactory.getLog(WarmUpCoordinator.class);
+
+	private final VetRepository vetRepository;
+
+	private final PetTypeRepository petTypeRepository;
+
+	private final BusinessTypeRepository businessTypeRepository;
+
+	private final BusinessRepository businessRepository;
+
+	private final SchoolDomainIndex schoolDomainIndex;
+
+	private final boolean enabled;
+
+	private final String[] routes;
+
+	private final int hotBusinesses;
+
+	private final int iterations;
+
+	private final Duration deadline;
+
+	private final String contextPath;
+
+	private volatile long startedNanos;
+
+	private volatile long tookNanos = -1;
+
+	private volatile int requests;
+
+	private volatile int failures;
+
+	/**
+	 * Constructs a new {@code WarmUpCoordinator}.
+	 * @param vetRepository loads the vets into their cache
+	 * @param petTypeRepository loads the pet types
+	 * @param businessTypeRepository loads the business types
+	 * @param businessRepository finds the businesses whose pages are warmed up
+	 * @param schoolDomainIndex the index built ahead of the first registration
+	 * @param enabled whether to warm up at all
+	 * @param routes the paths to request
+	 * @param hotBusinesses how many business detail pages to request
+	 * @param iterations how many times to request each path
+	 * @param deadline how long readiness waits for the warm-up
+	 * @param contextPath the servlet context path, prepended to every route
+	 */
+	public WarmUpCoordinator(VetRepository vetRepository, PetTypeRepository petTypeRepository,
+			BusinessTypeRepository businessTypeRepository, BusinessRepository businessRepository,
+			SchoolDomainIndex schoolDomainIndex, @Value("${petclinic.warmup.enabled:true}") boolean enabled,
+			@Value("${petclinic.warmup.routes:/}") String[] routes,
+			@Value("${petclinic.warmup.hot-businesses:20}") int hotBusinesses,
+			@Value("${petclinic.warmup.iterations:20}") int iterations,
+			@Value("${petclinic.warmup.deadline:60s}") Duration deadline,
+			@Value("${server.servlet.context-path:}") String contextPath) {
+		this.vetRepository = vetRepository;
+		this.petTypeRepository = petTypeRepository;
+		this.businessTypeRepository = businessTypeRepository;
+		this.businessRepository = businessRepository;
+		this.schoolDomainIndex = schoolDomainIndex;
+		this.enabled = enabled;
+		this.routes = routes;
+		this.hotBusinesses = hotBusinesses;
+		this.iterations = iterations;
+		this.deadline = deadline;
+		this.contextPath = contextPath;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		TimeGauge
+			.builder("petclinic.warmup.duration", this, TimeUnit.NANOSECONDS,
+					coordinator -> Math.max(coordinator.tookNanos, 0))
+			.description("Time the warm-up took before the application reported ready")
+			.register(registry);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		if (!this.enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext webContext)) {
+			return;
+		}
+		String base = "http://localhost:" + webContext.getWebServer().getPort() + this.contextPath;
+		this.startedNanos = System.nanoTime();
+		Thread thread = new Thread(() -> warmUp(base), "warm-up");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public Health health() {
+		long started = this.startedNanos;
+		if (started == 0) {
+			return Health.up().build();
+		}
+		long took = this.tookNanos;
+		Health.Builder health;
+		if (took >= 0) {
+			health = Health.up().withDetail("state", "finished").withDetail("took", Duration.ofNanos(took));
+		}
+		else if (System.nanoTime() - started > this.deadline.toNanos()) {
+			health = Health.up().withDetail("state", "deadline passed");
+		}
+		else {
+			health = Health.outOfService().withDetail("state", "running");
+		}
+		return health.withDetail("requests", this.requests).withDetail("failures", this.failures).build();
+	}
+
+	private void warmUp(String base) {
+		try {
+			preload();
+			List<String> paths = paths();
+			HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+			long deadlineNanos = this.startedNanos + this.deadline.toNanos();
+			for (int i = 0; i < this.iterations; i++) {
+				for (String path : paths) {
+					long remaining = deadlineNanos - System.nanoTime();
+					if (remaining <= 0) {
+						logger
+							.warn("Warm-up deadline of " + this.deadline + " passed; skipping the remaining requests");
+						return;
+					}
+					request(client, URI.create(base + path), Duration.ofNanos(remaining));
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Warm-up stopped early", ex);
+		}
+		finally {
+			this.tookNanos = System.nanoTime() - this.startedNanos;
+			logger.info(String.format("Warm-up finished in %d ms: %d requests, %d failed",
+					TimeUnit.NANOSECONDS.toMillis(this.tookNanos), this.requests, this.failures));
+		}
+	}
+
+	private void preload() {
+		this.vetRepository.findAll();
+		this.petTypeRepository.findPetTypes();
+		this.businessTypeRepository.findAllByOrderByDisplayOrderAsc();
+		this.schoolDomainIndex.findByDomain("warm-up.invalid");
+	}
+
+	/**
+	 * The configured routes followed by the detail pages of the hot businesses, which are
+	 * the first ones by id: the seeded businesses in the sample data and the
+	 * longest-standing ones in production.
+	 */
+	private List<String> paths() {
+		List<String> paths = new ArrayList<>();
+		for (String route : this.routes) {
+			if (StringUtils.hasText(route)) {
+				String path = route.trim();
+				paths.add(path.startsWith("/") ? path : "/" + path);
+			}
+		}
+		if (this.hotBusinesses > 0) {
+			for (Business business : this.businessRepository
+				.findAll(PageRequest.of(0, this.hotBusinesses, Sort.by("id")))) {
+				paths.add("/businesses/"
+						+ (StringUtils.hasText(business.getSlug()) ? business.getSlug() : business.getId()));
+			}
+		}
+		return paths;
+	}
+
+	private void request(HttpClient client, URI uri, Duration timeout) throws InterruptedException {
+		try {
+			int status = client
+				.send(HttpRequest.newBuilder(uri).timeout(timeout).build(), HttpResponse.BodyHandlers.discarding())
+				.statusCode();
+			if (status >= 400) {
+				this.failures++;
+				logger.debug("Warm-up request to " + uri + " returned " + status);
+			}
+		}
+		catch (IOException ex) {
+			this.failures++;
+			logger.debug("Warm-up request to " + uri + " failed: " + ex.getMessage());
+		}
+		this.requests++;
+	}
+
+}
@@ -33,12 +33,14 @@ public class WebConfiguration implements WebMvcConfigurer {
 	}
 
 	/**
-	 * Registers the locale change interceptor so it can run on each request.
+	 * Registers the locale change interceptor so it can run on each request except those
+	 * for {@linkplain StaticAssetConfiguration static assets}, which are the same in
+	 * every language.
 	 * @param registry where interceptors are added
 	 */
 	@Override
 	public void addInterceptors(InterceptorRegistry registry) {
-		registry.addInterceptor(localeChangeInterceptor());
+		registry.addInterceptor(localeChangeInterceptor()).excludePathPatterns(StaticAssetConfiguration.PATHS);
 	}
 
 }
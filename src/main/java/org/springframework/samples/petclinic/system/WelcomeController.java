@@ -16,14 +16,28 @@
 
 package org.springframework.samples.petclinic.system;
 
+import java.io.IOException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
 class WelcomeController {
 
+	private final StaticPagePublisher staticPages;
+
+	WelcomeController(StaticPagePublisher staticPages) {
+		this.staticPages = staticPages;
+	}
+
 	@GetMapping("/")
-	public String welcome() {
+	public String welcome(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if (this.staticPages.serve("/", request, response)) {
+			return null;
+		}
 		return "welcome";
 	}
 
@@ -1,13 +1,13 @@
 package org.springframework.samples.petclinic.user;
 
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.samples.petclinic.user.*;
-import org.springframework.samples.petclinic.school.School;
-import org.springframework.samples.petclinic.school.SchoolRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+import org.springframework.samples.petclinic.school.SchoolDomain;
+import org.springframework.samples.petclinic.school.SchoolDomainIndex;
+import org.springframework.samples.petclinic.system.SignedFlashCookies;
 import org.springframework.samples.petclinic.validation.OnRegister;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -21,7 +21,6 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.security.web.context.SecurityContextRepository;
 
 import java.security.Principal;
@@ -33,10 +32,10 @@ import java.util.Optional;
  * submissions.
  *
  * <p>
- * After successful registration, the controller captures the raw password before hashing,
- * saves the user, auto-logs the user in via {@link AuthenticationManager}, then attempts
- * to match the user's email domain (including subdomains) to a {@link School} in the
- * database and redirects accordingly.
+ * After successful registration, the controller saves the user, auto-logs the user in
+ * with an authentication built from the saved user (no second password check), then
+ * attempts to match the user's email domain (including subdomains) to a school through
+ * the {@link SchoolDomainIndex} and redirects accordingly.
  * </p>
  *
  * @author Edward
@@ -46,24 +45,27 @@ public class AuthController {
 
 	private final UserService userService;
 
-	private final SchoolRepository schoolRepository;
+	private final SchoolDomainIndex schoolDomainIndex;
 
-	private final AuthenticationManager authenticationManager;
+	private final SecurityContextRepository securityContextRepository;
 
-	private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+	private final SignedFlashCookies flashCookies;
 
 	/**
 	 * Constructs a new {@code AuthController} with the required dependencies.
 	 * @param userService the service for user registration and management
-	 * @param schoolRepository the repository for school domain lookups
-	 * @param authenticationManager the manager for authenticating users after
-	 * registration
+	 * @param schoolDomainIndex the in-memory index for school domain lookups
+	 * @param securityContextRepository the repository that persists the auto-login (HTTP
+	 * session or signed cookie, see
+	 * {@link org.springframework.samples.petclinic.system.StatelessSessionConfiguration})
+	 * @param flashCookies the helper for reading the last failed login email
 	 */
-	public AuthController(UserService userService, SchoolRepository schoolRepository,
-			AuthenticationManager authenticationManager) {
+	public AuthController(UserService userService, SchoolDomainIndex schoolDomainIndex,
+			SecurityContextRepository securityContextRepository, SignedFlashCookies flashCookies) {
 		this.userService = userService;
-		this.schoolRepository = schoolRepository;
-		this.authenticationManager = authenticationManager;
+		this.schoolDomainIndex = schoolDomainIndex;
+		this.securityContextRepository = securityContextRepository;
+		this.flashCookies = flashCookies;
 	}
 
 	/**
@@ -83,9 +85,9 @@ public class AuthController {
 	 * user's email domain.
 	 *
 	 * <p>
-	 * If the email domain (or a parent domain) matches a {@link School} in the database,
-	 * the user is redirected to that school's page. Otherwise, the user is redirected to
-	 * the home page.
+	 * If the email domain (or a parent domain) matches a registered school domain, the
+	 * user is redirected to that school's page. Otherwise, the user is redirected to the
+	 * home page.
 	 * </p>
 	 * @param user the {@link User} object populated from the form, validated with
 	 * {@link Valid}
@@ -102,25 +104,25 @@ public class AuthController {
 			return "auth/registerForm";
 		}
 
-		String rawPassword = user.getPassword();
-
 		// 1. Save the User (UserService handles password hashing)
+		User savedUser;
 		try {
-			userService.registerNewStudent(user);
+			savedUser = userService.registerNewStudent(user);
 		}
-		catch (RuntimeException ex) {
-			// Handle duplicate email or other service errors
+		catch (DataIntegrityViolationException ex) {
+			// The unique index on the normalized email rejects duplicates
+			if (!EmailAddresses.isDuplicate(ex)) {
+				throw ex;
+			}
 			result.rejectValue("email", "duplicateEmail", "This email is already registered");
 			return "auth/registerForm";
 		}
 		// to do: send email verification before auto log in.
-		// 2. LOGIN using the authenticationManager
+		// 2. LOGIN directly: the password was just hashed, so there is nothing to check
 		try {
-			UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(user.getEmail(),
-					rawPassword);
-			Authentication authentication = authenticationManager.authenticate(authToken);
+			Authentication authentication = UserDetailsServiceImpl.authenticated(savedUser);
 
-			// Create a new SecurityContext and persist it to the HTTP session
+			// Create a new SecurityContext and persist it (session or signed cookie)
 			SecurityContext context = SecurityContextHolder.createEmptyContext();
 			context.setAuthentication(authentication);
 			SecurityContextHolder.setContext(context);
@@ -132,13 +134,13 @@ public class AuthController {
 		}
 		// 3. Marc's project will redirect a new user
 		String email = user.getEmail();
-		Optional<School> school = findSchoolByRecursiveDomain(email);
+		Optional<SchoolDomain> school = schoolDomainIndex.findByEmail(email);
 
 		if (school.isPresent()) {
 			redirectAttributes.addFlashAttribute("messageSuccess",
-					"Your user account is created. You have been redirected to " + school.get().getName()
+					"Your user account is created. You have been redirected to " + school.get().name()
 							+ "'s school page.");
-			return "redirect:/schools/" + school.get().getDomain().substring(0, school.get().getDomain().length() - 4);
+			return "redirect:/schools/" + school.get().domain().substring(0, school.get().domain().length() - 4);
 		}
 		else {
 			redirectAttributes.addFlashAttribute("messageWarning",
@@ -149,70 +151,39 @@ public class AuthController {
 	}
 
 	/**
-	 * Displays the login form.
+	 * Displays the login form. If a previous login attempt failed, the email address is
+	 * pre-populated from the signed {@code LAST_EMAIL} cookie written by the failure
+	 * handler in {@link SecurityConfig}.
+	 * @param model the {@link Model} to populate with a {@link User}
+	 * @param request the {@link HttpServletRequest} carrying the cookie
+	 * @param response the {@link HttpServletResponse} used to clear the cookie
 	 * @return the view name for the login form template
 	 */
 	@GetMapping("/login")
-	public String initLoginForm(Model model, HttpSession session) {
+	public String initLoginForm(Model model, HttpServletRequest request, HttpServletResponse response) {
 		User user = new User();
 
-		// Grab the failed email attempt from Spring Security's session memory
-		String lastEmail = (String) session.getAttribute("LAST_EMAIL");
-		if (lastEmail != null) {
-			user.setEmail(lastEmail);
-			session.removeAttribute("LAST_EMAIL"); // Clean up the session
-		}
+		// Grab the failed email attempt; reading the cookie also clears it
+		flashCookies.consume(request, response, "LAST_EMAIL").ifPresent(user::setEmail);
 
 		model.addAttribute("user", user);
 		return "auth/loginForm";
 	}
 
-	/**
-	 * Recursively searches for a {@link School} matching the email's domain by
-	 * progressively stripping subdomains. For example, given the email
-	 * {@code "alex@student.kirkwood.edu"}, this method will check:
-	 * <ol>
-	 * <li>{@code "student.kirkwood.edu"}</li>
-	 * <li>{@code "kirkwood.edu"}</li>
-	 * </ol>
-	 * and return the first matching school found.
-	 * @param email the user's email address to extract the domain from
-	 * @return an {@link Optional} containing the matched {@link School}, or
-	 * {@link Optional#empty()} if no school matches
-	 */
-	private Optional<School> findSchoolByRecursiveDomain(String email) {
-		// 1. Extract the initial domain (e.g., "student.kirkwood.edu")
-		String domain = email.substring(email.indexOf("@") + 1);
-
-		// 2. Loop while the domain is valid (has at least one dot)
-		while (domain.contains(".")) {
-			// 3. Check Database
-			Optional<School> school = schoolRepository.findByDomain(domain);
-			if (school.isPresent()) {
-				return school; // Found match (e.g., "kirkwood.edu")
-			}
-
-			// 4. Strip the first part (e.g., "student.kirkwood.edu" -> "kirkwood.edu")
-			int dotIndex = domain.indexOf(".");
-			domain = domain.substring(dotIndex + 1);
-		}
-
-		return Optional.empty();
-	}
-
 	@GetMapping("/login-success")
 	public String processLoginSuccess(Principal principal, RedirectAttributes redirectAttributes) {
 		// 1. Get the logged-in user's email
 		String email = principal.getName();
 
-		// 2. Reuse your existing method to find their school
-		Optional<School> school = findSchoolByRecursiveDomain(email);
+		// 2. Find their school (longest matching domain, e.g. student.kirkwood.edu ->
+		// kirkwood.edu)
+		Optional<SchoolDomain> school = schoolDomainIndex.findByEmail(email);
 
 		// 3. Redirect them exactly like you did in the registration POST method
 		if (school.isPresent()) {
 			redirectAttributes.addFlashAttribute("messageSuccess",
-					"Welcome back! You have been redirected to " + school.get().getName() + ".");
-			return "redirect:/schools/" + school.get().getDomain().substring(0, school.get().getDomain().length() - 4);
+					"Welcome back! You have been redirected to " + school.get().name() + ".");
+			return "redirect:/schools/" + school.get().domain().substring(0, school.get().domain().length() - 4);
 		}
 		else {
 			redirectAttributes.addFlashAttribute("messageWarning",
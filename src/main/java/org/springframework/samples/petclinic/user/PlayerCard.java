@@ -0,0 +1,27 @@
+package org.springframework.samples.petclinic.user;
+
+import org.springframework.samples.petclinic.validation.FormRules;
+
+/**
+ * The profile fields shown on the "My Player Card" sidebar of a school page, loaded by
+ * {@link UserRepository#findPlayerCard} in one query without hydrating the {@link User}
+ * and its roles.
+ *
+ * @param firstName the first name
+ * @param lastName the last name
+ * @param nickname the nickname, may be {@code null}
+ * @param email the email address as entered
+ * @param publicEmail whether other students may see the email address
+ * @param phone the phone number, formatted as {@code (XXX) XXX-XXXX} when it is stored as
+ * ten digits
+ * @param publicPhone whether other students may see the phone number
+ * @param preferredLanguage the preferred language code, may be {@code null}
+ */
+public record PlayerCard(String firstName, String lastName, String nickname, String email, Boolean publicEmail,
+		String phone, Boolean publicPhone, String preferredLanguage) {
+
+	public PlayerCard {
+		phone = FormRules.formatPhone(phone);
+	}
+
+}
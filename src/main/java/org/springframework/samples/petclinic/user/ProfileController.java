@@ -3,17 +3,19 @@ package org.springframework.samples.petclinic.user;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.samples.petclinic.model.EmailAddresses;
 import org.springframework.samples.petclinic.user.User;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.samples.petclinic.school.SchoolRepository;
-import org.springframework.samples.petclinic.school.School;
-import java.util.Optional;
+import org.springframework.samples.petclinic.school.SchoolDomainIndex;
+import org.springframework.samples.petclinic.validation.FormRules;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -49,7 +51,9 @@ public class ProfileController {
 
 	private final UserDetailsService userDetailsService;
 
-	private final SchoolRepository schoolRepository;
+	private final SchoolDomainIndex schoolDomainIndex;
+
+	private final SecurityContextRepository securityContextRepository;
 
 	/**
 	 * Constructs a new {@code ProfileController} with the required dependencies.
@@ -57,14 +61,18 @@ public class ProfileController {
 	 * @param passwordEncoder the encoder for hashing new passwords
 	 * @param userDetailsService the service for reloading user details after email
 	 * changes
-	 * @param schoolRepository the repository for looking up schools by domain
+	 * @param schoolDomainIndex the in-memory index for looking up schools by domain
+	 * @param securityContextRepository the repository that persists the refreshed
+	 * security context after an email change
 	 */
 	public ProfileController(UserRepository userRepository, PasswordEncoder passwordEncoder,
-			UserDetailsService userDetailsService, SchoolRepository schoolRepository) {
+			UserDetailsService userDetailsService, SchoolDomainIndex schoolDomainIndex,
+			SecurityContextRepository securityContextRepository) {
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
 		this.userDetailsService = userDetailsService;
-		this.schoolRepository = schoolRepository;
+		this.schoolDomainIndex = schoolDomainIndex;
+		this.securityContextRepository = securityContextRepository;
 	}
 
 	/**
@@ -106,30 +114,13 @@ public class ProfileController {
 		// Clear the password hash so it doesn't get sent to the HTML form
 		user.setPassword("");
 
-		// Intercept the 10-digit database string and inject parentheses
-		// and hyphen before handing it to Thymeleaf
-		String phone = user.getPhone();
-		if (phone != null && phone.length() == 10) {
-			// Converts 3199999999 into (319) 999-9999
-			String formattedPhone = phone.replaceFirst("(\\d{3})(\\d{3})(\\d{4})", "($1) $2-$3");
-			user.setPhone(formattedPhone);
-		}
-		// Extract the school slug by recursively stripping subdomains until a
-		// matching school is found (e.g., student@student.kirkwood.edu -> "kirkwood")
-		String domain = email.substring(email.indexOf("@") + 1);
-		String slug = null;
-		String tempDomain = domain;
-		while (tempDomain.contains(".")) {
-			Optional<School> matchedSchool = schoolRepository.findByDomain(tempDomain);
-			if (matchedSchool.isPresent()) {
-				// Strip the TLD to get the slug (e.g., "kirkwood.edu" -> "kirkwood")
-				String schoolDomain = matchedSchool.get().getDomain();
-				slug = schoolDomain.substring(0, schoolDomain.lastIndexOf("."));
-				break;
-			}
-			// Strip the leftmost subdomain and try again
-			tempDomain = tempDomain.substring(tempDomain.indexOf(".") + 1);
-		}
+		// Converts the 10-digit database string 3199999999 into (319) 999-9999
+		user.setPhone(FormRules.formatPhone(user.getPhone()));
+		// Extract the school slug from the longest matching school domain
+		// (e.g., student@student.kirkwood.edu -> "kirkwood.edu" -> "kirkwood")
+		String slug = schoolDomainIndex.findByEmail(email)
+			.map(school -> school.domain().substring(0, school.domain().lastIndexOf(".")))
+			.orElse(null);
 		model.addAttribute("schoolSlug", slug); // null if no school matched
 
 		model.addAttribute("user", user);
@@ -143,8 +134,8 @@ public class ProfileController {
 	 * This method handles several alternative flows:
 	 * </p>
 	 * <ul>
-	 * <li>Checks for duplicate emails only if the user is changing their email
-	 * address</li>
+	 * <li>Rejects an email address that is already taken when the unique index on the
+	 * normalized email refuses the update</li>
 	 * <li>Validates password strength manually only if a new password was entered</li>
 	 * <li>Normalizes the phone number by stripping all non-digit characters before
 	 * saving</li>
@@ -158,50 +149,47 @@ public class ProfileController {
 	 * @param principal the {@link Principal} representing the currently logged-in user
 	 * @param redirectAttributes the {@link RedirectAttributes} for passing success/error
 	 * flash messages across the redirect
+	 * @param request the {@link HttpServletRequest} used to persist a refreshed security
+	 * context
+	 * @param response the {@link HttpServletResponse} used to persist a refreshed
+	 * security context
 	 * @return a redirect to the profile page on success, or the profile form view if
 	 * validation errors exist
 	 */
 	@PostMapping("/profile")
 	public String processProfileUpdate(@Valid @ModelAttribute("user") User updatedUser, BindingResult result,
-			Principal principal, RedirectAttributes redirectAttributes) {
+			Principal principal, RedirectAttributes redirectAttributes, HttpServletRequest request,
+			HttpServletResponse response) {
 
 		String currentEmail = principal.getName();
 		User currentUser = userRepository.findByEmail(currentEmail)
 			.orElseThrow(() -> new RuntimeException("User not found"));
 
-		// 1. Check for duplicate email ONLY if they are changing their email address
-		if (!currentEmail.equalsIgnoreCase(updatedUser.getEmail())) {
-			if (userRepository.existsByEmail(updatedUser.getEmail())) {
-				result.rejectValue("email", "duplicateEmail", "This email is already taken.");
-			}
-		}
-
-		// 2. Validate password strength manually
+		// 1. Validate password strength manually
 		String newPassword = updatedUser.getPassword();
 		boolean isUpdatingPassword = newPassword != null && !newPassword.trim().isEmpty();
 
 		if (isUpdatingPassword) {
-			if (!newPassword.matches("^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$")) {
+			if (!FormRules.isStrongPassword(newPassword)) {
 				// Add this regex check to enforce the character rules
 				result.rejectValue("password", "weakPassword",
 						"Password must be at least 8 characters and must contain uppercase, lowercase, and number");
 			}
 		}
 
-		// 3. Return to form if there are validation errors
+		// 2. Return to form if there are validation errors
 		if (result.hasErrors()) {
 			return "users/profile";
 		}
 
-		// 4. Safely apply the updates to the entity fetched from the DB
+		// 3. Safely apply the updates to the entity fetched from the DB
 		currentUser.setFirstName(updatedUser.getFirstName());
 		currentUser.setLastName(updatedUser.getLastName());
 		currentUser.setNickname(updatedUser.getNickname());
 		currentUser.setEmail(updatedUser.getEmail());
 		String submittedPhone = updatedUser.getPhone();
 		if (submittedPhone != null && !submittedPhone.trim().isEmpty()) {
-			currentUser.setPhone(submittedPhone.replaceAll("\\D", "")); // Strips all
-																		// non-numbers
+			currentUser.setPhone(FormRules.digitsOnly(submittedPhone));
 		}
 		else {
 			currentUser.setPhone(null);
@@ -214,25 +202,36 @@ public class ProfileController {
 			currentUser.setPassword(passwordEncoder.encode(newPassword));
 		}
 
-		// 5. Save the updates to the database
-		userRepository.save(currentUser);
+		// 4. Save the updates; a taken email is rejected by the unique index
+		try {
+			userRepository.save(currentUser);
+		}
+		catch (DataIntegrityViolationException ex) {
+			if (!EmailAddresses.isDuplicate(ex)) {
+				throw ex;
+			}
+			result.rejectValue("email", "duplicateEmail", "This email is already taken.");
+			return "users/profile";
+		}
 
-		// 6. Update the Spring Security Context if the email changed
+		// 5. Update the Spring Security Context if the email changed
 		if (!currentEmail.equalsIgnoreCase(currentUser.getEmail())) {
 
 			// Fetch the freshly updated user details
 			UserDetails newPrincipal = userDetailsService.loadUserByUsername(currentUser.getEmail());
-			Authentication currentAuth = SecurityContextHolder.getContext().getAuthentication();
 
-			// Create a new authentication token with the new email
-			Authentication newAuth = new UsernamePasswordAuthenticationToken(newPrincipal, currentAuth.getCredentials(),
-					newPrincipal.getAuthorities());
+			// Create a new authentication token with the new email, without keeping the
+			// password hash in the session
+			UsernamePasswordAuthenticationToken newAuth = UsernamePasswordAuthenticationToken
+				.authenticated(newPrincipal, null, newPrincipal.getAuthorities());
+			newAuth.eraseCredentials();
 
-			// Replace the old token in the session memory
+			// Replace the old token and persist it (session or signed cookie)
 			SecurityContextHolder.getContext().setAuthentication(newAuth);
+			securityContextRepository.saveContext(SecurityContextHolder.getContext(), request, response);
 		}
 
-		// 7. Redirect
+		// 6. Redirect
 		redirectAttributes.addFlashAttribute("messageSuccess", "Your profile has been updated successfully.");
 
 		// Grab the 2-letter code from the database object and make it lowercase
@@ -283,7 +282,9 @@ public class ProfileController {
 		// 3. Log the user out programmatically
 		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 		if (auth != null) {
-			new SecurityContextLogoutHandler().logout(request, response, auth);
+			SecurityContextLogoutHandler logoutHandler = new SecurityContextLogoutHandler();
+			logoutHandler.setSecurityContextRepository(securityContextRepository);
+			logoutHandler.logout(request, response, auth);
 		}
 
 		// 4. Redirect to the homepage with a farewell message
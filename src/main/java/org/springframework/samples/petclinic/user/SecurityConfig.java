@@ -1,5 +1,6 @@
 package org.springframework.samples.petclinic.user;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -10,9 +11,15 @@ import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.samples.petclinic.system.SignedCookieSecurityContextRepository;
+import org.springframework.samples.petclinic.system.SignedFlashCookies;
+import org.springframework.samples.petclinic.system.StaticAssetConfiguration;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextRepository;
 
 /**
  * Spring Security configuration for the AthLeagues application. Defines password
@@ -22,8 +29,10 @@ import org.springframework.security.web.SecurityFilterChain;
  * <p>
  * This filter chain is marked with {@link Order @Order(2)} so that the Patriot Thanks
  * security configuration ({@code @Order(1)}) is evaluated first for {@code /patriot/**}
- * routes. The {@link AuthenticationManager} bean is marked {@link Primary @Primary} so
- * that it is the default manager injected when no qualifier is specified (e.g., in
+ * routes. Static assets are matched before either, by a chain of their own
+ * ({@code @Order(0)}). The {@link AuthenticationManager} bean is marked
+ * {@link Primary @Primary} so that it is the default manager injected when no qualifier
+ * is specified (e.g., in
  * {@link org.springframework.samples.petclinic.user.AuthController}).
  * </p>
  *
@@ -83,6 +92,31 @@ public class SecurityConfig {
 		return new ProviderManager(provider);
 	}
 
+	/**
+	 * Keeps requests for {@linkplain StaticAssetConfiguration static assets} out of the
+	 * application's filter chains. Assets are public and the same for every visitor, so
+	 * this chain neither loads the security context nor touches the session, and it
+	 * leaves their long-lived {@code Cache-Control} header alone. Unlike
+	 * {@code WebSecurity#ignoring()}, it still writes the other security headers.
+	 * @param http the {@link HttpSecurity} to configure
+	 * @return the built {@link SecurityFilterChain} for static assets
+	 * @throws Exception if an error occurs during configuration
+	 */
+	@Bean
+	@Order(0)
+	public SecurityFilterChain staticAssetFilterChain(HttpSecurity http) throws Exception {
+		http.securityMatcher(StaticAssetConfiguration.PATHS)
+			.csrf(AbstractHttpConfigurer::disable)
+			.securityContext(AbstractHttpConfigurer::disable)
+			.sessionManagement(AbstractHttpConfigurer::disable)
+			.requestCache(AbstractHttpConfigurer::disable)
+			.anonymous(AbstractHttpConfigurer::disable)
+			.exceptionHandling(AbstractHttpConfigurer::disable)
+			.logout(AbstractHttpConfigurer::disable)
+			.headers(headers -> headers.cacheControl(HeadersConfigurer.CacheControlConfig::disable));
+		return http.build();
+	}
+
 	/**
 	 * Configures the HTTP security filter chain with URL-based access rules.
 	 *
@@ -95,21 +129,47 @@ public class SecurityConfig {
 	 * Current rules:
 	 * </p>
 	 * <ul>
-	 * <li>All GET requests are permitted (public page viewing)</li>
+	 * <li>{@code /schools/{id}/roster} and its imports require the {@code SCHOOL_ADMIN}
+	 * role</li>
+	 * <li>Actuator write operations (POST), such as resizing a cache, require the
+	 * {@code ADMIN} role</li>
+	 * <li>All other GET requests are permitted (public page viewing)</li>
 	 * <li>{@code /register} and {@code /login} are open for POST</li>
 	 * <li>{@code /schools/new} and {@code /owners/new} POST are temporarily permitted for
 	 * form validation testing</li>
 	 * <li>All other requests require authentication</li>
 	 * </ul>
+	 *
+	 * <p>
+	 * The security context is stored through the shared {@link SecurityContextRepository}
+	 * bean, and a failed login remembers the submitted email in a signed
+	 * {@code LAST_EMAIL} cookie rather than in the HTTP session. When
+	 * {@code petclinic.session.stateless=true}, no HTTP session is created at all.
+	 * </p>
 	 * @param http the {@link HttpSecurity} to configure
+	 * @param securityContextRepository where the authenticated context is kept between
+	 * requests
+	 * @param flashCookies the helper used to remember the failed login email
+	 * @param stateless whether the application runs without HTTP sessions
 	 * @return the built {@link SecurityFilterChain}
 	 * @throws Exception if an error occurs during configuration
 	 */
 	@Bean
 	@Order(2)
-	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+	public SecurityFilterChain securityFilterChain(HttpSecurity http,
+			SecurityContextRepository securityContextRepository, SignedFlashCookies flashCookies,
+			@Value("${petclinic.session.stateless:false}") boolean stateless) throws Exception {
 		http.csrf(csrf -> csrf.disable())
+			.securityContext(context -> context.securityContextRepository(securityContextRepository))
+			.sessionManagement(session -> session
+				.sessionCreationPolicy(stateless ? SessionCreationPolicy.STATELESS : SessionCreationPolicy.IF_REQUIRED))
 			.authorizeHttpRequests(authorize -> authorize
+				// Bulk roster imports are for school admins only
+				.requestMatchers("/schools/*/roster", "/schools/*/roster/**")
+				.hasRole("SCHOOL_ADMIN")
+				// Actuator write operations change the running application
+				.requestMatchers(HttpMethod.POST, "/actuator/**")
+				.hasRole("ADMIN")
 				// This allows unmapped paths to result in 404, and allows all web
 				// viewing.
 				.requestMatchers(HttpMethod.GET)
@@ -139,12 +199,13 @@ public class SecurityConfig {
 				.defaultSuccessUrl("/login-success", true) // Where to go after successful
 															// login
 				.failureHandler((request, response, exception) -> {
-					request.getSession().setAttribute("LAST_EMAIL", request.getParameter("email"));
+					flashCookies.put(request, response, "LAST_EMAIL", request.getParameter("email"));
 					response.sendRedirect("/login?error");
 				})
 				.permitAll())
 			.logout(logout -> logout.logoutUrl("/logout")
 				.logoutSuccessUrl("/login?logout") // Triggers the green alert box
+				.deleteCookies(SignedCookieSecurityContextRepository.COOKIE_NAME)
 				.permitAll());
 
 		return http.build();
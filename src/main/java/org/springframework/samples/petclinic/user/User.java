@@ -8,7 +8,10 @@ import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.samples.petclinic.model.BaseEntity;
+import org.springframework.samples.petclinic.model.EmailAddresses;
 import org.springframework.samples.petclinic.validation.OnRegister;
+import org.springframework.samples.petclinic.validation.PhoneNumber;
+import org.springframework.samples.petclinic.validation.StrongPassword;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -35,17 +38,24 @@ public class User extends BaseEntity {
 	@Column(name = "nickname_is_flagged")
 	private Boolean nicknameIsFlagged = false;
 
-	@Column(nullable = false, unique = true, length = 255)
+	@Column(nullable = false, length = 255)
 	@NotEmpty(message = "Email is required") // Stops empty strings
 	@Email(message = "Please enter a valid email") // Enforces email format
 	private String email;
 
+	/**
+	 * Lower-cased copy of {@link #email} backing the unique index and all lookups. It is
+	 * maintained by {@link #normalizeEmail()} and cannot be set directly.
+	 */
+	@Column(name = "email_normalized", nullable = false, unique = true, length = 255)
+	@Setter(AccessLevel.NONE)
+	private String emailNormalized;
+
 	@Column(name = "public_email")
 	private Boolean publicEmail = false;
 
 	@Column(name = "phone", length = 255)
-	@Pattern(regexp = "^$|^(?:\\+\\d{1,3}\\s?)?\\(?\\d{3}\\)?[\\s.-]?\\d{3}[\\s.-]?\\d{4}$",
-			message = "Please enter a valid phone number")
+	@PhoneNumber
 	private String phone;
 
 	@Column(name = "public_phone")
@@ -57,9 +67,7 @@ public class User extends BaseEntity {
 
 	@Column(name = "password_hash", nullable = false, length = 255)
 	@NotEmpty(message = "Password is required", groups = OnRegister.class)
-	@Pattern(regexp = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$",
-			message = "Password must be at least 8 characters, contain uppercase, lowercase, and number",
-			groups = OnRegister.class)
+	@StrongPassword(groups = OnRegister.class)
 	private String password;
 
 	@CreationTimestamp
@@ -79,4 +87,13 @@ public class User extends BaseEntity {
 	@EqualsAndHashCode.Exclude
 	private Set<Role> roles;
 
+	/**
+	 * Refreshes {@link #emailNormalized} before the row is inserted or updated.
+	 */
+	@PrePersist
+	@PreUpdate
+	void normalizeEmail() {
+		this.emailNormalized = EmailAddresses.normalize(this.email);
+	}
+
 }
@@ -2,11 +2,15 @@ package org.springframework.samples.petclinic.user;
 
 import jakarta.annotation.Priority;
 import org.springframework.context.annotation.Primary;
+import org.springframework.samples.petclinic.system.CompactPrincipal;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 /**
  * Custom implementation of Spring Security's {@link UserDetailsService} that loads
  * user-specific data from the database during the authentication process.
@@ -23,6 +27,12 @@ import org.springframework.stereotype.Service;
  * non-existent to prevent former users from logging back in.
  * </p>
  *
+ * <p>
+ * The returned principal is a {@link CompactPrincipal}, which drops the password hash
+ * once authentication succeeds and shares its authority list with every other session
+ * holding the same roles.
+ * </p>
+ *
  * @author Edward
  */
 @Primary
@@ -68,11 +78,27 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
 		// 3. Convert your custom User model into the UserDetails object that Spring
 		// Security understands
-		return org.springframework.security.core.userdetails.User.builder()
-			.username(user.getEmail())
-			.password(user.getPassword())
-			.roles(user.getRoles().stream().map(role -> role.getName()).toArray(String[]::new))
-			.build();
+		return toUserDetails(user);
+	}
+
+	/**
+	 * Builds an already-authenticated token for a user whose password has just been set,
+	 * such as the auto-login after registration. No password check is performed, so this
+	 * avoids a second BCrypt verification of the password that was just hashed.
+	 * @param user the saved {@link User}
+	 * @return an authenticated token with the same principal and authorities as a form
+	 * login, and no credentials
+	 */
+	static UsernamePasswordAuthenticationToken authenticated(User user) {
+		CompactPrincipal principal = toUserDetails(user);
+		principal.eraseCredentials();
+		return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+	}
+
+	private static CompactPrincipal toUserDetails(User user) {
+		Set<Role> roles = (user.getRoles() != null) ? user.getRoles() : Set.of();
+		return CompactPrincipal.withRoles(user.getEmail(), user.getPassword(),
+				roles.stream().map(Role::getName).toList());
 	}
 
 }
@@ -1,6 +1,9 @@
 package org.springframework.samples.petclinic.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.samples.petclinic.model.EmailAddresses;
+
 import java.util.Optional;
 
 /**
@@ -8,7 +11,8 @@ import java.util.Optional;
  *
  * <p>
  * Provides CRUD operations via {@link JpaRepository} along with custom query methods for
- * looking up users by email and checking for email uniqueness.
+ * looking up users by email. Lookups use the indexed {@code email_normalized} column, so
+ * they ignore case; email uniqueness is enforced by the unique index on that column.
  * </p>
  *
  * @author Edward
@@ -16,24 +20,44 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Integer> {
 
 	/**
-	 * Retrieves a user by their email address.
+	 * Retrieves a user by their email address, ignoring case and surrounding whitespace.
 	 * @param email the email address to search for
 	 * @return an {@link Optional} containing the matching {@link User}, or
 	 * {@link Optional#empty()} if no user is found
 	 */
+	default Optional<User> findByEmail(String email) {
+		return findByEmailNormalized(EmailAddresses.normalize(email));
+	}
 
-	Optional<User> findByEmail(String email);
+	/**
+	 * Retrieves a user by their normalized email address.
+	 * @param emailNormalized an address normalized with {@link EmailAddresses#normalize}
+	 * @return an {@link Optional} containing the matching {@link User}, or
+	 * {@link Optional#empty()} if no user is found
+	 */
+	Optional<User> findByEmailNormalized(String emailNormalized);
 
 	/**
-	 * Checks whether a user with the given email address already exists in the database.
-	 *
-	 * <p>
-	 * Used during profile updates to detect duplicate emails before saving, without
-	 * needing to load the full {@link User} entity.
-	 * </p>
-	 * @param email the email address to check for existence
-	 * @return {@code true} if a user with this email exists, {@code false} otherwise
+	 * Retrieves the player card of a user by their email address, ignoring case and
+	 * surrounding whitespace.
+	 * @param email the email address to search for
+	 * @return an {@link Optional} containing the {@link PlayerCard}, or
+	 * {@link Optional#empty()} if no user is found
+	 */
+	default Optional<PlayerCard> findPlayerCard(String email) {
+		return findPlayerCardByEmailNormalized(EmailAddresses.normalize(email));
+	}
+
+	/**
+	 * Retrieves the player card of a user by their normalized email address.
+	 * @param emailNormalized an address normalized with {@link EmailAddresses#normalize}
+	 * @return an {@link Optional} containing the {@link PlayerCard}, or
+	 * {@link Optional#empty()} if no user is found
 	 */
-	boolean existsByEmail(String email);
+	@Query("""
+			SELECT new org.springframework.samples.petclinic.user.PlayerCard(u.firstName, u.lastName, u.nickname,
+			u.email, u.publicEmail, u.phone, u.publicPhone, u.preferredLanguage)
+			FROM User u WHERE u.emailNormalized = :emailNormalized""")
+	Optional<PlayerCard> findPlayerCardByEmailNormalized(String emailNormalized);
 
 }
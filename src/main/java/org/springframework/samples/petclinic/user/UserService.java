@@ -7,6 +7,8 @@ public interface UserService {
 	 * assignments)
 	 * @param user The User object containing new user details.
 	 * @return The saved User object
+	 * @throws org.springframework.dao.DataIntegrityViolationException if the email
+	 * address is already registered
 	 */
 	User registerNewStudent(User user);
 
@@ -0,0 +1,252 @@
+package org.springframework.samples.petclinic.validation;
+
+/**
+ * The format rules shared by the AthLeagues, Patriot Thanks and PetClinic forms, in one
+ * place for both the controllers and the Bean Validation constraints
+ * ({@link StrongPassword}, {@link ZipCode}, {@link PhoneNumber}).
+ *
+ * <p>
+ * Each check scans the characters once and allocates nothing, where the regular
+ * expressions it replaces compiled a {@code Pattern} and a {@code Matcher} on every
+ * {@code String.matches} call. They accept exactly what those expressions accepted, which
+ * is quoted on each method.
+ * </p>
+ */
+public final class FormRules {
+
+	/** Minimum password length, counted in code points. */
+	public static final int MIN_PASSWORD_LENGTH = 8;
+
+	private FormRules() {
+	}
+
+	/**
+	 * Tells whether a password is strong enough: at least eight characters including an
+	 * upper-case letter, a lower-case letter and a digit. Same as
+	 * {@code ^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$}.
+	 * @param password the password as entered, may be {@code null}
+	 * @return {@code true} if the password is strong enough
+	 */
+	public static boolean isStrongPassword(CharSequence password) {
+		if (password == null) {
+			return false;
+		}
+		boolean digit = false;
+		boolean lower = false;
+		boolean upper = false;
+		int length = password.length();
+		for (int i = 0; i < length; i++) {
+			char c = password.charAt(i);
+			if (isLineTerminator(c)) {
+				return false;
+			}
+			digit |= isDigit(c);
+			lower |= (c >= 'a' && c <= 'z');
+			upper |= (c >= 'A' && c <= 'Z');
+		}
+		return digit && lower && upper && Character.codePointCount(password, 0, length) >= MIN_PASSWORD_LENGTH;
+	}
+
+	/**
+	 * Tells whether a value is a US zip code in five-digit or ZIP+4 form. Same as
+	 * {@code ^\d{5}(-\d{4})?$}.
+	 * @param zip the zip code, may be {@code null}
+	 * @return {@code true} for {@code 52401} or {@code 52401-1234}
+	 */
+	public static boolean isZipCode(CharSequence zip) {
+		if (zip == null) {
+			return false;
+		}
+		int length = zip.length();
+		if (length == 5) {
+			return isDigits(zip, 0, 5);
+		}
+		return length == 10 && isDigits(zip, 0, 5) && zip.charAt(5) == '-' && isDigits(zip, 6, 10);
+	}
+
+	/**
+	 * Tells whether a value is a North American phone number with optional country code,
+	 * parentheses and separators, such as {@code (319) 555-0100} or
+	 * {@code +1 319.555.0100}. Same as
+	 * {@code ^(?:\+\d{1,3}\s?)?\(?\d{3}\)?[\s.-]?\d{3}[\s.-]?\d{4}$}.
+	 * @param phone the phone number, may be {@code null}
+	 * @return {@code true} if the value is a North American phone number
+	 */
+	public static boolean isNorthAmericanPhone(CharSequence phone) {
+		if (phone == null) {
+			return false;
+		}
+		// Every digit group has a fixed length and every optional part is a single
+		// non-digit, so reading from the end leaves no choices to backtrack over
+		int i = digitsEndingAt(phone, phone.length(), 4);
+		if (i > 0 && isSeparator(phone.charAt(i - 1))) {
+			i--;
+		}
+		i = digitsEndingAt(phone, i, 3);
+		if (i > 0 && isSeparator(phone.charAt(i - 1))) {
+			i--;
+		}
+		if (i > 0 && phone.charAt(i - 1) == ')') {
+			i--;
+		}
+		i = digitsEndingAt(phone, i, 3);
+		if (i > 0 && phone.charAt(i - 1) == '(') {
+			i--;
+		}
+		if (i <= 0) {
+			return i == 0;
+		}
+		if (isWhitespace(phone.charAt(i - 1))) {
+			i--;
+		}
+		int countryCodeEnd = i;
+		while (i > 1 && isDigit(phone.charAt(i - 1))) {
+			i--;
+		}
+		int countryCodeLength = countryCodeEnd - i;
+		return i == 1 && phone.charAt(0) == '+' && countryCodeLength >= 1 && countryCodeLength <= 3;
+	}
+
+	/**
+	 * Tells whether a value looks dialable: an optional leading {@code +} followed by
+	 * digits, dashes and spaces only. Same as {@code ^\+?[0-9\-\s]*$}, so an empty value
+	 * is accepted.
+	 * @param phone the phone number, may be {@code null}
+	 * @return {@code true} if the value only holds dialable characters
+	 */
+	public static boolean isDialable(CharSequence phone) {
+		if (phone == null) {
+			return false;
+		}
+		int length = phone.length();
+		for (int i = (length > 0 && phone.charAt(0) == '+') ? 1 : 0; i < length; i++) {
+			char c = phone.charAt(i);
+			if (!isDigit(c) && c != '-' && !isWhitespace(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Formats a phone number stored as ten digits for display, so {@code 3199999999}
+	 * becomes {@code (319) 999-9999}. Same as
+	 * {@code replaceFirst("(\\d{3})(\\d{3})(\\d{4})", "($1) $2-$3")} on a ten-character
+	 * value; anything else is returned as it is.
+	 * @param phone the phone number as stored, may be {@code null}
+	 * @return the formatted phone number, or {@code phone} itself
+	 */
+	public static String formatPhone(String phone) {
+		if (!isDigits(phone, 10)) {
+			return phone;
+		}
+		return "(" + phone.substring(0, 3) + ") " + phone.substring(3, 6) + "-" + phone.substring(6);
+	}
+
+	/**
+	 * Tells whether a value is exactly {@code length} ASCII digits. Same as
+	 * {@code \d{length}}.
+	 * @param value the value, may be {@code null}
+	 * @param length the required number of digits
+	 * @return {@code true} if the value is {@code length} digits
+	 */
+	public static boolean isDigits(CharSequence value, int length) {
+		return value != null && value.length() == length && isDigits(value, 0, length);
+	}
+
+	/**
+	 * Tells whether a value looks like an email address: letters, digits and {@code +_.-}
+	 * before a single {@code @}, letters, digits, dots and dashes after it. Same as
+	 * {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$}.
+	 * @param email the email address, may be {@code null}
+	 * @return {@code true} if the value has the shape of an email address
+	 */
+	public static boolean isEmail(CharSequence email) {
+		if (email == null) {
+			return false;
+		}
+		int at = -1;
+		int length = email.length();
+		for (int i = 0; i < length; i++) {
+			char c = email.charAt(i);
+			if (c == '@') {
+				if (at >= 0) {
+					return false;
+				}
+				at = i;
+			}
+			else if (!isAsciiLetterOrDigit(c) && c != '.' && c != '-' && (at >= 0 || (c != '+' && c != '_'))) {
+				return false;
+			}
+		}
+		return at > 0 && at < length - 1;
+	}
+
+	/**
+	 * Strips everything but ASCII digits from a value, as {@code replaceAll("\\D", "")}
+	 * did. A value that is already all digits is returned as is.
+	 * @param value the value to strip
+	 * @return the digits of {@code value}, in order
+	 */
+	public static String digitsOnly(String value) {
+		int length = value.length();
+		int i = 0;
+		while (i < length && isDigit(value.charAt(i))) {
+			i++;
+		}
+		if (i == length) {
+			return value;
+		}
+		char[] digits = new char[length];
+		value.getChars(0, i, digits, 0);
+		int count = i;
+		for (; i < length; i++) {
+			char c = value.charAt(i);
+			if (isDigit(c)) {
+				digits[count++] = c;
+			}
+		}
+		return new String(digits, 0, count);
+	}
+
+	/**
+	 * Returns where a run of {@code count} digits ending at {@code end} starts, or
+	 * {@code -1} if there is no such run.
+	 */
+	private static int digitsEndingAt(CharSequence value, int end, int count) {
+		int start = end - count;
+		return (start >= 0 && isDigits(value, start, end)) ? start : -1;
+	}
+
+	private static boolean isDigits(CharSequence value, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!isDigit(value.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isAsciiLetterOrDigit(char c) {
+		return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	/** The characters matched by {@code \s}. */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static boolean isSeparator(char c) {
+		return isWhitespace(c) || c == '.' || c == '-';
+	}
+
+	/** The characters that {@code .} does not match. */
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+}
@@ -0,0 +1,25 @@
+package org.springframework.samples.petclinic.validation;
+
+import jakarta.validation.ValidatorFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Makes Hibernate validate entities with Spring's {@link ValidatorFactory} instead of
+ * bootstrapping its own. Constraint validators such as {@link UniqueDomainValidator} are
+ * then created by Spring on both the MVC and the JPA path, so they can use constructor
+ * injection.
+ */
+@Configuration(proxyBeanMethods = false)
+class JpaValidationConfiguration {
+
+	@Bean
+	HibernatePropertiesCustomizer springValidatorFactoryCustomizer(ObjectProvider<ValidatorFactory> validatorFactory) {
+		return properties -> validatorFactory
+			.ifAvailable(factory -> properties.put("jakarta.persistence.validation.factory", factory));
+	}
+
+}
@@ -0,0 +1,51 @@
+package org.springframework.samples.petclinic.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated value must be a phone number in the given {@link #format()}. {@code null}
+ * is always valid.
+ */
+@Target({ ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = PhoneNumberValidator.class)
+public @interface PhoneNumber {
+
+	String message() default "Please enter a valid phone number";
+
+	Format format() default Format.NORTH_AMERICAN;
+
+	Class<?>[] groups() default {};
+
+	Class<? extends Payload>[] payload() default {};
+
+	/**
+	 * The phone number formats accepted by the forms.
+	 */
+	enum Format {
+
+		/**
+		 * A North American number as typed, see {@link FormRules#isNorthAmericanPhone}.
+		 * Empty is valid.
+		 */
+		NORTH_AMERICAN,
+
+		/**
+		 * Digits, dashes and spaces with an optional leading {@code +}, see
+		 * {@link FormRules#isDialable}. Empty is valid.
+		 */
+		DIALABLE,
+
+		/**
+		 * Exactly ten digits, as the PetClinic owner form stores them.
+		 */
+		TEN_DIGITS
+
+	}
+
+}
@@ -0,0 +1,30 @@
+package org.springframework.samples.petclinic.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validates {@link PhoneNumber} with the matching {@link FormRules} check.
+ */
+public class PhoneNumberValidator implements ConstraintValidator<PhoneNumber, CharSequence> {
+
+	private PhoneNumber.Format format;
+
+	@Override
+	public void initialize(PhoneNumber constraint) {
+		this.format = constraint.format();
+	}
+
+	@Override
+	public boolean isValid(CharSequence phone, ConstraintValidatorContext context) {
+		if (phone == null) {
+			return true;
+		}
+		return switch (this.format) {
+			case NORTH_AMERICAN -> phone.isEmpty() || FormRules.isNorthAmericanPhone(phone);
+			case DIALABLE -> FormRules.isDialable(phone);
+			case TEN_DIGITS -> FormRules.isDigits(phone, 10);
+		};
+	}
+
+}
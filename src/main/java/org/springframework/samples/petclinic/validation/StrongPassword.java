@@ -0,0 +1,26 @@
+package org.springframework.samples.petclinic.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated password must pass {@link FormRules#isStrongPassword}: at least eight
+ * characters with an upper-case letter, a lower-case letter and a digit. {@code null} is
+ * valid, so pair it with {@code @NotEmpty} where a password is required.
+ */
+@Target({ ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = StrongPasswordValidator.class)
+public @interface StrongPassword {
+
+	String message() default "Password must be at least 8 characters, contain uppercase, lowercase, and number";
+
+	Class<?>[] groups() default {};
+
+	Class<? extends Payload>[] payload() default {};
+
+}
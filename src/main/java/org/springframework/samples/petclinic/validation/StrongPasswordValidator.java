@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validates {@link StrongPassword} with {@link FormRules#isStrongPassword}.
+ */
+public class StrongPasswordValidator implements ConstraintValidator<StrongPassword, CharSequence> {
+
+	@Override
+	public boolean isValid(CharSequence password, ConstraintValidatorContext context) {
+		return password == null || FormRules.isStrongPassword(password);
+	}
+
+}
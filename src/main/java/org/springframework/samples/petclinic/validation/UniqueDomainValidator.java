@@ -2,45 +2,47 @@ package org.springframework.samples.petclinic.validation;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationContextAware;
-import org.springframework.stereotype.Component;
 import org.springframework.samples.petclinic.school.School;
-import org.springframework.samples.petclinic.school.SchoolRepository;
+import org.springframework.samples.petclinic.school.SchoolDomain;
+import org.springframework.samples.petclinic.school.SchoolDomainIndex;
 
 import java.util.Optional;
 
-@Component
+/**
+ * Validates that no other {@link School} is registered with the same domain, using the
+ * in-memory {@link SchoolDomainIndex} instead of a query per validation.
+ *
+ * <p>
+ * Instances are created by Spring's constraint validator factory, which injects the
+ * index. {@link JpaValidationConfiguration} hands the same factory to Hibernate so the
+ * check also runs when a school is persisted.
+ * </p>
+ */
 public class UniqueDomainValidator implements ConstraintValidator<UniqueDomain, School> {
 
-	@Autowired
-	private SchoolRepository schoolRepository;
+	private final SchoolDomainIndex schoolDomainIndex;
 
-	private static ApplicationContext staticContext;
+	/**
+	 * Constructs a new {@code UniqueDomainValidator}.
+	 * @param schoolDomainIndex the index of registered school domains
+	 */
+	public UniqueDomainValidator(SchoolDomainIndex schoolDomainIndex) {
+		this.schoolDomainIndex = schoolDomainIndex;
+	}
 
 	@Override
 	public boolean isValid(School school, ConstraintValidatorContext context) {
-		if (schoolRepository == null && staticContext != null) {
-			schoolRepository = staticContext.getBean(SchoolRepository.class);
-		}
-
-		if (schoolRepository == null) {
-			return true;
-		}
-
 		if (school == null || school.getDomain() == null) {
 			return true; // Lets @NotEmpty handle null checks
 		}
 
-		String domainToCheck = school.getDomain();
-		Optional<School> existingSchool = schoolRepository.findByDomain(domainToCheck);
+		Optional<SchoolDomain> existingSchool = schoolDomainIndex.findByDomain(school.getDomain());
 
 		if (existingSchool.isPresent()) {
 			// Duplicate Found: If the ID of the found school is DIFFERENT from the school
 			// being validated, it's a conflict.
 			// (This allows you to "Update" School #1 without changing its domain)
-			if (!existingSchool.get().getId().equals(school.getId())) {
+			if (!existingSchool.get().id().equals(school.getId())) {
 
 				// This block moves the error from the "Class" level to the specific
 				// "domain" field
@@ -0,0 +1,26 @@
+package org.springframework.samples.petclinic.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated value must be a five-digit or ZIP+4 zip code, checked with
+ * {@link FormRules#isZipCode}. {@code null} and empty values are valid, since the zip
+ * code is optional wherever it is asked for.
+ */
+@Target({ ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = ZipCodeValidator.class)
+public @interface ZipCode {
+
+	String message() default "Please enter a valid 5-digit zip code";
+
+	Class<?>[] groups() default {};
+
+	Class<? extends Payload>[] payload() default {};
+
+}
@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validates {@link ZipCode} with {@link FormRules#isZipCode}.
+ */
+public class ZipCodeValidator implements ConstraintValidator<ZipCode, CharSequence> {
+
+	@Override
+	public boolean isValid(CharSequence zip, ConstraintValidatorContext context) {
+		return zip == null || zip.isEmpty() || FormRules.isZipCode(zip);
+	}
+
+}
@@ -38,21 +38,26 @@ import java.util.Collection;
 public interface VetRepository extends Repository<Vet, Integer> {
 
 	/**
-	 * Retrieve all <code>Vet</code>s from the data store.
+	 * Retrieve all <code>Vet</code>s from the data store. The result is cached in the
+	 * {@code vets} cache under a single key.
 	 * @return a <code>Collection</code> of <code>Vet</code>s
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
+	@Cacheable(cacheNames = "vets", key = "'all'", sync = true)
 	Collection<Vet> findAll() throws DataAccessException;
 
 	/**
-	 * Retrieve all <code>Vet</code>s from data store in Pages
-	 * @param pageable
-	 * @return
+	 * Retrieve all <code>Vet</code>s from data store in Pages. Each page is cached in the
+	 * {@code vetPages} cache under its number, size and sort, such as
+	 * {@code 0:5:UNSORTED}; unpaged requests are not cached. Concurrent misses for the
+	 * same page load it once.
+	 * @param pageable the page to retrieve
+	 * @return the page of <code>Vet</code>s
 	 * @throws DataAccessException
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
+	@Cacheable(cacheNames = "vetPages", key = "#p0.pageNumber + ':' + #p0.pageSize + ':' + #p0.sort",
+			condition = "#p0.paged", sync = true)
 	Page<Vet> findAll(Pageable pageable) throws DataAccessException;
 
 }
@@ -54,3 +54,142 @@ INSERT INTO visits VALUES (default, 7, '2013-01-01', 'rabies shot');
 INSERT INTO visits VALUES (default, 8, '2013-01-02', 'rabies shot');
 INSERT INTO visits VALUES (default, 8, '2013-01-03', 'neutered');
 INSERT INTO visits VALUES (default, 7, '2013-01-04', 'spayed');
+
+-- Visit totals are kept on each pet; derive them for the seeded visits
+UPDATE pets SET visit_count = (SELECT COUNT(*) FROM visits v WHERE v.pet_id = pets.id),
+                last_visit_date = (SELECT MAX(v.visit_date) FROM visits v WHERE v.pet_id = pets.id);
+
+-- AthLeagues and Patriot Thanks lookup data, in the same order as db/mysql/data.sql so the IDs match
+
+INSERT INTO roles (name, description) VALUES ('SCHOOL_ADMIN', 'Rec Center Admin: Can manage facilities, leagues, scores, and users.');
+INSERT INTO roles (name, description) VALUES ('STUDENT', 'Student: Can join leagues, create teams, and view schedules.');
+
+INSERT INTO permissions (name, description) VALUES ('MANAGE_OWN_PROFILE', 'Allows user to update their personal info and password.');
+INSERT INTO permissions (name, description) VALUES ('USE_MESSAGING', 'Allows user to send/receive messages with other participants.');
+INSERT INTO permissions (name, description) VALUES ('VIEW_LEAGUES', 'Allows user to browse and search available leagues and activities.');
+INSERT INTO permissions (name, description) VALUES ('REGISTER_FOR_LEAGUE', 'Allows user to register as an individual for a league.');
+INSERT INTO permissions (name, description) VALUES ('CREATE_TEAM', 'Allows user to create a new team as a captain.');
+INSERT INTO permissions (name, description) VALUES ('MANAGE_TEAM_INVITATIONS', 'Allows user to accept or decline invitations to a team.');
+INSERT INTO permissions (name, description) VALUES ('VIEW_OWN_SCHEDULE', 'Allows user to view their personal and team game schedule.');
+INSERT INTO permissions (name, description) VALUES ('VIEW_STANDINGS', 'Allows user to view league standings and team statistics.');
+INSERT INTO permissions (name, description) VALUES ('MANAGE_FACILITIES', 'Allows user to C/R/U/D locations, fields, and courts.');
+INSERT INTO permissions (name, description) VALUES ('MANAGE_SCHEDULES', 'Allows user to C/R/U/D leagues, activities, and games.');
+INSERT INTO permissions (name, description) VALUES ('MANAGE_REGISTRATIONS', 'Allows user to view and approve team registrations.');
+INSERT INTO permissions (name, description) VALUES ('MANAGE_SCORES', 'Allows user to enter and confirm game scores.');
+INSERT INTO permissions (name, description) VALUES ('SEND_ANNOUNCEMENTS', 'Allows user to send messages to individuals, teams, and leagues.');
+
+INSERT INTO permission_role (permission_id, role_id) SELECT p.id, r.id FROM permissions p, roles r
+  WHERE r.name = 'SCHOOL_ADMIN' OR (r.name = 'STUDENT' AND p.id <= 8);
+
+INSERT INTO statuses (name, description) VALUES ('Veteran', 'A veteran of the uniformed services.');
+INSERT INTO statuses (name, description) VALUES ('Active Duty', 'An active duty member of the uniformed services.');
+INSERT INTO statuses (name, description) VALUES ('First Responder', 'An active Fire, Police, or Emergency personnel');
+INSERT INTO statuses (name, description) VALUES ('Spouse', 'A spouse of a veteran, military, or first responder.');
+INSERT INTO statuses (name, description) VALUES ('Business Owner', 'A business owner');
+INSERT INTO statuses (name, description) VALUES ('Supporter', 'A person that supports veterans, military, and first responders.');
+
+INSERT INTO titles (name, description, display_order) VALUES ('', 'No Title Chosen', 7);
+INSERT INTO titles (name, description, display_order) VALUES ('Mr.', 'The title of Mister for either married or unmarried men.', 2);
+INSERT INTO titles (name, description, display_order) VALUES ('Mrs.', 'Mrs. is traditionally used for married women.', 3);
+INSERT INTO titles (name, description, display_order) VALUES ('Ms.', 'Ms. is a title that can be used for women regardless of their marital status, or when that status is unknown.', 4);
+INSERT INTO titles (name, description, display_order) VALUES ('Miss', 'Miss is a title traditionally used for unmarried women, particularly younger women or girls.', 5);
+INSERT INTO titles (name, description, display_order) VALUES ('Mx.', 'Mx is a gender-neutral title that is commonly used by non-binary people.', 6);
+INSERT INTO titles (name, description, display_order) VALUES ('Dr.', 'Dr. (Doctor) is an academic title used for individuals who have earned a doctoral degree.', 1);
+
+INSERT INTO us_states (code, name) VALUES ('AL', 'Alabama');
+INSERT INTO us_states (code, name) VALUES ('AK', 'Alaska');
+INSERT INTO us_states (code, name) VALUES ('AZ', 'Arizona');
+INSERT INTO us_states (code, name) VALUES ('AR', 'Arkansas');
+INSERT INTO us_states (code, name) VALUES ('CA', 'California');
+INSERT INTO us_states (code, name) VALUES ('CO', 'Colorado');
+INSERT INTO us_states (code, name) VALUES ('CT', 'Connecticut');
+INSERT INTO us_states (code, name) VALUES ('DE', 'Delaware');
+INSERT INTO us_states (code, name) VALUES ('FL', 'Florida');
+INSERT INTO us_states (code, name) VALUES ('GA', 'Georgia');
+INSERT INTO us_states (code, name) VALUES ('HI', 'Hawaii');
+INSERT INTO us_states (code, name) VALUES ('ID', 'Idaho');
+INSERT INTO us_states (code, name) VALUES ('IL', 'Illinois');
+INSERT INTO us_states (code, name) VALUES ('IN', 'Indiana');
+INSERT INTO us_states (code, name) VALUES ('IA', 'Iowa');
+INSERT INTO us_states (code, name) VALUES ('KS', 'Kansas');
+INSERT INTO us_states (code, name) VALUES ('KY', 'Kentucky');
+INSERT INTO us_states (code, name) VALUES ('LA', 'Louisiana');
+INSERT INTO us_states (code, name) VALUES ('ME', 'Maine');
+INSERT INTO us_states (code, name) VALUES ('MD', 'Maryland');
+INSERT INTO us_states (code, name) VALUES ('MA', 'Massachusetts');
+INSERT INTO us_states (code, name) VALUES ('MI', 'Michigan');
+INSERT INTO us_states (code, name) VALUES ('MN', 'Minnesota');
+INSERT INTO us_states (code, name) VALUES ('MS', 'Mississippi');
+INSERT INTO us_states (code, name) VALUES ('MO', 'Missouri');
+INSERT INTO us_states (code, name) VALUES ('MT', 'Montana');
+INSERT INTO us_states (code, name) VALUES ('NE', 'Nebraska');
+INSERT INTO us_states (code, name) VALUES ('NV', 'Nevada');
+INSERT INTO us_states (code, name) VALUES ('NH', 'New Hampshire');
+INSERT INTO us_states (code, name) VALUES ('NJ', 'New Jersey');
+INSERT INTO us_states (code, name) VALUES ('NM', 'New Mexico');
+INSERT INTO us_states (code, name) VALUES ('NY', 'New York');
+INSERT INTO us_states (code, name) VALUES ('NC', 'North Carolina');
+INSERT INTO us_states (code, name) VALUES ('ND', 'North Dakota');
+INSERT INTO us_states (code, name) VALUES ('OH', 'Ohio');
+INSERT INTO us_states (code, name) VALUES ('OK', 'Oklahoma');
+INSERT INTO us_states (code, name) VALUES ('OR', 'Oregon');
+INSERT INTO us_states (code, name) VALUES ('PA', 'Pennsylvania');
+INSERT INTO us_states (code, name) VALUES ('RI', 'Rhode Island');
+INSERT INTO us_states (code, name) VALUES ('SC', 'South Carolina');
+INSERT INTO us_states (code, name) VALUES ('SD', 'South Dakota');
+INSERT INTO us_states (code, name) VALUES ('TN', 'Tennessee');
+INSERT INTO us_states (code, name) VALUES ('TX', 'Texas');
+INSERT INTO us_states (code, name) VALUES ('UT', 'Utah');
+INSERT INTO us_states (code, name) VALUES ('VT', 'Vermont');
+INSERT INTO us_states (code, name) VALUES ('VA', 'Virginia');
+INSERT INTO us_states (code, name) VALUES ('WA', 'Washington');
+INSERT INTO us_states (code, name) VALUES ('WV', 'West Virginia');
+INSERT INTO us_states (code, name) VALUES ('WI', 'Wisconsin');
+INSERT INTO us_states (code, name) VALUES ('WY', 'Wyoming');
+INSERT INTO us_states (code, name) VALUES ('DC', 'District of Columbia');
+
+INSERT INTO business_types (name, description, display_order) VALUES ('Automotive', 'Vehicles, parts, repairs, and transportation services.', 1);
+INSERT INTO business_types (name, description, display_order) VALUES ('Beauty', 'Cosmetics, skincare, salon services, and personal care products.', 2);
+INSERT INTO business_types (name, description, display_order) VALUES ('Bookstore', 'Books, magazines, educational materials, and reading accessories.', 3);
+INSERT INTO business_types (name, description, display_order) VALUES ('Clothing', 'Apparel, footwear, accessories, and fashion items.', 4);
+INSERT INTO business_types (name, description, display_order) VALUES ('Convenience Store', 'Quick-access groceries, snacks, beverages, and everyday essentials.', 5);
+INSERT INTO business_types (name, description, display_order) VALUES ('Department Store', 'Multi-category retail offering clothing, home goods, and general merchandise.', 6);
+INSERT INTO business_types (name, description, display_order) VALUES ('Electronics', 'Consumer electronics, appliances, and electronic accessories.', 7);
+INSERT INTO business_types (name, description, display_order) VALUES ('Entertainment', 'Media, events, performances, and recreational activities.', 8);
+INSERT INTO business_types (name, description, display_order) VALUES ('Furniture', 'Home and office furniture, fixtures, and decor items.', 9);
+INSERT INTO business_types (name, description, display_order) VALUES ('Fuel Station', 'Gasoline, diesel, vehicle fluids, and convenience items.', 10);
+INSERT INTO business_types (name, description, display_order) VALUES ('Gift Shop', 'Gifts, cards, novelties, and specialty presentation items.', 11);
+INSERT INTO business_types (name, description, display_order) VALUES ('Grocery', 'Food, beverages, household supplies, and perishable goods.', 12);
+INSERT INTO business_types (name, description, display_order) VALUES ('Hardware', 'Tools, building materials, and home improvement supplies.', 13);
+INSERT INTO business_types (name, description, display_order) VALUES ('Health', 'Health services, medical supplies, and wellness products.', 14);
+INSERT INTO business_types (name, description, display_order) VALUES ('Hotel/Motel', 'Lodging, accommodations, and hospitality services.', 15);
+INSERT INTO business_types (name, description, display_order) VALUES ('Jewelry', 'Fine jewelry, watches, precious metals, and gemstones.', 16);
+INSERT INTO business_types (name, description, display_order) VALUES ('Other', 'Miscellaneous businesses not fitting standard categories.', 17);
+INSERT INTO business_types (name, description, display_order) VALUES ('Pharmacy', 'Prescription medications, over-the-counter drugs, and health consultations.', 18);
+INSERT INTO business_types (name, description, display_order) VALUES ('Restaurant', 'Food preparation, dining services, and culinary experiences.', 19);
+INSERT INTO business_types (name, description, display_order) VALUES ('Retail', 'General consumer goods sold directly to customers.', 20);
+INSERT INTO business_types (name, description, display_order) VALUES ('Service', 'Professional services, repairs, and skilled labor.', 21);
+INSERT INTO business_types (name, description, display_order) VALUES ('Specialty', 'Niche products and specialized goods for specific markets.', 22);
+INSERT INTO business_types (name, description, display_order) VALUES ('Sporting Goods', 'Athletic equipment, sportswear, and recreational gear.', 23);
+INSERT INTO business_types (name, description, display_order) VALUES ('Technology', 'Computer hardware, software, IT services, and digital solutions.', 24);
+INSERT INTO business_types (name, description, display_order) VALUES ('Toys', 'Children''s toys, games, educational play items, and hobbies.', 25);
+
+INSERT INTO incentive_types (name, description, display_order) VALUES ('Veteran', 'Veterans special pricing and benefits.', 1);
+INSERT INTO incentive_types (name, description, display_order) VALUES ('Active Duty', 'Active duty military personnel discount.', 2);
+INSERT INTO incentive_types (name, description, display_order) VALUES ('First Responder', 'Discounts for emergency services professionals.', 3);
+INSERT INTO incentive_types (name, description, display_order) VALUES ('Spouse', 'Benefits extended to military/responder spouses.', 4);
+INSERT INTO incentive_types (name, description, display_order) VALUES ('Other', 'Alternative special discounts or promotional offers.', 5);
+
+INSERT INTO patriot_roles (name, description) VALUES ('VETERAN', 'Veteran of the uniformed services');
+INSERT INTO patriot_roles (name, description) VALUES ('ACTIVE_DUTY', 'Active duty service member');
+INSERT INTO patriot_roles (name, description) VALUES ('FIRST_RESPONDER', 'Fire, police, or EMS personnel');
+INSERT INTO patriot_roles (name, description) VALUES ('MILITARY_SPOUSE', 'Spouse of a veteran or service member');
+INSERT INTO patriot_roles (name, description) VALUES ('BUSINESS_OWNER', 'Business owner offering incentives');
+INSERT INTO patriot_roles (name, description) VALUES ('SUPPORTER', 'Supporter of veterans and service members');
+INSERT INTO patriot_roles (name, description) VALUES ('PLATFORM_ADMIN', 'Patriot Thanks platform administrator');
+
+INSERT INTO subscriptions (name, description, monthly_price, annual_price) VALUES ('Free', 'Get started with 10 free leagues for your college or university.', 0, 0);
+INSERT INTO subscriptions (name, description, monthly_price, annual_price) VALUES ('Pro', 'Create up to 25 leagues for your college or university.', 25, 250);
+
+INSERT INTO cache_versions (name) VALUES ('schools');
+INSERT INTO cache_versions (name) VALUES ('page:/pricing');
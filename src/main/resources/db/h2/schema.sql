@@ -1,6 +1,30 @@
 -- db/h2/schema.sql
 -- DO NOT ADD OR CHANGE THIS FILE, EVER
 
+DROP TABLE roster_import_failures IF EXISTS;
+DROP TABLE roster_imports IF EXISTS;
+DROP TABLE cache_versions IF EXISTS;
+DROP TABLE subscriptions IF EXISTS;
+DROP TABLE patriot_user_roles IF EXISTS;
+DROP TABLE patriot_users IF EXISTS;
+DROP TABLE patriot_roles IF EXISTS;
+DROP TABLE business_incentive_types IF EXISTS;
+DROP TABLE incentives IF EXISTS;
+DROP TABLE incentive_types IF EXISTS;
+DROP TABLE business_locations IF EXISTS;
+DROP TABLE addresses IF EXISTS;
+DROP TABLE businesses IF EXISTS;
+DROP TABLE business_types IF EXISTS;
+DROP TABLE us_states IF EXISTS;
+DROP TABLE titles IF EXISTS;
+DROP TABLE statuses IF EXISTS;
+DROP TABLE locations IF EXISTS;
+DROP TABLE schools IF EXISTS;
+DROP TABLE permission_role IF EXISTS;
+DROP TABLE user_roles IF EXISTS;
+DROP TABLE permissions IF EXISTS;
+DROP TABLE roles IF EXISTS;
+DROP TABLE users IF EXISTS;
 DROP TABLE vet_specialties IF EXISTS;
 DROP TABLE vets IF EXISTS;
 DROP TABLE specialties IF EXISTS;
@@ -42,16 +66,20 @@ CREATE TABLE owners (
                       last_name  VARCHAR_IGNORECASE(30),
                       address    VARCHAR(255),
                       city       VARCHAR(80),
-                      telephone  VARCHAR(20)
+                      telephone  VARCHAR(20),
+                      last_name_lower VARCHAR(30) INVISIBLE GENERATED ALWAYS AS (LOWER(last_name))
 );
 CREATE INDEX owners_last_name ON owners (last_name);
+CREATE INDEX owners_last_name_lower ON owners (last_name_lower);
 
 CREATE TABLE pets (
                     id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
                     name       VARCHAR(30),
                     birth_date DATE,
                     type_id    INTEGER NOT NULL,
-                    owner_id   INTEGER
+                    owner_id   INTEGER,
+                    visit_count     INTEGER INVISIBLE DEFAULT 0 NOT NULL,
+                    last_visit_date DATE INVISIBLE
 );
 ALTER TABLE pets ADD CONSTRAINT fk_pets_owners FOREIGN KEY (owner_id) REFERENCES owners (id);
 ALTER TABLE pets ADD CONSTRAINT fk_pets_types FOREIGN KEY (type_id) REFERENCES types (id);
@@ -64,4 +92,278 @@ CREATE TABLE visits (
                       description VARCHAR(255)
 );
 ALTER TABLE visits ADD CONSTRAINT fk_visits_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
-CREATE INDEX visits_pet_id ON visits (pet_id);
+CREATE INDEX visits_pet_id_date ON visits (pet_id, visit_date);
+
+-- AthLeagues
+
+CREATE TABLE users (
+                     id                  INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                     first_name          VARCHAR(50),
+                     last_name           VARCHAR(50),
+                     nickname            VARCHAR(50),
+                     nickname_is_flagged BOOLEAN DEFAULT FALSE,
+                     email               VARCHAR(255) NOT NULL,
+                     email_normalized    VARCHAR(255) NOT NULL,
+                     public_email        BOOLEAN DEFAULT FALSE,
+                     phone               VARCHAR(255),
+                     public_phone        BOOLEAN DEFAULT FALSE,
+                     preferred_language  VARCHAR(50),
+                     password_hash       VARCHAR(255),
+                     created_at          TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                     updated_at          TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                     deleted_at          TIMESTAMP
+);
+CREATE UNIQUE INDEX users_email_normalized ON users (email_normalized);
+CREATE INDEX users_name ON users (last_name, first_name);
+
+CREATE TABLE roles (
+                     id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                     name        VARCHAR(50) NOT NULL UNIQUE,
+                     description VARCHAR(255)
+);
+
+CREATE TABLE permissions (
+                           id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                           name        VARCHAR(100) NOT NULL UNIQUE,
+                           description VARCHAR(255)
+);
+
+CREATE TABLE user_roles (
+                          user_id INTEGER NOT NULL,
+                          role_id INTEGER NOT NULL,
+                          PRIMARY KEY (user_id, role_id)
+);
+ALTER TABLE user_roles ADD CONSTRAINT fk_user_roles_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+ALTER TABLE user_roles ADD CONSTRAINT fk_user_roles_roles FOREIGN KEY (role_id) REFERENCES roles (id) ON DELETE CASCADE;
+
+CREATE TABLE permission_role (
+                               permission_id INTEGER NOT NULL,
+                               role_id       INTEGER NOT NULL,
+                               PRIMARY KEY (permission_id, role_id)
+);
+ALTER TABLE permission_role ADD CONSTRAINT fk_permission_role_permissions FOREIGN KEY (permission_id) REFERENCES permissions (id) ON DELETE CASCADE;
+ALTER TABLE permission_role ADD CONSTRAINT fk_permission_role_roles FOREIGN KEY (role_id) REFERENCES roles (id) ON DELETE CASCADE;
+
+CREATE TABLE schools (
+                       id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       name       VARCHAR(255) NOT NULL,
+                       domain     VARCHAR(255) NOT NULL,
+                       status_id  VARCHAR(20) DEFAULT 'ACTIVE',
+                       created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                       updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                       deleted_at TIMESTAMP
+);
+CREATE UNIQUE INDEX schools_domain ON schools (domain);
+
+CREATE TABLE locations (
+                         id                 INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                         school_id          INTEGER NOT NULL,
+                         parent_location_id INTEGER,
+                         path               VARCHAR(500) DEFAULT '/' NOT NULL,
+                         depth              INTEGER DEFAULT 0 NOT NULL,
+                         name               VARCHAR(255) NOT NULL,
+                         description        VARCHAR(4000),
+                         address            VARCHAR(255),
+                         latitude           DECIMAL(8,4),
+                         longitude          DECIMAL(8,4),
+                         status_id          VARCHAR(20) DEFAULT 'ACTIVE',
+                         created_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                         updated_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                         deleted_at         TIMESTAMP
+);
+ALTER TABLE locations ADD CONSTRAINT fk_locations_school FOREIGN KEY (school_id) REFERENCES schools (id) ON DELETE CASCADE;
+ALTER TABLE locations ADD CONSTRAINT fk_locations_parent FOREIGN KEY (parent_location_id) REFERENCES locations (id) ON DELETE SET NULL;
+CREATE UNIQUE INDEX locations_school_name ON locations (school_id, name);
+CREATE INDEX locations_path ON locations (school_id, path);
+
+-- Patriot Thanks
+
+CREATE TABLE statuses (
+                        id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        name        VARCHAR(50) NOT NULL,
+                        description VARCHAR(256),
+                        created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        updated_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE titles (
+                      id            INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                      name          VARCHAR(10) NOT NULL,
+                      description   VARCHAR(256),
+                      display_order INTEGER NOT NULL,
+                      created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE us_states (
+                         id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                         code       CHAR(2) NOT NULL,
+                         name       VARCHAR(100) NOT NULL,
+                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE UNIQUE INDEX us_states_code ON us_states (code);
+
+CREATE TABLE business_types (
+                              id            INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                              name          VARCHAR(80) NOT NULL,
+                              description   VARCHAR(255),
+                              display_order INTEGER DEFAULT 0,
+                              is_active     BOOLEAN DEFAULT TRUE,
+                              created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE businesses (
+                          id                   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                          name                 VARCHAR(255) NOT NULL,
+                          slug                 VARCHAR(255),
+                          description          VARCHAR(4000),
+                          website              VARCHAR(255),
+                          business_type_id     INTEGER NOT NULL,
+                          submitted_by_user_id INTEGER,
+                          is_verified          BOOLEAN DEFAULT FALSE,
+                          is_active            BOOLEAN DEFAULT TRUE,
+                          created_at           TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                          updated_at           TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                          deleted_at           TIMESTAMP
+);
+ALTER TABLE businesses ADD CONSTRAINT fk_businesses_type FOREIGN KEY (business_type_id) REFERENCES business_types (id);
+ALTER TABLE businesses ADD CONSTRAINT fk_businesses_user FOREIGN KEY (submitted_by_user_id) REFERENCES users (id);
+CREATE INDEX businesses_slug ON businesses (slug);
+
+CREATE TABLE addresses (
+                         id             INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                         street_address VARCHAR(255) NOT NULL,
+                         address_line_2 VARCHAR(255),
+                         city           VARCHAR(100) NOT NULL,
+                         state_id       INTEGER NOT NULL,
+                         zip_code       VARCHAR(10) NOT NULL,
+                         latitude       DECIMAL(10,7),
+                         longitude      DECIMAL(10,7),
+                         created_at     TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                         updated_at     TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+ALTER TABLE addresses ADD CONSTRAINT fk_addresses_state FOREIGN KEY (state_id) REFERENCES us_states (id);
+
+CREATE TABLE business_locations (
+                                  id                 INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                  business_id        INTEGER NOT NULL,
+                                  address_id         INTEGER,
+                                  location_name      VARCHAR(255),
+                                  phone              VARCHAR(20),
+                                  email              VARCHAR(255),
+                                  hours_of_operation VARCHAR(255),
+                                  is_primary         BOOLEAN DEFAULT FALSE,
+                                  is_active          BOOLEAN DEFAULT TRUE,
+                                  created_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                  updated_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                  deleted_at         TIMESTAMP
+);
+ALTER TABLE business_locations ADD CONSTRAINT fk_bl_business FOREIGN KEY (business_id) REFERENCES businesses (id) ON DELETE CASCADE;
+ALTER TABLE business_locations ADD CONSTRAINT fk_bl_address FOREIGN KEY (address_id) REFERENCES addresses (id);
+
+CREATE TABLE incentive_types (
+                               id            INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                               name          VARCHAR(80) NOT NULL,
+                               description   VARCHAR(255),
+                               display_order INTEGER DEFAULT 0,
+                               is_active     BOOLEAN DEFAULT TRUE,
+                               created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE incentives (
+                          id                    INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                          title                 VARCHAR(255) NOT NULL,
+                          description           VARCHAR(4000) NOT NULL,
+                          discount_amount       DECIMAL(10,2),
+                          discount_percentage   DECIMAL(5,2),
+                          terms_and_conditions  VARCHAR(4000),
+                          verification_required VARCHAR(255),
+                          start_date            DATE,
+                          end_date              DATE,
+                          is_active             BOOLEAN DEFAULT TRUE,
+                          business_id           INTEGER NOT NULL,
+                          submitted_by_user_id  INTEGER,
+                          created_at            TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                          updated_at            TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                          deleted_at            TIMESTAMP
+);
+ALTER TABLE incentives ADD CONSTRAINT fk_incentives_business FOREIGN KEY (business_id) REFERENCES businesses (id) ON DELETE CASCADE;
+ALTER TABLE incentives ADD CONSTRAINT fk_incentives_user FOREIGN KEY (submitted_by_user_id) REFERENCES users (id);
+
+CREATE TABLE business_incentive_types (
+                                        incentive_id      INTEGER NOT NULL,
+                                        incentive_type_id INTEGER NOT NULL,
+                                        PRIMARY KEY (incentive_id, incentive_type_id)
+);
+ALTER TABLE business_incentive_types ADD CONSTRAINT fk_bit_incentive FOREIGN KEY (incentive_id) REFERENCES incentives (id) ON DELETE CASCADE;
+ALTER TABLE business_incentive_types ADD CONSTRAINT fk_bit_type FOREIGN KEY (incentive_type_id) REFERENCES incentive_types (id) ON DELETE CASCADE;
+
+CREATE TABLE patriot_roles (
+                             id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                             name        VARCHAR(50) NOT NULL UNIQUE,
+                             description VARCHAR(255),
+                             created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE patriot_users (
+                             id               INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                             first_name       VARCHAR(256) NOT NULL,
+                             last_name        VARCHAR(256) NOT NULL,
+                             email            VARCHAR(255) NOT NULL,
+                             email_normalized VARCHAR(255) NOT NULL,
+                             password_hash    VARCHAR(255) NOT NULL,
+                             phone            VARCHAR(20),
+                             status_id        INTEGER NOT NULL,
+                             avatar_url       VARCHAR(255),
+                             zip_code         VARCHAR(10),
+                             email_verified   BOOLEAN DEFAULT FALSE,
+                             created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                             updated_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                             deleted_at       TIMESTAMP
+);
+CREATE UNIQUE INDEX patriot_users_email_normalized ON patriot_users (email_normalized);
+
+CREATE TABLE patriot_user_roles (
+                                  patriot_user_id INTEGER NOT NULL,
+                                  patriot_role_id INTEGER NOT NULL,
+                                  PRIMARY KEY (patriot_user_id, patriot_role_id)
+);
+ALTER TABLE patriot_user_roles ADD CONSTRAINT fk_pur_user FOREIGN KEY (patriot_user_id) REFERENCES patriot_users (id) ON DELETE CASCADE;
+ALTER TABLE patriot_user_roles ADD CONSTRAINT fk_pur_role FOREIGN KEY (patriot_role_id) REFERENCES patriot_roles (id) ON DELETE CASCADE;
+
+CREATE TABLE subscriptions (
+                             id            INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                             name          VARCHAR(255) NOT NULL UNIQUE,
+                             description   VARCHAR(4000) NOT NULL,
+                             monthly_price INTEGER NOT NULL,
+                             annual_price  INTEGER NOT NULL,
+                             featured      BOOLEAN DEFAULT FALSE NOT NULL,
+                             created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                             updated_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                             deleted_at    TIMESTAMP
+);
+
+CREATE TABLE cache_versions (
+                              name    VARCHAR(64) PRIMARY KEY,
+                              version BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE roster_imports (
+                              id             INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                              school_id      INTEGER NOT NULL,
+                              status         VARCHAR(20) NOT NULL,
+                              total_rows     INTEGER NOT NULL,
+                              processed_rows INTEGER DEFAULT 0 NOT NULL,
+                              imported       INTEGER DEFAULT 0 NOT NULL,
+                              started_at     TIMESTAMP NOT NULL,
+                              finished_at    TIMESTAMP
+);
+ALTER TABLE roster_imports ADD CONSTRAINT fk_roster_imports_school FOREIGN KEY (school_id) REFERENCES schools (id);
+
+CREATE TABLE roster_import_failures (
+                                      roster_import_id INTEGER NOT NULL,
+                                      line_number      INTEGER NOT NULL,
+                                      email            VARCHAR(255),
+                                      reason           VARCHAR(1000) NOT NULL
+);
+ALTER TABLE roster_import_failures ADD CONSTRAINT fk_roster_import_failures_import FOREIGN KEY (roster_import_id) REFERENCES roster_imports (id) ON DELETE CASCADE;
+CREATE INDEX roster_import_failures_import ON roster_import_failures (roster_import_id);
@@ -65,6 +65,10 @@ INSERT IGNORE INTO visits VALUES (2, 8, '2011-03-04', 'rabies shot');
 INSERT IGNORE INTO visits VALUES (3, 8, '2009-06-04', 'neutered');
 INSERT IGNORE INTO visits VALUES (4, 7, '2008-09-04', 'spayed');
 
+-- Visit totals are kept on each pet; derive them for the seeded visits
+UPDATE pets SET visit_count = (SELECT COUNT(*) FROM visits v WHERE v.pet_id = pets.id),
+                last_visit_date = (SELECT MAX(v.visit_date) FROM visits v WHERE v.pet_id = pets.id);
+
 -- =====================================================================
 -- ATHLEAGUES DATA (Professor's original - unchanged except status_id
 -- added to users inserts per User.java entity requirement)
@@ -115,10 +119,10 @@ INSERT IGNORE INTO permission_role (permission_id, role_id) VALUES (12, 1);
 INSERT IGNORE INTO permission_role (permission_id, role_id) VALUES (13, 1);
 
 -- Professor's users (status_id=6 means Supporter - a safe default)
-INSERT IGNORE INTO users (first_name, last_name, email, password_hash) VALUES
-  ('Brett', 'School Admin', 'brett.baumgart@kirkwood.edu', '$2y$10$BinU0sJ52o0MVIyl0ixxzeJ/pKGOxq.n8FFVtBQYv0vw8h1jRql6W');
-INSERT IGNORE INTO users (first_name, last_name, email, password_hash) VALUES
-  ('Alex', 'Student', 'alex.student@student.kirkwood.edu', '$2y$10$BinU0sJ52o0MVIyl0ixxzeJ/pKGOxq.n8FFVtBQYv0vw8h1jRql6W');
+INSERT IGNORE INTO users (first_name, last_name, email, email_normalized, password_hash) VALUES
+  ('Brett', 'School Admin', 'brett.baumgart@kirkwood.edu', 'brett.baumgart@kirkwood.edu', '$2y$10$BinU0sJ52o0MVIyl0ixxzeJ/pKGOxq.n8FFVtBQYv0vw8h1jRql6W');
+INSERT IGNORE INTO users (first_name, last_name, email, email_normalized, password_hash) VALUES
+  ('Alex', 'Student', 'alex.student@student.kirkwood.edu', 'alex.student@student.kirkwood.edu', '$2y$10$BinU0sJ52o0MVIyl0ixxzeJ/pKGOxq.n8FFVtBQYv0vw8h1jRql6W');
 
 
 INSERT IGNORE INTO user_roles (user_id, role_id) VALUES (1, 1);
@@ -146,15 +150,16 @@ INSERT IGNORE INTO locations (school_id, name, description, address) VALUES
 INSERT IGNORE INTO locations (school_id, name, description, address) VALUES
   (2, 'Carver-Hawkeye Arena', 'Main sports arena', '1 Elliott Dr, Iowa City, IA');
 
-INSERT IGNORE INTO locations (school_id, parent_location_id, name, description) VALUES
-                                                                                  (1, 1, 'Michael J Gould Rec Center', 'Student recreation facility'),
-                                                                                  (1, 1, 'Johnson Hall', 'Athletics building and gymnasium');
-INSERT IGNORE INTO locations (school_id, parent_location_id, name, description) VALUES
-                                                                                  (2, 2, 'Main Court', 'The primary basketball court'),
-                                                                                  (2, 2, 'Weight Room', 'Athlete training facility');
-INSERT IGNORE INTO locations (school_id, parent_location_id, name, description) VALUES
-                                                                                  (1, 3, 'Basketball Court 1', 'North court'),
-                                                                                  (1, 3, 'Basketball Court 2', 'South court');
+-- path lists the IDs of a location's ancestors, root first; depth is their count
+INSERT IGNORE INTO locations (school_id, parent_location_id, path, depth, name, description) VALUES
+                                                                                  (1, 1, '/1/', 1, 'Michael J Gould Rec Center', 'Student recreation facility'),
+                                                                                  (1, 1, '/1/', 1, 'Johnson Hall', 'Athletics building and gymnasium');
+INSERT IGNORE INTO locations (school_id, parent_location_id, path, depth, name, description) VALUES
+                                                                                  (2, 2, '/2/', 1, 'Main Court', 'The primary basketball court'),
+                                                                                  (2, 2, '/2/', 1, 'Weight Room', 'Athlete training facility');
+INSERT IGNORE INTO locations (school_id, parent_location_id, path, depth, name, description) VALUES
+                                                                                  (1, 3, '/1/3/', 2, 'Basketball Court 1', 'North court'),
+                                                                                  (1, 3, '/1/3/', 2, 'Basketball Court 2', 'South court');
 
 -- =====================================================================
 -- PATRIOT THANKS: Lookup Data
@@ -432,22 +437,22 @@ INSERT IGNORE INTO patriot_roles (name, description) VALUES ('PLATFORM_ADMIN', '
 
 -- avatar_url: NULL here — the controller generates a Gravatar URL on first profile load.
 -- zip_code:   NULL here — users set their own home zip code via the Edit Profile page.
-INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
-  (1, 'Edward', 'McKeown', 'edward@doctormckeown.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 1, NULL, NULL, TRUE);
-INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
-  (2, 'Admin', 'User', 'admin@patriotthanks.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 6, NULL, NULL, TRUE);
-INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
-  (3, 'John', 'Veteran', 'john.veteran@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 1, NULL, NULL, TRUE);
-INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
-  (4, 'Jane', 'ActiveDuty', 'jane.active@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 2, NULL, NULL, TRUE);
-INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
-  (5, 'Mike', 'Firefighter', 'mike.fire@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 3, NULL, NULL, TRUE);
-INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
-  (6, 'Sarah', 'Business', 'sarah.biz@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 5, NULL, NULL, TRUE);
-INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
-  (7, 'Tom', 'Supporter', 'tom.support@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 6, NULL, NULL, TRUE);
-INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
-  (8, 'Guest', 'User', 'guest@patriotthanks.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 6, NULL, NULL, FALSE);
+INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, email_normalized, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
+  (1, 'Edward', 'McKeown', 'edward@doctormckeown.com', 'edward@doctormckeown.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 1, NULL, NULL, TRUE);
+INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, email_normalized, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
+  (2, 'Admin', 'User', 'admin@patriotthanks.com', 'admin@patriotthanks.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 6, NULL, NULL, TRUE);
+INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, email_normalized, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
+  (3, 'John', 'Veteran', 'john.veteran@example.com', 'john.veteran@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 1, NULL, NULL, TRUE);
+INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, email_normalized, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
+  (4, 'Jane', 'ActiveDuty', 'jane.active@example.com', 'jane.active@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 2, NULL, NULL, TRUE);
+INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, email_normalized, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
+  (5, 'Mike', 'Firefighter', 'mike.fire@example.com', 'mike.fire@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 3, NULL, NULL, TRUE);
+INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, email_normalized, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
+  (6, 'Sarah', 'Business', 'sarah.biz@example.com', 'sarah.biz@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 5, NULL, NULL, TRUE);
+INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, email_normalized, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
+  (7, 'Tom', 'Supporter', 'tom.support@example.com', 'tom.support@example.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 6, NULL, NULL, TRUE);
+INSERT IGNORE INTO patriot_users (id, first_name, last_name, email, email_normalized, password_hash, phone, status_id, avatar_url, zip_code, email_verified) VALUES
+  (8, 'Guest', 'User', 'guest@patriotthanks.com', 'guest@patriotthanks.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', NULL, 6, NULL, NULL, FALSE);
 
 -- patriot_user_roles: role IDs match patriot_roles insert order
 -- 1=VETERAN, 2=ACTIVE_DUTY, 3=FIRST_RESPONDER, 4=MILITARY_SPOUSE,
@@ -466,5 +471,7 @@ INSERT IGNORE INTO subscriptions (name, description, monthly_price, annual_price
                                                                                     ('Free', 'Get started with 10 free leagues for your college or university.', 0, 0),
                                                                                     ('Pro', 'Create up to 25 leagues for your college or university.', 25, 250);
 
+INSERT IGNORE INTO cache_versions (name) VALUES ('schools');
+INSERT IGNORE INTO cache_versions (name) VALUES ('page:/pricing');
 
 SET FOREIGN_KEY_CHECKS = 1;
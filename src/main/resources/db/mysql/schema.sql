@@ -34,7 +34,9 @@ CREATE TABLE IF NOT EXISTS owners (
                                     address VARCHAR(255),
                                     city VARCHAR(80),
                                     telephone VARCHAR(20),
-                                    INDEX(last_name)
+                                    last_name_lower VARCHAR(30) GENERATED ALWAYS AS (LOWER(last_name)) STORED INVISIBLE,
+                                    INDEX(last_name),
+                                    INDEX(last_name_lower)
 ) engine=InnoDB;
 
 CREATE TABLE IF NOT EXISTS pets (
@@ -43,6 +45,8 @@ CREATE TABLE IF NOT EXISTS pets (
                                   birth_date DATE,
                                   type_id INT(4) UNSIGNED NOT NULL,
                                   owner_id INT(4) UNSIGNED,
+                                  visit_count INT NOT NULL DEFAULT 0 INVISIBLE,
+                                  last_visit_date DATE INVISIBLE,
                                   INDEX(name),
                                   FOREIGN KEY (owner_id) REFERENCES owners(id),
                                   FOREIGN KEY (type_id) REFERENCES types(id)
@@ -53,6 +57,7 @@ CREATE TABLE IF NOT EXISTS visits (
                                     pet_id INT(4) UNSIGNED,
                                     visit_date DATE,
                                     description VARCHAR(255),
+                                    INDEX(pet_id, visit_date),
                                     FOREIGN KEY (pet_id) REFERENCES pets(id)
 ) engine=InnoDB;
 
@@ -68,6 +73,7 @@ CREATE TABLE IF NOT EXISTS users (
                                    nickname VARCHAR(50),
                                    nickname_is_flagged TINYINT DEFAULT 0,
                                    email VARCHAR(255) NOT NULL,
+                                   email_normalized VARCHAR(255) NOT NULL,
                                    public_email TINYINT DEFAULT 0,
                                    phone VARCHAR(255),
                                    public_phone TINYINT DEFAULT 0,
@@ -76,7 +82,7 @@ CREATE TABLE IF NOT EXISTS users (
                                    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
                                    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
                                    deleted_at DATETIME,
-                                   UNIQUE INDEX idx_users_email (email),
+                                   UNIQUE INDEX idx_users_email_normalized (email_normalized),
                                    INDEX idx_users_name (last_name, first_name)
 );
 
@@ -123,6 +129,8 @@ CREATE TABLE IF NOT EXISTS locations (
                                        id INT AUTO_INCREMENT PRIMARY KEY,
                                        school_id INT NOT NULL,
                                        parent_location_id INT NULL,
+                                       path VARCHAR(500) NOT NULL DEFAULT '/',
+                                       depth INT NOT NULL DEFAULT 0,
                                        name VARCHAR(255) NOT NULL,
                                        description TEXT,
                                        address VARCHAR(255),
@@ -134,7 +142,8 @@ CREATE TABLE IF NOT EXISTS locations (
                                        deleted_at DATETIME DEFAULT NULL,
                                        CONSTRAINT fk_locations_school FOREIGN KEY (school_id) REFERENCES schools(id) ON DELETE CASCADE,
                                        CONSTRAINT fk_locations_parent FOREIGN KEY (parent_location_id) REFERENCES locations(id) ON DELETE SET NULL,
-                                       UNIQUE KEY uk_school_location (school_id, name)
+                                       UNIQUE KEY uk_school_location (school_id, name),
+                                       INDEX idx_locations_path (school_id, path)
 );
 
 
@@ -284,7 +293,8 @@ CREATE TABLE IF NOT EXISTS patriot_users (
                                            id             INT AUTO_INCREMENT PRIMARY KEY,
                                            first_name     VARCHAR(256) NOT NULL,
                                            last_name      VARCHAR(256) NOT NULL,
-                                           email          VARCHAR(255) NOT NULL UNIQUE,
+                                           email          VARCHAR(255) NOT NULL,
+                                           email_normalized VARCHAR(255) NOT NULL,
                                            password_hash  VARCHAR(255) NOT NULL,
                                            phone          VARCHAR(20),
                                            status_id      INT NOT NULL,
@@ -293,7 +303,8 @@ CREATE TABLE IF NOT EXISTS patriot_users (
                                            email_verified BOOLEAN DEFAULT FALSE,
                                            created_at     TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                                            updated_at     TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                                           deleted_at     TIMESTAMP
+                                           deleted_at     TIMESTAMP,
+                                           UNIQUE INDEX idx_patriot_users_email_normalized (email_normalized)
 ) engine=InnoDB;
 
 CREATE TABLE IF NOT EXISTS patriot_user_roles (
@@ -316,3 +327,29 @@ CREATE TABLE IF NOT EXISTS subscriptions (
                                            deleted_at DATETIME,
                                            UNIQUE KEY uk_subscription_name (name)
 ) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS cache_versions (
+                                            name    VARCHAR(64) PRIMARY KEY,
+                                            version BIGINT NOT NULL DEFAULT 0
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS roster_imports (
+                                            id             INT AUTO_INCREMENT PRIMARY KEY,
+                                            school_id      INT NOT NULL,
+                                            status         VARCHAR(20) NOT NULL,
+                                            total_rows     INT NOT NULL,
+                                            processed_rows INT NOT NULL DEFAULT 0,
+                                            imported       INT NOT NULL DEFAULT 0,
+                                            started_at     DATETIME NOT NULL,
+                                            finished_at    DATETIME,
+                                            CONSTRAINT fk_roster_imports_school FOREIGN KEY (school_id) REFERENCES schools (id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS roster_import_failures (
+                                                    roster_import_id INT NOT NULL,
+                                                    line_number      INT NOT NULL,
+                                                    email            VARCHAR(255),
+                                                    reason           VARCHAR(1000) NOT NULL,
+                                                    INDEX roster_import_failures_import (roster_import_id),
+                                                    CONSTRAINT fk_roster_import_failures_import FOREIGN KEY (roster_import_id) REFERENCES roster_imports (id) ON DELETE CASCADE
+) engine=InnoDB;
@@ -51,3 +51,143 @@ INSERT INTO visits (pet_id, visit_date, description) SELECT 7, '2010-03-04', 'ra
 INSERT INTO visits (pet_id, visit_date, description) SELECT 8, '2011-03-04', 'rabies shot' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=2);
 INSERT INTO visits (pet_id, visit_date, description) SELECT 8, '2009-06-04', 'neutered' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=3);
 INSERT INTO visits (pet_id, visit_date, description) SELECT 7, '2008-09-04', 'spayed' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=4);
+
+-- Visit totals are kept on each pet; derive them for the seeded visits
+UPDATE pets SET visit_count = (SELECT COUNT(*) FROM visits v WHERE v.pet_id = pets.id),
+                last_visit_date = (SELECT MAX(v.visit_date) FROM visits v WHERE v.pet_id = pets.id);
+
+-- AthLeagues and Patriot Thanks lookup data, in the same order as db/mysql/data.sql so the IDs match
+
+INSERT INTO roles (name, description) SELECT 'SCHOOL_ADMIN', 'Rec Center Admin: Can manage facilities, leagues, scores, and users.' WHERE NOT EXISTS (SELECT * FROM roles WHERE name='SCHOOL_ADMIN');
+INSERT INTO roles (name, description) SELECT 'STUDENT', 'Student: Can join leagues, create teams, and view schedules.' WHERE NOT EXISTS (SELECT * FROM roles WHERE name='STUDENT');
+
+INSERT INTO permissions (name, description) SELECT 'MANAGE_OWN_PROFILE', 'Allows user to update their personal info and password.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='MANAGE_OWN_PROFILE');
+INSERT INTO permissions (name, description) SELECT 'USE_MESSAGING', 'Allows user to send/receive messages with other participants.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='USE_MESSAGING');
+INSERT INTO permissions (name, description) SELECT 'VIEW_LEAGUES', 'Allows user to browse and search available leagues and activities.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='VIEW_LEAGUES');
+INSERT INTO permissions (name, description) SELECT 'REGISTER_FOR_LEAGUE', 'Allows user to register as an individual for a league.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='REGISTER_FOR_LEAGUE');
+INSERT INTO permissions (name, description) SELECT 'CREATE_TEAM', 'Allows user to create a new team as a captain.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='CREATE_TEAM');
+INSERT INTO permissions (name, description) SELECT 'MANAGE_TEAM_INVITATIONS', 'Allows user to accept or decline invitations to a team.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='MANAGE_TEAM_INVITATIONS');
+INSERT INTO permissions (name, description) SELECT 'VIEW_OWN_SCHEDULE', 'Allows user to view their personal and team game schedule.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='VIEW_OWN_SCHEDULE');
+INSERT INTO permissions (name, description) SELECT 'VIEW_STANDINGS', 'Allows user to view league standings and team statistics.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='VIEW_STANDINGS');
+INSERT INTO permissions (name, description) SELECT 'MANAGE_FACILITIES', 'Allows user to C/R/U/D locations, fields, and courts.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='MANAGE_FACILITIES');
+INSERT INTO permissions (name, description) SELECT 'MANAGE_SCHEDULES', 'Allows user to C/R/U/D leagues, activities, and games.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='MANAGE_SCHEDULES');
+INSERT INTO permissions (name, description) SELECT 'MANAGE_REGISTRATIONS', 'Allows user to view and approve team registrations.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='MANAGE_REGISTRATIONS');
+INSERT INTO permissions (name, description) SELECT 'MANAGE_SCORES', 'Allows user to enter and confirm game scores.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='MANAGE_SCORES');
+INSERT INTO permissions (name, description) SELECT 'SEND_ANNOUNCEMENTS', 'Allows user to send messages to individuals, teams, and leagues.' WHERE NOT EXISTS (SELECT * FROM permissions WHERE name='SEND_ANNOUNCEMENTS');
+
+INSERT INTO permission_role (permission_id, role_id) SELECT p.id, r.id FROM permissions p, roles r
+  WHERE r.name = 'SCHOOL_ADMIN' OR (r.name = 'STUDENT' AND p.id <= 8)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO statuses (name, description) SELECT 'Veteran', 'A veteran of the uniformed services.' WHERE NOT EXISTS (SELECT * FROM statuses WHERE name='Veteran');
+INSERT INTO statuses (name, description) SELECT 'Active Duty', 'An active duty member of the uniformed services.' WHERE NOT EXISTS (SELECT * FROM statuses WHERE name='Active Duty');
+INSERT INTO statuses (name, description) SELECT 'First Responder', 'An active Fire, Police, or Emergency personnel' WHERE NOT EXISTS (SELECT * FROM statuses WHERE name='First Responder');
+INSERT INTO statuses (name, description) SELECT 'Spouse', 'A spouse of a veteran, military, or first responder.' WHERE NOT EXISTS (SELECT * FROM statuses WHERE name='Spouse');
+INSERT INTO statuses (name, description) SELECT 'Business Owner', 'A business owner' WHERE NOT EXISTS (SELECT * FROM statuses WHERE name='Business Owner');
+INSERT INTO statuses (name, description) SELECT 'Supporter', 'A person that supports veterans, military, and first responders.' WHERE NOT EXISTS (SELECT * FROM statuses WHERE name='Supporter');
+
+INSERT INTO titles (name, description, display_order) SELECT '', 'No Title Chosen', 7 WHERE NOT EXISTS (SELECT * FROM titles WHERE display_order=7);
+INSERT INTO titles (name, description, display_order) SELECT 'Mr.', 'The title of Mister for either married or unmarried men.', 2 WHERE NOT EXISTS (SELECT * FROM titles WHERE display_order=2);
+INSERT INTO titles (name, description, display_order) SELECT 'Mrs.', 'Mrs. is traditionally used for married women.', 3 WHERE NOT EXISTS (SELECT * FROM titles WHERE display_order=3);
+INSERT INTO titles (name, description, display_order) SELECT 'Ms.', 'Ms. is a title that can be used for women regardless of their marital status, or when that status is unknown.', 4 WHERE NOT EXISTS (SELECT * FROM titles WHERE display_order=4);
+INSERT INTO titles (name, description, display_order) SELECT 'Miss', 'Miss is a title traditionally used for unmarried women, particularly younger women or girls.', 5 WHERE NOT EXISTS (SELECT * FROM titles WHERE display_order=5);
+INSERT INTO titles (name, description, display_order) SELECT 'Mx.', 'Mx is a gender-neutral title that is commonly used by non-binary people.', 6 WHERE NOT EXISTS (SELECT * FROM titles WHERE display_order=6);
+INSERT INTO titles (name, description, display_order) SELECT 'Dr.', 'Dr. (Doctor) is an academic title used for individuals who have earned a doctoral degree.', 1 WHERE NOT EXISTS (SELECT * FROM titles WHERE display_order=1);
+
+INSERT INTO us_states (code, name) SELECT 'AL', 'Alabama' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='AL');
+INSERT INTO us_states (code, name) SELECT 'AK', 'Alaska' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='AK');
+INSERT INTO us_states (code, name) SELECT 'AZ', 'Arizona' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='AZ');
+INSERT INTO us_states (code, name) SELECT 'AR', 'Arkansas' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='AR');
+INSERT INTO us_states (code, name) SELECT 'CA', 'California' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='CA');
+INSERT INTO us_states (code, name) SELECT 'CO', 'Colorado' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='CO');
+INSERT INTO us_states (code, name) SELECT 'CT', 'Connecticut' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='CT');
+INSERT INTO us_states (code, name) SELECT 'DE', 'Delaware' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='DE');
+INSERT INTO us_states (code, name) SELECT 'FL', 'Florida' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='FL');
+INSERT INTO us_states (code, name) SELECT 'GA', 'Georgia' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='GA');
+INSERT INTO us_states (code, name) SELECT 'HI', 'Hawaii' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='HI');
+INSERT INTO us_states (code, name) SELECT 'ID', 'Idaho' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='ID');
+INSERT INTO us_states (code, name) SELECT 'IL', 'Illinois' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='IL');
+INSERT INTO us_states (code, name) SELECT 'IN', 'Indiana' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='IN');
+INSERT INTO us_states (code, name) SELECT 'IA', 'Iowa' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='IA');
+INSERT INTO us_states (code, name) SELECT 'KS', 'Kansas' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='KS');
+INSERT INTO us_states (code, name) SELECT 'KY', 'Kentucky' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='KY');
+INSERT INTO us_states (code, name) SELECT 'LA', 'Louisiana' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='LA');
+INSERT INTO us_states (code, name) SELECT 'ME', 'Maine' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='ME');
+INSERT INTO us_states (code, name) SELECT 'MD', 'Maryland' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='MD');
+INSERT INTO us_states (code, name) SELECT 'MA', 'Massachusetts' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='MA');
+INSERT INTO us_states (code, name) SELECT 'MI', 'Michigan' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='MI');
+INSERT INTO us_states (code, name) SELECT 'MN', 'Minnesota' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='MN');
+INSERT INTO us_states (code, name) SELECT 'MS', 'Mississippi' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='MS');
+INSERT INTO us_states (code, name) SELECT 'MO', 'Missouri' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='MO');
+INSERT INTO us_states (code, name) SELECT 'MT', 'Montana' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='MT');
+INSERT INTO us_states (code, name) SELECT 'NE', 'Nebraska' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='NE');
+INSERT INTO us_states (code, name) SELECT 'NV', 'Nevada' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='NV');
+INSERT INTO us_states (code, name) SELECT 'NH', 'New Hampshire' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='NH');
+INSERT INTO us_states (code, name) SELECT 'NJ', 'New Jersey' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='NJ');
+INSERT INTO us_states (code, name) SELECT 'NM', 'New Mexico' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='NM');
+INSERT INTO us_states (code, name) SELECT 'NY', 'New York' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='NY');
+INSERT INTO us_states (code, name) SELECT 'NC', 'North Carolina' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='NC');
+INSERT INTO us_states (code, name) SELECT 'ND', 'North Dakota' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='ND');
+INSERT INTO us_states (code, name) SELECT 'OH', 'Ohio' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='OH');
+INSERT INTO us_states (code, name) SELECT 'OK', 'Oklahoma' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='OK');
+INSERT INTO us_states (code, name) SELECT 'OR', 'Oregon' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='OR');
+INSERT INTO us_states (code, name) SELECT 'PA', 'Pennsylvania' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='PA');
+INSERT INTO us_states (code, name) SELECT 'RI', 'Rhode Island' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='RI');
+INSERT INTO us_states (code, name) SELECT 'SC', 'South Carolina' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='SC');
+INSERT INTO us_states (code, name) SELECT 'SD', 'South Dakota' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='SD');
+INSERT INTO us_states (code, name) SELECT 'TN', 'Tennessee' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='TN');
+INSERT INTO us_states (code, name) SELECT 'TX', 'Texas' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='TX');
+INSERT INTO us_states (code, name) SELECT 'UT', 'Utah' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='UT');
+INSERT INTO us_states (code, name) SELECT 'VT', 'Vermont' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='VT');
+INSERT INTO us_states (code, name) SELECT 'VA', 'Virginia' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='VA');
+INSERT INTO us_states (code, name) SELECT 'WA', 'Washington' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='WA');
+INSERT INTO us_states (code, name) SELECT 'WV', 'West Virginia' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='WV');
+INSERT INTO us_states (code, name) SELECT 'WI', 'Wisconsin' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='WI');
+INSERT INTO us_states (code, name) SELECT 'WY', 'Wyoming' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='WY');
+INSERT INTO us_states (code, name) SELECT 'DC', 'District of Columbia' WHERE NOT EXISTS (SELECT * FROM us_states WHERE code='DC');
+
+INSERT INTO business_types (name, description, display_order) SELECT 'Automotive', 'Vehicles, parts, repairs, and transportation services.', 1 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Automotive');
+INSERT INTO business_types (name, description, display_order) SELECT 'Beauty', 'Cosmetics, skincare, salon services, and personal care products.', 2 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Beauty');
+INSERT INTO business_types (name, description, display_order) SELECT 'Bookstore', 'Books, magazines, educational materials, and reading accessories.', 3 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Bookstore');
+INSERT INTO business_types (name, description, display_order) SELECT 'Clothing', 'Apparel, footwear, accessories, and fashion items.', 4 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Clothing');
+INSERT INTO business_types (name, description, display_order) SELECT 'Convenience Store', 'Quick-access groceries, snacks, beverages, and everyday essentials.', 5 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Convenience Store');
+INSERT INTO business_types (name, description, display_order) SELECT 'Department Store', 'Multi-category retail offering clothing, home goods, and general merchandise.', 6 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Department Store');
+INSERT INTO business_types (name, description, display_order) SELECT 'Electronics', 'Consumer electronics, appliances, and electronic accessories.', 7 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Electronics');
+INSERT INTO business_types (name, description, display_order) SELECT 'Entertainment', 'Media, events, performances, and recreational activities.', 8 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Entertainment');
+INSERT INTO business_types (name, description, display_order) SELECT 'Furniture', 'Home and office furniture, fixtures, and decor items.', 9 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Furniture');
+INSERT INTO business_types (name, description, display_order) SELECT 'Fuel Station', 'Gasoline, diesel, vehicle fluids, and convenience items.', 10 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Fuel Station');
+INSERT INTO business_types (name, description, display_order) SELECT 'Gift Shop', 'Gifts, cards, novelties, and specialty presentation items.', 11 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Gift Shop');
+INSERT INTO business_types (name, description, display_order) SELECT 'Grocery', 'Food, beverages, household supplies, and perishable goods.', 12 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Grocery');
+INSERT INTO business_types (name, description, display_order) SELECT 'Hardware', 'Tools, building materials, and home improvement supplies.', 13 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Hardware');
+INSERT INTO business_types (name, description, display_order) SELECT 'Health', 'Health services, medical supplies, and wellness products.', 14 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Health');
+INSERT INTO business_types (name, description, display_order) SELECT 'Hotel/Motel', 'Lodging, accommodations, and hospitality services.', 15 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Hotel/Motel');
+INSERT INTO business_types (name, description, display_order) SELECT 'Jewelry', 'Fine jewelry, watches, precious metals, and gemstones.', 16 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Jewelry');
+INSERT INTO business_types (name, description, display_order) SELECT 'Other', 'Miscellaneous businesses not fitting standard categories.', 17 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Other');
+INSERT INTO business_types (name, description, display_order) SELECT 'Pharmacy', 'Prescription medications, over-the-counter drugs, and health consultations.', 18 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Pharmacy');
+INSERT INTO business_types (name, description, display_order) SELECT 'Restaurant', 'Food preparation, dining services, and culinary experiences.', 19 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Restaurant');
+INSERT INTO business_types (name, description, display_order) SELECT 'Retail', 'General consumer goods sold directly to customers.', 20 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Retail');
+INSERT INTO business_types (name, description, display_order) SELECT 'Service', 'Professional services, repairs, and skilled labor.', 21 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Service');
+INSERT INTO business_types (name, description, display_order) SELECT 'Specialty', 'Niche products and specialized goods for specific markets.', 22 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Specialty');
+INSERT INTO business_types (name, description, display_order) SELECT 'Sporting Goods', 'Athletic equipment, sportswear, and recreational gear.', 23 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Sporting Goods');
+INSERT INTO business_types (name, description, display_order) SELECT 'Technology', 'Computer hardware, software, IT services, and digital solutions.', 24 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Technology');
+INSERT INTO business_types (name, description, display_order) SELECT 'Toys', 'Children''s toys, games, educational play items, and hobbies.', 25 WHERE NOT EXISTS (SELECT * FROM business_types WHERE name='Toys');
+
+INSERT INTO incentive_types (name, description, display_order) SELECT 'Veteran', 'Veterans special pricing and benefits.', 1 WHERE NOT EXISTS (SELECT * FROM incentive_types WHERE name='Veteran');
+INSERT INTO incentive_types (name, description, display_order) SELECT 'Active Duty', 'Active duty military personnel discount.', 2 WHERE NOT EXISTS (SELECT * FROM incentive_types WHERE name='Active Duty');
+INSERT INTO incentive_types (name, description, display_order) SELECT 'First Responder', 'Discounts for emergency services professionals.', 3 WHERE NOT EXISTS (SELECT * FROM incentive_types WHERE name='First Responder');
+INSERT INTO incentive_types (name, description, display_order) SELECT 'Spouse', 'Benefits extended to military/responder spouses.', 4 WHERE NOT EXISTS (SELECT * FROM incentive_types WHERE name='Spouse');
+INSERT INTO incentive_types (name, description, display_order) SELECT 'Other', 'Alternative special discounts or promotional offers.', 5 WHERE NOT EXISTS (SELECT * FROM incentive_types WHERE name='Other');
+
+INSERT INTO patriot_roles (name, description) SELECT 'VETERAN', 'Veteran of the uniformed services' WHERE NOT EXISTS (SELECT * FROM patriot_roles WHERE name='VETERAN');
+INSERT INTO patriot_roles (name, description) SELECT 'ACTIVE_DUTY', 'Active duty service member' WHERE NOT EXISTS (SELECT * FROM patriot_roles WHERE name='ACTIVE_DUTY');
+INSERT INTO patriot_roles (name, description) SELECT 'FIRST_RESPONDER', 'Fire, police, or EMS personnel' WHERE NOT EXISTS (SELECT * FROM patriot_roles WHERE name='FIRST_RESPONDER');
+INSERT INTO patriot_roles (name, description) SELECT 'MILITARY_SPOUSE', 'Spouse of a veteran or service member' WHERE NOT EXISTS (SELECT * FROM patriot_roles WHERE name='MILITARY_SPOUSE');
+INSERT INTO patriot_roles (name, description) SELECT 'BUSINESS_OWNER', 'Business owner offering incentives' WHERE NOT EXISTS (SELECT * FROM patriot_roles WHERE name='BUSINESS_OWNER');
+INSERT INTO patriot_roles (name, description) SELECT 'SUPPORTER', 'Supporter of veterans and service members' WHERE NOT EXISTS (SELECT * FROM patriot_roles WHERE name='SUPPORTER');
+INSERT INTO patriot_roles (name, description) SELECT 'PLATFORM_ADMIN', 'Patriot Thanks platform administrator' WHERE NOT EXISTS (SELECT * FROM patriot_roles WHERE name='PLATFORM_ADMIN');
+
+INSERT INTO subscriptions (name, description, monthly_price, annual_price) SELECT 'Free', 'Get started with 10 free leagues for your college or university.', 0, 0 WHERE NOT EXISTS (SELECT * FROM subscriptions WHERE name='Free');
+INSERT INTO subscriptions (name, description, monthly_price, annual_price) SELECT 'Pro', 'Create up to 25 leagues for your college or university.', 25, 250 WHERE NOT EXISTS (SELECT * FROM subscriptions WHERE name='Pro');
+
+INSERT INTO cache_versions (name) VALUES ('schools') ON CONFLICT (name) DO NOTHING;
+INSERT INTO cache_versions (name) VALUES ('page:/pricing') ON CONFLICT (name) DO NOTHING;
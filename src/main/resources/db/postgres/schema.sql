@@ -29,16 +29,21 @@ CREATE TABLE IF NOT EXISTS owners (
   last_name  TEXT,
   address    TEXT,
   city       TEXT,
-  telephone  TEXT
+  telephone  TEXT,
+  last_name_lower TEXT GENERATED ALWAYS AS (lower(last_name)) STORED
 );
 CREATE INDEX ON owners (last_name);
+-- text_pattern_ops lets LIKE 'prefix%' use the index whatever the database collation
+CREATE INDEX ON owners (last_name_lower text_pattern_ops);
 
 CREATE TABLE IF NOT EXISTS pets (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name       TEXT,
   birth_date DATE,
   type_id    INT NOT NULL REFERENCES types (id),
-  owner_id   INT REFERENCES owners (id)
+  owner_id   INT REFERENCES owners (id),
+  visit_count     INT NOT NULL DEFAULT 0,
+  last_visit_date DATE
 );
 CREATE INDEX ON pets (name);
 CREATE INDEX ON pets (owner_id);
@@ -49,4 +54,265 @@ CREATE TABLE IF NOT EXISTS visits (
   visit_date  DATE,
   description TEXT
 );
-CREATE INDEX ON visits (pet_id);
+CREATE INDEX ON visits (pet_id, visit_date);
+
+-- AthLeagues
+
+CREATE TABLE IF NOT EXISTS users (
+  id                  INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  first_name          TEXT,
+  last_name           TEXT,
+  nickname            TEXT,
+  nickname_is_flagged BOOLEAN DEFAULT FALSE,
+  email               TEXT NOT NULL,
+  email_normalized    TEXT NOT NULL,
+  public_email        BOOLEAN DEFAULT FALSE,
+  phone               TEXT,
+  public_phone        BOOLEAN DEFAULT FALSE,
+  preferred_language  TEXT,
+  password_hash       TEXT,
+  created_at          TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at          TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  deleted_at          TIMESTAMP
+);
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_normalized ON users (email_normalized);
+CREATE INDEX IF NOT EXISTS users_name ON users (last_name, first_name);
+
+CREATE TABLE IF NOT EXISTS roles (
+  id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name        TEXT NOT NULL UNIQUE,
+  description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS permissions (
+  id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name        TEXT NOT NULL UNIQUE,
+  description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+  user_id INT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+  role_id INT NOT NULL REFERENCES roles (id) ON DELETE CASCADE,
+  PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE IF NOT EXISTS permission_role (
+  permission_id INT NOT NULL REFERENCES permissions (id) ON DELETE CASCADE,
+  role_id       INT NOT NULL REFERENCES roles (id) ON DELETE CASCADE,
+  PRIMARY KEY (permission_id, role_id)
+);
+
+CREATE TABLE IF NOT EXISTS schools (
+  id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name       TEXT NOT NULL,
+  domain     TEXT NOT NULL,
+  status_id  TEXT DEFAULT 'ACTIVE',
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  deleted_at TIMESTAMP
+);
+CREATE UNIQUE INDEX IF NOT EXISTS schools_domain ON schools (domain);
+
+CREATE TABLE IF NOT EXISTS locations (
+  id                 INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  school_id          INT NOT NULL REFERENCES schools (id) ON DELETE CASCADE,
+  parent_location_id INT REFERENCES locations (id) ON DELETE SET NULL,
+  path               TEXT NOT NULL DEFAULT '/',
+  depth              INT NOT NULL DEFAULT 0,
+  name               TEXT NOT NULL,
+  description        TEXT,
+  address            TEXT,
+  latitude           NUMERIC(8,4),
+  longitude          NUMERIC(8,4),
+  status_id          TEXT DEFAULT 'ACTIVE',
+  created_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  deleted_at         TIMESTAMP,
+  UNIQUE (school_id, name)
+);
+-- text_pattern_ops lets the subtree queries' LIKE 'path%' use the index
+CREATE INDEX IF NOT EXISTS locations_path ON locations (school_id, path text_pattern_ops);
+CREATE INDEX IF NOT EXISTS locations_parent ON locations (parent_location_id);
+
+-- Patriot Thanks
+
+CREATE TABLE IF NOT EXISTS statuses (
+  id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name        TEXT NOT NULL,
+  description TEXT,
+  created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS titles (
+  id            INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name          TEXT NOT NULL,
+  description   TEXT,
+  display_order INT NOT NULL,
+  created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS us_states (
+  id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  code       CHAR(2) NOT NULL UNIQUE,
+  name       TEXT NOT NULL,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS business_types (
+  id            INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name          TEXT NOT NULL,
+  description   TEXT,
+  display_order INT DEFAULT 0,
+  is_active     BOOLEAN DEFAULT TRUE,
+  created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS businesses (
+  id                   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name                 TEXT NOT NULL,
+  slug                 TEXT,
+  description          TEXT,
+  website              TEXT,
+  business_type_id     INT NOT NULL REFERENCES business_types (id),
+  submitted_by_user_id INT REFERENCES users (id),
+  is_verified          BOOLEAN DEFAULT FALSE,
+  is_active            BOOLEAN DEFAULT TRUE,
+  created_at           TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at           TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  deleted_at           TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS businesses_slug ON businesses (slug);
+CREATE INDEX IF NOT EXISTS businesses_type ON businesses (business_type_id);
+
+CREATE TABLE IF NOT EXISTS addresses (
+  id             INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  street_address TEXT NOT NULL,
+  address_line_2 TEXT,
+  city           TEXT NOT NULL,
+  state_id       INT NOT NULL REFERENCES us_states (id),
+  zip_code       VARCHAR(10) NOT NULL,
+  latitude       NUMERIC(10,7),
+  longitude      NUMERIC(10,7),
+  created_at     TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at     TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS business_locations (
+  id                 INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  business_id        INT NOT NULL REFERENCES businesses (id) ON DELETE CASCADE,
+  address_id         INT REFERENCES addresses (id),
+  location_name      TEXT,
+  phone              VARCHAR(20),
+  email              TEXT,
+  hours_of_operation TEXT,
+  is_primary         BOOLEAN DEFAULT FALSE,
+  is_active          BOOLEAN DEFAULT TRUE,
+  created_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  deleted_at         TIMESTAMP
+);
+-- PostgreSQL does not index foreign keys by itself
+CREATE INDEX IF NOT EXISTS business_locations_business ON business_locations (business_id);
+CREATE INDEX IF NOT EXISTS business_locations_address ON business_locations (address_id);
+
+CREATE TABLE IF NOT EXISTS incentive_types (
+  id            INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name          TEXT NOT NULL,
+  description   TEXT,
+  display_order INT DEFAULT 0,
+  is_active     BOOLEAN DEFAULT TRUE,
+  created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS incentives (
+  id                    INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  title                 TEXT NOT NULL,
+  description           TEXT NOT NULL,
+  discount_amount       NUMERIC(10,2),
+  discount_percentage   NUMERIC(5,2),
+  terms_and_conditions  TEXT,
+  verification_required TEXT,
+  start_date            DATE,
+  end_date              DATE,
+  is_active             BOOLEAN DEFAULT TRUE,
+  business_id           INT NOT NULL REFERENCES businesses (id) ON DELETE CASCADE,
+  submitted_by_user_id  INT REFERENCES users (id),
+  created_at            TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at            TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  deleted_at            TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS incentives_business ON incentives (business_id);
+
+CREATE TABLE IF NOT EXISTS business_incentive_types (
+  incentive_id      INT NOT NULL REFERENCES incentives (id) ON DELETE CASCADE,
+  incentive_type_id INT NOT NULL REFERENCES incentive_types (id) ON DELETE CASCADE,
+  PRIMARY KEY (incentive_id, incentive_type_id)
+);
+
+CREATE TABLE IF NOT EXISTS patriot_roles (
+  id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name        TEXT NOT NULL UNIQUE,
+  description TEXT,
+  created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS patriot_users (
+  id               INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  first_name       TEXT NOT NULL,
+  last_name        TEXT NOT NULL,
+  email            TEXT NOT NULL,
+  email_normalized TEXT NOT NULL,
+  password_hash    TEXT NOT NULL,
+  phone            VARCHAR(20),
+  status_id        INT NOT NULL,
+  avatar_url       TEXT,
+  zip_code         VARCHAR(10),
+  email_verified   BOOLEAN DEFAULT FALSE,
+  created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  deleted_at       TIMESTAMP
+);
+CREATE UNIQUE INDEX IF NOT EXISTS patriot_users_email_normalized ON patriot_users (email_normalized);
+
+CREATE TABLE IF NOT EXISTS patriot_user_roles (
+  patriot_user_id INT NOT NULL REFERENCES patriot_users (id) ON DELETE CASCADE,
+  patriot_role_id INT NOT NULL REFERENCES patriot_roles (id) ON DELETE CASCADE,
+  PRIMARY KEY (patriot_user_id, patriot_role_id)
+);
+
+CREATE TABLE IF NOT EXISTS subscriptions (
+  id            INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name          TEXT NOT NULL UNIQUE,
+  description   TEXT NOT NULL,
+  monthly_price INT NOT NULL,
+  annual_price  INT NOT NULL,
+  featured      BOOLEAN NOT NULL DEFAULT FALSE,
+  created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  deleted_at    TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS cache_versions (
+  name    TEXT PRIMARY KEY,
+  version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS roster_imports (
+  id             INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  school_id      INT NOT NULL REFERENCES schools (id),
+  status         TEXT NOT NULL,
+  total_rows     INT NOT NULL,
+  processed_rows INT NOT NULL DEFAULT 0,
+  imported       INT NOT NULL DEFAULT 0,
+  started_at     TIMESTAMP NOT NULL,
+  finished_at    TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS roster_import_failures (
+  roster_import_id INT NOT NULL REFERENCES roster_imports (id) ON DELETE CASCADE,
+  line_number      INT NOT NULL,
+  email            TEXT,
+  reason           TEXT NOT NULL
+);
+CREATE INDEX IF NOT EXISTS roster_import_failures_import ON roster_import_failures (roster_import_id);
@@ -0,0 +1,141 @@
+package org.springframework.samples.petclinic;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.restclient.RestTemplateBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application on H2 with a small synthetic dataset and requests a page of every
+ * route, then logs how long startup took and the process's resident memory.
+ *
+ * <p>
+ * It runs with the other tests on the JVM, and as a native image with
+ * {@code ./mvnw -PnativeTest -Dtest=NativeSmokeTests test} or
+ * {@code ./gradlew nativeTest --tests '*NativeSmokeTests'}, where a missing runtime hint
+ * shows up as a failing route. Compare the two log lines to see what the native build
+ * saves.
+ * </p>
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+		properties = { "petclinic.dataset.businesses=20", "petclinic.dataset.schools=2", "petclinic.dataset.users=5" })
+class NativeSmokeTests {
+
+	private static final Log logger = LogFactory.getLog(NativeSmokeTests.class);
+
+	private static volatile Duration readyAfter;
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	private RestTemplateBuilder builder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@TestFactory
+	Stream<DynamicTest> everyRouteAnswers() {
+		RestTemplate template = builder.rootUri("http://localhost:" + port).build();
+		return routes().entrySet().stream().map(route -> DynamicTest.dynamicTest(route.getKey(), () -> {
+			ResponseEntity<String> response = template.exchange(RequestEntity.get(route.getValue()).build(),
+					String.class);
+			assertThat(response.getStatusCode().is2xxSuccessful()).as(route.getValue()).isTrue();
+			assertThat(response.getBody()).as(route.getValue()).isNotBlank();
+		}));
+	}
+
+	@Test
+	void reportStartupTimeAndMemory() throws Exception {
+		assertThat(readyAfter).isNotNull();
+		String image = (System.getProperty("org.graalvm.nativeimage.imagecode") != null) ? "native image" : "JVM";
+		logger.info(String.format("%s: ready in %d ms, resident set size %s", image, readyAfter.toMillis(),
+				residentSetSize()));
+	}
+
+	private Map<String, String> routes() {
+		Integer businessId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM businesses WHERE deleted_at IS NULL",
+				Integer.class);
+		String businessSlug = jdbcTemplate.queryForObject("SELECT slug FROM businesses WHERE id = ?", String.class,
+				businessId);
+		Integer schoolId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM schools", Integer.class);
+		String schoolDomain = jdbcTemplate.queryForObject("SELECT domain FROM schools WHERE id = ?", String.class,
+				schoolId);
+
+		Map<String, String> routes = new LinkedHashMap<>();
+		routes.put("welcome", "/");
+		routes.put("pricing", "/pricing");
+		routes.put("new subscription", "/subscription/new");
+		routes.put("vets page", "/vets.html");
+		routes.put("vets resource", "/vets");
+		routes.put("find owners", "/owners/find");
+		routes.put("owner list", "/owners?lastName=");
+		routes.put("owner details", "/owners/1");
+		routes.put("new owner", "/owners/new");
+		routes.put("new pet", "/owners/1/pets/new");
+		routes.put("new visit", "/owners/1/pets/1/visits/new");
+		routes.put("business list", "/businesses");
+		routes.put("new business", "/businesses/new");
+		routes.put("business by id", "/businesses/" + businessId);
+		routes.put("business by slug", "/businesses/" + businessSlug);
+		routes.put("business incentives", "/businesses/" + businessId + "/incentives");
+		routes.put("patriot home", "/patriot");
+		routes.put("patriot register", "/patriot/register");
+		routes.put("patriot login", "/patriot/login");
+		routes.put("school list", "/schools");
+		routes.put("new school", "/schools/new");
+		routes.put("school by id", "/schools/" + schoolId);
+		routes.put("school locations", "/schools/" + schoolId + "/locations");
+		routes.put("school by slug", "/schools/" + schoolDomain.substring(0, schoolDomain.indexOf('.')));
+		routes.put("student registration", "/register-student");
+		routes.put("login", "/login");
+		return routes;
+	}
+
+	private static String residentSetSize() throws Exception {
+		Path status = Path.of("/proc/self/status");
+		if (!Files.isReadable(status)) {
+			return "unknown";
+		}
+		return Files.readAllLines(status)
+			.stream()
+			.filter(line -> line.startsWith("VmRSS:"))
+			.map(line -> line.substring("VmRSS:".length()).trim())
+			.findFirst()
+			.orElse("unknown");
+	}
+
+	@TestConfiguration(proxyBeanMethods = false)
+	static class StartupListener {
+
+		@Bean
+		ApplicationListener<ApplicationReadyEvent> recordReadyTime() {
+			return event -> readyAfter = event.getTimeTaken();
+		}
+
+	}
+
+}
@@ -17,6 +17,9 @@
 package org.springframework.samples.petclinic;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,7 +31,9 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.system.WarmUpCoordinator;
 import org.springframework.samples.petclinic.vet.VetRepository;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -43,6 +48,9 @@ public class PetClinicIntegrationTests {
 	@Autowired
 	private RestTemplateBuilder builder;
 
+	@Autowired
+	private WarmUpCoordinator warmUp;
+
 	@Test
 	void testFindAll() {
 		vets.findAll();
@@ -56,6 +64,22 @@ public class PetClinicIntegrationTests {
 		assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
 	}
 
+	@Test
+	void testReadinessWaitsForWarmUp() {
+		RestTemplate template = builder.rootUri("http://localhost:" + port).build();
+		await().atMost(Duration.ofSeconds(90)).until(() -> readinessStatus(template) == HttpStatus.OK.value());
+		assertThat(warmUp.health().getDetails()).containsEntry("state", "finished").containsEntry("failures", 0);
+	}
+
+	private int readinessStatus(RestTemplate template) {
+		try {
+			return template.getForEntity("/readyz", String.class).getStatusCode().value();
+		}
+		catch (RestClientResponseException ex) {
+			return ex.getStatusCode().value();
+		}
+	}
+
 	public static void main(String[] args) {
 		SpringApplication.run(PetClinicApplication.class, args);
 	}
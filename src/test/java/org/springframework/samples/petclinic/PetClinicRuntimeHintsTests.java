@@ -0,0 +1,65 @@
+package org.springframework.samples.petclinic;
+
+import org.hibernate.annotations.SQLRestriction;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.samples.petclinic.patriot.Business;
+import org.springframework.samples.petclinic.patriot.IncentiveDTO;
+import org.springframework.samples.petclinic.school.School;
+import org.springframework.samples.petclinic.school.SchoolSummary;
+import org.springframework.samples.petclinic.system.CompactPrincipal;
+import org.springframework.samples.petclinic.user.PlayerCard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PetClinicRuntimeHints}.
+ */
+class PetClinicRuntimeHintsTests {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	PetClinicRuntimeHintsTests() {
+		new PetClinicRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void shouldRegisterSchemasAndTemplates() {
+		assertThat(RuntimeHintsPredicates.resource().forResource("db/h2/schema.sql")).accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("db/postgres/data.sql")).accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("templates/businesses/businessDetails.html"))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/asset-manifest.properties")).accepts(hints);
+	}
+
+	@Test
+	void shouldRegisterEntitiesForHibernateAndTemplates() throws NoSuchMethodException {
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onType(Business.class)
+			.withMemberCategories(MemberCategory.ACCESS_DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(School.class.getMethod("getDomain")))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(SQLRestriction.class)).accepts(hints);
+	}
+
+	@Test
+	void shouldRegisterJsonAndProjectionTypes() throws NoSuchMethodException {
+		assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(IncentiveDTO.class.getMethod("getTitle")))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(IncentiveDTO.IncentiveTypeDTO.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onType(SchoolSummary.class)
+			.withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(PlayerCard.class.getMethod("firstName")))
+			.accepts(hints);
+	}
+
+	@Test
+	void shouldRegisterTheSessionPrincipalForSerialization() {
+		assertThat(RuntimeHintsPredicates.serialization().onType(CompactPrincipal.class)).accepts(hints);
+	}
+
+}
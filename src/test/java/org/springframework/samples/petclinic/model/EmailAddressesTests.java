@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Tests for {@link EmailAddresses}.
+ */
+class EmailAddressesTests {
+
+	@Test
+	void shouldTrimAndLowerCase() {
+		assertThat(EmailAddresses.normalize("  John.Doe@Example.COM ")).isEqualTo("john.doe@example.com");
+		assertThat(EmailAddresses.normalize(null)).isNull();
+	}
+
+	@Test
+	void shouldRecognizeNormalizedEmailIndexViolation() {
+		assertThat(EmailAddresses.isDuplicate(violation("users.idx_users_email_normalized", ConstraintKind.UNIQUE)))
+			.isTrue();
+		assertThat(EmailAddresses
+			.isDuplicate(violation("PUBLIC.IDX_PATRIOT_USERS_EMAIL_NORMALIZED_INDEX_B", ConstraintKind.UNIQUE)))
+			.isTrue();
+		assertThat(EmailAddresses.isDuplicate(violation(null, ConstraintKind.UNIQUE))).isTrue();
+	}
+
+	@Test
+	void shouldIgnoreOtherViolations() {
+		assertThat(EmailAddresses.isDuplicate(violation("fk_pur_role", ConstraintKind.FOREIGN_KEY))).isFalse();
+		assertThat(EmailAddresses.isDuplicate(violation(null, ConstraintKind.NOT_NULL))).isFalse();
+		assertThat(EmailAddresses.isDuplicate(new DataIntegrityViolationException("Data too long"))).isFalse();
+	}
+
+	private DataIntegrityViolationException violation(String constraintName, ConstraintKind kind) {
+		return new DataIntegrityViolationException("constraint violated",
+				new ConstraintViolationException("constraint violated", new SQLException(), kind, constraintName));
+	}
+
+}
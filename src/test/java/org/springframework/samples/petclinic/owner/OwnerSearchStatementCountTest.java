@@ -0,0 +1,120 @@
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a page of owner search results costs a fixed number of statements, however
+ * many pets and visits the matching owners have.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OwnerSearchStatementCountTest {
+
+	private static final int OWNERS = 12;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void shouldSearchInTwoStatementsRegardlessOfHistory() {
+		createOwners(2, 1);
+		Statistics statistics = statistics();
+		Page<OwnerSummary> small = owners.findSummariesByLastNameStartingWith("qUIN", PageRequest.of(1, 5));
+		long smallStatements = statistics.getPrepareStatementCount();
+
+		assertThat(small.getTotalElements()).isEqualTo(OWNERS);
+		assertThat(small.getContent()).hasSize(5).allSatisfy(owner -> {
+			assertThat(owner.lastName()).isEqualToIgnoringCase("Quinn");
+			assertThat(owner.petNames()).isEqualTo("Pet 0, Pet 1");
+		});
+		assertThat(smallStatements).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		createOwners(4, 25);
+		statistics = statistics();
+		Page<OwnerSummary> large = owners.findSummariesByLastNameStartingWith("quin", PageRequest.of(1, 5));
+
+		assertThat(large.getTotalElements()).isEqualTo(2 * OWNERS);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(smallStatements);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void shouldTreatWildcardsLiterally() {
+		createOwners(1, 0);
+
+		assertThat(owners.findSummariesByLastNameStartingWith("%", PageRequest.of(0, 5))).isEmpty();
+		assertThat(owners.findSummariesByLastNameStartingWith("Qu_nn", PageRequest.of(0, 5))).isEmpty();
+		assertThat(owners.findSummariesByLastNameStartingWith("", PageRequest.of(0, 5)).getTotalElements())
+			.isGreaterThan(OWNERS);
+	}
+
+	@Test
+	void shouldListOwnersWithoutPets() {
+		Owner owner = owner("Zed", "Quarry");
+		entityManager.persist(owner);
+		entityManager.flush();
+		entityManager.clear();
+
+		assertThat(owners.findSummariesByLastNameStartingWith("quarry", PageRequest.of(0, 5)).getContent())
+			.singleElement()
+			.satisfies(summary -> assertThat(summary.petNames()).isNull());
+	}
+
+	private void createOwners(int petsEach, int visitsEach) {
+		PetType type = entityManager.find(PetType.class, 1);
+		for (int i = 0; i < OWNERS; i++) {
+			Owner owner = owner("Owner " + i, (i % 2 == 0) ? "Quinn" : "QUINN");
+			for (int p = 0; p < petsEach; p++) {
+				Pet pet = new Pet();
+				pet.setName("Pet " + p);
+				pet.setType(type);
+				pet.setBirthDate(LocalDate.of(2020, 1, 1));
+				for (int v = 0; v < visitsEach; v++) {
+					Visit visit = new Visit();
+					visit.setDescription("Checkup " + v);
+					pet.addVisit(visit);
+				}
+				owner.addPet(pet);
+			}
+			entityManager.persist(owner);
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private static Owner owner(String firstName, String lastName) {
+		Owner owner = new Owner();
+		owner.setFirstName(firstName);
+		owner.setLastName(lastName);
+		owner.setAddress("1 Main St.");
+		owner.setCity("Cedar Rapids");
+		owner.setTelephone("3195550100");
+		return owner;
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+}
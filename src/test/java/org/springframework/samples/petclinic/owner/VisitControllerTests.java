@@ -16,7 +16,11 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
@@ -28,10 +32,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -55,10 +63,16 @@ class VisitControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@MockitoBean
+	private VisitRepository visits;
+
+	private Pet pet;
+
 	@BeforeEach
 	void init() {
 		Owner owner = new Owner();
-		Pet pet = new Pet();
+		owner.setId(TEST_OWNER_ID);
+		pet = new Pet();
 		owner.addPet(pet);
 		pet.setId(TEST_PET_ID);
 		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
@@ -79,6 +93,28 @@ class VisitControllerTests {
 				.param("description", "Visit Description"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
+		then(this.visits).should().book(eq(pet), any(Visit.class));
+	}
+
+	@Test
+	void testShowVisitTimeline() throws Exception {
+		List<Visit> page = List.of(visit(LocalDate.of(2024, 5, 1)), visit(LocalDate.of(2024, 4, 1)));
+		given(this.visits.findTimeline(eq(pet), eq(PageRequest.of(1, VisitController.VISITS_PER_PAGE))))
+			.willReturn(new PageImpl<>(page, PageRequest.of(1, VisitController.VISITS_PER_PAGE), 22));
+
+		mockMvc.perform(get("/owners/{ownerId}/pets/{petId}/visits", TEST_OWNER_ID, TEST_PET_ID).param("page", "2"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("timeline", hasSize(2)))
+			.andExpect(model().attribute("currentPage", 2))
+			.andExpect(model().attribute("totalPages", 2))
+			.andExpect(view().name("pets/visitTimeline"));
+	}
+
+	private static Visit visit(LocalDate date) {
+		Visit visit = new Visit();
+		visit.setDate(date);
+		visit.setDescription("checkup");
+		return visit;
 	}
 
 	@Test
@@ -0,0 +1,129 @@
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the visit timeline and the per-pet visit totals of {@link VisitRepository}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class VisitRepositoryTest {
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void shouldDeriveTotalsForSeededVisits() {
+		Pet samantha = entityManager.find(Pet.class, 7);
+
+		assertThat(samantha.getVisitCount()).isEqualTo(2);
+		assertThat(samantha.getLastVisitDate()).isEqualTo(LocalDate.of(2013, 1, 4));
+		assertThat(entityManager.find(Pet.class, 1).getVisitCount()).isZero();
+	}
+
+	@Test
+	void shouldUpdateTotalsWhenBookingAVisit() {
+		visits.book(entityManager.find(Pet.class, 7), visit(LocalDate.of(2024, 6, 1)));
+		visits.book(entityManager.find(Pet.class, 7), visit(LocalDate.of(2020, 1, 1)));
+		entityManager.clear();
+
+		Pet samantha = entityManager.find(Pet.class, 7);
+		assertThat(samantha.getVisitCount()).isEqualTo(4);
+		assertThat(samantha.getLastVisitDate()).isEqualTo(LocalDate.of(2024, 6, 1));
+		assertThat(samantha.getVisits()).hasSize(4);
+	}
+
+	@Test
+	void shouldNotOverwriteTotalsWhenSavingAnEditedPet() {
+		Pet samantha = entityManager.find(Pet.class, 7);
+		visits.countVisit(7, LocalDate.of(2024, 6, 1));
+
+		samantha.setName("Sam");
+		entityManager.flush();
+		entityManager.clear();
+
+		samantha = entityManager.find(Pet.class, 7);
+		assertThat(samantha.getName()).isEqualTo("Sam");
+		assertThat(samantha.getVisitCount()).isEqualTo(3);
+		assertThat(samantha.getLastVisitDate()).isEqualTo(LocalDate.of(2024, 6, 1));
+	}
+
+	@Test
+	void shouldPageTimelineWithoutLoadingHistory() {
+		Pet leo = entityManager.find(Pet.class, 1);
+		for (int day = 1; day <= 45; day++) {
+			visits.book(leo, visit(LocalDate.of(2024, 1, 1).plusDays(day)));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		leo = entityManager.find(Pet.class, 1);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		Page<Visit> first = visits.findTimeline(leo, PageRequest.of(0, 20));
+		Page<Visit> last = visits.findTimeline(leo, PageRequest.of(2, 20));
+
+		assertThat(first.getTotalElements()).isEqualTo(45);
+		assertThat(first.getTotalPages()).isEqualTo(3);
+		assertThat(first.getContent()).hasSize(20)
+			.first()
+			.extracting(Visit::getDate)
+			.isEqualTo(LocalDate.of(2024, 2, 15));
+		assertThat(last.getContent()).hasSize(5).last().extracting(Visit::getDate).isEqualTo(LocalDate.of(2024, 1, 2));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getCollectionLoadCount()).isZero();
+		assertThat(visits.findTop3ByPetIdOrderByDateDescIdDesc(1)).extracting(Visit::getDate)
+			.containsExactly(LocalDate.of(2024, 2, 15), LocalDate.of(2024, 2, 14), LocalDate.of(2024, 2, 13));
+	}
+
+	@Test
+	void shouldLoadRecentVisitsOfSeveralPetsInOneQuery() {
+		Pet samantha = entityManager.find(Pet.class, 7);
+		for (int day = 1; day <= 5; day++) {
+			visits.book(samantha, visit(LocalDate.of(2024, 1, 1).plusDays(day)));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		List<Pet> pets = List.of(entityManager.find(Pet.class, 7), entityManager.find(Pet.class, 8),
+				entityManager.find(Pet.class, 1));
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		Map<Integer, List<Visit>> recent = visits.findRecentByPet(pets);
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(recent.get(7)).extracting(Visit::getDate)
+			.containsExactly(LocalDate.of(2024, 1, 6), LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 4));
+		assertThat(recent.get(8)).extracting(Visit::getDate)
+			.containsExactly(LocalDate.of(2013, 1, 3), LocalDate.of(2013, 1, 2));
+		assertThat(recent.get(1)).isEmpty();
+	}
+
+	private static Visit visit(LocalDate date) {
+		Visit visit = new Visit();
+		visit.setDate(date);
+		visit.setDescription("checkup");
+		return visit;
+	}
+
+}
@@ -5,14 +5,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.samples.petclinic.system.SignedCookieCodec;
+import org.springframework.samples.petclinic.system.SignedFlashCookies;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.SQLException;
 import java.util.LinkedHashSet;
 import java.util.Optional;
 
@@ -38,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * @see PatriotAuthController
  */
 @WebMvcTest(PatriotAuthController.class)
+@Import({ SignedCookieCodec.class, SignedFlashCookies.class, EmailVerificationTokens.class })
 @DisabledInNativeImage
 @DisabledInAotMode
 class PatriotAuthControllerTest {
@@ -51,8 +56,11 @@ class PatriotAuthControllerTest {
 	@MockitoBean
 	private PatriotUserRepository patriotUserRepository;
 
-	@MockitoBean(name = "patriotAuthenticationManager")
-	private AuthenticationManager patriotAuthenticationManager;
+	@MockitoBean
+	private SecurityContextRepository securityContextRepository;
+
+	@Autowired
+	private EmailVerificationTokens verificationTokens;
 
 	private PatriotUser testUser;
 
@@ -105,8 +113,8 @@ class PatriotAuthControllerTest {
 
 	/**
 	 * Verifies that submitting a valid registration form with all required fields saves
-	 * the user, auto-logs them in, and redirects to the business listings with a welcome
-	 * flash message.
+	 * the user, auto-logs them in from the saved user (without a second password check),
+	 * and redirects to the business listings with a welcome flash message.
 	 */
 	@Test
 	@DisplayName("POST /patriot/register -> valid data redirects to /businesses")
@@ -114,10 +122,6 @@ class PatriotAuthControllerTest {
 		// Mock the service to return the saved user
 		given(patriotUserService.registerNewUser(any(PatriotUser.class))).willReturn(testUser);
 
-		// Mock the authentication manager to return a valid token
-		Authentication mockAuth = new UsernamePasswordAuthenticationToken("john.doe@example.com", "Password1");
-		given(patriotAuthenticationManager.authenticate(any())).willReturn(mockAuth);
-
 		mockMvc
 			.perform(post("/patriot/register").param("firstName", "John")
 				.param("lastName", "Doe")
@@ -130,6 +134,9 @@ class PatriotAuthControllerTest {
 			.andExpect(flash().attributeExists("messageSuccess"));
 
 		verify(patriotUserService).registerNewUser(any(PatriotUser.class));
+		verify(securityContextRepository).saveContext(argThat(context -> context.getAuthentication().isAuthenticated()
+				&& context.getAuthentication().getName().equals("john.doe@example.com")
+				&& context.getAuthentication().getCredentials() == null), any(), any());
 	}
 
 	/**
@@ -253,9 +260,10 @@ class PatriotAuthControllerTest {
 	@Test
 	@DisplayName("POST /patriot/register -> duplicate email returns form with error")
 	void testProcessRegistrationDuplicateEmail() throws Exception {
-		// Mock the service to throw on duplicate
+		// The unique index on the normalized email rejects the insert
 		given(patriotUserService.registerNewUser(any(PatriotUser.class)))
-			.willThrow(new RuntimeException("Email already registered"));
+			.willThrow(new DataIntegrityViolationException("Duplicate entry", new ConstraintViolationException(
+					"Duplicate entry", new SQLException(), "patriot_users.idx_patriot_users_email_normalized")));
 
 		mockMvc
 			.perform(post("/patriot/register").param("firstName", "John")
@@ -322,6 +330,40 @@ class PatriotAuthControllerTest {
 			.andExpect(flash().attributeExists("messageSuccess"));
 	}
 
+	// ========================================================================
+	// EMAIL VERIFICATION
+	// ========================================================================
+
+	/**
+	 * Verifies that a valid verification link marks the email address as verified.
+	 */
+	@Test
+	@DisplayName("GET /patriot/verify-email -> valid token verifies the email address")
+	void testVerifyEmailWithValidToken() throws Exception {
+		given(patriotUserRepository.markEmailVerified(1, "john.doe@example.com")).willReturn(1);
+
+		mockMvc
+			.perform(get("/patriot/verify-email").param("token", verificationTokens.issue(1, "John.Doe@example.com")))
+			.andExpect(status().is3xxRedirection())
+			.andExpect(redirectedUrl("/businesses"))
+			.andExpect(flash().attributeExists("messageSuccess"));
+
+		verify(patriotUserRepository).markEmailVerified(1, "john.doe@example.com");
+	}
+
+	/**
+	 * Verifies that a forged verification link is rejected without touching the database.
+	 */
+	@Test
+	@DisplayName("GET /patriot/verify-email -> forged token is rejected")
+	void testVerifyEmailWithForgedToken() throws Exception {
+		mockMvc.perform(get("/patriot/verify-email").param("token", "local.Zm9yZ2Vk.Zm9yZ2Vk"))
+			.andExpect(status().is3xxRedirection())
+			.andExpect(flash().attributeExists("messageDanger"));
+
+		verify(patriotUserRepository, never()).markEmailVerified(any(), any());
+	}
+
 	// ========================================================================
 	// HOME PAGE
 	// ========================================================================
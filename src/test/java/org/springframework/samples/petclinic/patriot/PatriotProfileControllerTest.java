@@ -5,14 +5,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Optional;
@@ -64,6 +68,9 @@ class PatriotProfileControllerTest {
 	@MockitoBean(name = "patriotUserDetailsService")
 	private UserDetailsService patriotUserDetailsService;
 
+	@MockitoBean
+	private SecurityContextRepository securityContextRepository;
+
 	private PatriotUser testUser;
 
 	/** The email address used as the mock principal in every test. */
@@ -229,8 +236,6 @@ class PatriotProfileControllerTest {
 	void testProcessProfileUpdateEmailChangeRegeneratesGravatar() throws Exception {
 		final String newEmail = "new.email@example.com";
 
-		given(patriotUserRepository.existsByEmail(newEmail)).willReturn(false);
-
 		UserDetails mockDetails = mock(UserDetails.class);
 		given(mockDetails.getAuthorities()).willReturn(Collections.emptyList());
 		given(patriotUserDetailsService.loadUserByUsername(newEmail)).willReturn(mockDetails);
@@ -393,7 +398,9 @@ class PatriotProfileControllerTest {
 	@Test
 	@DisplayName("POST /patriot/profile -> duplicate email returns form with error")
 	void testProcessProfileUpdateDuplicateEmail() throws Exception {
-		given(patriotUserRepository.existsByEmail("taken@example.com")).willReturn(true);
+		given(patriotUserRepository.save(any(PatriotUser.class)))
+			.willThrow(new DataIntegrityViolationException("Duplicate entry", new ConstraintViolationException(
+					"Duplicate entry", new SQLException(), "patriot_users.idx_patriot_users_email_normalized")));
 
 		mockMvc
 			.perform(post("/patriot/profile").principal(() -> TEST_EMAIL)
@@ -0,0 +1,106 @@
+package org.springframework.samples.petclinic.patriot;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.system.SignedCookieCodec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link PatriotRegistrationPipeline}. Verifies that the avatar is seeded,
+ * that the welcome message carries a working verification link, and that failing steps
+ * are retried a bounded number of times.
+ *
+ * @see PatriotRegistrationPipeline
+ */
+class PatriotRegistrationPipelineTest {
+
+	private final PatriotUserRepository patriotUserRepository = mock(PatriotUserRepository.class);
+
+	private final WelcomeMessageSender welcomeMessageSender = mock(WelcomeMessageSender.class);
+
+	private final EmailVerificationTokens verificationTokens = new EmailVerificationTokens(
+			new SignedCookieCodec(List.of()), Duration.ofHours(1));
+
+	private final PatriotRegistrationPipeline pipeline = new PatriotRegistrationPipeline(patriotUserRepository,
+			verificationTokens, welcomeMessageSender, "https://patriotthanks.example", 2, 3, Duration.ofMillis(1));
+
+	private final PatriotUserRegisteredEvent event = new PatriotUserRegisteredEvent(7, "John.Doe@example.com", "John");
+
+	@AfterEach
+	void shutdown() {
+		pipeline.destroy();
+	}
+
+	@Test
+	@DisplayName("onUserRegistered -> seeds the Gravatar URL")
+	void testSeedsAvatar() {
+		pipeline.onUserRegistered(event);
+
+		verify(patriotUserRepository, timeout(2000)).seedAvatarUrl(7,
+				"https://www.gravatar.com/avatar/8eb1b522f60d11fa897de1dc6351b7e8?d=identicon&s=200");
+	}
+
+	@Test
+	@DisplayName("onUserRegistered -> welcome message links to a valid verification token")
+	void testSendsWelcomeWithVerificationLink() {
+		AtomicReference<String> link = new AtomicReference<>();
+		willAnswer(invocation -> {
+			link.set(invocation.getArgument(2));
+			return null;
+		}).given(welcomeMessageSender).sendWelcome(anyString(), anyString(), anyString());
+
+		pipeline.onUserRegistered(event);
+
+		verify(welcomeMessageSender, timeout(2000)).sendWelcome(eq("John.Doe@example.com"), eq("John"), anyString());
+		assertThat(link.get()).startsWith("https://patriotthanks.example/patriot/verify-email?token=");
+		String token = link.get().substring(link.get().indexOf("token=") + 6);
+		assertThat(verificationTokens.verify(token))
+			.contains(new EmailVerificationTokens.Verification(7, "john.doe@example.com"));
+	}
+
+	@Test
+	@DisplayName("onUserRegistered -> failing sender is retried up to max attempts")
+	void testRetriesFailingStep() {
+		willThrow(new IllegalStateException("mail server down")).given(welcomeMessageSender)
+			.sendWelcome(anyString(), anyString(), anyString());
+
+		pipeline.onUserRegistered(event);
+
+		verify(welcomeMessageSender, after(500).times(3)).sendWelcome(anyString(), anyString(), anyString());
+	}
+
+	@Test
+	@DisplayName("onUserRegistered -> a burst of registrations runs on max-concurrency threads")
+	void testBurstIsBoundedByPoolSize() {
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		willAnswer(invocation -> {
+			threads.add(Thread.currentThread().getName());
+			Thread.sleep(5);
+			return null;
+		}).given(welcomeMessageSender).sendWelcome(anyString(), anyString(), anyString());
+
+		for (int i = 0; i < 20; i++) {
+			pipeline.onUserRegistered(event);
+		}
+
+		verify(welcomeMessageSender, timeout(5000).times(20)).sendWelcome(anyString(), anyString(), anyString());
+		assertThat(threads).hasSizeLessThanOrEqualTo(2).allMatch(name -> name.startsWith("patriot-registration-"));
+	}
+
+}
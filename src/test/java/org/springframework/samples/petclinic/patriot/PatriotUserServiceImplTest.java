@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -38,6 +39,9 @@ class PatriotUserServiceImplTest {
 	@Mock
 	private PasswordEncoder passwordEncoder;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@InjectMocks
 	private PatriotUserServiceImpl patriotUserService;
 
@@ -107,6 +111,23 @@ class PatriotUserServiceImplTest {
 		assertThat(newUser.getRoles()).contains(veteranRole);
 	}
 
+	/**
+	 * Verifies that a successful registration publishes a
+	 * {@link PatriotUserRegisteredEvent} for the post-registration pipeline.
+	 */
+	@Test
+	@DisplayName("registerNewUser -> publishes PatriotUserRegisteredEvent")
+	void testRegisterPublishesEvent() {
+		newUser.setId(42);
+		given(passwordEncoder.encode("Password1")).willReturn("$2a$10$encodedPassword");
+		given(patriotRoleRepository.findByName("VETERAN")).willReturn(Optional.of(veteranRole));
+		given(patriotUserRepository.save(any(PatriotUser.class))).willReturn(newUser);
+
+		patriotUserService.registerNewUser(newUser);
+
+		verify(eventPublisher).publishEvent(new PatriotUserRegisteredEvent(42, "john.doe@example.com", "John"));
+	}
+
 	/**
 	 * Verifies that registering an active duty user (statusId = 2) assigns the
 	 * ACTIVE_DUTY role.
@@ -0,0 +1,118 @@
+package org.springframework.samples.petclinic.school;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for the materialized path queries of {@link LocationRepository}. Bean Validation
+ * is off because {@code @UniqueDomain} needs a {@link SchoolDomainIndex}, which the JPA
+ * slice does not create.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.jakarta.persistence.validation.mode=none")
+class LocationRepositoryTest {
+
+	@Autowired
+	private LocationRepository locations;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private School school;
+
+	private Location campus;
+
+	private Location hall;
+
+	private Location floor;
+
+	private Location room;
+
+	private Location arena;
+
+	@BeforeEach
+	void setUp() {
+		school = new School();
+		school.setName("Kirkwood Community College");
+		school.setDomain("kirkwood.edu");
+		entityManager.persist(school);
+
+		campus = location("Main Campus", null);
+		hall = location("Johnson Hall", campus);
+		floor = location("Second Floor", hall);
+		room = location("Room 210", floor);
+		arena = location("Arena", campus);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void shouldMaintainPathAndDepthOnInsert() {
+		Location loaded = locations.findById(room.getId()).orElseThrow();
+
+		assertThat(loaded.getPath()).isEqualTo("/" + campus.getId() + "/" + hall.getId() + "/" + floor.getId() + "/");
+		assertThat(loaded.getDepth()).isEqualTo(3);
+		assertThat(locations.findById(campus.getId()).orElseThrow().getPath()).isEqualTo("/");
+	}
+
+	@Test
+	void shouldLoadSubtreeAncestorsAndChildren() {
+		Location root = locations.findById(campus.getId()).orElseThrow();
+
+		assertThat(names(locations.findSubtree(root))).containsExactly("Arena", "Johnson Hall", "Second Floor",
+				"Room 210");
+		assertThat(names(locations.findChildren(root, 1))).containsExactly("Arena", "Johnson Hall");
+		assertThat(names(locations.findChildren(root, 2))).containsExactly("Arena", "Johnson Hall", "Second Floor");
+		assertThat(names(locations.findAncestors(locations.findById(room.getId()).orElseThrow())))
+			.containsExactly("Main Campus", "Johnson Hall", "Second Floor");
+		assertThat(locations.findAncestors(root)).isEmpty();
+		assertThat(names(locations.findRoots(school.getId()))).containsExactly("Main Campus");
+	}
+
+	@Test
+	void shouldRewriteDescendantPathsOnMove() {
+		locations.move(locations.findById(floor.getId()).orElseThrow(),
+				locations.findById(arena.getId()).orElseThrow());
+
+		Location movedRoom = locations.findById(room.getId()).orElseThrow();
+		assertThat(movedRoom.getPath())
+			.isEqualTo("/" + campus.getId() + "/" + arena.getId() + "/" + floor.getId() + "/");
+		assertThat(movedRoom.getDepth()).isEqualTo(3);
+		assertThat(names(locations.findSubtree(locations.findById(hall.getId()).orElseThrow()))).isEmpty();
+		assertThat(names(locations.findSubtree(locations.findById(arena.getId()).orElseThrow())))
+			.containsExactly("Second Floor", "Room 210");
+
+		locations.move(locations.findById(floor.getId()).orElseThrow(), null);
+
+		movedRoom = locations.findById(room.getId()).orElseThrow();
+		assertThat(movedRoom.getPath()).isEqualTo("/" + floor.getId() + "/");
+		assertThat(movedRoom.getDepth()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldRefuseToMoveALocationBelowItself() {
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class).isThrownBy(() -> locations
+			.move(locations.findById(hall.getId()).orElseThrow(), locations.findById(room.getId()).orElseThrow()));
+	}
+
+	private Location location(String name, Location parent) {
+		Location location = new Location();
+		location.setName(name);
+		location.setParentLocation(parent);
+		school.addLocation(location);
+		return entityManager.persist(location);
+	}
+
+	private static List<String> names(List<Location> locations) {
+		return locations.stream().map(Location::getName).toList();
+	}
+
+}
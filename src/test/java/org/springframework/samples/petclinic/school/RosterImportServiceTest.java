@@ -0,0 +1,160 @@
+package org.springframework.samples.petclinic.school;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.samples.petclinic.system.CacheVersions;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link RosterImportService} against an in-memory H2 database holding just the
+ * tables the import writes to.
+ */
+class RosterImportServiceTest {
+
+	private static final String HEADER = "first_name,last_name,email,password\n";
+
+	private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+	private EmbeddedDatabase database;
+
+	private NamedParameterJdbcTemplate jdbc;
+
+	private RosterImportService service;
+
+	private School kirkwood;
+
+	@BeforeEach
+	void setup() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbc = new NamedParameterJdbcTemplate(database);
+		jdbc.getJdbcTemplate().execute("""
+				CREATE TABLE users (
+				  id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+				  first_name VARCHAR(50), last_name VARCHAR(50),
+				  email VARCHAR(255) NOT NULL, email_normalized VARCHAR(255) NOT NULL UNIQUE,
+				  password_hash VARCHAR(255), nickname_is_flagged BOOLEAN, public_email BOOLEAN,
+				  public_phone BOOLEAN, created_at TIMESTAMP, updated_at TIMESTAMP);
+				CREATE TABLE roles (id INTEGER PRIMARY KEY, name VARCHAR(50));
+				CREATE TABLE user_roles (user_id INTEGER NOT NULL, role_id INTEGER NOT NULL);
+				INSERT INTO roles VALUES (1, 'SCHOOL_ADMIN'), (2, 'STUDENT');
+				INSERT INTO users (first_name, last_name, email, email_normalized, password_hash)
+				  VALUES ('Alex', 'Student', 'alex.student@kirkwood.edu', 'alex.student@kirkwood.edu', 'x');
+				CREATE TABLE roster_imports (
+				  id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, school_id INTEGER NOT NULL,
+				  status VARCHAR(20) NOT NULL, total_rows INTEGER NOT NULL, processed_rows INTEGER NOT NULL,
+				  imported INTEGER NOT NULL, started_at TIMESTAMP NOT NULL, finished_at TIMESTAMP);
+				CREATE TABLE roster_import_failures (
+				  roster_import_id INTEGER NOT NULL, line_number INTEGER NOT NULL, email VARCHAR(255),
+				  reason VARCHAR(1000) NOT NULL);
+				""");
+
+		SchoolRepository schoolRepository = mock(SchoolRepository.class);
+		given(schoolRepository.findAllDomains()).willReturn(List.of(new SchoolDomain(1, "Kirkwood", "kirkwood.edu"),
+				new SchoolDomain(2, "University of Iowa", "uiowa.edu")));
+		service = new RosterImportService(jdbc, new DataSourceTransactionManager(database), passwordEncoder,
+				new SchoolDomainIndex(schoolRepository, mock(CacheVersions.class), Duration.ofSeconds(5)), 2, 2);
+
+		kirkwood = new School();
+		kirkwood.setId(1);
+		kirkwood.setName("Kirkwood");
+		kirkwood.setDomain("kirkwood.edu");
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.destroy();
+		database.shutdown();
+	}
+
+	@Test
+	@DisplayName("start -> creates students across batches with hashed passwords and the STUDENT role")
+	void testImportsStudents() throws IOException {
+		RosterImportReport report = importRoster(
+				new StringReader(HEADER + "Jamie,Lee,Jamie.Lee@Kirkwood.edu,Initial123\n"
+						+ "Sam,Park,sam.park@student.kirkwood.edu,Initial456\n" + "\n"
+						+ "\"O'Neil, Jr.\",Casey,casey@kirkwood.edu,Initial789\n"));
+
+		assertThat(report.status()).isEqualTo(RosterImportReport.Status.FINISHED);
+		assertThat(report.totalRows()).isEqualTo(3);
+		assertThat(report.processedRows()).isEqualTo(3);
+		assertThat(report.imported()).isEqualTo(3);
+		assertThat(report.failures()).isEmpty();
+
+		String hash = jdbc.getJdbcTemplate()
+			.queryForObject("SELECT password_hash FROM users WHERE email_normalized = 'jamie.lee@kirkwood.edu'",
+					String.class);
+		assertThat(passwordEncoder.matches("Initial123", hash)).isTrue();
+		assertThat(jdbc.getJdbcTemplate()
+			.queryForObject("SELECT first_name FROM users WHERE email_normalized = 'casey@kirkwood.edu'", String.class))
+			.isEqualTo("O'Neil, Jr.");
+		assertThat(jdbc.getJdbcTemplate()
+			.queryForObject("SELECT COUNT(*) FROM user_roles WHERE role_id = 2", Integer.class)).isEqualTo(3);
+	}
+
+	@Test
+	@DisplayName("start -> reports invalid, foreign, duplicate, existing and weak rows by line")
+	void testReportsRejectedRows() throws IOException {
+		RosterImportReport report = importRoster(
+				new StringReader(HEADER + "Jamie,Lee,jamie.lee@kirkwood.edu,Initial123\n"
+						+ "Hawk,Eye,hawk@uiowa.edu,Initial123\n" + "Jamie,Lee,JAMIE.LEE@kirkwood.edu,Initial123\n"
+						+ "Alex,Student,Alex.Student@kirkwood.edu,Initial123\n" + "Short,Pass,short@kirkwood.edu,abc\n"
+						+ "No,Email,not-an-email,Initial123\n" + "Weak,Pass,weak@kirkwood.edu,lowercase1\n"));
+
+		assertThat(report.totalRows()).isEqualTo(7);
+		assertThat(report.processedRows()).isEqualTo(7);
+		assertThat(report.imported()).isEqualTo(1);
+		assertThat(report.failures()).extracting(RosterImportReport.Failure::line).containsExactly(3, 4, 5, 6, 7, 8);
+		assertThat(report.failures().get(0).reason()).contains("does not belong to Kirkwood");
+		assertThat(report.failures().get(1).reason()).contains("more than once");
+		assertThat(report.failures().get(2).reason()).contains("already exists");
+		assertThat(report.failures().get(3).reason()).contains("uppercase, lowercase, and number");
+		assertThat(report.failures().get(5).reason()).contains("uppercase, lowercase, and number");
+		assertThat(jdbc.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("start -> rejects a roster without the required columns")
+	void testRejectsMissingColumn() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> service.start(kirkwood, new StringReader("first_name,email\nA,a@kirkwood.edu\n")))
+			.withMessageContaining("last_name");
+	}
+
+	@Test
+	@DisplayName("findReport -> only reports imports of the given school")
+	void testFindReportIsScopedToTheSchool() throws IOException {
+		RosterImportReport report = importRoster(
+				new StringReader(HEADER + "Jamie,Lee,jamie.lee@kirkwood.edu,Initial123\n"));
+		School iowa = new School();
+		iowa.setId(2);
+
+		assertThat(service.findReport(iowa, report.id())).isEmpty();
+	}
+
+	private RosterImportReport importRoster(Reader csv) throws IOException {
+		long id = service.start(kirkwood, csv);
+		await().atMost(Duration.ofSeconds(10)).until(() -> !service.findReport(kirkwood, id).orElseThrow().isRunning());
+		return service.findReport(kirkwood, id).orElseThrow();
+	}
+
+}
@@ -5,6 +5,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.samples.petclinic.system.CacheVersions;
+import org.springframework.samples.petclinic.user.PlayerCard;
 import org.springframework.samples.petclinic.user.UserRepository;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -14,9 +17,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -26,6 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Test class for the {@link SchoolController}
  */
 @WebMvcTest(SchoolController.class)
+@Import(SchoolDomainIndex.class)
 class SchoolControllerTest {
 
 	private static final int TEST_SCHOOL_ID = 1;
@@ -36,13 +44,25 @@ class SchoolControllerTest {
 	@MockitoBean
 	private SchoolRepository schools;
 
+	@MockitoBean
+	private LocationRepository locations;
+
 	@MockitoBean
 	private UserRepository users;
 
+	@MockitoBean
+	private CacheVersions cacheVersions;
+
+	@Autowired
+	private SchoolDomainIndex schoolDomainIndex;
+
 	private School school;
 
 	@BeforeEach
 	void setup() {
+		// The index outlives a single test; reload it from this test's mocks
+		schoolDomainIndex.invalidate();
+
 		// Create a dummy school to be returned by the mocked repository
 		school = new School();
 		school.setId(TEST_SCHOOL_ID);
@@ -56,10 +76,11 @@ class SchoolControllerTest {
 		// 1. Arrange: Create a "Page" of schools to mock the database response
 		// matches the 5 items per page logic in your controller
 		Pageable pageable = PageRequest.of(0, 5);
-		Page<School> schoolPage = new PageImpl<>(List.of(school), pageable, 1);
+		Page<SchoolSummary> schoolPage = new PageImpl<>(List.of(new SchoolSummary(TEST_SCHOOL_ID,
+				"Kirkwood Community College", "kirkwood.edu", School.SchoolStatus.ACTIVE, 1200)), pageable, 1);
 
 		// Tell the mock: "When the controller asks for all schools, give them this list"
-		given(this.schools.findAll(any(Pageable.class))).willReturn(schoolPage);
+		given(this.schools.findSummaries(any(Pageable.class))).willReturn(schoolPage);
 
 		// 2. Act & Assert: Perform the GET request and verify the results
 		mockMvc.perform(get("/schools").param("page", "1"))
@@ -67,7 +88,52 @@ class SchoolControllerTest {
 			.andExpect(model().attributeExists("listSchools"))
 			.andExpect(model().attributeExists("totalPages"))
 			.andExpect(model().attributeExists("currentPage"))
-			.andExpect(view().name("schools/schoolList"));
+			.andExpect(view().name("schools/schoolList"))
+			.andExpect(content().string(containsString(">1200</a>")));
+	}
+
+	@Test
+	@DisplayName("Guest views a school by slug -> resolved from the domain index, no user lookup")
+	void testShowSchoolBySlugAsGuest() throws Exception {
+		given(this.schools.findAllDomains())
+			.willReturn(List.of(new SchoolDomain(TEST_SCHOOL_ID, "Kirkwood Community College", "kirkwood.edu")));
+
+		mockMvc.perform(get("/schools/kirkwood"))
+			.andExpect(status().isOk())
+			.andExpect(view().name("schools/schoolDetails"))
+			.andExpect(model().attributeDoesNotExist("currentUser"))
+			.andExpect(content().string(containsString("Kirkwood Community College")));
+
+		verify(schools, never()).findByDomain(anyString());
+		verify(users, never()).findPlayerCardByEmailNormalized(anyString());
+	}
+
+	@Test
+	@DisplayName("Student views their school -> the player card is loaded as a projection")
+	void testShowSchoolBySlugWithPlayerCard() throws Exception {
+		given(this.schools.findAllDomains())
+			.willReturn(List.of(new SchoolDomain(TEST_SCHOOL_ID, "Kirkwood Community College", "kirkwood.edu")));
+		given(this.users.findPlayerCard(anyString())).willCallRealMethod();
+		given(this.users.findPlayerCardByEmailNormalized("alex@kirkwood.edu")).willReturn(Optional
+			.of(new PlayerCard("Alex", "Smith", null, "Alex@Kirkwood.edu", true, "3195550100", false, "EN")));
+
+		mockMvc.perform(get("/schools/kirkwood").principal(() -> "Alex@Kirkwood.edu"))
+			.andExpect(status().isOk())
+			.andExpect(model().attributeExists("currentUser"))
+			.andExpect(content().string(containsString("(319) 555-0100")));
+	}
+
+	@Test
+	void testShowLocationList() throws Exception {
+		given(this.schools.findById(TEST_SCHOOL_ID)).willReturn(Optional.of(school));
+		given(this.locations.findSummaries(TEST_SCHOOL_ID, PageRequest.of(1, 20))).willReturn(new PageImpl<>(
+				List.of(new LocationSummary(7, "Room 210", null, "Johnson Hall", 2)), PageRequest.of(1, 20), 21));
+
+		mockMvc.perform(get("/schools/{id}/locations", TEST_SCHOOL_ID).param("page", "2"))
+			.andExpect(status().isOk())
+			.andExpect(view().name("schools/locationList"))
+			.andExpect(model().attribute("totalPages", 2))
+			.andExpect(content().string(containsString("Room 210")));
 	}
 
 	@Test
@@ -105,4 +171,18 @@ class SchoolControllerTest {
 			.andExpect(view().name("schools/createOrUpdateSchoolForm"));
 	}
 
+	@Test
+	@DisplayName("Duplicate domain -> the unique domain check rejects a domain another school already owns.")
+	void testProcessCreationFormRejectsDuplicateDomain() throws Exception {
+		given(this.schools.findAllDomains())
+			.willReturn(List.of(new SchoolDomain(TEST_SCHOOL_ID, "Kirkwood Community College", "kirkwood.edu")));
+
+		mockMvc.perform(post("/schools/new").param("name", "Kirkwood Again").param("domain", "Kirkwood.edu"))
+			.andExpect(status().isOk())
+			.andExpect(model().attributeHasFieldErrors("school", "domain"))
+			.andExpect(view().name("schools/createOrUpdateSchoolForm"));
+
+		verify(schools, never()).save(any(School.class));
+	}
+
 }
@@ -0,0 +1,86 @@
+package org.springframework.samples.petclinic.school;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.system.CacheVersions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link SchoolDomainIndex}.
+ */
+class SchoolDomainIndexTest {
+
+	private final SchoolRepository schoolRepository = mock(SchoolRepository.class);
+
+	private final CacheVersions cacheVersions = mock(CacheVersions.class);
+
+	private final SchoolDomainIndex index = new SchoolDomainIndex(schoolRepository, cacheVersions, Duration.ZERO);
+
+	@BeforeEach
+	void setup() {
+		given(schoolRepository.findAllDomains()).willReturn(List.of(new SchoolDomain(1, "Kirkwood", "kirkwood.edu"),
+				new SchoolDomain(2, "Kirkwood Students", "student.kirkwood.edu"),
+				new SchoolDomain(3, "Iowa", "uiowa.edu")));
+	}
+
+	@Test
+	void findByEmailMatchesLongestDomainSuffix() {
+		assertThat(index.findByEmail("alex@kirkwood.edu")).map(SchoolDomain::id).contains(1);
+		assertThat(index.findByEmail("alex@student.kirkwood.edu")).map(SchoolDomain::id).contains(2);
+		assertThat(index.findByEmail("alex@lab.student.kirkwood.edu")).map(SchoolDomain::id).contains(2);
+		assertThat(index.findByEmail("alex@staff.kirkwood.edu")).map(SchoolDomain::id).contains(1);
+		assertThat(index.findByEmail("ALEX@UIOWA.EDU")).map(SchoolDomain::id).contains(3);
+	}
+
+	@Test
+	void findByEmailIgnoresUnknownDomains() {
+		assertThat(index.findByEmail("alex@gmail.com")).isEmpty();
+		assertThat(index.findByEmail("alex@edu")).isEmpty();
+		assertThat(index.findByEmail("alex@notkirkwood.edu")).isEmpty();
+		assertThat(index.findByEmail(null)).isEmpty();
+	}
+
+	@Test
+	void findByDomainRequiresExactMatch() {
+		assertThat(index.findByDomain("kirkwood.edu")).map(SchoolDomain::id).contains(1);
+		assertThat(index.findByDomain("Student.Kirkwood.EDU")).map(SchoolDomain::id).contains(2);
+		assertThat(index.findByDomain("staff.kirkwood.edu")).isEmpty();
+		assertThat(index.findByDomain("edu")).isEmpty();
+	}
+
+	@Test
+	void loadsOnceUntilInvalidated() {
+		index.findByEmail("alex@kirkwood.edu");
+		index.findByDomain("uiowa.edu");
+		verify(schoolRepository, times(1)).findAllDomains();
+
+		given(schoolRepository.findAllDomains()).willReturn(List.of(new SchoolDomain(4, "Coe", "coe.edu")));
+		index.invalidate();
+
+		assertThat(index.findByDomain("coe.edu")).map(SchoolDomain::id).contains(4);
+		assertThat(index.findByDomain("kirkwood.edu")).isEmpty();
+		verify(schoolRepository, times(2)).findAllDomains();
+	}
+
+	@Test
+	void reloadsWhenAnotherReplicaWritesASchool() {
+		index.findByDomain("kirkwood.edu");
+		index.findByDomain("kirkwood.edu");
+		verify(schoolRepository, times(1)).findAllDomains();
+
+		given(schoolRepository.findAllDomains()).willReturn(List.of(new SchoolDomain(4, "Coe", "coe.edu")));
+		given(cacheVersions.current(SchoolDomainIndex.CACHE_NAME)).willReturn(1L);
+
+		assertThat(index.findByDomain("coe.edu")).map(SchoolDomain::id).contains(4);
+		verify(schoolRepository, times(2)).findAllDomains();
+	}
+
+}
@@ -0,0 +1,126 @@
+package org.springframework.samples.petclinic.school;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Checks that listing schools and paging locations costs a fixed number of statements,
+ * however many locations a school has. Bean Validation is off because
+ * {@code @UniqueDomain} needs a {@link SchoolDomainIndex}, which the JPA slice does not
+ * create.
+ */
+@DataJpaTest(properties = { "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+class SchoolListStatementCountTest {
+
+	private static final int LOCATIONS = 1_000;
+
+	@Autowired
+	private SchoolRepository schools;
+
+	@Autowired
+	private LocationRepository locations;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private School big;
+
+	@BeforeEach
+	void setUp() {
+		School empty = school("Clarke University", "clarke.edu");
+		big = school("Kirkwood Community College", "kirkwood.edu");
+		Location campus = location(big, "Main Campus", null);
+		for (int i = 1; i < LOCATIONS; i++) {
+			location(big, "Room " + i, campus);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		assertThat(empty.getId()).isNotNull();
+	}
+
+	@Test
+	void shouldListSchoolsInOneStatementRegardlessOfLocations() {
+		Statistics statistics = statistics();
+
+		Page<SchoolSummary> page = schools.findSummaries(PageRequest.of(0, 5));
+
+		assertThat(page.getContent()).extracting(SchoolSummary::name, SchoolSummary::locationCount)
+			.containsExactly(tuple("Clarke University", 0L), tuple("Kirkwood Community College", (long) LOCATIONS));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void shouldPageLocationsInTwoStatements() {
+		Statistics statistics = statistics();
+
+		Page<LocationSummary> page = locations.findSummaries(big.getId(), PageRequest.of(3, 20));
+
+		assertThat(page.getTotalElements()).isEqualTo(LOCATIONS);
+		assertThat(page.getContent()).hasSize(20).allSatisfy(location -> {
+			assertThat(location.parentName()).isEqualTo("Main Campus");
+			assertThat(location.depth()).isEqualTo(1);
+		});
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldFetchParentsInBatches() {
+		Location campus = locations.findRoots(big.getId()).get(0);
+		List<Integer> roomIds = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Location hall = location(big, "Hall " + i, campus);
+			roomIds.add(location(big, "Hall " + i + " Lobby", hall).getId());
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		List<Location> rooms = locations.findByIdIn(roomIds);
+		Statistics statistics = statistics();
+		rooms.forEach(room -> room.getParentLocation().getName());
+
+		// Ten different halls, loaded together on the first access
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+	private School school(String name, String domain) {
+		School school = new School();
+		school.setName(name);
+		school.setDomain(domain);
+		return entityManager.persist(school);
+	}
+
+	private Location location(School school, String name, Location parent) {
+		Location location = new Location();
+		location.setName(name);
+		location.setParentLocation(parent);
+		location.setSchool(school);
+		return entityManager.persist(location);
+	}
+
+}
@@ -0,0 +1,61 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AdmissionFilter}.
+ */
+class AdmissionFilterTests {
+
+	private final AdmissionGate gate = new AdmissionGate(1, Duration.ofMillis(10), 5);
+
+	private final AdmissionFilter filter = new AdmissionFilter(gate, "/login=0, /schools/*/roster=8, /actuator/**=9", 5,
+			2);
+
+	@Test
+	void shouldPickTheFirstMatchingPriority() {
+		assertThat(filter.priority(new MockHttpServletRequest("POST", "/login"))).isZero();
+		assertThat(filter.priority(new MockHttpServletRequest("POST", "/schools/3/roster"))).isEqualTo(8);
+		assertThat(filter.priority(new MockHttpServletRequest("GET", "/actuator/health/readiness"))).isEqualTo(9);
+		assertThat(filter.priority(new MockHttpServletRequest("GET", "/businesses"))).isEqualTo(5);
+	}
+
+	@Test
+	void shouldAnswerServiceUnavailableWhenTheGateRejectsTheRequest() throws Exception {
+		gate.acquire();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("POST", "/login"), response, (request, chainResponse) -> {
+			try {
+				gate.acquire();
+			}
+			catch (Exception ex) {
+				throw new DataAccessResourceFailureException("Could not open JDBC connection", ex);
+			}
+		});
+
+		assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+	}
+
+	@Test
+	void shouldAddRetryAfterWhenSpringMvcSendsTheError() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/businesses"), response,
+				(request, chainResponse) -> ((HttpServletResponse) chainResponse).sendError(503));
+
+		assertThat(response.getStatus()).isEqualTo(503);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+	}
+
+}
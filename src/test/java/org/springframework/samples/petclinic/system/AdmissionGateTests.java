@@ -0,0 +1,100 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link AdmissionGate}.
+ */
+class AdmissionGateTests {
+
+	@Test
+	void shouldAdmitUpToThePermitsWithoutWaiting() throws Exception {
+		AdmissionGate gate = new AdmissionGate(2, Duration.ofMillis(50), 5);
+
+		gate.acquire();
+		gate.acquire();
+
+		assertThat(gate.getAvailable()).isZero();
+		assertThatExceptionOfType(AdmissionRejectedException.class).isThrownBy(gate::acquire);
+		gate.release();
+		assertThat(gate.getAvailable()).isOne();
+	}
+
+	@Test
+	void shouldHandPermitsToHigherPrioritiesFirstAndArrivalsInOrder() throws Exception {
+		AdmissionGate gate = new AdmissionGate(1, Duration.ofSeconds(10), 5);
+		gate.acquire();
+		List<String> admitted = new CopyOnWriteArrayList<>();
+		List<Thread> threads = List.of(waiter(gate, "low", 9, admitted), waiter(gate, "first", 1, admitted),
+				waiter(gate, "second", 1, admitted), waiter(gate, "default", -1, admitted));
+		for (Thread thread : threads) {
+			thread.start();
+			awaitQueued(gate, threads.indexOf(thread) + 1);
+		}
+
+		gate.release();
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+		}
+
+		assertThat(admitted).containsExactly("first", "second", "default", "low");
+		assertThat(gate.getAvailable()).isOne();
+	}
+
+	@Test
+	void shouldRecordWaitTimesByPriorityAndOutcome() throws Exception {
+		AdmissionGate gate = new AdmissionGate(1, Duration.ofMillis(20), 5);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		gate.bindTo(registry);
+		gate.setPriority(2);
+
+		gate.acquire();
+		assertThatExceptionOfType(AdmissionRejectedException.class).isThrownBy(gate::acquire);
+		gate.clearPriority();
+
+		assertThat(registry.get("petclinic.db.admission.wait")
+			.tag("priority", "2")
+			.tag("outcome", "admitted")
+			.timer()
+			.count()).isOne();
+		assertThat(registry.get("petclinic.db.admission.wait")
+			.tag("outcome", "rejected")
+			.timer()
+			.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(20);
+		assertThat(registry.get("petclinic.db.admission.available").gauge().value()).isZero();
+	}
+
+	private static Thread waiter(AdmissionGate gate, String name, int priority, List<String> admitted) {
+		return new Thread(() -> {
+			if (priority >= 0) {
+				gate.setPriority(priority);
+			}
+			try {
+				gate.acquire();
+				admitted.add(name);
+				gate.release();
+			}
+			catch (Exception ex) {
+				admitted.add(name + " failed: " + ex);
+			}
+		}, name);
+	}
+
+	private static void awaitQueued(AdmissionGate gate, int queued) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (gate.getQueued() < queued && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the cache setup: keys of the vet caches, their bounds and their metrics.
+ */
+@SpringBootTest
+class CacheConfigurationTests {
+
+	@Autowired
+	private VetRepository vets;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void clearCaches() {
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+	}
+
+	@Test
+	void shouldCacheEachPageUnderItsOwnKey() {
+		Page<Vet> first = vets.findAll(PageRequest.of(0, 5));
+		Page<Vet> second = vets.findAll(PageRequest.of(1, 5));
+
+		assertThat(vets.findAll(PageRequest.of(0, 5))).isSameAs(first);
+		assertThat(vets.findAll(PageRequest.of(1, 5))).isSameAs(second).isNotSameAs(first);
+		assertThat(cacheManager.getCache("vetPages").get("0:5:UNSORTED").get()).isSameAs(first);
+		assertThat(vets.findAll()).isSameAs(vets.findAll()).hasSize((int) first.getTotalElements());
+		assertThat(cacheManager.getCache("vets").get("all")).isNotNull();
+	}
+
+	@Test
+	void shouldNotCacheUnpagedRequests() {
+		vets.findAll(Pageable.unpaged());
+
+		assertThat(nativeCache("vetPages").estimatedSize()).isZero();
+	}
+
+	@Test
+	void shouldBoundAndExpireEveryCache() {
+		assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder("vets", "vetPages");
+		for (String name : cacheManager.getCacheNames()) {
+			var policy = nativeCache(name).policy();
+			assertThat(policy.eviction())
+				.hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isPositive());
+			assertThat(policy.expireAfterWrite())
+				.hasValueSatisfying(expiry -> assertThat(expiry.getExpiresAfter(TimeUnit.MINUTES)).isPositive());
+			assertThat(policy.isRecordingStats()).isTrue();
+		}
+	}
+
+	@Test
+	void shouldPublishHitAndMissMetrics() {
+		double hits = gets("vetPages", "hit");
+		double misses = gets("vetPages", "miss");
+
+		vets.findAll(PageRequest.of(0, 5));
+		vets.findAll(PageRequest.of(0, 5));
+
+		assertThat(gets("vetPages", "miss")).isEqualTo(misses + 1);
+		assertThat(gets("vetPages", "hit")).isEqualTo(hits + 1);
+		assertThat(meterRegistry.find("cache.evictions").tag("cache", "vetPages").functionCounter()).isNotNull();
+	}
+
+	private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String name) {
+		return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+	}
+
+	private double gets(String cache, String result) {
+		return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+	}
+
+}
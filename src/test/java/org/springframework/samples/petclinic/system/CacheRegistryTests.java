@@ -0,0 +1,148 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link CacheRegistry} and {@link CacheRegistryEndpoint}.
+ */
+class CacheRegistryTests {
+
+	@Test
+	void shouldBuildCachesFromPropertiesAndDefaults() {
+		CacheRegistry registry = new CacheRegistry(environment().withProperty("petclinic.cache.names", "a, b")
+			.withProperty("petclinic.cache.defaults.maximum-size", "100")
+			.withProperty("petclinic.cache.defaults.expire-after-write", "10m")
+			.withProperty("petclinic.cache.b.maximum-size", "5")
+			.withProperty("petclinic.cache.b.expire-after-access", "30s"), Map.of());
+
+		assertThat(registry.getCacheNames()).containsExactly("a", "b");
+		assertThat(registry.getCache("c")).isNull();
+		Policy<Object, Object> a = policy(registry, "a");
+		assertThat(a.eviction().get().getMaximum()).isEqualTo(100);
+		assertThat(a.expireAfterWrite().get().getExpiresAfter(TimeUnit.MINUTES)).isEqualTo(10);
+		assertThat(a.expireAfterAccess()).isEmpty();
+		assertThat(a.isRecordingStats()).isTrue();
+		Policy<Object, Object> b = policy(registry, "b");
+		assertThat(b.eviction().get().getMaximum()).isEqualTo(5);
+		assertThat(b.expireAfterWrite().get().getExpiresAfter(TimeUnit.MINUTES)).isEqualTo(10);
+		assertThat(b.expireAfterAccess().get().getExpiresAfter(TimeUnit.SECONDS)).isEqualTo(30);
+	}
+
+	@Test
+	void shouldWeighCollectionsAndPagesByTheirElements() {
+		CacheRegistry registry = new CacheRegistry(environment().withProperty("petclinic.cache.names", "pages")
+			.withProperty("petclinic.cache.defaults.maximum-size", "100")
+			.withProperty("petclinic.cache.pages.maximum-weight", "10"), Map.of());
+		Cache cache = registry.getCache("pages");
+
+		cache.put(1, new PageImpl<>(List.of("a", "b", "c")));
+		cache.put(2, List.of("a", "b"));
+		cache.put(3, "a");
+		cache.put(4, List.of());
+		((CaffeineCache) cache).getNativeCache().cleanUp();
+
+		Policy.Eviction<Object, Object> eviction = policy(registry, "pages").eviction().get();
+		assertThat(eviction.isWeighted()).isTrue();
+		assertThat(eviction.weightedSize()).hasValue(7L);
+	}
+
+	@Test
+	void shouldRejectUnboundedOrDoublyBoundedCaches() {
+		assertThatIllegalStateException()
+			.isThrownBy(() -> new CacheRegistry(environment().withProperty("petclinic.cache.names", "a"), Map.of()))
+			.withMessageContaining("'a' needs a maximum-size or maximum-weight");
+		assertThatIllegalStateException()
+			.isThrownBy(() -> new CacheRegistry(environment().withProperty("petclinic.cache.names", "a")
+				.withProperty("petclinic.cache.a.maximum-size", "1")
+				.withProperty("petclinic.cache.a.maximum-weight", "1"), Map.of()))
+			.withMessageContaining("cannot have both");
+	}
+
+	@Test
+	void shouldRefreshOnlyWithANamedLoader() {
+		MockEnvironment environment = environment().withProperty("petclinic.cache.names", "a")
+			.withProperty("petclinic.cache.a.maximum-size", "1")
+			.withProperty("petclinic.cache.a.refresh-after-write", "1m");
+		CacheLoader<Object, Object> loader = key -> "loaded " + key;
+
+		assertThatIllegalStateException().isThrownBy(() -> new CacheRegistry(environment, Map.of()))
+			.withMessageContaining("CacheLoader bean named 'aCacheLoader'");
+		CacheRegistry registry = new CacheRegistry(environment, Map.of("aCacheLoader", loader));
+		assertThat(policy(registry, "a").refreshAfterWrite().get().getRefreshesAfter(TimeUnit.MINUTES)).isEqualTo(1);
+	}
+
+	@Test
+	void shouldResizeAtRuntime() {
+		CacheRegistry registry = new CacheRegistry(environment().withProperty("petclinic.cache.names", "a")
+			.withProperty("petclinic.cache.a.maximum-size", "10")
+			.withProperty("petclinic.cache.a.expire-after-write", "10m"), Map.of());
+		Cache cache = registry.getCache("a");
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, i);
+		}
+
+		assertThat(registry.resize("a", 2L, Duration.ofMinutes(1), null)).isTrue();
+		((CaffeineCache) cache).getNativeCache().cleanUp();
+
+		Policy<Object, Object> policy = policy(registry, "a");
+		assertThat(policy.eviction().get().getMaximum()).isEqualTo(2);
+		assertThat(policy.expireAfterWrite().get().getExpiresAfter(TimeUnit.MINUTES)).isEqualTo(1);
+		assertThat(((CaffeineCache) cache).getNativeCache().estimatedSize()).isEqualTo(2);
+		assertThat(registry.resize("missing", 1L, null, null)).isFalse();
+		assertThatIllegalArgumentException().isThrownBy(() -> registry.resize("a", null, null, Duration.ofMinutes(1)))
+			.withMessage("a does not expire after access");
+	}
+
+	@Test
+	void shouldReportAndResizeThroughEndpoint() {
+		CacheRegistry registry = new CacheRegistry(environment().withProperty("petclinic.cache.names", "a")
+			.withProperty("petclinic.cache.a.maximum-size", "10")
+			.withProperty("petclinic.cache.a.expire-after-write", "10m"), Map.of());
+		CacheRegistryEndpoint endpoint = new CacheRegistryEndpoint(registry);
+		Cache cache = registry.getCache("a");
+		cache.get("k", () -> "v");
+		cache.get("k", () -> "v");
+
+		assertThat(endpoint.cache("a")).contains(entry("size", 1L), entry("maximumSize", 10L),
+				entry("expireAfterWrite", 600_000L), entry("hitCount", 1L), entry("missCount", 1L),
+				entry("hitRatio", 0.5), entry("loadCount", 1L), entry("evictionCount", 0L));
+		assertThat(endpoint.caches()).containsOnlyKeys("a");
+		assertThat(endpoint.cache("missing")).isNull();
+
+		assertThat(endpoint.resize("a", 20L, "5m", null)).contains(entry("maximumSize", 20L),
+				entry("expireAfterWrite", 300_000L));
+		assertThat(endpoint.resize("missing", 20L, null, null)).isNull();
+		assertThatExceptionOfType(InvalidEndpointRequestException.class)
+			.isThrownBy(() -> endpoint.resize("a", -1L, null, null));
+		assertThatExceptionOfType(InvalidEndpointRequestException.class)
+			.isThrownBy(() -> endpoint.resize("a", null, "soon", null));
+	}
+
+	private static MockEnvironment environment() {
+		return new MockEnvironment();
+	}
+
+	private static Policy<Object, Object> policy(CacheRegistry registry, String name) {
+		return ((CaffeineCache) registry.getCache(name)).getNativeCache().policy();
+	}
+
+}
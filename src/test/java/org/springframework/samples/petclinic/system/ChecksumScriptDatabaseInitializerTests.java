@@ -0,0 +1,175 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.sql.autoconfigure.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ChecksumScriptDatabaseInitializer} against an in-memory H2 database
+ * and scripts written to a temporary directory, each start being a new initializer.
+ */
+class ChecksumScriptDatabaseInitializerTests {
+
+	private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+		.generateUniqueName(true)
+		.build();
+
+	private final JdbcTemplate jdbc = new JdbcTemplate(database);
+
+	@TempDir
+	Path scripts;
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void shouldSkipScriptsThatHaveNotChanged() throws IOException {
+		write("schema.sql", "CREATE TABLE IF NOT EXISTS visits_log (id INT);");
+		write("data.sql", "INSERT INTO visits_log VALUES (1);");
+
+		assertThat(start()).isTrue();
+		assertThat(start()).isFalse();
+
+		assertThat(count("visits_log")).isEqualTo(1);
+		assertThat(count("sql_init_history")).isEqualTo(2);
+	}
+
+	@Test
+	void shouldRunChangedScriptsAndTheDataAfterAChangedSchema() throws IOException {
+		write("schema.sql", "DROP TABLE IF EXISTS visits_log; CREATE TABLE visits_log (id INT);");
+		write("data.sql", "INSERT INTO visits_log (id) VALUES (1);");
+		start();
+
+		write("schema.sql", "DROP TABLE IF EXISTS visits_log; CREATE TABLE visits_log (id INT, note VARCHAR(20));");
+		start();
+
+		assertThat(count("visits_log")).isEqualTo(1);
+		assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+				+ "WHERE table_name = 'VISITS_LOG' AND column_name = 'NOTE'", Integer.class))
+			.isEqualTo(1);
+	}
+
+	@Test
+	void shouldApplyEachMigrationOnceInVersionOrder() throws IOException {
+		write("schema.sql", "CREATE TABLE IF NOT EXISTS visits_log (id INT);");
+		write("data.sql", "SELECT 1;");
+		write("migrations/V10__third.sql", "INSERT INTO visits_log (id) VALUES (10);");
+		write("migrations/V2__second.sql", "INSERT INTO visits_log (id) VALUES (2);");
+		write("migrations/V1_1__first.sql", "ALTER TABLE visits_log ADD COLUMN seq INT AUTO_INCREMENT;");
+		write("migrations/notes.sql", "THIS IS NOT SQL;");
+
+		start();
+		start();
+
+		assertThat(jdbc.queryForList("SELECT id FROM visits_log ORDER BY seq", Integer.class)).containsExactly(2, 10);
+	}
+
+	@Test
+	void shouldRefuseToStartWhenAnAppliedMigrationChanged() throws IOException {
+		write("schema.sql", "CREATE TABLE IF NOT EXISTS visits_log (id INT);");
+		write("data.sql", "SELECT 1;");
+		write("migrations/V1__first.sql", "INSERT INTO visits_log VALUES (1);");
+		start();
+
+		write("migrations/V1__first.sql", "INSERT INTO visits_log (id) VALUES (2);");
+
+		assertThatIllegalStateException().isThrownBy(this::start).withMessageContaining("V1__first.sql");
+	}
+
+	@Test
+	void shouldTryAFailedMigrationAgainOnTheNextStart() throws IOException {
+		write("schema.sql", "CREATE TABLE IF NOT EXISTS visits_log (id INT);");
+		write("data.sql", "SELECT 1;");
+		write("migrations/V1__first.sql", "INSERT INTO missing_table VALUES (1);");
+
+		try {
+			start();
+		}
+		catch (RuntimeException expected) {
+		}
+		write("migrations/V1__first.sql", "INSERT INTO visits_log VALUES (1);");
+		start();
+
+		assertThat(count("visits_log")).isEqualTo(1);
+	}
+
+	@Test
+	void shouldRunAScriptAgainThatAnInterruptedStartLeftPending() throws IOException {
+		write("schema.sql", "CREATE TABLE IF NOT EXISTS visits_log (id INT);");
+		write("data.sql", "INSERT INTO visits_log VALUES (1);");
+		start();
+
+		// What a start killed halfway through the data script leaves behind
+		jdbc.update("DELETE FROM visits_log");
+		jdbc.update("UPDATE sql_init_history SET status = 'PENDING' WHERE script LIKE '%data.sql'");
+
+		assertThat(start(Duration.ZERO)).isTrue();
+		assertThat(count("visits_log")).isEqualTo(1);
+		assertThat(jdbc.queryForList("SELECT status FROM sql_init_history", String.class)).containsOnly("SUCCESS");
+	}
+
+	@Test
+	void shouldWaitForAnotherInstanceToFinishAScriptInsteadOfSkippingIt() throws IOException {
+		write("schema.sql", "CREATE TABLE IF NOT EXISTS visits_log (id INT);");
+		write("data.sql", "INSERT INTO visits_log VALUES (1);");
+		start();
+
+		jdbc.update("UPDATE sql_init_history SET status = 'PENDING' WHERE script LIKE '%data.sql'");
+		long started = System.nanoTime();
+		CompletableFuture.runAsync(() -> jdbc.update("UPDATE sql_init_history SET status = 'SUCCESS'"),
+				CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS));
+
+		assertThat(start(Duration.ofMinutes(1))).isFalse();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(500));
+		assertThat(count("visits_log")).isEqualTo(1);
+	}
+
+	private boolean start() {
+		return start(Duration.ofMinutes(1));
+	}
+
+	private boolean start(Duration pendingTimeout) {
+		SqlInitializationProperties properties = new SqlInitializationProperties();
+		properties.setMode(DatabaseInitializationMode.ALWAYS);
+		properties.setSchemaLocations(List.of(location("schema.sql")));
+		properties.setDataLocations(List.of(location("data.sql")));
+		return new ChecksumScriptDatabaseInitializer(database, properties, List.of(location("migrations/*.sql")),
+				pendingTimeout)
+			.initializeDatabase();
+	}
+
+	private void write(String name, String sql) throws IOException {
+		Path file = scripts.resolve(name);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, sql);
+	}
+
+	private String location(String name) {
+		return scripts.resolve(name).toUri().toString();
+	}
+
+	private int count(String table) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+	}
+
+}
@@ -0,0 +1,59 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.util.SerializationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompactPrincipal}.
+ */
+class CompactPrincipalTests {
+
+	@Test
+	void shouldShareAuthorityListsBetweenPrincipalsWithTheSameRoles() {
+		CompactPrincipal alex = CompactPrincipal.withRoles("alex@kirkwood.edu", "hash", List.of("STUDENT"));
+		CompactPrincipal sam = CompactPrincipal.withRoles("sam@kirkwood.edu", "hash", List.of("STUDENT"));
+		CompactPrincipal fromCookie = CompactPrincipal.of("jo@kirkwood.edu",
+				List.of(new SimpleGrantedAuthority("ROLE_STUDENT")));
+
+		assertThat(alex.getAuthorities()).isSameAs(sam.getAuthorities()).isSameAs(fromCookie.getAuthorities());
+		assertThat(alex.getAuthorities()).extracting("authority").containsExactly("ROLE_STUDENT");
+	}
+
+	@Test
+	void shouldDropPasswordWhenCredentialsAreErased() {
+		CompactPrincipal principal = CompactPrincipal.withRoles("alex@kirkwood.edu", "$2a$10$hash", List.of("STUDENT"));
+		assertThat(principal.getPassword()).isEqualTo("$2a$10$hash");
+
+		principal.eraseCredentials();
+
+		assertThat(principal.getPassword()).isNull();
+		assertThat(principal.toString()).doesNotContain("$2a$");
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void shouldSerializeWithoutPasswordAndReinternAuthorities() {
+		CompactPrincipal principal = CompactPrincipal.withRoles("alex@kirkwood.edu", "$2a$10$hash",
+				List.of("SCHOOL_ADMIN", "STUDENT"));
+
+		byte[] bytes = SerializationUtils.serialize(principal);
+		CompactPrincipal copy = (CompactPrincipal) SerializationUtils.deserialize(bytes);
+
+		assertThat(copy).isEqualTo(principal);
+		assertThat(copy.getPassword()).isNull();
+		assertThat(copy.getAuthorities()).isSameAs(principal.getAuthorities());
+
+		User springUser = (User) User.withUsername("alex@kirkwood.edu")
+			.password("$2a$10$hash")
+			.roles("SCHOOL_ADMIN", "STUDENT")
+			.build();
+		assertThat(bytes.length).isLessThan(SerializationUtils.serialize(springUser).length);
+	}
+
+}
@@ -0,0 +1,224 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompressionFilter}.
+ */
+class CompressionFilterTests {
+
+	private static final String PAGE = "<html><body>" + "<p>Thank you for your service</p>".repeat(200)
+			+ "</body></html>";
+
+	private double cpuLoad;
+
+	private final CompressionFilter filter = new CompressionFilter(true, List.of("text/html", "application/json"),
+			DataSize.ofKilobytes(2), 6, 1, 0.8, () -> this.cpuLoad);
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	CompressionFilterTests() {
+		this.filter.bindTo(this.registry);
+	}
+
+	@Test
+	void shouldGzipLargeHtmlResponses() throws Exception {
+		MockHttpServletResponse response = filter(request("gzip, deflate, br"), write("text/html;charset=UTF-8", PAGE));
+
+		assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+		assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+		assertThat(response.getContentAsByteArray().length).isLessThan(PAGE.length() / 10);
+		assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(PAGE);
+	}
+
+	@Test
+	void shouldRecordBytesSavedAndCpuTimePerRoute() throws Exception {
+		MockHttpServletResponse response = filter(request("gzip"), write("application/json", PAGE));
+
+		var saved = this.registry.get("petclinic.http.compression.saved")
+			.tags("method", "GET", "uri", "/businesses/{id}", "level", "6")
+			.summary();
+		assertThat(saved.count()).isEqualTo(1);
+		assertThat(saved.totalAmount()).isEqualTo(PAGE.length() - response.getContentAsByteArray().length);
+		assertThat(this.registry.get("petclinic.http.compression.cpu").tag("level", "6").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldUseTheFastLevelWhileTheCpuIsSaturated() throws Exception {
+		this.cpuLoad = 0.95;
+
+		MockHttpServletResponse response = filter(request("gzip"), write("text/html", PAGE));
+
+		assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(PAGE);
+		assertThat(this.registry.get("petclinic.http.compression.saved").tag("level", "1").summary().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void shouldSendSmallResponsesAsTheyAre() throws Exception {
+		MockHttpServletResponse response = filter(request("gzip"), (request, chainResponse) -> {
+			chainResponse.setContentType("text/html");
+			chainResponse.setContentLength(11);
+			chainResponse.getOutputStream().write("<p>Hi!</p>\n".getBytes(StandardCharsets.UTF_8));
+		});
+
+		assertThat(response.getHeader("Content-Encoding")).isNull();
+		assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+		assertThat(response.getContentLength()).isEqualTo(11);
+		assertThat(response.getContentAsString()).isEqualTo("<p>Hi!</p>\n");
+		assertThat(this.registry.find("petclinic.http.compression.saved").meters()).isEmpty();
+	}
+
+	@Test
+	void shouldLeaveOtherContentTypesAndEncodedResponsesAlone() throws Exception {
+		MockHttpServletResponse image = filter(request("gzip"), write("image/png", PAGE));
+		MockHttpServletResponse encoded = filter(request("gzip"), (request, chainResponse) -> {
+			((HttpServletResponse) chainResponse).setHeader("Content-Encoding", "br");
+			write("text/html", PAGE).doFilter(request, chainResponse);
+		});
+
+		assertThat(image.getHeader("Content-Encoding")).isNull();
+		assertThat(image.getContentAsString()).isEqualTo(PAGE);
+		assertThat(encoded.getHeader("Content-Encoding")).isEqualTo("br");
+		assertThat(encoded.getContentAsString()).isEqualTo(PAGE);
+	}
+
+	@Test
+	void shouldOnlyCompressForClientsThatAcceptGzip() {
+		assertThat(CompressionFilter.acceptsGzip("gzip, deflate")).isTrue();
+		assertThat(CompressionFilter.acceptsGzip("br;q=1.0, *;q=0.5")).isTrue();
+		assertThat(CompressionFilter.acceptsGzip("gzip;q=0, br")).isFalse();
+		assertThat(CompressionFilter.acceptsGzip("identity")).isFalse();
+		assertThat(CompressionFilter.acceptsGzip(null)).isFalse();
+	}
+
+	@Test
+	void shouldWeakenEtagsOfCompressedResponses() throws Exception {
+		MockHttpServletResponse response = filter(request("gzip"), (request, chainResponse) -> {
+			((HttpServletResponse) chainResponse).setHeader("ETag", "\"abc\"");
+			write("text/html", PAGE).doFilter(request, chainResponse);
+		});
+
+		assertThat(response.getHeader("ETag")).isEqualTo("W/\"abc\"");
+	}
+
+	@Test
+	void shouldSendAsynchronousResponsesUncompressed() throws Exception {
+		MockHttpServletRequest request = request("gzip");
+		request.setAsyncSupported(true);
+		AtomicReference<ServletResponse> asyncResponse = new AtomicReference<>();
+
+		MockHttpServletResponse response = filter(request, (chainRequest, chainResponse) -> {
+			chainResponse.setContentType("text/html");
+			chainResponse.getOutputStream().write("<html>".getBytes(StandardCharsets.UTF_8));
+			chainRequest.startAsync();
+			asyncResponse.set(chainResponse);
+		});
+		// Later, as an async handler would
+		asyncResponse.get().getOutputStream().write(PAGE.substring(6).getBytes(StandardCharsets.UTF_8));
+
+		assertThat(response.getHeader("Content-Encoding")).isNull();
+		assertThat(response.getContentAsString()).isEqualTo(PAGE);
+		assertThat(this.registry.find("petclinic.http.compression.saved").meters()).isEmpty();
+	}
+
+	@Test
+	void shouldHandNonBlockingWritesToTheContainerStream() throws Exception {
+		AtomicReference<WriteListener> registered = new AtomicReference<>();
+		ServletOutputStream containerStream = new ServletOutputStream() {
+
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public boolean isReady() {
+				return false;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				registered.set(writeListener);
+			}
+
+		};
+		HttpServletResponse container = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+
+			@Override
+			public ServletOutputStream getOutputStream() {
+				return containerStream;
+			}
+
+		};
+		WriteListener listener = new WriteListener() {
+
+			@Override
+			public void onWritePossible() {
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+			}
+
+		};
+
+		this.filter.doFilter(request("gzip"), container, (request, response) -> {
+			response.setContentType("text/html");
+			ServletOutputStream out = response.getOutputStream();
+			out.setWriteListener(listener);
+			assertThat(out.isReady()).isFalse();
+		});
+
+		assertThat(registered.get()).isSameAs(listener);
+		assertThat(container.getHeader("Content-Encoding")).isNull();
+	}
+
+	private MockHttpServletRequest request(String acceptEncoding) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/businesses/7");
+		request.addHeader("Accept-Encoding", acceptEncoding);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/businesses/{id}");
+		return request;
+	}
+
+	private MockHttpServletResponse filter(MockHttpServletRequest request, FilterChain chain) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, chain);
+		return response;
+	}
+
+	private static FilterChain write(String contentType, String body) {
+		return (request, response) -> {
+			response.setContentType(contentType);
+			response.setCharacterEncoding("UTF-8");
+			response.getWriter().write(body);
+		};
+	}
+
+	private static String gunzip(byte[] compressed) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
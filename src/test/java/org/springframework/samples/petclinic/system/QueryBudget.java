@@ -0,0 +1,40 @@
+package org.springframework.samples.petclinic.system;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Fails a test that runs more SQL statements than its budget, as counted by a
+ * {@link SqlStatementTally} around the test method. Statements run by {@code @BeforeEach}
+ * methods are not counted.
+ *
+ * <p>
+ * Meant for {@code @SpringBootTest} controller tests driving MockMvc against the real
+ * repositories, so that a change that adds statements to a page, such as an N+1, fails
+ * the build. On a class, the budget applies to each test method that has none of its own.
+ * </p>
+ */
+@Documented
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+	/**
+	 * The most SQL statements the test may run.
+	 * @return the statement budget
+	 */
+	int value();
+
+	/**
+	 * The most times the test may run the same statement; more suggests an N+1.
+	 * @return the repeat budget
+	 */
+	int maxRepeats() default Integer.MAX_VALUE;
+
+}
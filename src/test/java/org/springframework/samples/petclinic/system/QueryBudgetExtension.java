@@ -0,0 +1,48 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Enforces {@link QueryBudget}: keeps a {@link SqlStatementTally} open while the test
+ * method runs and fails the test if it runs more statements than allowed.
+ */
+class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace
+		.create(QueryBudgetExtension.class);
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		context.getStore(NAMESPACE).put(SqlStatementTally.class, SqlStatementTally.start());
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		SqlStatementTally tally = context.getStore(NAMESPACE).remove(SqlStatementTally.class, SqlStatementTally.class);
+		tally.stop();
+		QueryBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+			.or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), QueryBudget.class))
+			.orElseThrow();
+		if (tally.getStatementCount() > budget.value()) {
+			throw new AssertionError("Expected at most " + budget.value() + " SQL statements but ran "
+					+ tally.getStatementCount() + describe(tally.getRepeatedStatements(1)));
+		}
+		Map<String, Integer> repeated = tally.getRepeatedStatements(budget.maxRepeats() + 1);
+		if (!repeated.isEmpty()) {
+			throw new AssertionError(
+					"Expected no statement to run more than " + budget.maxRepeats() + " times" + describe(repeated));
+		}
+	}
+
+	private static String describe(Map<String, Integer> statements) {
+		StringBuilder description = new StringBuilder(":");
+		statements.forEach((sql, times) -> description.append('\n').append(times).append(" x ").append(sql));
+		return description.toString();
+	}
+
+}
@@ -0,0 +1,92 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import jakarta.servlet.http.HttpSessionBindingEvent;
+import jakarta.servlet.http.HttpSessionEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SessionFootprint} and {@link SessionFootprintEndpoint}.
+ */
+class SessionFootprintTests {
+
+	private final SessionFootprint footprint = new SessionFootprint();
+
+	@Test
+	void shouldTrackAttributeSizesAcrossTheSessionLifecycle() {
+		MockHttpSession first = open();
+		MockHttpSession second = open();
+		set(first, "LAST_EMAIL", "alex@kirkwood.edu");
+		set(second, "LAST_EMAIL", "sam@kirkwood.edu");
+		long afterAdd = footprint.getTotalBytes();
+
+		assertThat(footprint.getActiveSessions()).isEqualTo(2);
+		assertThat(afterAdd).isEqualTo(SessionFootprint.serializedSize("alex@kirkwood.edu")
+				+ SessionFootprint.serializedSize("sam@kirkwood.edu"));
+		assertThat(footprint.attributeTotals().get("LAST_EMAIL").getCount()).isEqualTo(2);
+
+		// Replacing an attribute swaps its size rather than adding to it
+		set(first, "LAST_EMAIL", "a@kirkwood.edu");
+		assertThat(footprint.getTotalBytes()).isEqualTo(afterAdd - "alex".length() + 1);
+
+		remove(second, "LAST_EMAIL");
+		footprint.sessionDestroyed(new HttpSessionEvent(first));
+
+		assertThat(footprint.getActiveSessions()).isEqualTo(1);
+		assertThat(footprint.getTotalBytes()).isZero();
+		assertThat(footprint.attributeTotals().get("LAST_EMAIL").getCount()).isZero();
+	}
+
+	@Test
+	void shouldCountUnserializableAttributesSeparately() {
+		MockHttpSession session = open();
+		set(session, "handle", new Object());
+
+		assertThat(footprint.getTotalBytes()).isZero();
+		assertThat(footprint.attributeTotals().get("handle").getUnserializable()).isEqualTo(1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void endpointShouldReportPerSessionDistribution() {
+		for (int i = 1; i <= 4; i++) {
+			set(open(), "payload", "x".repeat(i * 100));
+		}
+
+		Map<String, Object> report = new SessionFootprintEndpoint(footprint).footprint();
+
+		assertThat(report).containsEntry("activeSessions", 4).containsEntry("totalBytes", footprint.getTotalBytes());
+		Map<String, Object> perSession = (Map<String, Object>) report.get("sessionBytes");
+		assertThat((long) perSession.get("max")).isEqualTo(SessionFootprint.serializedSize("x".repeat(400)));
+		assertThat((long) perSession.get("p50")).isEqualTo(SessionFootprint.serializedSize("x".repeat(200)));
+	}
+
+	private MockHttpSession open() {
+		MockHttpSession session = new MockHttpSession();
+		footprint.sessionCreated(new HttpSessionEvent(session));
+		return session;
+	}
+
+	private void set(MockHttpSession session, String name, Object value) {
+		Object previous = session.getAttribute(name);
+		session.setAttribute(name, value);
+		if (previous == null) {
+			footprint.attributeAdded(new HttpSessionBindingEvent(session, name, value));
+		}
+		else {
+			footprint.attributeReplaced(new HttpSessionBindingEvent(session, name, previous));
+		}
+	}
+
+	private void remove(MockHttpSession session, String name) {
+		Object previous = session.getAttribute(name);
+		session.removeAttribute(name);
+		footprint.attributeRemoved(new HttpSessionBindingEvent(session, name, previous));
+	}
+
+}
@@ -0,0 +1,91 @@
+package org.springframework.samples.petclinic.system;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.FlashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link SignedCookieCodec} and the flash map encoding used by
+ * {@link SignedCookieFlashMapManager}.
+ */
+class SignedCookieCodecTests {
+
+	private static final String OLD_KEY = "k1:0123456789abcdef0123456789abcdef";
+
+	private static final String NEW_KEY = "k2:fedcba9876543210fedcba9876543210";
+
+	private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+	private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+	@Test
+	void roundTripsValue() {
+		SignedCookieCodec codec = new SignedCookieCodec(List.of(OLD_KEY), clock);
+		String token = codec.encode("ROLE_STUDENT|alex@kirkwood.edu", Duration.ofHours(1));
+		assertThat(codec.decode(token)).contains("ROLE_STUDENT|alex@kirkwood.edu");
+	}
+
+	@Test
+	void rejectsTamperedPayload() {
+		SignedCookieCodec codec = new SignedCookieCodec(List.of(OLD_KEY), clock);
+		String token = codec.encode("ROLE_STUDENT|alex@kirkwood.edu", Duration.ofHours(1));
+		String forged = codec.encode("ROLE_ADMIN|alex@kirkwood.edu", Duration.ofHours(1));
+		String[] original = token.split("\\.");
+		String[] other = forged.split("\\.");
+		assertThat(codec.decode(original[0] + "." + other[1] + "." + original[2])).isEmpty();
+		assertThat(codec.decode("garbage")).isEmpty();
+		assertThat(codec.decode(null)).isEmpty();
+	}
+
+	@Test
+	void rejectsExpiredToken() {
+		String token = new SignedCookieCodec(List.of(OLD_KEY), clock).encode("value", Duration.ofMinutes(5));
+		SignedCookieCodec later = new SignedCookieCodec(List.of(OLD_KEY),
+				Clock.fixed(NOW.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+		assertThat(later.decode(token)).isEmpty();
+	}
+
+	@Test
+	void acceptsOldKeyAfterRotation() {
+		String oldToken = new SignedCookieCodec(List.of(OLD_KEY), clock).encode("value", Duration.ofHours(1));
+		SignedCookieCodec rotated = new SignedCookieCodec(List.of(NEW_KEY, OLD_KEY), clock);
+		assertThat(rotated.decode(oldToken)).contains("value");
+		assertThat(rotated.encode("value", Duration.ofHours(1))).startsWith("k2.");
+
+		SignedCookieCodec retired = new SignedCookieCodec(List.of(NEW_KEY), clock);
+		assertThat(retired.decode(oldToken)).isEmpty();
+	}
+
+	@Test
+	void rejectsShortKeys() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new SignedCookieCodec(List.of("k1:short"), clock));
+	}
+
+	@Test
+	void flashMapsSurviveEncoding() {
+		FlashMap flashMap = new FlashMap();
+		flashMap.setTargetRequestPath("/users/profile");
+		flashMap.addTargetRequestParam("lang", "es");
+		flashMap.put("messageSuccess", "Saved & done = 100%");
+		flashMap.startExpirationPeriod(180);
+
+		List<FlashMap> decoded = SignedCookieFlashMapManager
+			.decodeFlashMaps(SignedCookieFlashMapManager.encodeFlashMaps(List.of(flashMap)));
+
+		assertThat(decoded).hasSize(1);
+		FlashMap result = decoded.get(0);
+		assertThat(result.getTargetRequestPath()).isEqualTo("/users/profile");
+		assertThat(result.getTargetRequestParams().getFirst("lang")).isEqualTo("es");
+		assertThat(result.get("messageSuccess")).isEqualTo("Saved & done = 100%");
+		assertThat(result.getExpirationTime()).isEqualTo(flashMap.getExpirationTime());
+	}
+
+}
@@ -0,0 +1,112 @@
+package org.springframework.samples.petclinic.system;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budgets for the owner, business and vet pages, enforced with {@link QueryBudget},
+ * and the metrics and {@code Server-Timing} header of {@link SqlStatementFilter}. The
+ * businesses come from a small synthetic dataset, as H2 has none seeded.
+ */
+@SpringBootTest(properties = { "petclinic.sql.server-timing=true", "petclinic.dataset.businesses=20" })
+@AutoConfigureMockMvc
+class SqlStatementFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Integer businessId;
+
+	private String businessSlug;
+
+	@BeforeEach
+	void findBusiness() {
+		this.businessId = this.jdbcTemplate.queryForObject("SELECT MIN(id) FROM businesses WHERE deleted_at IS NULL",
+				Integer.class);
+		this.businessSlug = this.jdbcTemplate.queryForObject("SELECT slug FROM businesses WHERE id = ?", String.class,
+				this.businessId);
+	}
+
+	@Test
+	@QueryBudget(value = 2, maxRepeats = 1)
+	void shouldShowOwnerWithinBudget() throws Exception {
+		// The owner with its pets, then the recent visits of both pets in one query
+		mockMvc.perform(get("/owners/{ownerId}", 6))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Server-Timing", matchesPattern("db;dur=\\d+\\.\\d;desc=\"\\d+ statements\"")));
+	}
+
+	@Test
+	@QueryBudget(value = 2, maxRepeats = 1)
+	void shouldListOwnersWithinBudget() throws Exception {
+		mockMvc.perform(get("/owners").param("lastName", "")).andExpect(status().isOk());
+	}
+
+	@Test
+	@QueryBudget(value = 2, maxRepeats = 1)
+	void shouldShowVisitFormWithinBudget() throws Exception {
+		mockMvc.perform(get("/owners/{ownerId}/pets/{petId}/visits/new", 6, 7)).andExpect(status().isOk());
+	}
+
+	@Test
+	@QueryBudget(value = 19, maxRepeats = 10)
+	void shouldListBusinessesWithinBudget() throws Exception {
+		// Pinned at today's counts: the locations and the business type of each of the
+		// ten
+		// businesses on the page are still loaded one business at a time
+		mockMvc.perform(get("/businesses")).andExpect(status().isOk());
+	}
+
+	@Test
+	@QueryBudget(value = 6, maxRepeats = 2)
+	void shouldShowBusinessWithinBudget() throws Exception {
+		mockMvc.perform(get("/businesses/{slug}", this.businessSlug)).andExpect(status().isOk());
+	}
+
+	@Test
+	@QueryBudget(value = 3, maxRepeats = 1)
+	void shouldListBusinessIncentivesWithinBudget() throws Exception {
+		mockMvc.perform(get("/businesses/{businessId}/incentives", this.businessId)).andExpect(status().isOk());
+	}
+
+	@Test
+	@QueryBudget(value = 7, maxRepeats = 6)
+	void shouldListVetsWithinBudget() throws Exception {
+		// Pinned at today's counts: the specialties are loaded one vet at a time when the
+		// vets cache is empty
+		mockMvc.perform(get("/vets")).andExpect(status().isOk());
+	}
+
+	@Test
+	void shouldPublishStatementMetricsPerUri() throws Exception {
+		mockMvc.perform(get("/owners/{ownerId}", 1)).andExpect(status().isOk());
+
+		assertThat(meterRegistry.get("petclinic.sql.statements")
+			.tag("method", "GET")
+			.tag("uri", "/owners/{ownerId}")
+			.summary()
+			.totalAmount()).isPositive();
+		assertThat(meterRegistry.get("petclinic.sql.time").tag("uri", "/owners/{ownerId}").timer().count())
+			.isPositive();
+	}
+
+}
@@ -0,0 +1,31 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link StatelessSessionConfiguration}, which picks the flash map manager
+ * when the bean is created rather than through a build-time condition.
+ */
+class StatelessSessionConfigurationTests {
+
+	private final StatelessSessionConfiguration configuration = new StatelessSessionConfiguration();
+
+	private final SignedCookieCodec codec = new SignedCookieCodec(List.of("k1:0123456789abcdef0123456789abcdef"));
+
+	@Test
+	void keepsFlashAttributesInASignedCookieWhenStateless() {
+		assertThat(this.configuration.flashMapManager(true, this.codec))
+			.isInstanceOf(SignedCookieFlashMapManager.class);
+	}
+
+	@Test
+	void keepsFlashAttributesInTheSessionOtherwise() {
+		assertThat(this.configuration.flashMapManager(false, this.codec)).isInstanceOf(SessionFlashMapManager.class);
+	}
+
+}
@@ -0,0 +1,118 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link StaticAssetConfiguration}, against the assets fingerprinted by the
+ * build.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaticAssetConfigurationTests {
+
+	private static final String IMMUTABLE = "max-age=31536000, public, immutable";
+
+	private static final String TWELVE_HOURS = "max-age=43200";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void shouldLinkFingerprintedAssetsAndVersionedWebjars() throws Exception {
+		String css = "/resources/" + manifest().getProperty("css/petclinic.css");
+
+		mockMvc.perform(get("/owners/find"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("href=\"" + css + "\"")))
+			.andExpect(content().string(matchesPattern(
+					"(?s).*src=\"/webjars/bootstrap/\\d[^/\"]*/dist/js/bootstrap\\.bundle\\.min\\.js\".*")));
+	}
+
+	@Test
+	void shouldServePrecompressedAssetsWithImmutableCaching() throws Exception {
+		String css = "/resources/" + manifest().getProperty("css/petclinic.css");
+
+		mockMvc.perform(get(css).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andExpect(header().string(HttpHeaders.VARY, containsString("Accept-Encoding")))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE));
+	}
+
+	@Test
+	void shouldPointStyleSheetsAtFingerprintedFonts() throws Exception {
+		Properties manifest = manifest();
+		String font = manifest.getProperty("fonts/montserrat-webfont.woff");
+
+		mockMvc.perform(get("/resources/" + manifest.getProperty("css/petclinic.css")))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("url(\"../" + font + "\")")));
+	}
+
+	@Test
+	void shouldServeOriginalNamesWithoutImmutableCaching() throws Exception {
+		mockMvc.perform(get("/resources/css/petclinic.css"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, TWELVE_HOURS));
+	}
+
+	@Test
+	void shouldServeVersionedWebjarsWithImmutableCaching() throws Exception {
+		String page = mockMvc.perform(get("/owners/find")).andReturn().getResponse().getContentAsString();
+		Matcher link = Pattern.compile("/webjars/bootstrap/[^/\"]+/dist/js/bootstrap\\.bundle\\.min\\.js")
+			.matcher(page);
+		assertThat(link.find()).isTrue();
+
+		mockMvc.perform(get(link.group()))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE));
+	}
+
+	@Test
+	void shouldServeVersionlessWebjarsWithoutImmutableCaching() throws Exception {
+		mockMvc.perform(get("/webjars/bootstrap/dist/css/bootstrap.min.css"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, TWELVE_HOURS));
+	}
+
+	@Test
+	void shouldServeAssetsWithoutSessionOrLocaleChange() throws Exception {
+		MvcResult result = mockMvc.perform(get("/resources/images/favicon.png").param("lang", "de"))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE))
+			.andReturn();
+
+		assertThat(result.getRequest().getSession(false)).isNull();
+		assertThat(result.getResponse().getCookies()).isEmpty();
+	}
+
+	private static Properties manifest() throws IOException {
+		Properties manifest = new Properties();
+		try (InputStream in = new ClassPathResource(StaticAssetConfiguration.MANIFEST).getInputStream()) {
+			manifest.load(in);
+		}
+		return manifest;
+	}
+
+}
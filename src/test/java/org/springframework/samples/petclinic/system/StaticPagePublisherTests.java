@@ -0,0 +1,190 @@
+package org.springframework.samples.petclinic.system;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.servlet.http.Cookie;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.i18n.CookieLocaleResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link StaticPagePublisher}.
+ */
+class StaticPagePublisherTests {
+
+	private static final String HTML = "<html><body>Pricing</body></html>";
+
+	@TempDir
+	private Path directory;
+
+	private final CacheVersions cacheVersions = mock(CacheVersions.class);
+
+	private StaticPagePublisher publisher;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		CookieLocaleResolver localeResolver = new CookieLocaleResolver("PREFERRED_LANGUAGE");
+		localeResolver.setDefaultLocale(Locale.ENGLISH);
+		publisher = new StaticPagePublisher(true, List.of("/", "/pricing"), directory.toString(), "", localeResolver,
+				this.cacheVersions, Duration.ZERO);
+		publisher.store("/pricing", HTML.getBytes(StandardCharsets.UTF_8), Locale.ENGLISH);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		publisher.destroy();
+	}
+
+	@Test
+	void shouldServePlainCopyWithStrongValidator() throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(publisher.serve("/pricing", get(), response)).isTrue();
+
+		assertThat(response.getContentAsString()).isEqualTo(HTML);
+		assertThat(response.getContentType()).startsWith("text/html");
+		assertThat(response.getHeader("ETag")).matches("\"[0-9a-f]{32}\"");
+		assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+		assertThat(response.getHeader("Content-Encoding")).isNull();
+	}
+
+	@Test
+	void shouldServeGzipCopyToClientsThatAcceptIt() throws IOException {
+		MockHttpServletRequest request = get();
+		request.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(publisher.serve("/pricing", request, response)).isTrue();
+
+		assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+		assertThat(response.getHeader("ETag")).endsWith("-gzip\"");
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(HTML);
+		}
+	}
+
+	@Test
+	void shouldServePlainCopyToClientsThatRefuseGzip() throws IOException {
+		MockHttpServletRequest request = get();
+		request.addHeader("Accept-Encoding", "gzip;q=0.0, br");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(publisher.serve("/pricing", request, response)).isTrue();
+
+		assertThat(response.getHeader("Content-Encoding")).isNull();
+		assertThat(response.getContentAsString()).isEqualTo(HTML);
+	}
+
+	@Test
+	void shouldAnswerNotModifiedForMatchingEtag() throws IOException {
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		publisher.serve("/pricing", get(), first);
+		MockHttpServletRequest request = get();
+		request.addHeader("If-None-Match", first.getHeader("ETag"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(publisher.serve("/pricing", request, response)).isTrue();
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void shouldHandFileToTomcatSendfileWhenSupported() throws IOException {
+		MockHttpServletRequest request = get();
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(publisher.serve("/pricing", request, response)).isTrue();
+
+		Path file = Path.of((String) request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertThat(file).startsWith(directory).hasContent(HTML);
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) HTML.length());
+		assertThat(response.getContentLengthLong()).isEqualTo(HTML.length());
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void shouldReplaceCopyAndKeepOnlyOneRetiredVersion() throws IOException {
+		publisher.store("/pricing", "v2".getBytes(StandardCharsets.UTF_8), Locale.ENGLISH);
+		publisher.store("/pricing", "v3".getBytes(StandardCharsets.UTF_8), Locale.ENGLISH);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		publisher.serve("/pricing", get(), response);
+
+		assertThat(response.getContentAsString()).isEqualTo("v3");
+		try (var files = Files.list(directory)) {
+			assertThat(files.filter((file) -> file.toString().endsWith(".html"))).hasSize(2);
+		}
+	}
+
+	@Test
+	void shouldRenderPerRequestOnceAnotherReplicaChangedThePage() throws IOException {
+		assertThat(publisher.serve("/pricing", get(), new MockHttpServletResponse())).isTrue();
+
+		given(this.cacheVersions.current("page:/pricing")).willReturn(1L);
+		assertThat(publisher.serve("/pricing", get(), new MockHttpServletResponse())).isFalse();
+		assertThat(publisher.serve("/pricing", get(), new MockHttpServletResponse())).isFalse();
+
+		publisher.store("/pricing", "v2".getBytes(StandardCharsets.UTF_8), Locale.ENGLISH);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		assertThat(publisher.serve("/pricing", get(), response)).isTrue();
+		assertThat(response.getContentAsString()).isEqualTo("v2");
+	}
+
+	@Test
+	void shouldRenderPerRequestWhenVisitorWouldSeeADifferentPage() throws IOException {
+		assertThat(publisher.serve("/", get(), new MockHttpServletResponse())).isFalse();
+
+		MockHttpServletRequest withQuery = get();
+		withQuery.setQueryString("lang=de");
+		assertThat(publisher.serve("/pricing", withQuery, new MockHttpServletResponse())).isFalse();
+
+		MockHttpServletRequest withFlash = get();
+		FlashMap flash = new FlashMap();
+		flash.put("messageSuccess", "Plan saved");
+		withFlash.setAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, flash);
+		assertThat(publisher.serve("/pricing", withFlash, new MockHttpServletResponse())).isFalse();
+
+		MockHttpServletRequest german = get();
+		german.setCookies(new Cookie("PREFERRED_LANGUAGE", "de"));
+		assertThat(publisher.serve("/pricing", german, new MockHttpServletResponse())).isFalse();
+
+		MockHttpServletRequest post = get();
+		post.setMethod("POST");
+		assertThat(publisher.serve("/pricing", post, new MockHttpServletResponse())).isFalse();
+
+		SecurityContextHolder.getContext()
+			.setAuthentication(UsernamePasswordAuthenticationToken.authenticated("alex@kirkwood.edu", null, List.of()));
+		assertThat(publisher.serve("/pricing", get(), new MockHttpServletResponse())).isFalse();
+	}
+
+	private static MockHttpServletRequest get() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/pricing");
+		request.setAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, new FlashMap());
+		return request;
+	}
+
+}
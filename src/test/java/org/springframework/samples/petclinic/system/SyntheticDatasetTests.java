@@ -0,0 +1,139 @@
+package org.springframework.samples.petclinic.system;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.samples.petclinic.system.SyntheticDataset.Size;
+import org.springframework.samples.petclinic.system.SyntheticDataset.Summary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link SyntheticDataset} against in-memory H2 databases created from the
+ * application's own schema and lookup data.
+ */
+class SyntheticDatasetTests {
+
+	private final EmbeddedDatabase first = database();
+
+	private final EmbeddedDatabase second = database();
+
+	@AfterEach
+	void tearDown() {
+		first.shutdown();
+		second.shutdown();
+	}
+
+	@Test
+	void shouldInsertTheRequestedRows() {
+		NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(first);
+
+		Summary summary = generate(first, 42);
+
+		assertThat(summary.businesses()).isEqualTo(200);
+		assertThat(summary.schools()).isEqualTo(5);
+		assertThat(summary.users()).isEqualTo(50);
+		assertThat(count(jdbc, "businesses")).isEqualTo(200);
+		assertThat(count(jdbc, "business_locations")).isEqualTo(summary.businessLocations()).isGreaterThan(200);
+		assertThat(count(jdbc, "incentives")).isEqualTo(summary.incentives());
+		assertThat(count(jdbc, "locations")).isEqualTo(summary.schoolLocations());
+		assertThat(jdbc.queryForObject("""
+				SELECT COUNT(*) FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+				WHERE r.name = 'STUDENT'""", Map.of(), Integer.class)).isEqualTo(50);
+	}
+
+	@Test
+	void shouldFindGeneratedRowsInEveryTableItWrites() {
+		SyntheticDataset dataset = new SyntheticDataset(new NamedParameterJdbcTemplate(first),
+				new DataSourceTransactionManager(first), 50);
+		assertThat(dataset.generatedTables()).isEmpty();
+
+		generate(first, 42);
+
+		assertThat(dataset.generatedTables()).containsExactly("businesses", "business_locations", "addresses",
+				"incentives", "business_incentive_types", "schools", "locations", "users", "user_roles");
+	}
+
+	@Test
+	void shouldGiveEveryBusinessOnePrimaryLocation() {
+		NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(first);
+
+		generate(first, 42);
+
+		assertThat(jdbc.queryForObject("""
+				SELECT COUNT(*) FROM businesses b
+				WHERE (SELECT COUNT(*) FROM business_locations bl
+				       WHERE bl.business_id = b.id AND bl.is_primary) <> 1""", Map.of(), Integer.class)).isZero();
+	}
+
+	@Test
+	void shouldMaterializeLocationPaths() {
+		NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(first);
+
+		generate(first, 42);
+
+		assertThat(jdbc.queryForObject("""
+				SELECT COUNT(*) FROM locations c JOIN locations p ON p.id = c.parent_location_id
+				WHERE c.path <> CONCAT(p.path, p.id, '/') OR c.depth <> p.depth + 1""", Map.of(), Integer.class))
+			.isZero();
+		assertThat(jdbc.queryForObject(
+				"SELECT COUNT(*) FROM locations WHERE parent_location_id IS NULL AND (path <> '/' OR depth <> 0)",
+				Map.of(), Integer.class))
+			.isZero();
+	}
+
+	@Test
+	void shouldGenerateTheSameDatasetFromTheSameSeed() {
+		generate(first, 7);
+		generate(second, 7);
+
+		assertThat(rows(second)).isEqualTo(rows(first));
+	}
+
+	@Test
+	void shouldGenerateADifferentDatasetFromAnotherSeed() {
+		generate(first, 7);
+		generate(second, 8);
+
+		assertThat(rows(second)).isNotEqualTo(rows(first));
+	}
+
+	@Test
+	void shouldRejectNegativeSizes() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new Size(-1, 0, 0));
+	}
+
+	private static Summary generate(EmbeddedDatabase database, long seed) {
+		return new SyntheticDataset(new NamedParameterJdbcTemplate(database),
+				new DataSourceTransactionManager(database), 64)
+			.generate(new Size(200, 5, 50), seed, "{noop}password");
+	}
+
+	private static List<String> rows(EmbeddedDatabase database) {
+		return new NamedParameterJdbcTemplate(database).queryForList("""
+				SELECT CONCAT(b.slug, '|', bl.location_name, '|', a.city, '|', a.zip_code)
+				FROM businesses b JOIN business_locations bl ON bl.business_id = b.id
+				JOIN addresses a ON a.id = bl.address_id ORDER BY bl.id""", Map.of(), String.class);
+	}
+
+	private static int count(NamedParameterJdbcTemplate jdbc, String table) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Map.of(), Integer.class);
+	}
+
+	private static EmbeddedDatabase database() {
+		return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+			.generateUniqueName(true)
+			.addScript("db/h2/schema.sql")
+			.addScript("db/h2/data.sql")
+			.build();
+	}
+
+}
@@ -1,32 +1,38 @@
 package org.springframework.samples.petclinic.user;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
-import org.springframework.samples.petclinic.school.School;
+import org.springframework.context.annotation.Import;
+import org.springframework.samples.petclinic.school.SchoolDomain;
+import org.springframework.samples.petclinic.school.SchoolDomainIndex;
 import org.springframework.samples.petclinic.school.SchoolRepository;
+import org.springframework.samples.petclinic.system.CacheVersions;
+import org.springframework.samples.petclinic.system.SignedCookieCodec;
+import org.springframework.samples.petclinic.system.SignedFlashCookies;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import jakarta.servlet.http.Cookie;
 import java.security.Principal;
+import java.time.Duration;
 import static org.hamcrest.Matchers.containsString;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
-import java.util.Optional;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.TestingAuthenticationToken;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.web.context.SecurityContextRepository;
 
 @WebMvcTest(AuthController.class)
+@Import({ SignedCookieCodec.class, SignedFlashCookies.class, SchoolDomainIndex.class })
 @DisabledInNativeImage
 @DisabledInAotMode
 class AuthControllerTest {
@@ -41,26 +47,30 @@ class AuthControllerTest {
 	private UserService userService;
 
 	@MockitoBean
-	private AuthenticationManager authenticationManager;
+	private SecurityContextRepository securityContextRepository;
 
-	@Test
-	void testProcessRegister_WithSubdomainRedirect() throws Exception {
-		// Mock: School exists for "kirkwood.edu"
-		School kirkwood = new School();
-		kirkwood.setName("Kirkwood");
-		kirkwood.setDomain("kirkwood.edu");
+	@MockitoBean
+	private CacheVersions cacheVersions;
 
-		// Repository only knows "kirkwood.edu"
-		given(schoolRepository.findByDomain("kirkwood.edu")).willReturn(Optional.of(kirkwood));
-		// Repository does NOT know "student.kirkwood.edu"
-		given(schoolRepository.findByDomain("student.kirkwood.edu")).willReturn(Optional.empty());
+	@Autowired
+	private SignedCookieCodec signedCookieCodec;
 
-		given(userService.registerNewStudent(any(User.class))).willReturn(new User());
+	@Autowired
+	private SchoolDomainIndex schoolDomainIndex;
 
-		// MOCK THE LOGIN-When the controller asks to authenticate, return a dummy
-		// "Success" token
-		given(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-			.willReturn(new TestingAuthenticationToken("user", "password", "ROLE_STUDENT"));
+	@BeforeEach
+	void setup() {
+		// The index outlives a single test; reload it from this test's mocks
+		schoolDomainIndex.invalidate();
+	}
+
+	@Test
+	void testProcessRegister_WithSubdomainRedirect() throws Exception {
+		// Mock: Repository only knows "kirkwood.edu", NOT "student.kirkwood.edu"
+		given(schoolRepository.findAllDomains()).willReturn(List.of(new SchoolDomain(1, "Kirkwood", "kirkwood.edu")));
+
+		// The service returns the saved user; auto-login is built from it directly
+		given(userService.registerNewStudent(any(User.class))).willAnswer(invocation -> invocation.getArgument(0));
 
 		// User registers with SUBDOMAIN
 		mockMvc.perform(post("/register-student").with(csrf())
@@ -80,8 +90,10 @@ class AuthControllerTest {
 
 	@Test
 	void testInitLoginFormRemembersFailedEmail() throws Exception {
-		// Simulate a request where the session contains a failed login attempt
-		mockMvc.perform(get("/login").sessionAttr("LAST_EMAIL", "wrong@kirkwood.edu"))
+		// Simulate a request carrying the signed cookie left by a failed login attempt
+		Cookie lastEmail = new Cookie("LAST_EMAIL",
+				signedCookieCodec.encode("wrong@kirkwood.edu", Duration.ofMinutes(5)));
+		mockMvc.perform(get("/login").cookie(lastEmail))
 			.andExpect(status().isOk())
 			.andExpect(model().attributeExists("user"))
 			// Verify the HTML output actually contains the email in the value attribute
@@ -91,11 +103,8 @@ class AuthControllerTest {
 	@Test
 	void testLoginSuccessRedirectsToSchool() throws Exception {
 		// 1. Setup a fake school for the mock repository to return
-		School mockSchool = new School();
-		mockSchool.setName("Kirkwood Community College");
-		mockSchool.setDomain("kirkwood.edu");
-
-		given(schoolRepository.findByDomain(anyString())).willReturn(Optional.of(mockSchool));
+		given(schoolRepository.findAllDomains())
+			.willReturn(List.of(new SchoolDomain(1, "Kirkwood Community College", "kirkwood.edu")));
 
 		// 2. Create a simple fake Principal
 		Principal mockPrincipal = () -> "student@kirkwood.edu";
@@ -109,7 +118,7 @@ class AuthControllerTest {
 
 	@Test
 	void testLoginSuccessRedirectsToSchoolsListIfNotFound() throws Exception {
-		given(schoolRepository.findByDomain(anyString())).willReturn(Optional.empty());
+		given(schoolRepository.findAllDomains()).willReturn(List.of());
 
 		// Create a fake Principal with an unknown domain
 		Principal mockPrincipal = () -> "student@unknown.com";
@@ -0,0 +1,134 @@
+package org.springframework.samples.petclinic.validation;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.patriot.PatriotUser;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FormRules} and the constraints built on it. Each rule is checked
+ * against the regular expression it replaced, on hand-picked edge cases and on random
+ * strings drawn from the characters the expression cares about.
+ */
+class FormRulesTests {
+
+	private static final Pattern PASSWORD = Pattern.compile("^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z]).{8,}$");
+
+	private static final Pattern ZIP = Pattern.compile("^\\d{5}(-\\d{4})?$");
+
+	private static final Pattern NORTH_AMERICAN_PHONE = Pattern
+		.compile("^(?:\\+\\d{1,3}\\s?)?\\(?\\d{3}\\)?[\\s.-]?\\d{3}[\\s.-]?\\d{4}$");
+
+	private static final Pattern DIALABLE = Pattern.compile("^\\+?[0-9\\-\\s]*$");
+
+	private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
+	@Test
+	void shouldAcceptAndRejectTypicalValues() {
+		assertThat(FormRules.isStrongPassword("Passw0rd")).isTrue();
+		assertThat(FormRules.isStrongPassword("password1")).isFalse();
+		assertThat(FormRules.isStrongPassword("Pass\n0rdXyz")).isFalse();
+		assertThat(FormRules.isZipCode("52401-1234")).isTrue();
+		assertThat(FormRules.isZipCode("5240")).isFalse();
+		assertThat(FormRules.isNorthAmericanPhone("+1 (319) 555-0100")).isTrue();
+		assertThat(FormRules.isNorthAmericanPhone("319.555.0100")).isTrue();
+		assertThat(FormRules.isNorthAmericanPhone("+1234 319 555 0100")).isFalse();
+		assertThat(FormRules.isDialable("+1 319-555-0100")).isTrue();
+		assertThat(FormRules.isDialable("(319) 555-0100")).isFalse();
+		assertThat(FormRules.isEmail("first.last+tag@kirkwood.edu")).isTrue();
+		assertThat(FormRules.isEmail("first@kirk_wood.edu")).isFalse();
+		assertThat(FormRules.isDigits("3195550100", 10)).isTrue();
+	}
+
+	@Test
+	void shouldFormatTenDigitPhoneNumbersLikeTheRegularExpression() {
+		for (String phone : new String[] { "3199999999", "319999999", "31999999990", "319-999-99", "(319) 999-9999",
+				"" }) {
+			assertThat(FormRules.formatPhone(phone)).isEqualTo(
+					(phone.length() == 10) ? phone.replaceFirst("(\\d{3})(\\d{3})(\\d{4})", "($1) $2-$3") : phone);
+		}
+		assertThat(FormRules.formatPhone("3199999999")).isEqualTo("(319) 999-9999");
+		assertThat(FormRules.formatPhone(null)).isNull();
+	}
+
+	@Test
+	void shouldStripNonDigitsWithoutCopyingDigitOnlyValues() {
+		String digits = "3195550100";
+		assertThat(FormRules.digitsOnly(digits)).isSameAs(digits);
+		assertThat(FormRules.digitsOnly("+1 (319) 555-0100")).isEqualTo("13195550100");
+		assertThat(FormRules.digitsOnly("n/a")).isEmpty();
+	}
+
+	@Test
+	void shouldMatchTheRegularExpressionsTheyReplace() {
+		Random random = new Random(42);
+		for (int i = 0; i < 20_000; i++) {
+			assertSame(PASSWORD, FormRules::isStrongPassword, random(random, "aZ9 !\n 😀", 12));
+			assertSame(ZIP, FormRules::isZipCode, random(random, "0123456789-a", 11));
+			assertSame(NORTH_AMERICAN_PHONE, FormRules::isNorthAmericanPhone, random(random, "0123456789+() .-", 18));
+			assertSame(DIALABLE, FormRules::isDialable, random(random, "0123+-\t x", 8));
+			assertSame(EMAIL, FormRules::isEmail, random(random, "aZ9+_.-@@!", 8));
+		}
+	}
+
+	@Test
+	void shouldBackBeanValidationConstraints() {
+		Validator validator = validator();
+
+		PatriotUser user = new PatriotUser();
+		user.setFirstName("Pat");
+		user.setLastName("Riot");
+		user.setEmail("pat@example.com");
+		user.setPassword("Passw0rd");
+		user.setPhone("+1 319-555-0100");
+		user.setZipCode("");
+		assertThat(validator.validate(user)).isEmpty();
+
+		user.setPassword("password1");
+		user.setPhone("(319) 555-0100");
+		user.setZipCode("5240");
+		assertThat(validator.validate(user)).extracting(violation -> violation.getPropertyPath().toString())
+			.containsExactlyInAnyOrder("password", "phone", "zipCode");
+
+		Owner owner = new Owner();
+		owner.setFirstName("George");
+		owner.setLastName("Franklin");
+		owner.setAddress("110 W. Liberty St.");
+		owner.setCity("Madison");
+		owner.setTelephone("608555102");
+		Set<ConstraintViolation<Owner>> violations = validator.validate(owner);
+		assertThat(violations).extracting(violation -> violation.getPropertyPath().toString())
+			.containsExactly("telephone");
+	}
+
+	private static void assertSame(Pattern pattern, Predicate<String> rule, String value) {
+		assertThat(rule.test(value)).as("%s on \"%s\"", pattern, value).isEqualTo(pattern.matcher(value).matches());
+	}
+
+	private static String random(Random random, String alphabet, int maxLength) {
+		int[] codePoints = alphabet.codePoints().toArray();
+		StringBuilder value = new StringBuilder();
+		int length = random.nextInt(maxLength + 1);
+		for (int i = 0; i < length; i++) {
+			value.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+		}
+		return value.toString();
+	}
+
+	private static Validator validator() {
+		LocalValidatorFactoryBean factory = new LocalValidatorFactoryBean();
+		factory.afterPropertiesSet();
+		return factory.getValidator();
+	}
+
+}